@@ -51,10 +51,20 @@ public class PropertyKeyConst {
     
     public static final String ENCODE = "encode";
     
+    public static final String RPC_CLIENT_SHARED = "rpcClientShared";
+    
+    public static final String RPC_CLIENT_HEDGE_RATIO = "rpcClientHedgeRatio";
+    
     public static final String CONFIG_LONG_POLL_TIMEOUT = "configLongPollTimeout";
     
     public static final String CONFIG_RETRY_TIME = "configRetryTime";
     
+    public static final String CONFIG_LISTENER_NOTIFY_THREAD_COUNT = "configListenerNotifyThreadCount";
+    
+    public static final String CONFIG_LISTENER_NOTIFY_TIMEOUT = "configListenerNotifyTimeout";
+    
+    public static final String CONFIG_PUSH_CONTENT = "configPushContent";
+    
     public static final String MAX_RETRY = "maxRetry";
     
     public static final String ENABLE_REMOTE_SYNC_CONFIG = "enableRemoteSyncConfig";
@@ -63,11 +73,15 @@ public class PropertyKeyConst {
     
     public static final String NAMING_CLIENT_BEAT_THREAD_COUNT = "namingClientBeatThreadCount";
     
+    public static final String NAMING_CLIENT_BEAT_BATCH_ENABLED = "namingClientBeatBatchEnabled";
+    
     public static final String NAMING_POLLING_THREAD_COUNT = "namingPollingThreadCount";
 
     public static final String NAMING_REQUEST_DOMAIN_RETRY_COUNT = "namingRequestDomainMaxRetryCount";
     
     public static final String NAMING_PUSH_EMPTY_PROTECTION = "namingPushEmptyProtection";
+    
+    public static final String NAMING_PUSH_ONLY = "namingPushOnly";
 
     /**
      * Get the key value of some variable value from the system property.
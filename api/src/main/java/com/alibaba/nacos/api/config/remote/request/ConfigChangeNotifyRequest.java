@@ -24,6 +24,49 @@ package com.alibaba.nacos.api.config.remote.request;
  */
 public class ConfigChangeNotifyRequest extends ConfigReSyncRequest {
     
+    /**
+     * content of the config, only set for small configs pushed to the connections which accept it.
+     */
+    private String content;
+    
+    private String contentType;
+    
+    private String md5;
+    
+    private long lastModified;
+    
+    public String getContent() {
+        return content;
+    }
+    
+    public void setContent(String content) {
+        this.content = content;
+    }
+    
+    public String getContentType() {
+        return contentType;
+    }
+    
+    public void setContentType(String contentType) {
+        this.contentType = contentType;
+    }
+    
+    public String getMd5() {
+        return md5;
+    }
+    
+    public void setMd5(String md5) {
+        this.md5 = md5;
+    }
+    
+    public long getLastModified() {
+        return lastModified;
+    }
+    
+    public void setLastModified(long lastModified) {
+        this.lastModified = lastModified;
+    }
+    
     /**
      * build success response.
      *
@@ -0,0 +1,145 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.nacos.api.config.remote.request.cluster;
+
+import com.alibaba.nacos.api.config.remote.request.AbstractConfigRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * config change sync request of a batch of configs on clusters.
+ *
+ * @author Nacos
+ */
+public class ConfigChangeClusterBatchSyncRequest extends AbstractConfigRequest {
+    
+    private List<SyncItem> items = new ArrayList<SyncItem>();
+    
+    /**
+     * add a changed config.
+     *
+     * @param dataId       dataId.
+     * @param group        group.
+     * @param tenant       tenant.
+     * @param tag          tag.
+     * @param lastModified last modified time.
+     * @param isBeta       is beta or not.
+     */
+    public void addItem(String dataId, String group, String tenant, String tag, long lastModified, boolean isBeta) {
+        SyncItem item = new SyncItem();
+        item.dataId = dataId;
+        item.group = group;
+        item.tenant = tenant;
+        item.tag = tag;
+        item.lastModified = lastModified;
+        item.isBeta = isBeta;
+        items.add(item);
+    }
+    
+    /**
+     * Getter method for property <tt>items</tt>.
+     *
+     * @return property value of items
+     */
+    public List<SyncItem> getItems() {
+        return items;
+    }
+    
+    /**
+     * Setter method for property <tt>items</tt>.
+     *
+     * @param items value to be assigned to property items
+     */
+    public void setItems(List<SyncItem> items) {
+        this.items = items;
+    }
+    
+    public static class SyncItem {
+        
+        String dataId;
+        
+        String group;
+        
+        String tenant;
+        
+        String tag;
+        
+        long lastModified;
+        
+        boolean isBeta;
+        
+        public SyncItem() {
+        
+        }
+        
+        public String getDataId() {
+            return dataId;
+        }
+        
+        public void setDataId(String dataId) {
+            this.dataId = dataId;
+        }
+        
+        public String getGroup() {
+            return group;
+        }
+        
+        public void setGroup(String group) {
+            this.group = group;
+        }
+        
+        public String getTenant() {
+            return tenant;
+        }
+        
+        public void setTenant(String tenant) {
+            this.tenant = tenant;
+        }
+        
+        public String getTag() {
+            return tag;
+        }
+        
+        public void setTag(String tag) {
+            this.tag = tag;
+        }
+        
+        public long getLastModified() {
+            return lastModified;
+        }
+        
+        public void setLastModified(long lastModified) {
+            this.lastModified = lastModified;
+        }
+        
+        public boolean isBeta() {
+            return isBeta;
+        }
+        
+        public void setBeta(boolean beta) {
+            isBeta = beta;
+        }
+        
+        @Override
+        public String toString() {
+            return "SyncItem{" + "dataId='" + dataId + '\'' + ", group='" + group + '\'' + ", tenant='" + tenant + '\''
+                    + ", tag='" + tag + '\'' + ", lastModified=" + lastModified + ", isBeta=" + isBeta + '}';
+        }
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.api.naming.remote.request;
+
+import java.util.Map;
+
+/**
+ * Nacos naming request to check whether the services subscribed by client are changed.
+ *
+ * <p>Checksums are calculated by {@link com.alibaba.nacos.api.naming.utils.NamingUtils#getInstancesChecksum}, the key
+ * is the key of service info, {@code groupName@@serviceName@@clusters}.
+ *
+ * @author Nacos
+ */
+public class ServiceChecksumRequest extends AbstractNamingRequest {
+    
+    private Map<String, String> checksums;
+    
+    public ServiceChecksumRequest() {
+    }
+    
+    public ServiceChecksumRequest(String namespace, Map<String, String> checksums) {
+        super(namespace, null, null);
+        this.checksums = checksums;
+    }
+    
+    public Map<String, String> getChecksums() {
+        return checksums;
+    }
+    
+    public void setChecksums(Map<String, String> checksums) {
+        this.checksums = checksums;
+    }
+}
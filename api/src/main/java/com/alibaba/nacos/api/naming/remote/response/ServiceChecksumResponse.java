@@ -0,0 +1,63 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.api.naming.remote.response;
+
+import com.alibaba.nacos.api.remote.response.Response;
+import com.alibaba.nacos.api.remote.response.ResponseCode;
+
+import java.util.List;
+
+/**
+ * Response of service checksum request, contains the keys of services whose checksum is different from server.
+ *
+ * @author Nacos
+ */
+public class ServiceChecksumResponse extends Response {
+    
+    private List<String> changedServiceKeys;
+    
+    public ServiceChecksumResponse() {
+    }
+    
+    private ServiceChecksumResponse(List<String> changedServiceKeys) {
+        this.changedServiceKeys = changedServiceKeys;
+    }
+    
+    public static ServiceChecksumResponse buildSuccessResponse(List<String> changedServiceKeys) {
+        return new ServiceChecksumResponse(changedServiceKeys);
+    }
+    
+    /**
+     * Build fail response.
+     *
+     * @param message error message
+     * @return fail response
+     */
+    public static ServiceChecksumResponse buildFailResponse(String message) {
+        ServiceChecksumResponse result = new ServiceChecksumResponse();
+        result.setErrorInfo(ResponseCode.FAIL.getCode(), message);
+        return result;
+    }
+    
+    public List<String> getChangedServiceKeys() {
+        return changedServiceKeys;
+    }
+    
+    public void setChangedServiceKeys(List<String> changedServiceKeys) {
+        this.changedServiceKeys = changedServiceKeys;
+    }
+}
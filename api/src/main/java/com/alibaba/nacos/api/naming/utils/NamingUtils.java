@@ -21,6 +21,13 @@ import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.naming.pojo.Instance;
 import com.alibaba.nacos.api.utils.StringUtils;
 
+import java.math.BigInteger;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeMap;
+
 /**
  * NamingUtils.
  *
@@ -124,4 +131,41 @@ public class NamingUtils {
                     "Instance 'heart beat interval' must less than 'heart beat timeout' and 'ip delete timeout'.");
         }
     }
+    
+    /**
+     * Calculate the checksum of instances, the order of instances does not change the checksum.
+     *
+     * <p>Client and server use this checksum to find out whether the instances cached by client are the latest.
+     * Disabled instances are not counted, they are returned by subscription and push but not by query.
+     *
+     * @param instances instances
+     * @return checksum
+     */
+    public static String getInstancesChecksum(List<Instance> instances) {
+        List<String> items = new ArrayList<String>(instances.size());
+        for (Instance each : instances) {
+            if (!each.isEnabled()) {
+                continue;
+            }
+            StringBuilder item = new StringBuilder();
+            item.append(each.getIp()).append(':').append(each.getPort()).append(':').append(each.getClusterName())
+                    .append(':').append(each.getWeight()).append(':').append(each.isHealthy()).append(':')
+                    .append(each.isEnabled()).append(':').append(each.isEphemeral()).append(':');
+            if (each.getMetadata() != null) {
+                item.append(new TreeMap<String, String>(each.getMetadata()));
+            }
+            items.add(item.toString());
+        }
+        Collections.sort(items);
+        try {
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            for (String each : items) {
+                md5.update(each.getBytes("UTF-8"));
+                md5.update((byte) '\n');
+            }
+            return new BigInteger(1, md5.digest()).toString(16);
+        } catch (Exception e) {
+            throw new IllegalStateException("calculate checksum of instances failed", e);
+        }
+    }
 }
@@ -38,4 +38,19 @@ public class RemoteConstants {
     public static final String LABEL_MODULE_CONFIG = "config";
     
     public static final String LABEL_MODULE_NAMING = "naming";
+    
+    /**
+     * connection shared by config and naming of one client.
+     */
+    public static final String LABEL_MODULE_SHARED = "shared";
+    
+    /**
+     * label of the connections which accept the content of small configs in the config change push.
+     */
+    public static final String LABEL_CONFIG_PUSH_CONTENT = "configPushContent";
+    
+    /**
+     * label of the connections which are only used to send hedged requests, servers don't register them as clients.
+     */
+    public static final String LABEL_HEDGE = "hedge";
 }
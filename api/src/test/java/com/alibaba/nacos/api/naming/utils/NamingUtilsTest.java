@@ -16,10 +16,14 @@
 
 package com.alibaba.nacos.api.naming.utils;
 
+import com.alibaba.nacos.api.naming.pojo.Instance;
 import com.alibaba.nacos.api.utils.StringUtils;
 import org.junit.Test;
 
+import java.util.Arrays;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 
 public class NamingUtilsTest {
     
@@ -34,4 +38,32 @@ public class NamingUtilsTest {
         String groupNameAndServiceName = NamingUtils.getGroupedNameOptional("serviceA", "groupA");
         assertEquals(groupNameAndServiceName, "groupA@@serviceA");
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testGetInstancesChecksum() {
+        Instance instance1 = buildInstance("1.1.1.1");
+        Instance instance2 = buildInstance("2.2.2.2");
+        String checksum = NamingUtils.getInstancesChecksum(Arrays.asList(instance1, instance2));
+        assertEquals(checksum, NamingUtils.getInstancesChecksum(Arrays.asList(instance2, instance1)));
+        
+        Instance changed = buildInstance("2.2.2.2");
+        changed.setHealthy(false);
+        assertNotEquals(checksum, NamingUtils.getInstancesChecksum(Arrays.asList(instance1, changed)));
+        changed = buildInstance("2.2.2.2");
+        changed.addMetadata("k", "v2");
+        assertNotEquals(checksum, NamingUtils.getInstancesChecksum(Arrays.asList(instance1, changed)));
+        
+        Instance disabled = buildInstance("3.3.3.3");
+        disabled.setEnabled(false);
+        assertEquals(checksum, NamingUtils.getInstancesChecksum(Arrays.asList(instance1, instance2, disabled)));
+    }
+    
+    private Instance buildInstance(String ip) {
+        Instance instance = new Instance();
+        instance.setIp(ip);
+        instance.setPort(8080);
+        instance.setClusterName("DEFAULT");
+        instance.addMetadata("k", "v");
+        return instance;
+    }
+}
@@ -24,9 +24,11 @@ import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.client.config.filter.impl.ConfigFilterChainManager;
 import com.alibaba.nacos.client.config.filter.impl.ConfigResponse;
 import com.alibaba.nacos.client.config.listener.impl.AbstractConfigChangeListener;
+import com.alibaba.nacos.client.monitor.MetricsMonitor;
 import com.alibaba.nacos.client.utils.LogUtils;
 import com.alibaba.nacos.client.utils.TenantUtil;
 import com.alibaba.nacos.common.utils.MD5Utils;
+import io.prometheus.client.Histogram;
 import org.slf4j.Logger;
 
 import java.util.ArrayList;
@@ -106,6 +108,9 @@ public class CacheData {
         ManagerListenerWrap wrap =
                 (listener instanceof AbstractConfigChangeListener) ? new ManagerListenerWrap(listener, md5, content)
                         : new ManagerListenerWrap(listener, md5);
+        if (null != listenerDispatcher) {
+            wrap.notifySlot = listenerDispatcher.newSlot(dataId, group, listener);
+        }
         
         if (listeners.addIfAbsent(wrap)) {
             LOGGER.info("[{}] [add-listener] ok, tenant={}, dataId={}, group={}, cnt={}", name, tenant, dataId, group,
@@ -220,6 +225,7 @@ public class CacheData {
         Runnable job = new Runnable() {
             @Override
             public void run() {
+                Histogram.Timer timer = MetricsMonitor.getConfigListenerNotifyMonitor().startTimer();
                 ClassLoader myClassLoader = Thread.currentThread().getContextClassLoader();
                 ClassLoader appClassLoader = listener.getClass().getClassLoader();
                 try {
@@ -259,10 +265,16 @@ public class CacheData {
                             group, md5, listener, t.getCause());
                 } finally {
                     Thread.currentThread().setContextClassLoader(myClassLoader);
+                    timer.observeDuration();
                 }
             }
         };
         
+        if (null != listenerWrap.notifySlot) {
+            listenerWrap.notifySlot.submit(md5, job);
+            return;
+        }
+        
         final long startNotify = System.currentTimeMillis();
         try {
             if (null != listener.getExecutor()) {
@@ -304,11 +316,17 @@ public class CacheData {
     }
     
     public CacheData(ConfigFilterChainManager configFilterChainManager, String name, String dataId, String group) {
+        this(configFilterChainManager, null, name, dataId, group);
+    }
+    
+    public CacheData(ConfigFilterChainManager configFilterChainManager, ConfigListenerDispatcher listenerDispatcher,
+            String name, String dataId, String group) {
         if (null == dataId || null == group) {
             throw new IllegalArgumentException("dataId=" + dataId + ", group=" + group);
         }
         this.name = name;
         this.configFilterChainManager = configFilterChainManager;
+        this.listenerDispatcher = listenerDispatcher;
         this.dataId = dataId;
         this.group = group;
         this.tenant = TenantUtil.getUserTenantForAcm();
@@ -320,11 +338,17 @@ public class CacheData {
     
     public CacheData(ConfigFilterChainManager configFilterChainManager, String name, String dataId, String group,
             String tenant) {
+        this(configFilterChainManager, null, name, dataId, group, tenant);
+    }
+    
+    public CacheData(ConfigFilterChainManager configFilterChainManager, ConfigListenerDispatcher listenerDispatcher,
+            String name, String dataId, String group, String tenant) {
         if (null == dataId || null == group) {
             throw new IllegalArgumentException("dataId=" + dataId + ", group=" + group);
         }
         this.name = name;
         this.configFilterChainManager = configFilterChainManager;
+        this.listenerDispatcher = listenerDispatcher;
         this.dataId = dataId;
         this.group = group;
         this.tenant = tenant;
@@ -340,6 +364,11 @@ public class CacheData {
     
     private final ConfigFilterChainManager configFilterChainManager;
     
+    /**
+     * Dispatcher of listener notifications, listeners are notified in the caller thread if null.
+     */
+    private final ConfigListenerDispatcher listenerDispatcher;
+    
     public final String dataId;
     
     public final String group;
@@ -379,9 +408,11 @@ public class CacheData {
         
         final Listener listener;
         
-        String lastCallMd5 = CacheData.getMd5String(null);
+        volatile String lastCallMd5 = CacheData.getMd5String(null);
+        
+        volatile String lastContent = null;
         
-        String lastContent = null;
+        ConfigListenerDispatcher.NotifySlot notifySlot;
         
         ManagerListenerWrap(Listener listener) {
             this.listener = listener;
@@ -45,7 +45,9 @@ import com.alibaba.nacos.common.remote.ConnectionType;
 import com.alibaba.nacos.common.remote.client.ConnectionEventListener;
 import com.alibaba.nacos.common.remote.client.RpcClient;
 import com.alibaba.nacos.common.remote.client.RpcClientFactory;
+import com.alibaba.nacos.common.remote.client.RpcClientLease;
 import com.alibaba.nacos.common.remote.client.ServerListFactory;
+import com.alibaba.nacos.common.remote.client.ServerRequestHandler;
 import com.alibaba.nacos.common.utils.ConvertUtils;
 import com.alibaba.nacos.common.utils.JacksonUtils;
 import com.alibaba.nacos.common.utils.MD5Utils;
@@ -54,6 +56,7 @@ import com.alibaba.nacos.common.utils.ThreadUtils;
 import com.alibaba.nacos.common.utils.VersionUtils;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import io.prometheus.client.Histogram;
 import org.slf4j.Logger;
 
 import java.io.File;
@@ -92,6 +95,11 @@ public class ClientWorker implements Closeable {
 
     private static final Logger LOGGER = LogUtils.logger(ClientWorker.class);
 
+    /**
+     * Interval of checking all failover files, as the safety net of {@link LocalConfigFailoverWatcher}.
+     */
+    private static final long FAILOVER_FULL_CHECK_INTERVAL = TimeUnit.MINUTES.toMillis(5);
+
     /**
      * Add listeners for data.
      *
@@ -273,7 +281,7 @@ public class ClientWorker implements Closeable {
         }
 
         String key = GroupKey.getKey(dataId, group);
-        cache = new CacheData(configFilterChainManager, agent.getName(), dataId, group);
+        cache = new CacheData(configFilterChainManager, listenerDispatcher, agent.getName(), dataId, group);
 
         synchronized (cacheMap) {
             CacheData cacheFromMap = getCache(dataId, group);
@@ -324,7 +332,8 @@ public class ClientWorker implements Closeable {
                 // reset so that server not hang this check
                 cache.setInitializing(true);
             } else {
-                cache = new CacheData(configFilterChainManager, agent.getName(), dataId, group, tenant);
+                cache = new CacheData(configFilterChainManager, listenerDispatcher, agent.getName(), dataId, group,
+                        tenant);
                 int taskId = cacheMap.get().size() / (int) ParamUtil.getPerTaskConfigSize();
                 cache.setTaskId(taskId);
                 // fix issue # 1317
@@ -421,6 +430,7 @@ public class ClientWorker implements Closeable {
 
         if (ParamUtils.useHttpSwitch()) {
             agent = new ConfigHttpTransportClient(properties, serverListManager);
+            failoverWatcher = new LocalConfigFailoverWatcher(agent.getName());
         } else {
             agent = new ConfigRpcTransportClient(properties, serverListManager);
         }
@@ -436,6 +446,7 @@ public class ClientWorker implements Closeable {
                     }
                 });
         agent.setExecutor(executorService);
+        listenerDispatcher = new ConfigListenerDispatcher(agent.getName(), properties);
         agent.start();
 
     }
@@ -514,6 +525,11 @@ public class ClientWorker implements Closeable {
         String className = this.getClass().getName();
         LOGGER.info("{} do shutdown begin", className);
         ThreadUtils.shutdownThreadPool(agent.executor, LOGGER);
+        agent.shutdown();
+        listenerDispatcher.shutdown();
+        if (failoverWatcher != null) {
+            failoverWatcher.shutdown();
+        }
         LOGGER.info("{} do shutdown stop", className);
     }
 
@@ -545,6 +561,44 @@ public class ClientWorker implements Closeable {
 
     private boolean enableRemoteSyncConfig = false;
 
+    /**
+     * Watcher of failover files, only used by http long polling.
+     */
+    private LocalConfigFailoverWatcher failoverWatcher;
+
+    private ConfigListenerDispatcher listenerDispatcher;
+
+    /**
+     * Apply the content pushed with the change notification to the cache data, so that the next listen finds the md5
+     * up to date and notifies the listeners without querying the config. Nothing is applied if there is no content in
+     * the notification or the content doesn't match its md5, then the config is queried as before.
+     *
+     * @param envName       name of the agent
+     * @param cacheData     cache data of the changed config
+     * @param notifyRequest change notification
+     * @return {@code true} if the pushed content is applied
+     */
+    static boolean applyPushedContent(String envName, CacheData cacheData, ConfigChangeNotifyRequest notifyRequest) {
+        if (null == notifyRequest.getMd5() || cacheData.isUseLocalConfigInfo()) {
+            return false;
+        }
+        String content = notifyRequest.getContent();
+        if (!notifyRequest.getMd5().equals(CacheData.getMd5String(content))) {
+            LOGGER.warn("[{}] [server-push] content md5 mismatch, query it instead. dataId={}, group={}", envName,
+                    notifyRequest.getDataId(), notifyRequest.getGroup());
+            return false;
+        }
+        LocalConfigInfoProcessor.saveSnapshot(envName, cacheData.dataId, cacheData.group, cacheData.tenant, content);
+        cacheData.setContent(content);
+        cacheData.setType(StringUtils.isNotBlank(notifyRequest.getContentType()) ? notifyRequest.getContentType()
+                : ConfigType.TEXT.getType());
+        cacheData.setLastModifiedTs(notifyRequest.getLastModified());
+        LOGGER.info("[{}] [data-received] pushed, dataId={}, group={}, tenant={}, md5={}, content={}", envName,
+                cacheData.dataId, cacheData.group, cacheData.tenant, cacheData.getMd5(),
+                ContentUtils.truncateContent(content));
+        return true;
+    }
+
     public class ConfigRpcTransportClient extends ConfigTransportClient {
 
         private final BlockingQueue<Object> listenExecutebell = new ArrayBlockingQueue<Object>(1);
@@ -553,8 +607,28 @@ public class ClientWorker implements Closeable {
 
         private Map<String, RpcClient> rpcClientMap = new HashMap<String, RpcClient>();
 
+        private final boolean rpcClientShared;
+
+        private final double hedgeRatio;
+
+        /**
+         * Whether to accept the content of small configs in the config change push.
+         */
+        private final boolean pushContent;
+
+        /**
+         * Lease of the rpc client shared with naming, all tasks use it if not null.
+         */
+        private RpcClientLease sharedClientLease;
+
         public ConfigRpcTransportClient(Properties properties, ServerListManager serverListManager) {
             super(properties, serverListManager);
+            this.rpcClientShared = serverListManager.isFixed && ConvertUtils
+                    .toBoolean(properties.getProperty(PropertyKeyConst.RPC_CLIENT_SHARED), false);
+            this.hedgeRatio = ConvertUtils
+                    .toDouble(properties.getProperty(PropertyKeyConst.RPC_CLIENT_HEDGE_RATIO), 0D);
+            this.pushContent = ConvertUtils
+                    .toBoolean(properties.getProperty(PropertyKeyConst.CONFIG_PUSH_CONTENT), false);
         }
 
         private ConnectionType getConnectionType() {
@@ -575,6 +649,9 @@ public class ClientWorker implements Closeable {
             labels.put(RemoteConstants.LABEL_SOURCE, RemoteConstants.LABEL_SOURCE_SDK);
             labels.put(RemoteConstants.LABEL_MODULE, RemoteConstants.LABEL_MODULE_CONFIG);
             labels.put(Constants.APPNAME, AppNameUtils.getAppName());
+            if (pushContent) {
+                labels.put(RemoteConstants.LABEL_CONFIG_PUSH_CONTENT, Boolean.TRUE.toString());
+            }
 
             return labels;
         }
@@ -583,7 +660,7 @@ public class ClientWorker implements Closeable {
             /*
              * Register Config Change /Config ReSync Handler
              */
-            rpcClientInner.registerServerRequestHandler((request, requestMeta) -> {
+            registerServerRequestHandler(rpcClientInner, (request, requestMeta) -> {
                 if (request instanceof ConfigChangeNotifyRequest || request instanceof ConfigReSyncRequest) {
                     ConfigReSyncRequest configReSyncRequest = (ConfigReSyncRequest) request;
                     LOGGER.info("[{}] [server-push] config {}. dataId={}, group={}", rpcClientInner.getName(),
@@ -595,6 +672,9 @@ public class ClientWorker implements Closeable {
 
                     CacheData cacheData = cacheMap.get().get(groupKey);
                     if (cacheData != null) {
+                        if (request instanceof ConfigChangeNotifyRequest) {
+                            applyPushedContent(getName(), cacheData, (ConfigChangeNotifyRequest) request);
+                        }
                         cacheData.setSync(false);
                         notifyListenConfig();
                     }
@@ -604,7 +684,7 @@ public class ClientWorker implements Closeable {
                 return null;
             });
 
-            rpcClientInner.registerServerRequestHandler((request, requestMeta) -> {
+            registerServerRequestHandler(rpcClientInner, (request, requestMeta) -> {
                 if (request instanceof ClientConfigMetricRequest) {
                     ClientConfigMetricResponse response = new ClientConfigMetricResponse();
                     response.setMetrics(getMetrics(((ClientConfigMetricRequest) request).getMetricsKeys()));
@@ -613,7 +693,7 @@ public class ClientWorker implements Closeable {
                 return null;
             });
 
-            rpcClientInner.registerConnectionListener(new ConnectionEventListener() {
+            registerConnectionListener(rpcClientInner, new ConnectionEventListener() {
 
                 @Override
                 public void onConnected() {
@@ -640,7 +720,11 @@ public class ClientWorker implements Closeable {
 
             });
 
-            rpcClientInner.init(new ServerListFactory() {
+            rpcClientInner.init(newServerListFactory());
+        }
+
+        private ServerListFactory newServerListFactory() {
+            return new ServerListFactory() {
                 @Override
                 public String genNextServer() {
                     return ConfigRpcTransportClient.super.serverListManager.getNextServerAddr();
@@ -658,18 +742,71 @@ public class ClientWorker implements Closeable {
                     return ConfigRpcTransportClient.super.serverListManager.serverUrls;
 
                 }
-            });
+
+                @Override
+                public void switchToServer(String server) {
+                    ConfigRpcTransportClient.super.serverListManager.updateCurrentServerAddr(server);
+                }
+            };
+        }
+
+        private void registerServerRequestHandler(RpcClient rpcClientInner, ServerRequestHandler handler) {
+            if (null != sharedClientLease && sharedClientLease.getRpcClient() == rpcClientInner) {
+                sharedClientLease.registerServerRequestHandler(handler);
+            } else {
+                rpcClientInner.registerServerRequestHandler(handler);
+            }
+        }
+
+        private void registerConnectionListener(RpcClient rpcClientInner, ConnectionEventListener listener) {
+            if (null != sharedClientLease && sharedClientLease.getRpcClient() == rpcClientInner) {
+                sharedClientLease.registerConnectionListener(listener);
+            } else {
+                rpcClientInner.registerConnectionListener(listener);
+            }
+        }
+
+        private synchronized void acquireSharedClient() throws NacosException {
+            Map<String, String> labels = getLabels();
+            labels.put(RemoteConstants.LABEL_MODULE, RemoteConstants.LABEL_MODULE_SHARED);
+            RpcClientLease lease = RpcClientFactory
+                    .acquireSharedClient(RemoteConstants.LABEL_MODULE_CONFIG, getConnectionType(), labels,
+                            newServerListFactory());
+            if (null == lease) {
+                LOGGER.info("[{}] shared rpc client is used by another config client or has different labels, "
+                        + "create new ones", getName());
+                return;
+            }
+            sharedClientLease = lease;
+            initRpcClientHandler(lease.getRpcClient());
+            lease.getRpcClient().setHedgeRatio(hedgeRatio);
+            lease.getRpcClient().start();
+        }
+
+        @Override
+        public synchronized void shutdown() throws NacosException {
+            if (null != sharedClientLease) {
+                sharedClientLease.shutdown();
+            }
         }
 
         @Override
         public void startInternal() throws NacosException {
+            if (rpcClientShared) {
+                acquireSharedClient();
+            }
             executor.schedule(new Runnable() {
                 @Override
                 public void run() {
                     while (true) {
                         try {
                             listenExecutebell.poll(5L, TimeUnit.SECONDS);
-                            executeConfigListen();
+                            Histogram.Timer timer = MetricsMonitor.getConfigListenMonitor().startTimer();
+                            try {
+                                executeConfigListen();
+                            } finally {
+                                timer.observeDuration();
+                            }
                         } catch (Exception e) {
                             LOGGER.error("[ rpc listen execute ] [rpc listen] exception", e);
                         }
@@ -845,6 +982,9 @@ public class ClientWorker implements Closeable {
         }
 
         private synchronized RpcClient ensureRpcClient(String taskId) throws NacosException {
+            if (null != sharedClientLease) {
+                return sharedClientLease.getRpcClient();
+            }
             Map<String, String> labels = getLabels();
             Map<String, String> newlabels = new HashMap<String, String>(labels);
             newlabels.put("taskId", taskId);
@@ -853,6 +993,7 @@ public class ClientWorker implements Closeable {
                     .createClient("config-" + taskId + "-" + uuid, getConnectionType(), newlabels);
             if (rpcClient.isWaitInitiated()) {
                 initRpcClientHandler(rpcClient);
+                rpcClient.setHedgeRatio(hedgeRatio);
                 rpcClient.start();
             }
 
@@ -952,7 +1093,23 @@ public class ClientWorker implements Closeable {
                 throw new NacosException(NacosException.CLIENT_OVER_THRESHOLD,
                         "More than client-side current limit threshold");
             }
-            return rpcClientInner.request(request, timeoutMills);
+            long start = System.currentTimeMillis();
+            String code = "NA";
+            try {
+                // queries are idempotent, hedge them to cut the tail latency.
+                Response response = request instanceof ConfigQueryRequest ? rpcClientInner
+                        .hedgedRequest(request, timeoutMills) : rpcClientInner.request(request, timeoutMills);
+                if (response != null) {
+                    code = String.valueOf(response.getResultCode());
+                }
+                return response;
+            } catch (NacosException e) {
+                code = String.valueOf(e.getErrCode());
+                throw e;
+            } finally {
+                MetricsMonitor.getRpcRequestMonitor("config", request.getClass().getSimpleName(), code)
+                        .observe((System.currentTimeMillis() - start) / 1000.0);
+            }
         }
 
         RpcClient getOneRunningClient() throws NacosException {
@@ -1275,6 +1432,10 @@ public class ClientWorker implements Closeable {
 
         private ConfigTransportClient configTransportClient;
 
+        private long failoverFullCheckVersion = -1;
+
+        private long lastFailoverFullCheckTime = 0;
+
         public LongPollingRunnable(HttpAgent httpAgent, int taskId, ConfigTransportClient configTransportClient) {
             this.taskId = taskId;
             this.httpAgent = httpAgent;
@@ -1288,11 +1449,16 @@ public class ClientWorker implements Closeable {
             List<String> inInitializingCacheList = new ArrayList<String>();
             try {
                 // check failover config
+                boolean failoverFullCheck = isFailoverFullCheck();
                 for (CacheData cacheData : cacheMap.get().values()) {
                     if (cacheData.getTaskId() == taskId) {
                         cacheDatas.add(cacheData);
                         try {
-                            checkLocalConfig(httpAgent.getName(), cacheData);
+                            boolean failoverChanged = failoverWatcher
+                                    .pollChanged(cacheData.dataId, cacheData.group, cacheData.tenant);
+                            if (failoverFullCheck || failoverChanged) {
+                                checkLocalConfig(httpAgent.getName(), cacheData);
+                            }
                             if (cacheData.isUseLocalConfigInfo()) {
                                 cacheData.checkListenerMd5();
                             }
@@ -1353,6 +1519,22 @@ public class ClientWorker implements Closeable {
                 configTransportClient.executor.schedule(this, taskPenaltyTime, TimeUnit.MILLISECONDS);
             }
         }
+
+        /**
+         * Whether to check the failover files of all cache data in this cycle. It's needed when the failover directory
+         * is not watched, when the watcher can't tell which files are changed, and periodically as a safety net.
+         */
+        private boolean isFailoverFullCheck() {
+            long now = System.currentTimeMillis();
+            long version = failoverWatcher.getFullCheckVersion();
+            if (!failoverWatcher.isWatching() || version != failoverFullCheckVersion
+                    || now - lastFailoverFullCheckTime >= FAILOVER_FULL_CHECK_INTERVAL) {
+                failoverFullCheckVersion = version;
+                lastFailoverFullCheckTime = now;
+                return true;
+            }
+            return false;
+        }
     }
 
 
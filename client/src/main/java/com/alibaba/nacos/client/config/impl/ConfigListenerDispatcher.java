@@ -0,0 +1,238 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.client.config.impl;
+
+import com.alibaba.nacos.api.PropertyKeyConst;
+import com.alibaba.nacos.api.config.listener.Listener;
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.client.monitor.MetricsMonitor;
+import com.alibaba.nacos.client.utils.LogUtils;
+import com.alibaba.nacos.common.executor.ExecutorFactory;
+import com.alibaba.nacos.common.executor.NameThreadFactory;
+import com.alibaba.nacos.common.lifecycle.Closeable;
+import com.alibaba.nacos.common.utils.ConcurrentHashSet;
+import com.alibaba.nacos.common.utils.ConvertUtils;
+import com.alibaba.nacos.common.utils.ThreadUtils;
+import org.slf4j.Logger;
+
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Dispatches the notifications of config listeners, so that slow listeners do not block the client worker.
+ *
+ * <p>Every listener of a config has one {@link NotifySlot}. The notifications of one slot run one by one in order, and
+ * a notification which has not started is replaced by a newer one, so only the latest content is delivered. Slots run
+ * on the executor of the listener if it has one, otherwise on a shared pool with a fixed number of threads.
+ *
+ * <p>Notifications running longer than {@link PropertyKeyConst#CONFIG_LISTENER_NOTIFY_TIMEOUT} are reported as slow.
+ * They are not interrupted.
+ *
+ * @author Nacos
+ */
+public class ConfigListenerDispatcher implements Closeable {
+    
+    private static final Logger LOGGER = LogUtils.logger(ConfigListenerDispatcher.class);
+    
+    private static final long DEFAULT_NOTIFY_TIMEOUT = 3000L;
+    
+    private static final long SLOW_CHECK_INTERVAL = 1000L;
+    
+    private final String name;
+    
+    private final long notifyTimeout;
+    
+    private final ExecutorService executor;
+    
+    private final ScheduledExecutorService slowChecker;
+    
+    private final Set<NotifySlot> runningSlots = new ConcurrentHashSet<NotifySlot>();
+    
+    public ConfigListenerDispatcher(String name, Properties properties) {
+        this.name = name;
+        String timeout = properties.getProperty(PropertyKeyConst.CONFIG_LISTENER_NOTIFY_TIMEOUT);
+        this.notifyTimeout = ConvertUtils.toLong(timeout, DEFAULT_NOTIFY_TIMEOUT);
+        String threads = properties.getProperty(PropertyKeyConst.CONFIG_LISTENER_NOTIFY_THREAD_COUNT);
+        int threadCount = ConvertUtils.toInt(threads, ThreadUtils.getSuitableThreadCount(1));
+        this.executor = ExecutorFactory.newFixedExecutorService(threadCount,
+                new NameThreadFactory("com.alibaba.nacos.client.config.listener.notifier_" + name));
+        this.slowChecker = ExecutorFactory.newSingleScheduledExecutorService(
+                new NameThreadFactory("com.alibaba.nacos.client.config.listener.checker_" + name));
+        this.slowChecker.scheduleWithFixedDelay(new SlowNotifyChecker(), SLOW_CHECK_INTERVAL, SLOW_CHECK_INTERVAL,
+                TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Create the notify slot of the listener of one config.
+     *
+     * @param dataId   dataId
+     * @param group    group
+     * @param listener listener
+     * @return notify slot
+     */
+    public NotifySlot newSlot(String dataId, String group, Listener listener) {
+        return new NotifySlot(dataId, group, listener);
+    }
+    
+    @Override
+    public void shutdown() throws NacosException {
+        ThreadUtils.shutdownThreadPool(slowChecker, LOGGER);
+        ThreadUtils.shutdownThreadPool(executor, LOGGER);
+    }
+    
+    /**
+     * Notifications of one listener of one config.
+     */
+    public class NotifySlot implements Runnable {
+    
+        private final String dataId;
+        
+        private final String group;
+        
+        private final Listener listener;
+        
+        private final AtomicReference<Notification> pending = new AtomicReference<Notification>();
+        
+        private final AtomicBoolean scheduled = new AtomicBoolean(false);
+        
+        private volatile String submittedMd5;
+        
+        private volatile Notification running;
+        
+        NotifySlot(String dataId, String group, Listener listener) {
+            this.dataId = dataId;
+            this.group = group;
+            this.listener = listener;
+        }
+        
+        /**
+         * Submit the notification of content with md5, ignored if the same md5 is waiting or running.
+         *
+         * @param md5 md5 of content
+         * @param job notify job
+         */
+        public void submit(String md5, Runnable job) {
+            if (md5.equals(submittedMd5)) {
+                return;
+            }
+            submittedMd5 = md5;
+            Notification replaced = pending.getAndSet(new Notification(md5, job));
+            if (null != replaced) {
+                LOGGER.info("[{}] [notify-coalesce] dataId={}, group={}, skip md5={}, listener={}", name, dataId,
+                        group, replaced.md5, listener);
+            }
+            schedule();
+        }
+        
+        private void schedule() {
+            if (!scheduled.compareAndSet(false, true)) {
+                return;
+            }
+            Executor listenerExecutor = listener.getExecutor();
+            try {
+                (null != listenerExecutor ? listenerExecutor : executor).execute(this);
+            } catch (Throwable t) {
+                scheduled.set(false);
+                submittedMd5 = null;
+                LOGGER.error("[{}] [notify-error] dataId={}, group={}, listener={} submit failed", name, dataId, group,
+                        listener, t);
+            }
+        }
+        
+        @Override
+        public void run() {
+            Notification notification;
+            while (null != (notification = pending.getAndSet(null))) {
+                execute(notification);
+            }
+            scheduled.set(false);
+            // A notification may be submitted after the loop and before the flag is reset.
+            if (null != pending.get()) {
+                schedule();
+            }
+        }
+        
+        private void execute(Notification notification) {
+            notification.startTime = System.currentTimeMillis();
+            running = notification;
+            runningSlots.add(this);
+            try {
+                notification.job.run();
+            } finally {
+                runningSlots.remove(this);
+                running = null;
+                long cost = System.currentTimeMillis() - notification.startTime;
+                if (notification.state.getAndSet(Notification.FINISHED) == Notification.SLOW) {
+                    MetricsMonitor.getSlowConfigListenerMonitor().dec();
+                    LOGGER.warn("[{}] [notify-slow] dataId={}, group={}, md5={}, listener={} finished in {}ms", name,
+                            dataId, group, notification.md5, listener, cost);
+                }
+                // Failed notifications are submitted again by next check.
+                if (notification.md5.equals(submittedMd5)) {
+                    submittedMd5 = null;
+                }
+            }
+        }
+    }
+    
+    private static class Notification {
+    
+        private final String md5;
+        
+        private final Runnable job;
+        
+        private static final int RUNNING = 0;
+        
+        private static final int SLOW = 1;
+        
+        private static final int FINISHED = 2;
+        
+        private final AtomicInteger state = new AtomicInteger(RUNNING);
+        
+        private volatile long startTime;
+        
+        private Notification(String md5, Runnable job) {
+            this.md5 = md5;
+            this.job = job;
+        }
+    }
+    
+    private class SlowNotifyChecker implements Runnable {
+    
+        @Override
+        public void run() {
+            long now = System.currentTimeMillis();
+            for (NotifySlot each : runningSlots) {
+                Notification notification = each.running;
+                if (null == notification || now - notification.startTime < notifyTimeout || !notification.state
+                        .compareAndSet(Notification.RUNNING, Notification.SLOW)) {
+                    continue;
+                }
+                MetricsMonitor.getSlowConfigListenerMonitor().inc();
+                LOGGER.warn("[{}] [notify-slow] dataId={}, group={}, md5={}, listener={} is running for {}ms", name,
+                        each.dataId, each.group, notification.md5, each.listener, now - notification.startTime);
+            }
+        }
+    }
+}
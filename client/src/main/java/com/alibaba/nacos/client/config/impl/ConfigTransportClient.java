@@ -254,6 +254,14 @@ public abstract class ConfigTransportClient {
      */
     public abstract void startInternal() throws NacosException;
     
+    /**
+     * shutdown client, release the connections held by client.
+     *
+     * @throws NacosException exception may throw.
+     */
+    public void shutdown() throws NacosException {
+    }
+    
     /**
      * get client name.
      *
@@ -0,0 +1,258 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.client.config.impl;
+
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.client.config.common.GroupKey;
+import com.alibaba.nacos.client.utils.LogUtils;
+import com.alibaba.nacos.common.executor.ExecutorFactory;
+import com.alibaba.nacos.common.executor.NameThreadFactory;
+import com.alibaba.nacos.common.lifecycle.Closeable;
+import com.alibaba.nacos.common.utils.ConcurrentHashSet;
+import org.slf4j.Logger;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Watches the failover directory of config with {@link WatchService}, so that the long polling task only checks the
+ * failover files which are created, modified or deleted, instead of checking the failover file of every cache data in
+ * every cycle.
+ *
+ * <p>{@link WatchService} is not recursive, every sub directory is registered when it is found. Events which can not be
+ * mapped to one config (directory changes, overflow) increase {@link #getFullCheckVersion()}, which asks the long
+ * polling tasks to check all failover files once. So does a burst of changes more than {@link #MAX_CHANGED_KEYS}, the
+ * changes of the failover files which are not listened are never polled, they must not be kept forever.
+ *
+ * @author Nacos
+ */
+public class LocalConfigFailoverWatcher implements Closeable {
+    
+    private static final Logger LOGGER = LogUtils.logger(LocalConfigFailoverWatcher.class);
+    
+    static final int MAX_CHANGED_KEYS = 10000;
+    
+    private final String agentName;
+    
+    private final Path root;
+    
+    private final Set<String> changedGroupKeys = new ConcurrentHashSet<String>();
+    
+    private final Map<WatchKey, Path> watchDirs = new ConcurrentHashMap<WatchKey, Path>(16);
+    
+    private final AtomicLong fullCheckVersion = new AtomicLong(0);
+    
+    private final ExecutorService executor;
+    
+    private volatile WatchService watchService;
+    
+    private volatile boolean closed = false;
+    
+    public LocalConfigFailoverWatcher(String agentName) {
+        this(agentName, LocalConfigInfoProcessor.getFailoverDir(agentName).toPath());
+    }
+    
+    LocalConfigFailoverWatcher(String agentName, Path root) {
+        this.agentName = agentName;
+        this.root = root;
+        this.executor = ExecutorFactory.newSingleExecutorService(
+                new NameThreadFactory("com.alibaba.nacos.client.Worker.failover_" + agentName));
+    }
+    
+    /**
+     * Whether the failover directory is watched, start watching if the directory has been created since last call.
+     *
+     * @return {@code true} if the changes of failover files are watched
+     */
+    public synchronized boolean isWatching() {
+        if (watchService != null) {
+            return true;
+        }
+        if (closed || !root.toFile().isDirectory()) {
+            return false;
+        }
+        WatchService service = null;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+            registerAll(service, root);
+        } catch (IOException e) {
+            LOGGER.warn("[{}] [failover-watch] watch failover dir {} failed, check all failover files every time",
+                    agentName, root, e);
+            closeQuietly(service);
+            watchDirs.clear();
+            return false;
+        }
+        watchService = service;
+        executor.execute(new WatchTask(service));
+        LOGGER.info("[{}] [failover-watch] start watching failover dir {}", agentName, root);
+        return true;
+    }
+    
+    /**
+     * Whether the failover file of the config is changed since last call, the change is cleared.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     * @return {@code true} if the failover file is created, modified or deleted
+     */
+    public boolean pollChanged(String dataId, String group, String tenant) {
+        if (changedGroupKeys.isEmpty()) {
+            return false;
+        }
+        return changedGroupKeys.remove(GroupKey.getKeyTenant(dataId, group, tenant));
+    }
+    
+    public long getFullCheckVersion() {
+        return fullCheckVersion.get();
+    }
+    
+    @Override
+    public synchronized void shutdown() throws NacosException {
+        closed = true;
+        closeQuietly(watchService);
+        watchService = null;
+        watchDirs.clear();
+        changedGroupKeys.clear();
+        executor.shutdownNow();
+    }
+    
+    private void registerAll(WatchService service, Path dir) throws IOException {
+        WatchKey key = dir.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY,
+                StandardWatchEventKinds.ENTRY_DELETE);
+        watchDirs.put(key, dir);
+        File[] files = dir.toFile().listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                registerAll(service, file.toPath());
+            } else {
+                // Files created before the directory is registered.
+                onChanged(file.toPath());
+            }
+        }
+    }
+    
+    void onChanged(Path path) {
+        Path relative = root.relativize(path);
+        int count = relative.getNameCount();
+        String type = count == 0 ? null : relative.getName(0).toString();
+        if (count == 3 && LocalConfigInfoProcessor.FAILOVER_CONFIG_DATA.equals(type)) {
+            markChanged(GroupKey.getKeyTenant(relative.getName(2).toString(), relative.getName(1).toString(), null));
+            return;
+        }
+        if (count == 4 && LocalConfigInfoProcessor.FAILOVER_CONFIG_DATA_TENANT.equals(type)) {
+            markChanged(GroupKey.getKeyTenant(relative.getName(3).toString(), relative.getName(2).toString(),
+                    relative.getName(1).toString()));
+            return;
+        }
+        // A directory is changed, all the failover files below it may be changed.
+        fullCheckVersion.incrementAndGet();
+    }
+    
+    private void markChanged(String groupKey) {
+        if (changedGroupKeys.size() >= MAX_CHANGED_KEYS && !changedGroupKeys.contains(groupKey)) {
+            // Too many changes, check all failover files once instead of remembering every one of them.
+            changedGroupKeys.clear();
+            fullCheckVersion.incrementAndGet();
+            return;
+        }
+        changedGroupKeys.add(groupKey);
+    }
+    
+    private synchronized void stopWatching(WatchService service) {
+        closeQuietly(service);
+        if (watchService == service) {
+            watchService = null;
+            watchDirs.clear();
+        }
+        fullCheckVersion.incrementAndGet();
+    }
+    
+    private static void closeQuietly(WatchService service) {
+        if (service == null) {
+            return;
+        }
+        try {
+            service.close();
+        } catch (IOException ignore) {
+        }
+    }
+    
+    private class WatchTask implements Runnable {
+    
+        private final WatchService service;
+        
+        WatchTask(WatchService service) {
+            this.service = service;
+        }
+        
+        @Override
+        public void run() {
+            while (!closed) {
+                try {
+                    WatchKey key = service.take();
+                    Path dir = watchDirs.get(key);
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (StandardWatchEventKinds.OVERFLOW.equals(event.kind()) || dir == null) {
+                            // Since the OS's event cache may be overflow, a backstop is needed
+                            fullCheckVersion.incrementAndGet();
+                            continue;
+                        }
+                        Path path = dir.resolve((Path) event.context());
+                        if (StandardWatchEventKinds.ENTRY_CREATE.equals(event.kind()) && path.toFile().isDirectory()) {
+                            registerAll(service, path);
+                        } else {
+                            onChanged(path);
+                        }
+                    }
+                    if (!key.reset()) {
+                        watchDirs.remove(key);
+                        if (root.equals(dir)) {
+                            LOGGER.warn("[{}] [failover-watch] failover dir {} is deleted, stop watching", agentName,
+                                    root);
+                            stopWatching(service);
+                            return;
+                        }
+                    }
+                } catch (ClosedWatchServiceException e) {
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (Throwable e) {
+                    LOGGER.error("[{}] [failover-watch] watch failover dir error", agentName, e);
+                    fullCheckVersion.incrementAndGet();
+                }
+            }
+        }
+    }
+}
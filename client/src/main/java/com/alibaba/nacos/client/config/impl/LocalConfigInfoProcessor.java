@@ -174,13 +174,17 @@ public class LocalConfigInfoProcessor {
         }
     }
     
-    static File getFailoverFile(String serverName, String dataId, String group, String tenant) {
+    static File getFailoverDir(String serverName) {
         File tmp = new File(LOCAL_SNAPSHOT_PATH, serverName + "_nacos");
-        tmp = new File(tmp, "data");
+        return new File(tmp, "data");
+    }
+    
+    static File getFailoverFile(String serverName, String dataId, String group, String tenant) {
+        File tmp = getFailoverDir(serverName);
         if (StringUtils.isBlank(tenant)) {
-            tmp = new File(tmp, "config-data");
+            tmp = new File(tmp, FAILOVER_CONFIG_DATA);
         } else {
-            tmp = new File(tmp, "config-data-tenant");
+            tmp = new File(tmp, FAILOVER_CONFIG_DATA_TENANT);
             tmp = new File(tmp, tenant);
         }
         return new File(new File(tmp, group), dataId);
@@ -202,6 +206,10 @@ public class LocalConfigInfoProcessor {
     
     public static final String LOCAL_SNAPSHOT_PATH;
     
+    static final String FAILOVER_CONFIG_DATA = "config-data";
+    
+    static final String FAILOVER_CONFIG_DATA_TENANT = "config-data-tenant";
+    
     static {
         LOCAL_FILEROOT_PATH =
                 System.getProperty("JM.LOG.PATH", System.getProperty("user.home")) + File.separator + "nacos"
@@ -16,9 +16,21 @@
 
 package com.alibaba.nacos.client.monitor;
 
+import com.alibaba.nacos.common.remote.client.RpcClient;
+import com.alibaba.nacos.common.remote.client.RpcClientFactory;
+import com.alibaba.nacos.common.remote.client.ServerLatencyStats;
+import io.prometheus.client.Collector;
+import io.prometheus.client.CounterMetricFamily;
 import io.prometheus.client.Gauge;
+import io.prometheus.client.GaugeMetricFamily;
 import io.prometheus.client.Histogram;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Metrics Monitor.
  *
@@ -33,6 +45,16 @@ public class MetricsMonitor {
             .labelNames("module", "method", "url", "code").name("nacos_client_request").help("nacos_client_request")
             .register();
     
+    private static final Histogram NACOS_CLIENT_LISTENER_NOTIFY_HISTOGRAM = Histogram.build().labelNames("module")
+            .name("nacos_client_listener_notify").help("nacos_client_listener_notify").register();
+    
+    private static final Histogram NACOS_CLIENT_PROCESS_HISTOGRAM = Histogram.build().labelNames("module", "name")
+            .name("nacos_client_process").help("nacos_client_process").register();
+    
+    static {
+        new RpcServerLatencyCollector().register();
+    }
+    
     public static Gauge.Child getServiceInfoMapSizeMonitor() {
         return NACOS_MONITOR.labels("naming", "serviceInfoMapSize");
     }
@@ -45,6 +67,14 @@ public class MetricsMonitor {
         return NACOS_MONITOR.labels("naming", "listenConfigCount");
     }
     
+    public static Gauge.Child getSlowConfigListenerMonitor() {
+        return NACOS_MONITOR.labels("config", "slowListenerCount");
+    }
+    
+    public static Histogram.Child getConfigListenerNotifyMonitor() {
+        return NACOS_CLIENT_LISTENER_NOTIFY_HISTOGRAM.labels("config");
+    }
+    
     public static Histogram.Timer getConfigRequestMonitor(String method, String url, String code) {
         return NACOS_CLIENT_REQUEST_HISTOGRAM.labels("config", method, url, code).startTimer();
     }
@@ -52,5 +82,53 @@ public class MetricsMonitor {
     public static Histogram.Child getNamingRequestMonitor(String method, String url, String code) {
         return NACOS_CLIENT_REQUEST_HISTOGRAM.labels("naming", method, url, code);
     }
+    
+    public static Histogram.Child getRpcRequestMonitor(String module, String requestType, String code) {
+        return NACOS_CLIENT_REQUEST_HISTOGRAM.labels(module, "GRPC", requestType, code);
+    }
+    
+    public static Histogram.Child getNamingPushProcessMonitor() {
+        return NACOS_CLIENT_PROCESS_HISTOGRAM.labels("naming", "pushProcess");
+    }
+    
+    public static Histogram.Child getServiceInfoProcessMonitor() {
+        return NACOS_CLIENT_PROCESS_HISTOGRAM.labels("naming", "processServiceInfo");
+    }
+    
+    public static Histogram.Child getConfigListenMonitor() {
+        return NACOS_CLIENT_PROCESS_HISTOGRAM.labels("config", "executeConfigListen");
+    }
+    
+    /**
+     * Request latency of the servers and reconnect count of every rpc client, collected when scraped.
+     */
+    private static class RpcServerLatencyCollector extends Collector {
+        
+        @Override
+        public List<MetricFamilySamples> collect() {
+            GaugeMetricFamily latency = new GaugeMetricFamily("nacos_client_server_latency",
+                    "nacos_client_server_latency", Arrays.asList("client", "server", "stat"));
+            CounterMetricFamily reconnect = new CounterMetricFamily("nacos_client_reconnect",
+                    "nacos_client_reconnect", Collections.singletonList("client"));
+            for (RpcClient rpcClient : RpcClientFactory.getAllClients()) {
+                reconnect.addMetric(Collections.singletonList(rpcClient.getName()), rpcClient.getReconnectCount());
+                for (Map.Entry<String, ServerLatencyStats> entry : rpcClient.getLatencyTracker().getAllStats()
+                        .entrySet()) {
+                    ServerLatencyStats stats = entry.getValue();
+                    if (stats.getSampleCount() == 0) {
+                        continue;
+                    }
+                    latency.addMetric(Arrays.asList(rpcClient.getName(), entry.getKey(), "p50"),
+                            stats.getPercentile(0.5D));
+                    latency.addMetric(Arrays.asList(rpcClient.getName(), entry.getKey(), "p99"),
+                            stats.getPercentile(0.99D));
+                    latency.addMetric(Arrays.asList(rpcClient.getName(), entry.getKey(), "ewma"), stats.getEwma());
+                }
+            }
+            List<MetricFamilySamples> result = new ArrayList<MetricFamilySamples>(2);
+            result.add(latency);
+            result.add(reconnect);
+            return result;
+        }
+    }
 }
-
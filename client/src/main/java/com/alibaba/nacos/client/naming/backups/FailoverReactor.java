@@ -21,20 +21,21 @@ import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
 import com.alibaba.nacos.client.naming.cache.ConcurrentDiskUtil;
 import com.alibaba.nacos.client.naming.cache.DiskCache;
 import com.alibaba.nacos.client.naming.cache.ServiceInfoHolder;
+import com.alibaba.nacos.client.naming.cache.ServiceInfoSnapshot;
 import com.alibaba.nacos.client.naming.utils.CollectionUtils;
 import com.alibaba.nacos.client.naming.utils.UtilAndComs;
 import com.alibaba.nacos.common.lifecycle.Closeable;
-import com.alibaba.nacos.common.utils.JacksonUtils;
 import com.alibaba.nacos.common.utils.StringUtils;
 import com.alibaba.nacos.common.utils.ThreadUtils;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.StringReader;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.TimerTask;
 import java.util.concurrent.ConcurrentHashMap;
@@ -185,7 +186,6 @@ public class FailoverReactor implements Closeable {
         public void run() {
             Map<String, ServiceInfo> domMap = new HashMap<String, ServiceInfo>(16);
             
-            BufferedReader reader = null;
             try {
                 
                 File cacheDir = new File(failoverDir);
@@ -193,55 +193,21 @@ public class FailoverReactor implements Closeable {
                     throw new IllegalStateException("failed to create cache dir: " + failoverDir);
                 }
                 
-                File[] files = cacheDir.listFiles();
-                if (files == null) {
-                    return;
-                }
-                
-                for (File file : files) {
-                    if (!file.isFile()) {
-                        continue;
-                    }
-                    
-                    if (file.getName().equals(UtilAndComs.FAILOVER_SWITCH)) {
-                        continue;
-                    }
-                    
-                    ServiceInfo dom = new ServiceInfo(file.getName());
-                    
-                    try {
-                        String dataString = ConcurrentDiskUtil
-                                .getFileContent(file, Charset.defaultCharset().toString());
-                        reader = new BufferedReader(new StringReader(dataString));
-                        
-                        String json;
-                        if ((json = reader.readLine()) != null) {
-                            try {
-                                dom = JacksonUtils.toObj(json, ServiceInfo.class);
-                            } catch (Exception e) {
-                                NAMING_LOGGER.error("[NA] error while parsing cached dom : " + json, e);
-                            }
-                        }
-                        
-                    } catch (Exception e) {
-                        NAMING_LOGGER.error("[NA] failed to read cache for dom: " + file.getName(), e);
-                    } finally {
-                        try {
-                            if (reader != null) {
-                                reader.close();
-                            }
-                        } catch (Exception e) {
-                            //ignore
-                        }
-                    }
-                    if (!CollectionUtils.isEmpty(dom.getHosts())) {
-                        domMap.put(dom.getKey(), dom);
-                    }
-                }
+                Map<String, ServiceInfo> snapshot = ServiceInfoSnapshot.of(failoverDir).load();
+                domMap.putAll(snapshot);
+                // JSON files are written by tools or by hand, they take precedence over the snapshot only if they are
+                // modified after the service was refreshed, the files left by old versions are stale.
+                domMap.putAll(DiskCache.readJson(failoverDir, snapshot));
             } catch (Exception e) {
                 NAMING_LOGGER.error("[NA] failed to read cache file", e);
             }
             
+            Iterator<ServiceInfo> iterator = domMap.values().iterator();
+            while (iterator.hasNext()) {
+                if (CollectionUtils.isEmpty(iterator.next().getHosts())) {
+                    iterator.remove();
+                }
+            }
             if (domMap.size() > 0) {
                 serviceMap = domMap;
             }
@@ -253,6 +219,7 @@ public class FailoverReactor implements Closeable {
         @Override
         public void run() {
             Map<String, ServiceInfo> map = serviceInfoHolder.getServiceInfoMap();
+            List<ServiceInfo> serviceInfos = new ArrayList<ServiceInfo>(map.size());
             for (Map.Entry<String, ServiceInfo> entry : map.entrySet()) {
                 ServiceInfo serviceInfo = entry.getValue();
                 if (StringUtils.equals(serviceInfo.getKey(), UtilAndComs.ALL_IPS) || StringUtils
@@ -263,8 +230,9 @@ public class FailoverReactor implements Closeable {
                     continue;
                 }
                 
-                DiskCache.write(serviceInfo, failoverDir);
+                serviceInfos.add(serviceInfo);
             }
+            DiskCache.writeAll(serviceInfos, failoverDir);
         }
     }
     
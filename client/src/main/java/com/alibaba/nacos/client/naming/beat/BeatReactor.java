@@ -32,6 +32,8 @@ import com.alibaba.nacos.common.utils.JacksonUtils;
 import com.alibaba.nacos.common.utils.ThreadUtils;
 import com.fasterxml.jackson.databind.JsonNode;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
@@ -49,14 +51,23 @@ import static com.alibaba.nacos.client.utils.LogUtils.NAMING_LOGGER;
  */
 public class BeatReactor implements Closeable {
     
+    private static final long BATCH_BEAT_TICK_MILLIS = 1000L;
+    
     private final ScheduledExecutorService executorService;
     
     private final NamingHttpClientProxy serverProxy;
     
     private boolean lightBeatEnabled = false;
     
+    private volatile boolean batchBeatEnabled;
+    
     public final Map<String, BeatInfo> dom2Beat = new ConcurrentHashMap<String, BeatInfo>();
     
+    /**
+     * Next beat time of every beat info, only used when beats are sent in batch.
+     */
+    private final Map<String, Long> nextBeatTimes = new ConcurrentHashMap<String, Long>();
+    
     public BeatReactor(NamingHttpClientProxy serverProxy) {
         this(serverProxy, null);
     }
@@ -73,6 +84,11 @@ public class BeatReactor implements Closeable {
                 return thread;
             }
         });
+        this.batchBeatEnabled = properties != null && ConvertUtils
+                .toBoolean(properties.getProperty(PropertyKeyConst.NAMING_CLIENT_BEAT_BATCH_ENABLED), false);
+        if (batchBeatEnabled) {
+            executorService.schedule(new BatchBeatTask(), BATCH_BEAT_TICK_MILLIS, TimeUnit.MILLISECONDS);
+        }
     }
     
     private int initClientBeatThreadCount(Properties properties) {
@@ -99,7 +115,9 @@ public class BeatReactor implements Closeable {
             existBeat.setStopped(true);
         }
         dom2Beat.put(key, beatInfo);
-        executorService.schedule(new BeatTask(beatInfo), beatInfo.getPeriod(), TimeUnit.MILLISECONDS);
+        if (!addBatchBeat(key, beatInfo)) {
+            executorService.schedule(new BeatTask(beatInfo), beatInfo.getPeriod(), TimeUnit.MILLISECONDS);
+        }
         MetricsMonitor.getDom2BeatSizeMonitor().set(dom2Beat.size());
     }
     
@@ -112,7 +130,9 @@ public class BeatReactor implements Closeable {
      */
     public void removeBeatInfo(String serviceName, String ip, int port) {
         NAMING_LOGGER.info("[BEAT] removing beat: {}:{}:{} from beat map.", serviceName, ip, port);
-        BeatInfo beatInfo = dom2Beat.remove(buildKey(serviceName, ip, port));
+        String key = buildKey(serviceName, ip, port);
+        BeatInfo beatInfo = dom2Beat.remove(key);
+        nextBeatTimes.remove(key);
         if (beatInfo == null) {
             return;
         }
@@ -150,6 +170,53 @@ public class BeatReactor implements Closeable {
         return beatInfo;
     }
     
+    private synchronized boolean addBatchBeat(String key, BeatInfo beatInfo) {
+        if (!batchBeatEnabled) {
+            return false;
+        }
+        nextBeatTimes.put(key, System.currentTimeMillis() + beatInfo.getPeriod());
+        return true;
+    }
+    
+    /**
+     * The server does not support batch beat, send the beat of every instance by its own task.
+     */
+    private synchronized void fallbackToSingleBeat() {
+        if (!batchBeatEnabled) {
+            return;
+        }
+        batchBeatEnabled = false;
+        nextBeatTimes.clear();
+        for (BeatInfo beatInfo : dom2Beat.values()) {
+            executorService.schedule(new BeatTask(beatInfo), 0, TimeUnit.MILLISECONDS);
+        }
+    }
+    
+    private void reRegister(BeatInfo beatInfo) {
+        Instance instance = new Instance();
+        instance.setPort(beatInfo.getPort());
+        instance.setIp(beatInfo.getIp());
+        instance.setWeight(beatInfo.getWeight());
+        instance.setMetadata(beatInfo.getMetadata());
+        instance.setClusterName(beatInfo.getCluster());
+        instance.setServiceName(beatInfo.getServiceName());
+        instance.setInstanceId(instance.getInstanceId());
+        instance.setEphemeral(true);
+        try {
+            serverProxy.registerService(beatInfo.getServiceName(), NamingUtils.getGroupName(beatInfo.getServiceName()),
+                    instance);
+        } catch (Exception ignore) {
+        }
+    }
+    
+    private void updateLightBeatEnabled(JsonNode result) {
+        boolean lightBeatEnabled = false;
+        if (result.has(CommonParams.LIGHT_BEAT_ENABLED)) {
+            lightBeatEnabled = result.get(CommonParams.LIGHT_BEAT_ENABLED).asBoolean();
+        }
+        this.lightBeatEnabled = lightBeatEnabled;
+    }
+    
     public String buildKey(String serviceName, String ip, int port) {
         return serviceName + Constants.NAMING_INSTANCE_ID_SPLITTER + ip + Constants.NAMING_INSTANCE_ID_SPLITTER + port;
     }
@@ -179,11 +246,7 @@ public class BeatReactor implements Closeable {
             try {
                 JsonNode result = serverProxy.sendBeat(beatInfo, BeatReactor.this.lightBeatEnabled);
                 long interval = result.get("clientBeatInterval").asLong();
-                boolean lightBeatEnabled = false;
-                if (result.has(CommonParams.LIGHT_BEAT_ENABLED)) {
-                    lightBeatEnabled = result.get(CommonParams.LIGHT_BEAT_ENABLED).asBoolean();
-                }
-                BeatReactor.this.lightBeatEnabled = lightBeatEnabled;
+                updateLightBeatEnabled(result);
                 if (interval > 0) {
                     nextTime = interval;
                 }
@@ -192,20 +255,7 @@ public class BeatReactor implements Closeable {
                     code = result.get(CommonParams.CODE).asInt();
                 }
                 if (code == NamingResponseCode.RESOURCE_NOT_FOUND) {
-                    Instance instance = new Instance();
-                    instance.setPort(beatInfo.getPort());
-                    instance.setIp(beatInfo.getIp());
-                    instance.setWeight(beatInfo.getWeight());
-                    instance.setMetadata(beatInfo.getMetadata());
-                    instance.setClusterName(beatInfo.getCluster());
-                    instance.setServiceName(beatInfo.getServiceName());
-                    instance.setInstanceId(instance.getInstanceId());
-                    instance.setEphemeral(true);
-                    try {
-                        serverProxy.registerService(beatInfo.getServiceName(),
-                                NamingUtils.getGroupName(beatInfo.getServiceName()), instance);
-                    } catch (Exception ignore) {
-                    }
+                    reRegister(beatInfo);
                 }
             } catch (NacosException ex) {
                 NAMING_LOGGER.error("[CLIENT-BEAT] failed to send beat: {}, code: {}, msg: {}",
@@ -215,4 +265,70 @@ public class BeatReactor implements Closeable {
             executorService.schedule(new BeatTask(beatInfo), nextTime, TimeUnit.MILLISECONDS);
         }
     }
+    
+    /**
+     * Sends all the due beats in one request, used when {@link PropertyKeyConst#NAMING_CLIENT_BEAT_BATCH_ENABLED} is
+     * set.
+     */
+    class BatchBeatTask implements Runnable {
+        
+        @Override
+        public void run() {
+            if (!batchBeatEnabled) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            List<String> keys = new ArrayList<String>();
+            List<BeatInfo> beatInfos = new ArrayList<BeatInfo>();
+            for (Map.Entry<String, BeatInfo> entry : dom2Beat.entrySet()) {
+                Long nextBeatTime = nextBeatTimes.get(entry.getKey());
+                if (nextBeatTime != null && nextBeatTime <= now && !entry.getValue().isStopped()) {
+                    keys.add(entry.getKey());
+                    beatInfos.add(entry.getValue());
+                }
+            }
+            if (!beatInfos.isEmpty()) {
+                sendBeats(now, keys, beatInfos);
+            }
+            if (batchBeatEnabled) {
+                executorService.schedule(this, BATCH_BEAT_TICK_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+        
+        private void sendBeats(long now, List<String> keys, List<BeatInfo> beatInfos) {
+            JsonNode beats = null;
+            try {
+                JsonNode result = serverProxy.batchSendBeat(beatInfos, BeatReactor.this.lightBeatEnabled);
+                updateLightBeatEnabled(result);
+                beats = result.get("beats");
+            } catch (NacosException ex) {
+                if (ex.getErrCode() == NacosException.NOT_FOUND) {
+                    NAMING_LOGGER.warn("[CLIENT-BEAT] server does not support batch beat, send beats one by one");
+                    fallbackToSingleBeat();
+                    return;
+                }
+                NAMING_LOGGER.error("[CLIENT-BEAT] failed to send {} beats, code: {}, msg: {}", beatInfos.size(),
+                        ex.getErrCode(), ex.getErrMsg());
+            }
+            for (int i = 0; i < beatInfos.size(); i++) {
+                BeatInfo beatInfo = beatInfos.get(i);
+                long nextTime = beatInfo.getPeriod();
+                if (beats != null && beats.has(i)) {
+                    JsonNode beat = beats.get(i);
+                    long interval = beat.path("clientBeatInterval").asLong();
+                    if (interval > 0) {
+                        nextTime = interval;
+                    }
+                    if (beat.path(CommonParams.CODE).asInt(NamingResponseCode.OK)
+                            == NamingResponseCode.RESOURCE_NOT_FOUND) {
+                        reRegister(beatInfo);
+                    }
+                }
+                // The beat info may be removed or replaced during sending.
+                if (dom2Beat.get(keys.get(i)) == beatInfo) {
+                    nextBeatTimes.put(keys.get(i), now + nextTime);
+                }
+            }
+        }
+    }
 }
@@ -29,6 +29,8 @@ import java.io.StringReader;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -38,6 +40,9 @@ import static com.alibaba.nacos.client.utils.LogUtils.NAMING_LOGGER;
 /**
  * Disk cache.
  *
+ * <p>Service infos are stored in the binary {@link ServiceInfoSnapshot} of the directory. JSON files of the old format
+ * are still readable, they are migrated into the snapshot on first read.
+ *
  * @author xuanyin
  */
 public class DiskCache {
@@ -52,33 +57,41 @@ public class DiskCache {
         
         try {
             makeSureCacheDirExists(dir);
-            
-            File file = new File(dir, dom.getKeyEncoded());
-            if (!file.exists()) {
-                // add another !file.exists() to avoid conflicted creating-new-file from multi-instances
-                if (!file.createNewFile() && !file.exists()) {
-                    throw new IllegalStateException("failed to create cache file");
-                }
-            }
-            
-            StringBuilder keyContentBuffer = new StringBuilder();
-            
-            String json = dom.getJsonFromServer();
-            
-            if (StringUtils.isEmpty(json)) {
-                json = JacksonUtils.toJson(dom);
-            }
-            
-            keyContentBuffer.append(json);
-            
-            //Use the concurrent API to ensure the consistency.
-            ConcurrentDiskUtil.writeFileContent(file, keyContentBuffer.toString(), Charset.defaultCharset().toString());
-            
+            ServiceInfoSnapshot.of(dir).write(dom);
         } catch (Throwable e) {
             NAMING_LOGGER.error("[NA] failed to write cache for dom:" + dom.getName(), e);
         }
     }
     
+    /**
+     * Write all service infos to dir, replaces all the service infos in dir.
+     *
+     * @param doms service infos
+     * @param dir  directory
+     */
+    public static void writeAll(Collection<ServiceInfo> doms, String dir) {
+        try {
+            makeSureCacheDirExists(dir);
+            ServiceInfoSnapshot.of(dir).writeAll(doms);
+        } catch (Throwable e) {
+            NAMING_LOGGER.error("[NA] failed to write cache to dir: " + dir, e);
+        }
+    }
+    
+    /**
+     * Export service infos of dir as JSON files, one file per service, for tools which read the old format.
+     *
+     * @param dir       cache directory
+     * @param targetDir directory of JSON files
+     */
+    public static void exportJson(String dir, String targetDir) {
+        try {
+            ServiceInfoSnapshot.of(dir).exportJson(targetDir);
+        } catch (Throwable e) {
+            NAMING_LOGGER.error("[NA] failed to export cache of dir: " + dir, e);
+        }
+    }
+    
     public static String getLineSeparator() {
         return System.getProperty("line.separator");
     }
@@ -90,6 +103,40 @@ public class DiskCache {
      * @return service infos
      */
     public static Map<String, ServiceInfo> read(String cacheDir) {
+        ServiceInfoSnapshot snapshot = ServiceInfoSnapshot.of(cacheDir);
+        try {
+            if (snapshot.exists()) {
+                return snapshot.load();
+            }
+        } catch (Throwable e) {
+            NAMING_LOGGER.error("[NA] failed to read cache snapshot of dir: " + cacheDir, e);
+        }
+        Map<String, ServiceInfo> domMap = readJson(cacheDir);
+        if (!domMap.isEmpty()) {
+            writeAll(domMap.values(), cacheDir);
+        }
+        return domMap;
+    }
+    
+    /**
+     * Read service infos from the JSON files in dir.
+     *
+     * @param cacheDir cache file dir
+     * @return service infos
+     */
+    public static Map<String, ServiceInfo> readJson(String cacheDir) {
+        return readJson(cacheDir, Collections.<String, ServiceInfo>emptyMap());
+    }
+    
+    /**
+     * Read service infos from the JSON files in dir, the files which are not modified after the service info of the
+     * same key in {@code current} was refreshed are stale and skipped.
+     *
+     * @param cacheDir cache file dir
+     * @param current  service infos read from elsewhere, such as the snapshot
+     * @return service infos newer than {@code current}
+     */
+    public static Map<String, ServiceInfo> readJson(String cacheDir, Map<String, ServiceInfo> current) {
         Map<String, ServiceInfo> domMap = new HashMap<String, ServiceInfo>(16);
         
         BufferedReader reader = null;
@@ -100,7 +147,7 @@ public class DiskCache {
             }
             
             for (File file : files) {
-                if (!file.isFile()) {
+                if (!file.isFile() || isSnapshotFile(file.getName())) {
                     continue;
                 }
                 
@@ -109,6 +156,10 @@ public class DiskCache {
                 if (!(fileName.endsWith(Constants.SERVICE_INFO_SPLITER + "meta") || fileName
                         .endsWith(Constants.SERVICE_INFO_SPLITER + "special-url"))) {
                     ServiceInfo dom = new ServiceInfo(fileName);
+                    ServiceInfo currentDom = current.get(dom.getKey());
+                    if (currentDom != null && file.lastModified() <= currentDom.getLastRefTime()) {
+                        continue;
+                    }
                     List<Instance> ips = new ArrayList<Instance>();
                     dom.setHosts(ips);
                     
@@ -162,6 +213,11 @@ public class DiskCache {
         return domMap;
     }
     
+    private static boolean isSnapshotFile(String fileName) {
+        return fileName.startsWith(ServiceInfoSnapshot.SNAPSHOT_FILE_NAME) || ServiceInfoSnapshot.LOCK_FILE_NAME
+                .equals(fileName);
+    }
+    
     private static File makeSureCacheDirExists(String dir) {
         File cacheDir = new File(dir);
         
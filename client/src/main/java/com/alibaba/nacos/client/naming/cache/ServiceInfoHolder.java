@@ -23,21 +23,20 @@ import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
 import com.alibaba.nacos.api.naming.utils.NamingUtils;
 import com.alibaba.nacos.client.monitor.MetricsMonitor;
 import com.alibaba.nacos.client.naming.backups.FailoverReactor;
+import com.alibaba.nacos.client.naming.core.Balancer;
 import com.alibaba.nacos.client.naming.event.InstancesChangeEvent;
+import com.alibaba.nacos.client.naming.event.InstancesDiff;
+import com.alibaba.nacos.client.naming.utils.Chooser;
 import com.alibaba.nacos.common.lifecycle.Closeable;
 import com.alibaba.nacos.common.notify.NotifyCenter;
 import com.alibaba.nacos.common.utils.ConvertUtils;
 import com.alibaba.nacos.common.utils.JacksonUtils;
 import com.alibaba.nacos.common.utils.StringUtils;
+import io.prometheus.client.Histogram;
 
 import java.io.File;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -52,6 +51,11 @@ public class ServiceInfoHolder implements Closeable {
     
     private final ConcurrentMap<String, ServiceInfo> serviceInfoMap;
     
+    /**
+     * Random-weight choosers of the healthy hosts in {@link #serviceInfoMap}, rebuilt only when the hosts change.
+     */
+    private final ConcurrentMap<String, Chooser<String, Instance>> chooserMap;
+    
     private final FailoverReactor failoverReactor;
     
     private final boolean pushEmptyProtection;
@@ -65,6 +69,7 @@ public class ServiceInfoHolder implements Closeable {
         } else {
             this.serviceInfoMap = new ConcurrentHashMap<String, ServiceInfo>(16);
         }
+        this.chooserMap = new ConcurrentHashMap<String, Chooser<String, Instance>>(16);
         this.failoverReactor = new FailoverReactor(this, cacheDir);
         this.pushEmptyProtection = isPushEmptyProtect(properties);
     }
@@ -114,6 +119,27 @@ public class ServiceInfoHolder implements Closeable {
         return serviceInfoMap.get(key);
     }
     
+    /**
+     * Get the random-weight chooser prebuilt for the service info.
+     *
+     * @param serviceInfo service info
+     * @return chooser, null if the service info is not the one cached by this holder
+     */
+    public Chooser<String, Instance> getChooser(ServiceInfo serviceInfo) {
+        String key = serviceInfo.getKey();
+        if (serviceInfoMap.get(key) != serviceInfo) {
+            return null;
+        }
+        Chooser<String, Instance> chooser = chooserMap.get(key);
+        if (null == chooser) {
+            // Service info loaded from disk cache at start, the later push will replace it if changed.
+            chooser = Balancer.buildChooser(key, serviceInfo.getHosts());
+            Chooser<String, Instance> old = chooserMap.putIfAbsent(key, chooser);
+            chooser = null == old ? chooser : old;
+        }
+        return chooser;
+    }
+    
     /**
      * Process service json.
      *
@@ -133,22 +159,36 @@ public class ServiceInfoHolder implements Closeable {
      * @return service info
      */
     public ServiceInfo processServiceInfo(ServiceInfo serviceInfo) {
+        Histogram.Timer timer = MetricsMonitor.getServiceInfoProcessMonitor().startTimer();
+        try {
+            return doProcessServiceInfo(serviceInfo);
+        } finally {
+            timer.observeDuration();
+        }
+    }
+    
+    private ServiceInfo doProcessServiceInfo(ServiceInfo serviceInfo) {
         ServiceInfo oldService = serviceInfoMap.get(serviceInfo.getKey());
         if (isEmptyOrErrorPush(serviceInfo)) {
             //empty or error push, just ignore
             return oldService;
         }
+        InstancesDiff diff = diffServiceInfo(oldService, serviceInfo);
+        boolean changed = null == diff || diff.isChanged();
+        if (changed) {
+            chooserMap.put(serviceInfo.getKey(), Balancer.buildChooser(serviceInfo.getKey(), serviceInfo.getHosts()));
+        }
         serviceInfoMap.put(serviceInfo.getKey(), serviceInfo);
-        boolean changed = isChangedServiceInfo(oldService, serviceInfo);
         if (StringUtils.isBlank(serviceInfo.getJsonFromServer())) {
-            serviceInfo.setJsonFromServer(JacksonUtils.toJson(serviceInfo));
+            // the json of an unchanged service is the same as the old one, except the refresh time.
+            serviceInfo.setJsonFromServer(changed ? JacksonUtils.toJson(serviceInfo) : oldService.getJsonFromServer());
         }
         MetricsMonitor.getServiceInfoMapSizeMonitor().set(serviceInfoMap.size());
         if (changed) {
             NAMING_LOGGER.info("current ips:(" + serviceInfo.ipCount() + ") service: " + serviceInfo.getKey() + " -> "
                     + JacksonUtils.toJson(serviceInfo.getHosts()));
             NotifyCenter.publishEvent(new InstancesChangeEvent(serviceInfo.getName(), serviceInfo.getGroupName(),
-                    serviceInfo.getClusters(), serviceInfo.getHosts()));
+                    serviceInfo.getClusters(), serviceInfo.getHosts(), diff));
             DiskCache.write(serviceInfo, cacheDir);
         }
         return serviceInfo;
@@ -158,78 +198,38 @@ public class ServiceInfoHolder implements Closeable {
         return null == serviceInfo.getHosts() || (pushEmptyProtection && !serviceInfo.validate());
     }
     
-    private boolean isChangedServiceInfo(ServiceInfo oldService, ServiceInfo newService) {
+    /**
+     * Diff the instances of the new service info with the old one.
+     *
+     * @return difference of instances, {@code null} if there is no old service info
+     */
+    private InstancesDiff diffServiceInfo(ServiceInfo oldService, ServiceInfo newService) {
         if (null == oldService) {
             NAMING_LOGGER.info("init new ips(" + newService.ipCount() + ") service: " + newService.getKey() + " -> "
                     + JacksonUtils.toJson(newService.getHosts()));
-            return true;
+            return null;
         }
         if (oldService.getLastRefTime() > newService.getLastRefTime()) {
             NAMING_LOGGER
                     .warn("out of date data received, old-t: " + oldService.getLastRefTime() + ", new-t: " + newService
                             .getLastRefTime());
         }
-        boolean changed = false;
-        Map<String, Instance> oldHostMap = new HashMap<String, Instance>(oldService.getHosts().size());
-        for (Instance host : oldService.getHosts()) {
-            oldHostMap.put(host.toInetAddr(), host);
-        }
-        Map<String, Instance> newHostMap = new HashMap<String, Instance>(newService.getHosts().size());
-        for (Instance host : newService.getHosts()) {
-            newHostMap.put(host.toInetAddr(), host);
-        }
-        
-        Set<Instance> modHosts = new HashSet<Instance>();
-        Set<Instance> newHosts = new HashSet<Instance>();
-        Set<Instance> remvHosts = new HashSet<Instance>();
-        
-        List<Map.Entry<String, Instance>> newServiceHosts = new ArrayList<Map.Entry<String, Instance>>(
-                newHostMap.entrySet());
-        for (Map.Entry<String, Instance> entry : newServiceHosts) {
-            Instance host = entry.getValue();
-            String key = entry.getKey();
-            if (oldHostMap.containsKey(key) && !StringUtils.equals(host.toString(), oldHostMap.get(key).toString())) {
-                modHosts.add(host);
-                continue;
-            }
-            
-            if (!oldHostMap.containsKey(key)) {
-                newHosts.add(host);
-            }
-        }
-        
-        for (Map.Entry<String, Instance> entry : oldHostMap.entrySet()) {
-            Instance host = entry.getValue();
-            String key = entry.getKey();
-            if (newHostMap.containsKey(key)) {
-                continue;
-            }
-            
-            if (!newHostMap.containsKey(key)) {
-                remvHosts.add(host);
-            }
-            
-        }
-        
-        if (newHosts.size() > 0) {
-            changed = true;
-            NAMING_LOGGER
-                    .info("new ips(" + newHosts.size() + ") service: " + newService.getKey() + " -> " + JacksonUtils
-                            .toJson(newHosts));
+        InstancesDiff diff = InstancesDiff.compare(oldService.getHosts(), newService.getHosts());
+        if (!diff.getAddedInstances().isEmpty()) {
+            NAMING_LOGGER.info("new ips(" + diff.getAddedInstances().size() + ") service: " + newService.getKey()
+                    + " -> " + JacksonUtils.toJson(diff.getAddedInstances()));
         }
         
-        if (remvHosts.size() > 0) {
-            changed = true;
-            NAMING_LOGGER.info("removed ips(" + remvHosts.size() + ") service: " + newService.getKey() + " -> "
-                    + JacksonUtils.toJson(remvHosts));
+        if (!diff.getRemovedInstances().isEmpty()) {
+            NAMING_LOGGER.info("removed ips(" + diff.getRemovedInstances().size() + ") service: " + newService.getKey()
+                    + " -> " + JacksonUtils.toJson(diff.getRemovedInstances()));
         }
         
-        if (modHosts.size() > 0) {
-            changed = true;
-            NAMING_LOGGER.info("modified ips(" + modHosts.size() + ") service: " + newService.getKey() + " -> "
-                    + JacksonUtils.toJson(modHosts));
+        if (!diff.getModifiedInstances().isEmpty()) {
+            NAMING_LOGGER.info("modified ips(" + diff.getModifiedInstances().size() + ") service: " + newService
+                    .getKey() + " -> " + JacksonUtils.toJson(diff.getModifiedInstances()));
         }
-        return changed;
+        return diff;
     }
     
     @Override
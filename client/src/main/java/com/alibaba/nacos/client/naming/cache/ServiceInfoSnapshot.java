@@ -0,0 +1,439 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.client.naming.cache;
+
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
+import com.alibaba.nacos.common.utils.JacksonUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32;
+
+import static com.alibaba.nacos.client.utils.LogUtils.NAMING_LOGGER;
+
+/**
+ * Binary snapshot of service infos in one directory, replaces the JSON file per service.
+ *
+ * <p>The snapshot is a log of length-prefixed records: {@code [int length][int crc32][service info]}. Writing a service
+ * info appends one record, loading reads the file and keeps the last record of every service. The log is compacted when
+ * it is more than twice the size of the live records. A broken tail left by a crashed writer is truncated.
+ *
+ * <p>Several clients may share the directory, so every modification holds the lock of {@link #LOCK_FILE_NAME} and
+ * opens the snapshot file again. In one process there is only one snapshot per directory, see {@link #of(String)}.
+ *
+ * @author Nacos
+ */
+public class ServiceInfoSnapshot {
+    
+    public static final String SNAPSHOT_FILE_NAME = "naming-snapshot.dat";
+    
+    public static final String LOCK_FILE_NAME = "naming-snapshot.lock";
+    
+    private static final int MAGIC = 0x4E534E50;
+    
+    private static final int HEADER_LENGTH = 4;
+    
+    private static final int RECORD_HEADER_LENGTH = 8;
+    
+    private static final long COMPACT_MIN_LENGTH = 1024 * 1024L;
+    
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    
+    private static final Map<String, ServiceInfoSnapshot> SNAPSHOTS = new ConcurrentHashMap<>(4);
+    
+    private final File dir;
+    
+    private final File file;
+    
+    private final File lockFile;
+    
+    /**
+     * Record length of every service, as seen by this snapshot.
+     */
+    private final Map<String, Integer> recordLengths = new HashMap<String, Integer>(16);
+    
+    private long liveLength;
+    
+    /**
+     * File length after the last load or write of this snapshot, -1 if never loaded.
+     */
+    private long fileLength = -1L;
+    
+    private ServiceInfoSnapshot(File dir) {
+        this.dir = dir;
+        this.file = new File(dir, SNAPSHOT_FILE_NAME);
+        this.lockFile = new File(dir, LOCK_FILE_NAME);
+    }
+    
+    /**
+     * Get the snapshot of the directory.
+     *
+     * @param dir directory
+     * @return snapshot
+     */
+    public static ServiceInfoSnapshot of(String dir) {
+        File file = new File(dir).getAbsoluteFile();
+        String key = file.getPath();
+        ServiceInfoSnapshot snapshot = SNAPSHOTS.get(key);
+        if (snapshot == null) {
+            SNAPSHOTS.putIfAbsent(key, new ServiceInfoSnapshot(file));
+            snapshot = SNAPSHOTS.get(key);
+        }
+        return snapshot;
+    }
+    
+    public boolean exists() {
+        return file.isFile();
+    }
+    
+    /**
+     * Load all service infos of the snapshot.
+     *
+     * @return service infos, key is {@link ServiceInfo#getKey()}
+     * @throws IOException io exception
+     */
+    public synchronized Map<String, ServiceInfo> load() throws IOException {
+        if (!exists()) {
+            return new HashMap<String, ServiceInfo>(16);
+        }
+        FileLock lock = lock();
+        try {
+            return loadLocked();
+        } finally {
+            release(lock);
+        }
+    }
+    
+    /**
+     * Append the service info to the snapshot.
+     *
+     * @param serviceInfo service info
+     * @throws IOException io exception
+     */
+    public synchronized void write(ServiceInfo serviceInfo) throws IOException {
+        byte[] record = encodeRecord(serviceInfo);
+        FileLock lock = lock();
+        try {
+            if (fileLength < 0 || file.length() != fileLength) {
+                // Never loaded, or written by other clients, make sure there is no broken tail.
+                loadLocked();
+            }
+            FileOutputStream out = new FileOutputStream(file, true);
+            try {
+                if (fileLength <= 0) {
+                    out.write(header());
+                }
+                out.write(record);
+            } finally {
+                out.close();
+            }
+            fileLength = file.length();
+            track(serviceInfo.getKey(), record.length);
+            if (fileLength > COMPACT_MIN_LENGTH && fileLength > 2 * (liveLength + HEADER_LENGTH)) {
+                compactLocked();
+            }
+        } finally {
+            release(lock);
+        }
+    }
+    
+    /**
+     * Replace the whole snapshot with the service infos.
+     *
+     * @param serviceInfos service infos
+     * @throws IOException io exception
+     */
+    public synchronized void writeAll(Collection<ServiceInfo> serviceInfos) throws IOException {
+        FileLock lock = lock();
+        try {
+            rewriteLocked(serviceInfos);
+        } finally {
+            release(lock);
+        }
+    }
+    
+    /**
+     * Export every service info of the snapshot as one JSON file, the same format as the old disk cache.
+     *
+     * @param targetDir target directory
+     * @throws IOException io exception
+     */
+    public void exportJson(String targetDir) throws IOException {
+        File target = new File(targetDir);
+        if (!target.exists() && !target.mkdirs() && !target.exists()) {
+            throw new IOException("failed to create export dir: " + targetDir);
+        }
+        for (ServiceInfo each : load().values()) {
+            ConcurrentDiskUtil.writeFileContent(new File(target, each.getKeyEncoded()), JacksonUtils.toJson(each),
+                    Charset.defaultCharset().toString());
+        }
+    }
+    
+    private Map<String, ServiceInfo> loadLocked() throws IOException {
+        Map<String, ServiceInfo> result = new HashMap<String, ServiceInfo>(16);
+        recordLengths.clear();
+        liveLength = 0;
+        fileLength = 0;
+        if (!exists()) {
+            return result;
+        }
+        long validLength;
+        RandomAccessFile raf = new RandomAccessFile(file, "rw");
+        try {
+            FileChannel channel = raf.getChannel();
+            long size = channel.size();
+            if (size < HEADER_LENGTH) {
+                validLength = 0;
+            } else {
+                ByteBuffer buffer = readFully(channel, size);
+                boolean valid = buffer.remaining() >= HEADER_LENGTH && buffer.getInt() == MAGIC;
+                validLength = valid ? decodeRecords(buffer, result) : 0;
+            }
+            if (validLength < size) {
+                NAMING_LOGGER.warn("[NA] truncate broken tail of naming snapshot {}, {} -> {}", file, size,
+                        validLength);
+                channel.truncate(validLength);
+            }
+        } finally {
+            raf.close();
+        }
+        fileLength = validLength;
+        return result;
+    }
+    
+    /**
+     * Read the file into a heap buffer. The file is not mapped, a mapping stays alive until it is garbage collected,
+     * which blocks truncating and replacing the file on some platforms.
+     */
+    private static ByteBuffer readFully(FileChannel channel, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(size, Integer.MAX_VALUE));
+        channel.position(0);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+    
+    private long decodeRecords(ByteBuffer buffer, Map<String, ServiceInfo> result) {
+        long validLength = buffer.position();
+        CRC32 crc32 = new CRC32();
+        while (buffer.remaining() >= RECORD_HEADER_LENGTH) {
+            int length = buffer.getInt();
+            int crc = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) {
+                break;
+            }
+            byte[] body = new byte[length];
+            buffer.get(body);
+            crc32.reset();
+            crc32.update(body, 0, length);
+            if ((int) crc32.getValue() != crc) {
+                break;
+            }
+            try {
+                ServiceInfo serviceInfo = readServiceInfo(ByteBuffer.wrap(body));
+                result.put(serviceInfo.getKey(), serviceInfo);
+                track(serviceInfo.getKey(), RECORD_HEADER_LENGTH + length);
+            } catch (RuntimeException e) {
+                break;
+            }
+            validLength = buffer.position();
+        }
+        return validLength;
+    }
+    
+    private void compactLocked() throws IOException {
+        Map<String, ServiceInfo> serviceInfos = loadLocked();
+        rewriteLocked(serviceInfos.values());
+        NAMING_LOGGER.info("[NA] compact naming snapshot {}, {} services", file, serviceInfos.size());
+    }
+    
+    private void rewriteLocked(Collection<ServiceInfo> serviceInfos) throws IOException {
+        File tmp = new File(dir, SNAPSHOT_FILE_NAME + ".tmp");
+        recordLengths.clear();
+        liveLength = 0;
+        FileOutputStream out = new FileOutputStream(tmp);
+        try {
+            out.write(header());
+            for (ServiceInfo each : serviceInfos) {
+                byte[] record = encodeRecord(each);
+                out.write(record);
+                track(each.getKey(), record.length);
+            }
+            out.getFD().sync();
+        } finally {
+            out.close();
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        fileLength = file.length();
+    }
+    
+    private void track(String key, int recordLength) {
+        Integer old = recordLengths.put(key, recordLength);
+        liveLength += recordLength - (old == null ? 0 : old);
+    }
+    
+    private FileLock lock() throws IOException {
+        if (!dir.exists() && !dir.mkdirs() && !dir.exists()) {
+            throw new IOException("failed to create cache dir: " + dir);
+        }
+        FileChannel channel = new RandomAccessFile(lockFile, "rw").getChannel();
+        try {
+            return channel.lock();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+    
+    private static void release(FileLock lock) throws IOException {
+        try {
+            lock.release();
+        } finally {
+            lock.channel().close();
+        }
+    }
+    
+    private static byte[] header() {
+        return ByteBuffer.allocate(HEADER_LENGTH).putInt(MAGIC).array();
+    }
+    
+    static byte[] encodeRecord(ServiceInfo serviceInfo) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0);
+        out.writeInt(0);
+        writeServiceInfo(out, serviceInfo);
+        out.flush();
+        byte[] record = bytes.toByteArray();
+        int length = record.length - RECORD_HEADER_LENGTH;
+        CRC32 crc32 = new CRC32();
+        crc32.update(record, RECORD_HEADER_LENGTH, length);
+        ByteBuffer.wrap(record).putInt(length).putInt((int) crc32.getValue());
+        return record;
+    }
+    
+    private static void writeServiceInfo(DataOutputStream out, ServiceInfo serviceInfo) throws IOException {
+        writeString(out, serviceInfo.getName());
+        writeString(out, serviceInfo.getGroupName());
+        writeString(out, serviceInfo.getClusters());
+        writeString(out, serviceInfo.getChecksum());
+        out.writeLong(serviceInfo.getCacheMillis());
+        out.writeLong(serviceInfo.getLastRefTime());
+        out.writeBoolean(serviceInfo.isAllIPs());
+        List<Instance> hosts = serviceInfo.getHosts();
+        out.writeInt(hosts.size());
+        for (Instance each : hosts) {
+            writeString(out, each.getInstanceId());
+            writeString(out, each.getIp());
+            out.writeInt(each.getPort());
+            out.writeDouble(each.getWeight());
+            out.writeBoolean(each.isHealthy());
+            out.writeBoolean(each.isEnabled());
+            out.writeBoolean(each.isEphemeral());
+            writeString(out, each.getClusterName());
+            writeString(out, each.getServiceName());
+            Map<String, String> metadata = each.getMetadata();
+            out.writeInt(metadata == null ? -1 : metadata.size());
+            if (metadata != null) {
+                for (Map.Entry<String, String> entry : metadata.entrySet()) {
+                    writeString(out, entry.getKey());
+                    writeString(out, entry.getValue());
+                }
+            }
+        }
+    }
+    
+    private static ServiceInfo readServiceInfo(ByteBuffer buffer) {
+        ServiceInfo serviceInfo = new ServiceInfo();
+        serviceInfo.setName(readString(buffer));
+        serviceInfo.setGroupName(readString(buffer));
+        serviceInfo.setClusters(readString(buffer));
+        serviceInfo.setChecksum(readString(buffer));
+        serviceInfo.setCacheMillis(buffer.getLong());
+        serviceInfo.setLastRefTime(buffer.getLong());
+        serviceInfo.setAllIPs(buffer.get() != 0);
+        int hostCount = buffer.getInt();
+        List<Instance> hosts = new ArrayList<Instance>(hostCount);
+        for (int i = 0; i < hostCount; i++) {
+            Instance instance = new Instance();
+            instance.setInstanceId(readString(buffer));
+            instance.setIp(readString(buffer));
+            instance.setPort(buffer.getInt());
+            instance.setWeight(buffer.getDouble());
+            instance.setHealthy(buffer.get() != 0);
+            instance.setEnabled(buffer.get() != 0);
+            instance.setEphemeral(buffer.get() != 0);
+            instance.setClusterName(readString(buffer));
+            instance.setServiceName(readString(buffer));
+            int metadataSize = buffer.getInt();
+            if (metadataSize < 0) {
+                instance.setMetadata(null);
+            } else {
+                Map<String, String> metadata = new HashMap<String, String>(Math.max(16, metadataSize * 2));
+                for (int j = 0; j < metadataSize; j++) {
+                    metadata.put(readString(buffer), readString(buffer));
+                }
+                instance.setMetadata(metadata);
+            }
+            hosts.add(instance);
+        }
+        serviceInfo.setHosts(hosts);
+        return serviceInfo;
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+}
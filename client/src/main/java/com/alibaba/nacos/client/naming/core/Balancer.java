@@ -68,6 +68,38 @@ public class Balancer {
             
             return getHostByRandomWeight(hosts);
         }
+    
+        /**
+         * Random select one instance from service with the chooser prebuilt for it.
+         *
+         * @param dom     service
+         * @param chooser chooser prebuilt for the hosts of service, null if not built
+         * @return random instance
+         */
+        public static Instance selectHost(ServiceInfo dom, Chooser<String, Instance> chooser) {
+            if (chooser == null) {
+                return selectHost(dom);
+            }
+            selectAll(dom);
+            return chooser.randomWithWeight();
+        }
+    }
+    
+    /**
+     * Build the random-weight chooser of the healthy hosts.
+     *
+     * @param key   unique key of the chooser
+     * @param hosts The list of the host.
+     * @return chooser of the healthy hosts
+     */
+    public static Chooser<String, Instance> buildChooser(String key, List<Instance> hosts) {
+        List<Pair<Instance>> hostsWithWeight = new ArrayList<Pair<Instance>>();
+        for (Instance host : hosts) {
+            if (host.isHealthy()) {
+                hostsWithWeight.add(new Pair<Instance>(host, host.getWeight()));
+            }
+        }
+        return new Chooser<String, Instance>(key, hostsWithWeight);
     }
     
     /**
@@ -83,15 +115,7 @@ public class Balancer {
             return null;
         }
         NAMING_LOGGER.debug("new Chooser");
-        List<Pair<Instance>> hostsWithWeight = new ArrayList<Pair<Instance>>();
-        for (Instance host : hosts) {
-            if (host.isHealthy()) {
-                hostsWithWeight.add(new Pair<Instance>(host, host.getWeight()));
-            }
-        }
-        NAMING_LOGGER.debug("for (Host host : hosts)");
-        Chooser<String, Instance> vipChooser = new Chooser<String, Instance>("www.taobao.com");
-        vipChooser.refresh(hostsWithWeight);
+        Chooser<String, Instance> vipChooser = buildChooser("www.taobao.com", hosts);
         NAMING_LOGGER.debug("vipChooser.refresh");
         return vipChooser.randomWithWeight();
     }
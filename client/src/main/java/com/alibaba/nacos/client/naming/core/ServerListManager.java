@@ -148,6 +148,10 @@ public class ServerListManager implements ServerListFactory, Closeable {
         }
     }
     
+    public boolean isFixed() {
+        return StringUtils.isEmpty(endpoint);
+    }
+    
     public boolean isDomain() {
         return StringUtils.isNotBlank(nacosDomain);
     }
@@ -171,6 +175,14 @@ public class ServerListManager implements ServerListFactory, Closeable {
         return getServerList().get(currentIndex.get() % getServerList().size());
     }
     
+    @Override
+    public void switchToServer(String server) {
+        int index = getServerList().indexOf(server);
+        if (index >= 0) {
+            currentIndex.set(index);
+        }
+    }
+    
     @Override
     public void shutdown() throws NacosException {
         String className = this.getClass().getName();
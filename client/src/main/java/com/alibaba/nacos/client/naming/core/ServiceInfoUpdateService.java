@@ -29,7 +29,9 @@ import com.alibaba.nacos.common.lifecycle.Closeable;
 import com.alibaba.nacos.common.utils.ConvertUtils;
 import com.alibaba.nacos.common.utils.ThreadUtils;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.concurrent.ScheduledExecutorService;
@@ -42,12 +44,19 @@ import static com.alibaba.nacos.client.utils.LogUtils.NAMING_LOGGER;
 /**
  * Service information update service.
  *
+ * <p>If {@link PropertyKeyConst#NAMING_PUSH_ONLY} is enabled, the update tasks stop querying while the server is able
+ * to push changes. Instead, one checksum request for all subscribed services is sent periodically, and only the
+ * services whose checksums are different from the server are queried. The update tasks keep querying until a checksum
+ * check succeeds, and fall back to querying whenever it fails, e.g. the server is too old to handle it.
+ *
  * @author xiweng.yy
  */
 public class ServiceInfoUpdateService implements Closeable {
     
     private static final long DEFAULT_DELAY = 1000L;
     
+    private static final long CHECKSUM_CHECK_INTERVAL = 10000L;
+    
     private final Map<String, ScheduledFuture<?>> futureMap = new HashMap<String, ScheduledFuture<?>>();
     
     private final ServiceInfoHolder serviceInfoHolder;
@@ -58,6 +67,13 @@ public class ServiceInfoUpdateService implements Closeable {
     
     private final InstancesChangeNotifier changeNotifier;
     
+    private final boolean pushOnly;
+    
+    /**
+     * Whether the last checksum check succeeded, only then the update tasks can rely on push and checksum check.
+     */
+    private volatile boolean checksumAvailable = false;
+    
     public ServiceInfoUpdateService(Properties properties, ServiceInfoHolder serviceInfoHolder,
             NamingClientProxy namingClientProxy, InstancesChangeNotifier changeNotifier) {
         this.executor = new ScheduledThreadPoolExecutor(initPollingThreadCount(properties),
@@ -65,6 +81,12 @@ public class ServiceInfoUpdateService implements Closeable {
         this.serviceInfoHolder = serviceInfoHolder;
         this.namingClientProxy = namingClientProxy;
         this.changeNotifier = changeNotifier;
+        this.pushOnly = null != properties && ConvertUtils
+                .toBoolean(properties.getProperty(PropertyKeyConst.NAMING_PUSH_ONLY), false);
+        if (pushOnly) {
+            executor.scheduleWithFixedDelay(new ChecksumCheckTask(), CHECKSUM_CHECK_INTERVAL, CHECKSUM_CHECK_INTERVAL,
+                    TimeUnit.MILLISECONDS);
+        }
     }
     
     private int initPollingThreadCount(Properties properties) {
@@ -121,6 +143,55 @@ public class ServiceInfoUpdateService implements Closeable {
         }
     }
     
+    private boolean isPushOnlyAvailable() {
+        return pushOnly && checksumAvailable && namingClientProxy.isPushAvailable();
+    }
+    
+    /**
+     * Check the checksums of all subscribed services in one request, and query the changed services.
+     */
+    void checkServiceChecksums() {
+        if (!namingClientProxy.isPushAvailable()) {
+            return;
+        }
+        List<String> serviceKeys;
+        synchronized (futureMap) {
+            serviceKeys = new ArrayList<String>(futureMap.keySet());
+        }
+        Map<String, String> checksums = new HashMap<String, String>(serviceKeys.size());
+        for (String each : serviceKeys) {
+            ServiceInfo serviceInfo = serviceInfoHolder.getServiceInfoMap().get(each);
+            if (null != serviceInfo) {
+                checksums.put(each, NamingUtils.getInstancesChecksum(serviceInfo.getHosts()));
+            }
+        }
+        if (checksums.isEmpty()) {
+            return;
+        }
+        List<String> changedServiceKeys;
+        try {
+            changedServiceKeys = namingClientProxy.checkServiceChecksums(checksums);
+        } catch (Throwable e) {
+            if (checksumAvailable) {
+                NAMING_LOGGER.warn("[NA] failed to check checksums of subscribed services, fall back to polling", e);
+            }
+            checksumAvailable = false;
+            return;
+        }
+        checksumAvailable = true;
+        for (String each : changedServiceKeys) {
+            try {
+                ServiceInfo changed = new ServiceInfo(each);
+                NAMING_LOGGER.info("[NA] checksum of service {} is changed, query from server", each);
+                serviceInfoHolder.processServiceInfo(namingClientProxy
+                        .queryInstancesOfService(changed.getName(), changed.getGroupName(), changed.getClusters(), 0,
+                                false));
+            } catch (Throwable e) {
+                NAMING_LOGGER.warn("[NA] failed to query changed service " + each, e);
+            }
+        }
+    }
+    
     @Override
     public void shutdown() throws NacosException {
         String className = this.getClass().getName();
@@ -171,6 +242,13 @@ public class ServiceInfoUpdateService implements Closeable {
                     return;
                 }
                 
+                if (isPushOnlyAvailable()) {
+                    // Changes are pushed by server, lost pushes are found by checksum check task.
+                    lastRefTime = serviceObj.getLastRefTime();
+                    delayTime = serviceObj.getCacheMillis();
+                    return;
+                }
+                
                 if (serviceObj.getLastRefTime() <= lastRefTime) {
                     serviceObj = namingClientProxy.queryInstancesOfService(serviceName, groupName, clusters, 0, false);
                     serviceInfoHolder.processServiceInfo(serviceObj);
@@ -188,4 +266,16 @@ public class ServiceInfoUpdateService implements Closeable {
             
         }
     }
+    
+    private class ChecksumCheckTask implements Runnable {
+        
+        @Override
+        public void run() {
+            try {
+                checkServiceChecksums();
+            } catch (Throwable e) {
+                NAMING_LOGGER.warn("[NA] failed to check checksums of subscribed services", e);
+            }
+        }
+    }
 }
@@ -39,11 +39,19 @@ public class InstancesChangeEvent extends Event {
     
     private final List<Instance> hosts;
     
+    private final transient InstancesDiff instancesDiff;
+    
     public InstancesChangeEvent(String serviceName, String groupName, String clusters, List<Instance> hosts) {
+        this(serviceName, groupName, clusters, hosts, null);
+    }
+    
+    public InstancesChangeEvent(String serviceName, String groupName, String clusters, List<Instance> hosts,
+            InstancesDiff instancesDiff) {
         this.serviceName = serviceName;
         this.groupName = groupName;
         this.clusters = clusters;
         this.hosts = hosts;
+        this.instancesDiff = instancesDiff;
     }
     
     public String getServiceName() {
@@ -62,4 +70,13 @@ public class InstancesChangeEvent extends Event {
         return hosts;
     }
     
+    /**
+     * Get the difference with the instances before the change.
+     *
+     * @return difference of instances, {@code null} if the service is new
+     */
+    public InstancesDiff getInstancesDiff() {
+        return instancesDiff;
+    }
+    
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.client.naming.event;
+
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacos.common.utils.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Difference between the instances of two versions of a service, instances are matched by ip and port.
+ *
+ * <p>Servers push the instances in a stable order, so the instances are compared by position first and no index is
+ * built unless the addresses differ at some position. Instances are compared field by field instead of by
+ * {@link Instance#toString()}, an unchanged push does not allocate anything.
+ *
+ * @author Nacos
+ */
+public class InstancesDiff {
+    
+    private final List<Instance> addedInstances;
+    
+    private final List<Instance> removedInstances;
+    
+    private final List<Instance> modifiedInstances;
+    
+    private InstancesDiff(List<Instance> addedInstances, List<Instance> removedInstances,
+            List<Instance> modifiedInstances) {
+        this.addedInstances = addedInstances;
+        this.removedInstances = removedInstances;
+        this.modifiedInstances = modifiedInstances;
+    }
+    
+    public List<Instance> getAddedInstances() {
+        return addedInstances;
+    }
+    
+    public List<Instance> getRemovedInstances() {
+        return removedInstances;
+    }
+    
+    public List<Instance> getModifiedInstances() {
+        return modifiedInstances;
+    }
+    
+    public boolean isChanged() {
+        return !addedInstances.isEmpty() || !removedInstances.isEmpty() || !modifiedInstances.isEmpty();
+    }
+    
+    /**
+     * Compare the instances of two versions of a service.
+     *
+     * @param oldInstances instances of the old version
+     * @param newInstances instances of the new version
+     * @return difference, modified instances are the ones of the new version
+     */
+    public static InstancesDiff compare(List<Instance> oldInstances, List<Instance> newInstances) {
+        if (oldInstances.size() == newInstances.size()) {
+            List<Instance> modified = null;
+            boolean sameOrder = true;
+            for (int i = 0; i < newInstances.size() && sameOrder; i++) {
+                Instance oldInstance = oldInstances.get(i);
+                Instance newInstance = newInstances.get(i);
+                if (!sameAddress(oldInstance, newInstance)) {
+                    sameOrder = false;
+                } else if (!sameContent(oldInstance, newInstance)) {
+                    if (null == modified) {
+                        modified = new ArrayList<Instance>();
+                    }
+                    modified.add(newInstance);
+                }
+            }
+            if (sameOrder) {
+                return new InstancesDiff(Collections.<Instance>emptyList(), Collections.<Instance>emptyList(),
+                        null == modified ? Collections.<Instance>emptyList() : modified);
+            }
+        }
+        return compareByAddress(oldInstances, newInstances);
+    }
+    
+    private static InstancesDiff compareByAddress(List<Instance> oldInstances, List<Instance> newInstances) {
+        Map<String, Instance> oldIndex = new HashMap<String, Instance>(oldInstances.size() * 4 / 3 + 1);
+        for (Instance each : oldInstances) {
+            oldIndex.put(each.toInetAddr(), each);
+        }
+        List<Instance> added = new ArrayList<Instance>();
+        List<Instance> modified = new ArrayList<Instance>();
+        for (Instance each : newInstances) {
+            Instance oldInstance = oldIndex.remove(each.toInetAddr());
+            if (null == oldInstance) {
+                added.add(each);
+            } else if (!sameContent(oldInstance, each)) {
+                modified.add(each);
+            }
+        }
+        return new InstancesDiff(added, new ArrayList<Instance>(oldIndex.values()), modified);
+    }
+    
+    private static boolean sameAddress(Instance oldInstance, Instance newInstance) {
+        return oldInstance.getPort() == newInstance.getPort() && StringUtils
+                .equals(oldInstance.getIp(), newInstance.getIp());
+    }
+    
+    private static boolean sameContent(Instance oldInstance, Instance newInstance) {
+        return Double.compare(oldInstance.getWeight(), newInstance.getWeight()) == 0
+                && oldInstance.isHealthy() == newInstance.isHealthy()
+                && oldInstance.isEnabled() == newInstance.isEnabled()
+                && oldInstance.isEphemeral() == newInstance.isEphemeral()
+                && StringUtils.equals(oldInstance.getInstanceId(), newInstance.getInstanceId())
+                && StringUtils.equals(oldInstance.getClusterName(), newInstance.getClusterName())
+                && StringUtils.equals(oldInstance.getServiceName(), newInstance.getServiceName())
+                && sameMetadata(oldInstance.getMetadata(), newInstance.getMetadata());
+    }
+    
+    private static boolean sameMetadata(Map<String, String> oldMetadata, Map<String, String> newMetadata) {
+        return null == oldMetadata ? null == newMetadata : oldMetadata.equals(newMetadata);
+    }
+}
@@ -24,6 +24,8 @@ import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
 import com.alibaba.nacos.api.selector.AbstractSelector;
 import com.alibaba.nacos.common.lifecycle.Closeable;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -162,4 +164,20 @@ public interface NamingClientProxy extends Closeable {
      * @return true if server is healthy
      */
     boolean serverHealthy();
+    
+    /**
+     * Whether the changes of subscribed services are pushed by server now.
+     *
+     * @return true if push channel is available
+     */
+    boolean isPushAvailable();
+    
+    /**
+     * Compare the checksums of services cached by client with server.
+     *
+     * @param checksums checksums of services, key is the key of service info
+     * @return keys of the services which are changed
+     * @throws NacosException nacos exception
+     */
+    List<String> checkServiceChecksums(Map<String, String> checksums) throws NacosException;
 }
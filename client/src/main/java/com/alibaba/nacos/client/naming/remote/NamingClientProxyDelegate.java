@@ -30,6 +30,8 @@ import com.alibaba.nacos.client.naming.event.InstancesChangeNotifier;
 import com.alibaba.nacos.client.naming.remote.gprc.NamingGrpcClientProxy;
 import com.alibaba.nacos.client.naming.remote.http.NamingHttpClientProxy;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
 
@@ -138,6 +140,16 @@ public class NamingClientProxyDelegate implements NamingClientProxy {
         return grpcClientProxy.serverHealthy() || httpClientProxy.serverHealthy();
     }
     
+    @Override
+    public boolean isPushAvailable() {
+        return getExecuteClientProxy().isPushAvailable();
+    }
+    
+    @Override
+    public List<String> checkServiceChecksums(Map<String, String> checksums) throws NacosException {
+        return getExecuteClientProxy().checkServiceChecksums(checksums);
+    }
+    
     private NamingClientProxy getExecuteClientProxy() {
         return grpcClientProxy;
     }
@@ -16,6 +16,8 @@
 
 package com.alibaba.nacos.client.naming.remote.gprc;
 
+import com.alibaba.nacos.api.PropertyKeyConst;
+import com.alibaba.nacos.api.common.Constants;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.naming.CommonParams;
 import com.alibaba.nacos.api.naming.pojo.Instance;
@@ -24,10 +26,12 @@ import com.alibaba.nacos.api.naming.pojo.Service;
 import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
 import com.alibaba.nacos.api.naming.remote.NamingRemoteConstants;
 import com.alibaba.nacos.api.naming.remote.request.InstanceRequest;
+import com.alibaba.nacos.api.naming.remote.request.ServiceChecksumRequest;
 import com.alibaba.nacos.api.naming.remote.request.ServiceListRequest;
 import com.alibaba.nacos.api.naming.remote.request.ServiceQueryRequest;
 import com.alibaba.nacos.api.naming.remote.request.SubscribeServiceRequest;
 import com.alibaba.nacos.api.naming.remote.response.QueryServiceResponse;
+import com.alibaba.nacos.api.naming.remote.response.ServiceChecksumResponse;
 import com.alibaba.nacos.api.naming.remote.response.ServiceListResponse;
 import com.alibaba.nacos.api.naming.remote.response.SubscribeServiceResponse;
 import com.alibaba.nacos.api.naming.utils.NamingUtils;
@@ -37,15 +41,21 @@ import com.alibaba.nacos.api.remote.response.Response;
 import com.alibaba.nacos.api.remote.response.ResponseCode;
 import com.alibaba.nacos.api.selector.AbstractSelector;
 import com.alibaba.nacos.api.selector.SelectorType;
+import com.alibaba.nacos.client.monitor.MetricsMonitor;
 import com.alibaba.nacos.client.naming.cache.ServiceInfoHolder;
+import com.alibaba.nacos.client.naming.core.ServerListManager;
 import com.alibaba.nacos.client.naming.remote.NamingClientProxy;
+import com.alibaba.nacos.client.utils.AppNameUtils;
 import com.alibaba.nacos.common.remote.ConnectionType;
 import com.alibaba.nacos.common.remote.client.RpcClient;
 import com.alibaba.nacos.common.remote.client.RpcClientFactory;
+import com.alibaba.nacos.common.remote.client.RpcClientLease;
 import com.alibaba.nacos.common.remote.client.ServerListFactory;
+import com.alibaba.nacos.common.utils.ConvertUtils;
 import com.alibaba.nacos.common.utils.JacksonUtils;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
@@ -68,6 +78,11 @@ public class NamingGrpcClientProxy implements NamingClientProxy {
     
     private final RpcClient rpcClient;
     
+    /**
+     * Lease of the rpc client shared with config, null if the rpc client is not shared.
+     */
+    private final RpcClientLease rpcClientLease;
+    
     private final NamingGrpcConnectionEventListener namingGrpcConnectionEventListener;
     
     public NamingGrpcClientProxy(String namespaceId, ServerListFactory serverListFactory, Properties properties,
@@ -78,15 +93,47 @@ public class NamingGrpcClientProxy implements NamingClientProxy {
         Map<String, String> labels = new HashMap<String, String>();
         labels.put(RemoteConstants.LABEL_SOURCE, RemoteConstants.LABEL_SOURCE_SDK);
         labels.put(RemoteConstants.LABEL_MODULE, RemoteConstants.LABEL_MODULE_NAMING);
-        this.rpcClient = RpcClientFactory.createClient(uuid, ConnectionType.GRPC, labels);
+        this.rpcClientLease = acquireSharedClient(serverListFactory, properties, labels);
+        this.rpcClient = null != rpcClientLease ? rpcClientLease.getRpcClient()
+                : RpcClientFactory.createClient(uuid, ConnectionType.GRPC, labels);
+        this.rpcClient.setHedgeRatio(
+                ConvertUtils.toDouble(properties.getProperty(PropertyKeyConst.RPC_CLIENT_HEDGE_RATIO), 0D));
         this.namingGrpcConnectionEventListener = new NamingGrpcConnectionEventListener(this);
         start(serverListFactory, serviceInfoHolder);
     }
     
+    private RpcClientLease acquireSharedClient(ServerListFactory serverListFactory, Properties properties,
+            Map<String, String> labels) {
+        boolean shared = ConvertUtils.toBoolean(properties.getProperty(PropertyKeyConst.RPC_CLIENT_SHARED), false);
+        if (!shared || !(serverListFactory instanceof ServerListManager) || !((ServerListManager) serverListFactory)
+                .isFixed()) {
+            return null;
+        }
+        Map<String, String> sharedLabels = new HashMap<String, String>(labels);
+        sharedLabels.put(RemoteConstants.LABEL_MODULE, RemoteConstants.LABEL_MODULE_SHARED);
+        // Same as the labels of config, so that it can share the client created by config.
+        sharedLabels.put(Constants.APPNAME, AppNameUtils.getAppName());
+        RpcClientLease lease = RpcClientFactory
+                .acquireSharedClient(RemoteConstants.LABEL_MODULE_NAMING, ConnectionType.GRPC, sharedLabels,
+                        serverListFactory);
+        if (null == lease) {
+            NAMING_LOGGER.info("[{}] shared rpc client is used by another naming client or has different labels, "
+                    + "create a new one", uuid);
+        }
+        return lease;
+    }
+    
     private void start(ServerListFactory serverListFactory, ServiceInfoHolder serviceInfoHolder) throws NacosException {
+        NamingPushRequestHandler pushRequestHandler = new NamingPushRequestHandler(serviceInfoHolder);
+        if (null != rpcClientLease) {
+            rpcClientLease.registerServerRequestHandler(pushRequestHandler);
+            rpcClientLease.registerConnectionListener(namingGrpcConnectionEventListener);
+            rpcClient.start();
+            return;
+        }
         rpcClient.init(serverListFactory);
         rpcClient.start();
-        rpcClient.registerServerRequestHandler(new NamingPushRequestHandler(serviceInfoHolder));
+        rpcClient.registerServerRequestHandler(pushRequestHandler);
         rpcClient.registerConnectionListener(namingGrpcConnectionEventListener);
     }
     
@@ -191,10 +238,31 @@ public class NamingGrpcClientProxy implements NamingClientProxy {
         return rpcClient.isRunning();
     }
     
+    @Override
+    public boolean isPushAvailable() {
+        return rpcClient.isRunning();
+    }
+    
+    @Override
+    public List<String> checkServiceChecksums(Map<String, String> checksums) throws NacosException {
+        ServiceChecksumRequest request = new ServiceChecksumRequest(namespaceId, checksums);
+        ServiceChecksumResponse response = requestToServer(request, ServiceChecksumResponse.class);
+        return response.getChangedServiceKeys();
+    }
+    
     private <T extends Response> T requestToServer(Request request, Class<T> responseClass) throws NacosException {
+        long start = System.currentTimeMillis();
+        String code = "NA";
         try {
-            Response response =
-                    requestTimeout < 0 ? rpcClient.request(request) : rpcClient.request(request, requestTimeout);
+            Response response;
+            if (request instanceof ServiceQueryRequest) {
+                // queries are idempotent, hedge them to cut the tail latency.
+                response = requestTimeout < 0 ? rpcClient.hedgedRequest(request)
+                        : rpcClient.hedgedRequest(request, requestTimeout);
+            } else {
+                response = requestTimeout < 0 ? rpcClient.request(request) : rpcClient.request(request, requestTimeout);
+            }
+            code = String.valueOf(response.getResultCode());
             if (ResponseCode.SUCCESS.getCode() != response.getResultCode()) {
                 throw new NacosException(response.getErrorCode(), response.getMessage());
             }
@@ -204,13 +272,23 @@ public class NamingGrpcClientProxy implements NamingClientProxy {
             NAMING_LOGGER.error("Server return unexpected response '{}', expected response should be '{}'",
                     response.getClass().getName(), responseClass.getName());
         } catch (Exception e) {
+            if ("NA".equals(code) && e instanceof NacosException) {
+                code = String.valueOf(((NacosException) e).getErrCode());
+            }
             throw new NacosException(NacosException.SERVER_ERROR, "Request nacos server failed: ", e);
+        } finally {
+            MetricsMonitor.getRpcRequestMonitor("naming", request.getClass().getSimpleName(), code)
+                    .observe((System.currentTimeMillis() - start) / 1000.0);
         }
         throw new NacosException(NacosException.SERVER_ERROR, "Server return invalid response");
     }
     
     @Override
     public void shutdown() throws NacosException {
+        if (null != rpcClientLease) {
+            rpcClientLease.shutdown();
+            return;
+        }
         rpcClient.shutdown();
     }
     
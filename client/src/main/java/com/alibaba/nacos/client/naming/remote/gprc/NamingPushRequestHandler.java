@@ -21,8 +21,10 @@ import com.alibaba.nacos.api.naming.remote.response.NotifySubscriberResponse;
 import com.alibaba.nacos.api.remote.request.Request;
 import com.alibaba.nacos.api.remote.request.RequestMeta;
 import com.alibaba.nacos.api.remote.response.Response;
+import com.alibaba.nacos.client.monitor.MetricsMonitor;
 import com.alibaba.nacos.client.naming.cache.ServiceInfoHolder;
 import com.alibaba.nacos.common.remote.client.ServerRequestHandler;
+import io.prometheus.client.Histogram;
 
 /**
  * Naming push request handler.
@@ -41,7 +43,12 @@ public class NamingPushRequestHandler implements ServerRequestHandler {
     public Response requestReply(Request request, RequestMeta requestMeta) {
         if (request instanceof NotifySubscriberRequest) {
             NotifySubscriberRequest notifyResponse = (NotifySubscriberRequest) request;
-            serviceInfoHolder.processServiceInfo(notifyResponse.getServiceInfo());
+            Histogram.Timer timer = MetricsMonitor.getNamingPushProcessMonitor().startTimer();
+            try {
+                serviceInfoHolder.processServiceInfo(notifyResponse.getServiceInfo());
+            } finally {
+                timer.observeDuration();
+            }
             return new NotifySubscriberResponse();
         }
         return null;
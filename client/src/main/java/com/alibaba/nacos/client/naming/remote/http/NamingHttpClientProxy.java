@@ -57,8 +57,11 @@ import com.alibaba.nacos.common.utils.StringUtils;
 import com.alibaba.nacos.common.utils.ThreadUtils;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.http.HttpStatus;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -314,6 +317,40 @@ public class NamingHttpClientProxy implements NamingClientProxy {
         return JacksonUtils.toObj(result);
     }
     
+    /**
+     * Send beats of several instances in one request.
+     *
+     * @param beatInfos        beat infos
+     * @param lightBeatEnabled light beat
+     * @return beat result, results of every beat are in the same order as {@code beatInfos}
+     * @throws NacosException nacos exception
+     */
+    public JsonNode batchSendBeat(List<BeatInfo> beatInfos, boolean lightBeatEnabled) throws NacosException {
+        
+        if (NAMING_LOGGER.isDebugEnabled()) {
+            NAMING_LOGGER.debug("[BEAT] {} sending {} beats to server", namespaceId, beatInfos.size());
+        }
+        ArrayNode beats = JacksonUtils.createEmptyArrayNode();
+        for (BeatInfo beatInfo : beatInfos) {
+            if (lightBeatEnabled) {
+                ObjectNode beat = beats.addObject();
+                beat.put(CommonParams.SERVICE_NAME, beatInfo.getServiceName());
+                beat.put("cluster", beatInfo.getCluster());
+                beat.put("ip", beatInfo.getIp());
+                beat.put("port", beatInfo.getPort());
+            } else {
+                beats.add(JacksonUtils.transferToJsonNode(beatInfo));
+            }
+        }
+        Map<String, String> params = new HashMap<String, String>(4);
+        Map<String, String> bodyMap = new HashMap<String, String>(2);
+        params.put(CommonParams.NAMESPACE_ID, namespaceId);
+        params.put("lightBeat", String.valueOf(lightBeatEnabled));
+        bodyMap.put("beats", beats.toString());
+        String result = reqApi(UtilAndComs.nacosUrlBase + "/instance/beat/batch", params, bodyMap, HttpMethod.PUT);
+        return JacksonUtils.toObj(result);
+    }
+    
     @Override
     public boolean serverHealthy() {
         
@@ -328,6 +365,17 @@ public class NamingHttpClientProxy implements NamingClientProxy {
         }
     }
     
+    @Override
+    public boolean isPushAvailable() {
+        // Udp push may be lost without any notice.
+        return false;
+    }
+    
+    @Override
+    public List<String> checkServiceChecksums(Map<String, String> checksums) throws NacosException {
+        return new ArrayList<String>(checksums.keySet());
+    }
+    
     @Override
     public ListView<String> getServiceList(int pageNo, int pageSize, String groupName, AbstractSelector selector)
             throws NacosException {
@@ -48,12 +48,25 @@ public class Chooser<K, T> {
     }
     
     /**
-     * Random get one item with weight.
+     * Random get one item with weight, sampled from the alias table in O(1).
      *
      * @return item
      */
     public T randomWithWeight() {
         Ref<T> ref = this.ref;
+        int size = ref.aliases.length;
+        if (size == 0) {
+            return randomWithCumulativeWeight(ref);
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = random.nextInt(size);
+        if (random.nextDouble() < ref.probabilities[index]) {
+            return ref.items.get(index);
+        }
+        return ref.items.get(ref.aliases[index]);
+    }
+    
+    private T randomWithCumulativeWeight(Ref<T> ref) {
         double random = ThreadLocalRandom.current().nextDouble(0, 1);
         int index = Arrays.binarySearch(ref.weights, random);
         if (index < 0) {
@@ -115,6 +128,10 @@ public class Chooser<K, T> {
         
         private double[] weights;
         
+        private double[] probabilities = new double[0];
+        
+        private int[] aliases = new int[0];
+        
         public Ref(List<Pair<T>> itemsWithWeight) {
             this.itemsWithWeight = itemsWithWeight;
         }
@@ -164,12 +181,61 @@ public class Chooser<K, T> {
             double doublePrecisionDelta = 0.0001;
             
             if (index == 0 || (Math.abs(weights[index - 1] - 1) < doublePrecisionDelta)) {
+                buildAliasTable(exactWeights);
                 return;
             }
             throw new IllegalStateException(
                     "Cumulative Weight caculate wrong , the sum of probabilities does not equals 1.");
         }
         
+        /**
+         * Build the alias table of Vose's alias method, so that one item is chosen with one random index and one
+         * random double.
+         */
+        private void buildAliasTable(double[] exactWeights) {
+            int size = exactWeights.length;
+            double[] scaledWeights = new double[size];
+            int[] small = new int[size];
+            int[] large = new int[size];
+            int smallSize = 0;
+            int largeSize = 0;
+            for (int i = 0; i < size; i++) {
+                scaledWeights[i] = exactWeights[i] * size;
+                if (scaledWeights[i] < 1.0D) {
+                    small[smallSize++] = i;
+                } else {
+                    large[largeSize++] = i;
+                }
+            }
+            double[] probabilities = new double[size];
+            int[] aliases = new int[size];
+            while (smallSize > 0 && largeSize > 0) {
+                int less = small[--smallSize];
+                int more = large[--largeSize];
+                probabilities[less] = scaledWeights[less];
+                aliases[less] = more;
+                scaledWeights[more] = scaledWeights[more] + scaledWeights[less] - 1.0D;
+                if (scaledWeights[more] < 1.0D) {
+                    small[smallSize++] = more;
+                } else {
+                    large[largeSize++] = more;
+                }
+            }
+            // The rest are 1 except floating point errors.
+            while (largeSize > 0) {
+                int i = large[--largeSize];
+                probabilities[i] = 1.0D;
+                aliases[i] = i;
+            }
+            while (smallSize > 0) {
+                int i = small[--smallSize];
+                probabilities[i] = 1.0D;
+                aliases[i] = i;
+            }
+            this.probabilities = probabilities;
+            this.aliases = aliases;
+        }
+        
         @Override
         public int hashCode() {
             return itemsWithWeight.hashCode();
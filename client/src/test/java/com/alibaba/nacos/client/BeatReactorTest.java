@@ -16,18 +16,24 @@
 
 package com.alibaba.nacos.client;
 
+import com.alibaba.nacos.api.PropertyKeyConst;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.client.naming.beat.BeatInfo;
 import com.alibaba.nacos.client.naming.beat.BeatReactor;
 import com.alibaba.nacos.client.naming.remote.http.NamingHttpClientProxy;
+import com.alibaba.nacos.common.utils.JacksonUtils;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
+import org.mockito.Mockito;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.lang.reflect.Field;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Properties;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -58,6 +64,56 @@ public class BeatReactorTest {
         Assert.assertEquals(0, getActiveThread(beatReactor));
     }
     
+    @Test
+    public void testBatchBeat() throws InterruptedException, NacosException {
+        Properties properties = new Properties();
+        properties.setProperty(PropertyKeyConst.NAMING_CLIENT_BEAT_BATCH_ENABLED, "true");
+        Mockito.when(namingHttpClientProxy.batchSendBeat(Mockito.anyList(), Mockito.anyBoolean()))
+                .thenReturn(JacksonUtils.toObj("{\"clientBeatInterval\":5000,\"beats\":[{\"code\":10200},"
+                        + "{\"code\":10200}]}"));
+        BeatReactor beatReactor = new BeatReactor(namingHttpClientProxy, properties);
+        beatReactor.addBeatInfo("testService", buildBeatInfo(1234));
+        beatReactor.addBeatInfo("testService", buildBeatInfo(1235));
+        
+        Thread.sleep(2100L);
+        ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(namingHttpClientProxy).batchSendBeat(captor.capture(), Mockito.eq(false));
+        Assert.assertEquals(2, captor.getValue().size());
+        Mockito.verify(namingHttpClientProxy, Mockito.never()).sendBeat(Mockito.any(BeatInfo.class),
+                Mockito.anyBoolean());
+        beatReactor.shutdown();
+    }
+    
+    @Test
+    public void testBatchBeatFallback() throws InterruptedException, NacosException {
+        Properties properties = new Properties();
+        properties.setProperty(PropertyKeyConst.NAMING_CLIENT_BEAT_BATCH_ENABLED, "true");
+        Mockito.when(namingHttpClientProxy.batchSendBeat(Mockito.anyList(), Mockito.anyBoolean()))
+                .thenThrow(new NacosException(NacosException.NOT_FOUND, "not found"));
+        Mockito.when(namingHttpClientProxy.sendBeat(Mockito.any(BeatInfo.class), Mockito.anyBoolean()))
+                .thenReturn(JacksonUtils.toObj("{\"clientBeatInterval\":5000}"));
+        BeatReactor beatReactor = new BeatReactor(namingHttpClientProxy, properties);
+        beatReactor.addBeatInfo("testService", buildBeatInfo(1234));
+        
+        Thread.sleep(2100L);
+        Mockito.verify(namingHttpClientProxy).batchSendBeat(Mockito.anyList(), Mockito.anyBoolean());
+        Mockito.verify(namingHttpClientProxy).sendBeat(Mockito.any(BeatInfo.class), Mockito.anyBoolean());
+        beatReactor.shutdown();
+    }
+    
+    private BeatInfo buildBeatInfo(int port) {
+        BeatInfo beatInfo = new BeatInfo();
+        beatInfo.setServiceName("test");
+        beatInfo.setIp("11.11.11.11");
+        beatInfo.setPort(port);
+        beatInfo.setCluster("clusterName");
+        beatInfo.setWeight(1);
+        beatInfo.setMetadata(new HashMap<String, String>());
+        beatInfo.setScheduled(false);
+        beatInfo.setPeriod(1000L);
+        return beatInfo;
+    }
+    
     private int getActiveThread(BeatReactor beatReactor) throws NoSuchFieldException, IllegalAccessException {
         Field field = BeatReactor.class.getDeclaredField("executorService");
         field.setAccessible(true);
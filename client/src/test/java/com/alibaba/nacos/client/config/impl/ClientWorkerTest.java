@@ -0,0 +1,106 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.client.config.impl;
+
+import com.alibaba.nacos.api.config.listener.AbstractListener;
+import com.alibaba.nacos.api.config.remote.request.ConfigChangeNotifyRequest;
+import com.alibaba.nacos.client.config.filter.impl.ConfigFilterChainManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ClientWorkerTest {
+    
+    private static final String ENV_NAME = "push-content-test";
+    
+    private static final String DATA_ID = "dataId";
+    
+    private static final String GROUP = "group";
+    
+    private static final String CONTENT = "a=b";
+    
+    private CacheData cacheData;
+    
+    private final List<String> received = new ArrayList<String>();
+    
+    @Before
+    public void setUp() {
+        LocalConfigInfoProcessor.cleanEnvSnapshot(ENV_NAME);
+        cacheData = new CacheData(new ConfigFilterChainManager(), ENV_NAME, DATA_ID, GROUP, null);
+        cacheData.addListener(new AbstractListener() {
+            @Override
+            public void receiveConfigInfo(String configInfo) {
+                received.add(configInfo);
+            }
+        });
+    }
+    
+    @After
+    public void tearDown() {
+        LocalConfigInfoProcessor.cleanEnvSnapshot(ENV_NAME);
+    }
+    
+    @Test
+    public void testApplyPushedContent() {
+        ConfigChangeNotifyRequest request = buildRequest(CONTENT, CacheData.getMd5String(CONTENT));
+        request.setContentType("properties");
+        request.setLastModified(1000L);
+        Assert.assertTrue(ClientWorker.applyPushedContent(ENV_NAME, cacheData, request));
+        Assert.assertEquals(CONTENT, cacheData.getContent());
+        Assert.assertEquals(CacheData.getMd5String(CONTENT), cacheData.getMd5());
+        Assert.assertEquals("properties", cacheData.getType());
+        Assert.assertEquals(1000L, cacheData.getLastModifiedTs());
+        Assert.assertEquals(CONTENT, LocalConfigInfoProcessor.getSnapshot(ENV_NAME, DATA_ID, GROUP, null));
+        
+        cacheData.checkListenerMd5();
+        Assert.assertEquals(1, received.size());
+        Assert.assertEquals(CONTENT, received.get(0));
+    }
+    
+    @Test
+    public void testMd5Mismatch() {
+        String md5 = cacheData.getMd5();
+        Assert.assertFalse(ClientWorker.applyPushedContent(ENV_NAME, cacheData, buildRequest(CONTENT, "wrong")));
+        Assert.assertEquals(md5, cacheData.getMd5());
+        Assert.assertNull(LocalConfigInfoProcessor.getSnapshot(ENV_NAME, DATA_ID, GROUP, null));
+        
+        cacheData.checkListenerMd5();
+        Assert.assertTrue(received.isEmpty());
+    }
+    
+    @Test
+    public void testNotApplied() {
+        String md5 = cacheData.getMd5();
+        Assert.assertFalse(ClientWorker.applyPushedContent(ENV_NAME, cacheData, buildRequest(null, null)));
+        cacheData.setUseLocalConfigInfo(true);
+        Assert.assertFalse(ClientWorker
+                .applyPushedContent(ENV_NAME, cacheData, buildRequest(CONTENT, CacheData.getMd5String(CONTENT))));
+        Assert.assertEquals(md5, cacheData.getMd5());
+        Assert.assertNull(LocalConfigInfoProcessor.getSnapshot(ENV_NAME, DATA_ID, GROUP, null));
+    }
+    
+    private ConfigChangeNotifyRequest buildRequest(String content, String md5) {
+        ConfigChangeNotifyRequest request = ConfigChangeNotifyRequest.build(DATA_ID, GROUP, null);
+        request.setContent(content);
+        request.setMd5(md5);
+        return request;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.client.config.impl;
+
+import com.alibaba.nacos.api.config.listener.AbstractListener;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ConfigListenerDispatcherTest {
+    
+    private ConfigListenerDispatcher dispatcher;
+    
+    private final AbstractListener listener = new AbstractListener() {
+        @Override
+        public void receiveConfigInfo(String configInfo) {
+        }
+    };
+    
+    @Before
+    public void setUp() {
+        dispatcher = new ConfigListenerDispatcher("test", new Properties());
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        dispatcher.shutdown();
+    }
+    
+    @Test
+    public void testCoalesceWaitingNotifications() throws InterruptedException {
+        ConfigListenerDispatcher.NotifySlot slot = dispatcher.newSlot("dataId", "group", listener);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(1);
+        final List<String> notified = new CopyOnWriteArrayList<String>();
+        slot.submit("md5-1", new Runnable() {
+            @Override
+            public void run() {
+                notified.add("md5-1");
+                started.countDown();
+                try {
+                    blocked.await();
+                } catch (InterruptedException ignore) {
+                }
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        slot.submit("md5-2", record(notified, "md5-2", null));
+        slot.submit("md5-3", record(notified, "md5-3", finished));
+        blocked.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("md5-1", "md5-3"), notified);
+    }
+    
+    @Test
+    public void testIgnoreSameMd5() throws InterruptedException {
+        ConfigListenerDispatcher.NotifySlot slot = dispatcher.newSlot("dataId", "group", listener);
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final List<String> notified = new CopyOnWriteArrayList<String>();
+        slot.submit("md5-1", new Runnable() {
+            @Override
+            public void run() {
+                started.countDown();
+                try {
+                    blocked.await();
+                } catch (InterruptedException ignore) {
+                }
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CountDownLatch finished = new CountDownLatch(1);
+        slot.submit("md5-2", record(notified, "md5-2", finished));
+        slot.submit("md5-2", record(notified, "md5-2-again", null));
+        blocked.countDown();
+        assertTrue(finished.await(5, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("md5-2"), notified);
+    }
+    
+    private Runnable record(final List<String> notified, final String md5, final CountDownLatch finished) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                notified.add(md5);
+                if (null != finished) {
+                    finished.countDown();
+                }
+            }
+        };
+    }
+}
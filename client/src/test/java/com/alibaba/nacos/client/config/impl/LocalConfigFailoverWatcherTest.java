@@ -0,0 +1,126 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.client.config.impl;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+
+public class LocalConfigFailoverWatcherTest {
+    
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+    
+    private Path root;
+    
+    private LocalConfigFailoverWatcher watcher;
+    
+    @Before
+    public void setUp() {
+        root = new File(folder.getRoot(), "test_nacos").toPath();
+        watcher = new LocalConfigFailoverWatcher("test", root);
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        watcher.shutdown();
+    }
+    
+    @Test
+    public void testNotWatchingUntilDirCreated() {
+        Assert.assertFalse(watcher.isWatching());
+        Assert.assertTrue(root.toFile().mkdirs());
+        Assert.assertTrue(watcher.isWatching());
+    }
+    
+    @Test
+    public void testExistingFilesReportedOnStart() throws IOException {
+        createFile(LocalConfigInfoProcessor.FAILOVER_CONFIG_DATA, "group", "dataId");
+        createFile(LocalConfigInfoProcessor.FAILOVER_CONFIG_DATA_TENANT, "tenant", "group", "dataId");
+        Assert.assertTrue(watcher.isWatching());
+        Assert.assertTrue(watcher.pollChanged("dataId", "group", null));
+        Assert.assertTrue(watcher.pollChanged("dataId", "group", "tenant"));
+        // The change is cleared once polled.
+        Assert.assertFalse(watcher.pollChanged("dataId", "group", null));
+        Assert.assertFalse(watcher.pollChanged("dataId", "group", "tenant"));
+    }
+    
+    @Test
+    public void testFileChangeWatched() throws Exception {
+        Assert.assertTrue(new File(root.toFile(), LocalConfigInfoProcessor.FAILOVER_CONFIG_DATA).mkdirs());
+        Assert.assertTrue(watcher.isWatching());
+        createFile(LocalConfigInfoProcessor.FAILOVER_CONFIG_DATA, "group", "dataId");
+        long deadline = System.currentTimeMillis() + 10000L;
+        boolean changed = false;
+        while (!changed && System.currentTimeMillis() < deadline) {
+            changed = watcher.pollChanged("dataId", "group", null);
+            if (!changed) {
+                Thread.sleep(20L);
+            }
+        }
+        Assert.assertTrue(changed);
+    }
+    
+    @Test
+    public void testUnknownPathRequestsFullCheck() {
+        long version = watcher.getFullCheckVersion();
+        watcher.onChanged(root.resolve(LocalConfigInfoProcessor.FAILOVER_CONFIG_DATA).resolve("group"));
+        Assert.assertEquals(version + 1, watcher.getFullCheckVersion());
+        Assert.assertFalse(watcher.pollChanged("group", LocalConfigInfoProcessor.FAILOVER_CONFIG_DATA, null));
+    }
+    
+    @Test
+    public void testChangedKeysBounded() {
+        Path dir = root.resolve(LocalConfigInfoProcessor.FAILOVER_CONFIG_DATA).resolve("group");
+        long version = watcher.getFullCheckVersion();
+        for (int i = 0; i < LocalConfigFailoverWatcher.MAX_CHANGED_KEYS; i++) {
+            watcher.onChanged(dir.resolve("dataId" + i));
+        }
+        // Changing a remembered key again doesn't overflow.
+        watcher.onChanged(dir.resolve("dataId0"));
+        Assert.assertEquals(version, watcher.getFullCheckVersion());
+        
+        watcher.onChanged(dir.resolve("overflow"));
+        Assert.assertEquals(version + 1, watcher.getFullCheckVersion());
+        Assert.assertFalse(watcher.pollChanged("dataId0", "group", null));
+        Assert.assertFalse(watcher.pollChanged("overflow", "group", null));
+    }
+    
+    @Test
+    public void testShutdown() throws Exception {
+        Assert.assertTrue(root.toFile().mkdirs());
+        Assert.assertTrue(watcher.isWatching());
+        watcher.shutdown();
+        Assert.assertFalse(watcher.isWatching());
+    }
+    
+    private void createFile(String... names) throws IOException {
+        File file = root.toFile();
+        for (String name : names) {
+            file = new File(file, name);
+        }
+        Assert.assertTrue(file.getParentFile().isDirectory() || file.getParentFile().mkdirs());
+        Assert.assertTrue(file.createNewFile());
+    }
+}
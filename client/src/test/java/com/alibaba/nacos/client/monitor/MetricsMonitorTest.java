@@ -0,0 +1,53 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.client.monitor;
+
+import com.alibaba.nacos.common.remote.ConnectionType;
+import com.alibaba.nacos.common.remote.client.RpcClientFactory;
+import io.prometheus.client.CollectorRegistry;
+import io.prometheus.client.Histogram;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+
+public class MetricsMonitorTest {
+    
+    @Test
+    public void testProcessMonitor() {
+        Double before = CollectorRegistry.defaultRegistry.getSampleValue("nacos_client_process_count",
+                new String[] {"module", "name"}, new String[] {"naming", "processServiceInfo"});
+        Histogram.Timer timer = MetricsMonitor.getServiceInfoProcessMonitor().startTimer();
+        timer.observeDuration();
+        Double after = CollectorRegistry.defaultRegistry.getSampleValue("nacos_client_process_count",
+                new String[] {"module", "name"}, new String[] {"naming", "processServiceInfo"});
+        Assert.assertEquals(null == before ? 1D : before + 1D, after, 0D);
+    }
+    
+    @Test
+    public void testRpcClientCollector() throws Exception {
+        MetricsMonitor.getListenConfigCountMonitor();
+        RpcClientFactory.createClient("metrics-test", ConnectionType.GRPC, Collections.<String, String>emptyMap());
+        try {
+            Assert.assertEquals(0D, CollectorRegistry.defaultRegistry
+                    .getSampleValue("nacos_client_reconnect", new String[] {"client"}, new String[] {"metrics-test"}),
+                    0D);
+        } finally {
+            RpcClientFactory.destroyClient("metrics-test");
+        }
+    }
+}
@@ -18,11 +18,13 @@ package com.alibaba.nacos.client.naming.cache;
 
 import com.alibaba.nacos.api.naming.pojo.Instance;
 import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
+import com.alibaba.nacos.common.utils.JacksonUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.nio.charset.Charset;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -70,6 +72,26 @@ public class DiskCacheTest {
         assertServiceInfo(actual.get(serviceInfo.getKey()), serviceInfo);
     }
     
+    @Test
+    public void testReadJsonSkipsStaleFiles() throws Exception {
+        File dir = new File(CACHE_DIR);
+        assertTrue(dir.isDirectory() || dir.mkdirs());
+        File file = new File(dir, serviceInfo.getKeyEncoded());
+        assertTrue(ConcurrentDiskUtil
+                .writeFileContent(file, JacksonUtils.toJson(serviceInfo), Charset.defaultCharset().toString()));
+        assertTrue(file.setLastModified(10000L));
+        
+        ServiceInfo refreshed = new ServiceInfo(serviceInfo.getKey());
+        refreshed.setLastRefTime(20000L);
+        assertTrue(DiskCache.readJson(CACHE_DIR, Collections.singletonMap(refreshed.getKey(), refreshed)).isEmpty());
+        
+        refreshed.setLastRefTime(5000L);
+        Map<String, ServiceInfo> actual = DiskCache
+                .readJson(CACHE_DIR, Collections.singletonMap(refreshed.getKey(), refreshed));
+        assertEquals(1, actual.size());
+        assertServiceInfo(actual.get(serviceInfo.getKey()), serviceInfo);
+    }
+    
     private void assertServiceInfo(ServiceInfo actual, ServiceInfo expected) {
         assertEquals(actual.getName(), expected.getName());
         assertEquals(actual.getGroupName(), expected.getGroupName());
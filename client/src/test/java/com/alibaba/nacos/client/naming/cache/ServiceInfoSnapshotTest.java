@@ -0,0 +1,121 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.client.naming.cache;
+
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ServiceInfoSnapshotTest {
+    
+    private static final String CACHE_DIR = ServiceInfoSnapshotTest.class.getResource("/").getPath() + "snapshot/";
+    
+    private ServiceInfoSnapshot snapshot;
+    
+    @Before
+    public void setUp() {
+        snapshot = ServiceInfoSnapshot.of(CACHE_DIR);
+    }
+    
+    @After
+    public void tearDown() {
+        deleteDir(new File(CACHE_DIR));
+    }
+    
+    @Test
+    public void testWriteAndLoad() throws IOException {
+        snapshot.write(buildServiceInfo("G@@a", "1.1.1.1"));
+        snapshot.write(buildServiceInfo("G@@b", "2.2.2.2"));
+        snapshot.write(buildServiceInfo("G@@a", "3.3.3.3"));
+        Map<String, ServiceInfo> actual = snapshot.load();
+        assertEquals(2, actual.size());
+        assertEquals("3.3.3.3", actual.get("G@@a").getHosts().get(0).getIp());
+        Instance instance = actual.get("G@@b").getHosts().get(0);
+        assertEquals("2.2.2.2", instance.getIp());
+        assertEquals(8080, instance.getPort());
+        assertEquals("中文", instance.getMetadata().get("chinese"));
+    }
+    
+    @Test
+    public void testTruncateBrokenTail() throws IOException {
+        snapshot.write(buildServiceInfo("G@@a", "1.1.1.1"));
+        File file = new File(CACHE_DIR, ServiceInfoSnapshot.SNAPSHOT_FILE_NAME);
+        long length = file.length();
+        FileOutputStream out = new FileOutputStream(file, true);
+        try {
+            out.write(new byte[] {0, 0, 1, 0, 1, 2, 3});
+        } finally {
+            out.close();
+        }
+        assertEquals(1, snapshot.load().size());
+        assertEquals(length, file.length());
+        snapshot.write(buildServiceInfo("G@@b", "2.2.2.2"));
+        assertEquals(2, snapshot.load().size());
+    }
+    
+    @Test
+    public void testWriteAll() throws IOException {
+        snapshot.write(buildServiceInfo("G@@a", "1.1.1.1"));
+        snapshot.writeAll(Arrays.asList(buildServiceInfo("G@@b", "2.2.2.2"), buildServiceInfo("G@@c", "3.3.3.3")));
+        Map<String, ServiceInfo> actual = snapshot.load();
+        assertEquals(2, actual.size());
+        assertTrue(actual.containsKey("G@@b"));
+        assertTrue(actual.containsKey("G@@c"));
+    }
+    
+    @Test
+    public void testExportJson() throws IOException {
+        snapshot.write(buildServiceInfo("G@@a", "1.1.1.1"));
+        String exportDir = CACHE_DIR + "export/";
+        snapshot.exportJson(exportDir);
+        Map<String, ServiceInfo> actual = DiskCache.readJson(exportDir);
+        assertEquals(1, actual.size());
+        assertEquals("1.1.1.1", actual.get("G@@a").getHosts().get(0).getIp());
+    }
+    
+    private ServiceInfo buildServiceInfo(String name, String ip) {
+        ServiceInfo serviceInfo = new ServiceInfo(name, null);
+        Instance instance = new Instance();
+        instance.setIp(ip);
+        instance.setPort(8080);
+        instance.addMetadata("chinese", "中文");
+        serviceInfo.setHosts(Collections.singletonList(instance));
+        return serviceInfo;
+    }
+    
+    private void deleteDir(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File each : files) {
+                deleteDir(each);
+            }
+        }
+        dir.delete();
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.client.naming.core;
+
+import com.alibaba.nacos.api.PropertyKeyConst;
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
+import com.alibaba.nacos.api.naming.utils.NamingUtils;
+import com.alibaba.nacos.client.naming.cache.ServiceInfoHolder;
+import com.alibaba.nacos.client.naming.event.InstancesChangeNotifier;
+import com.alibaba.nacos.client.naming.remote.NamingClientProxy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ServiceInfoUpdateServiceTest {
+    
+    private static final String SERVICE_NAME = "service";
+    
+    private static final String GROUP_NAME = "group";
+    
+    private static final String SERVICE_KEY = ServiceInfo.getKey(NamingUtils.getGroupedName(SERVICE_NAME, GROUP_NAME),
+            "");
+    
+    @Mock
+    private ServiceInfoHolder serviceInfoHolder;
+    
+    @Mock
+    private NamingClientProxy namingClientProxy;
+    
+    @Mock
+    private InstancesChangeNotifier changeNotifier;
+    
+    private ServiceInfo serviceInfo;
+    
+    private ServiceInfoUpdateService updateService;
+    
+    @Before
+    public void setUp() throws NacosException {
+        serviceInfo = new ServiceInfo(SERVICE_KEY);
+        serviceInfo.setLastRefTime(System.currentTimeMillis());
+        serviceInfo.setCacheMillis(1000L);
+        Instance instance = new Instance();
+        instance.setIp("1.1.1.1");
+        instance.setPort(8080);
+        serviceInfo.setHosts(Collections.singletonList(instance));
+        Map<String, ServiceInfo> serviceInfoMap = new HashMap<String, ServiceInfo>(2);
+        serviceInfoMap.put(SERVICE_KEY, serviceInfo);
+        Mockito.when(serviceInfoHolder.getServiceInfoMap()).thenReturn(serviceInfoMap);
+        Mockito.when(changeNotifier.isSubscribed(GROUP_NAME, SERVICE_NAME, "")).thenReturn(true);
+        Mockito.when(namingClientProxy.isPushAvailable()).thenReturn(true);
+        Mockito.when(namingClientProxy
+                .queryInstancesOfService(ArgumentMatchers.eq(SERVICE_NAME), ArgumentMatchers.eq(GROUP_NAME),
+                        ArgumentMatchers.any(), ArgumentMatchers.eq(0), ArgumentMatchers.eq(false)))
+                .thenReturn(serviceInfo);
+        
+        Properties properties = new Properties();
+        properties.setProperty(PropertyKeyConst.NAMING_PUSH_ONLY, "true");
+        updateService = new ServiceInfoUpdateService(properties, serviceInfoHolder, namingClientProxy,
+                changeNotifier);
+        updateService.scheduleUpdateIfAbsent(SERVICE_NAME, GROUP_NAME, "");
+    }
+    
+    @After
+    public void tearDown() throws NacosException {
+        updateService.shutdown();
+    }
+    
+    @Test
+    public void testPollingBeforeChecksumChecked() throws NacosException {
+        updateService.new UpdateTask(SERVICE_NAME, GROUP_NAME, "").run();
+        Mockito.verify(namingClientProxy, Mockito.atLeastOnce())
+                .queryInstancesOfService(SERVICE_NAME, GROUP_NAME, "", 0, false);
+    }
+    
+    @Test
+    public void testPushOnlyAfterChecksumChecked() throws NacosException {
+        Mockito.when(namingClientProxy.checkServiceChecksums(ArgumentMatchers.<String, String>anyMap()))
+                .thenReturn(Collections.<String>emptyList());
+        updateService.checkServiceChecksums();
+        Mockito.verify(namingClientProxy).checkServiceChecksums(Collections
+                .singletonMap(SERVICE_KEY, NamingUtils.getInstancesChecksum(serviceInfo.getHosts())));
+        
+        updateService.new UpdateTask(SERVICE_NAME, GROUP_NAME, "").run();
+        Mockito.verify(namingClientProxy, Mockito.never())
+                .queryInstancesOfService(SERVICE_NAME, GROUP_NAME, "", 0, false);
+    }
+    
+    @Test
+    public void testChangedServiceQueried() throws NacosException {
+        Mockito.when(namingClientProxy.checkServiceChecksums(ArgumentMatchers.<String, String>anyMap()))
+                .thenReturn(Collections.singletonList(SERVICE_KEY));
+        updateService.checkServiceChecksums();
+        Mockito.verify(namingClientProxy).queryInstancesOfService(SERVICE_NAME, GROUP_NAME, null, 0, false);
+        Mockito.verify(serviceInfoHolder).processServiceInfo(serviceInfo);
+    }
+    
+    @Test
+    public void testFallbackToPollingWhenChecksumFailed() throws NacosException {
+        Mockito.when(namingClientProxy.checkServiceChecksums(ArgumentMatchers.<String, String>anyMap()))
+                .thenReturn(Collections.<String>emptyList())
+                .thenThrow(new NacosException(NacosException.SERVER_ERROR, "no handler"));
+        updateService.checkServiceChecksums();
+        updateService.new UpdateTask(SERVICE_NAME, GROUP_NAME, "").run();
+        Mockito.verify(namingClientProxy, Mockito.never())
+                .queryInstancesOfService(SERVICE_NAME, GROUP_NAME, "", 0, false);
+        
+        // The server can't check checksums any more, e.g. it's replaced by an old version.
+        updateService.checkServiceChecksums();
+        updateService.new UpdateTask(SERVICE_NAME, GROUP_NAME, "").run();
+        Mockito.verify(namingClientProxy, Mockito.atLeastOnce())
+                .queryInstancesOfService(SERVICE_NAME, GROUP_NAME, "", 0, false);
+    }
+    
+    @Test
+    public void testNoChecksumCheckWithoutPush() throws NacosException {
+        Mockito.when(namingClientProxy.isPushAvailable()).thenReturn(false);
+        updateService.checkServiceChecksums();
+        Mockito.verify(namingClientProxy, Mockito.never())
+                .checkServiceChecksums(ArgumentMatchers.<String, String>anyMap());
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.client.naming.event;
+
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class InstancesDiffTest {
+    
+    @Test
+    public void testUnchanged() {
+        InstancesDiff diff = InstancesDiff.compare(Arrays.asList(instance("1.1.1.1", 1.0D), instance("1.1.1.2", 1.0D)),
+                Arrays.asList(instance("1.1.1.1", 1.0D), instance("1.1.1.2", 1.0D)));
+        assertFalse(diff.isChanged());
+    }
+    
+    @Test
+    public void testModifiedInSameOrder() {
+        Instance modified = instance("1.1.1.2", 2.0D);
+        InstancesDiff diff = InstancesDiff.compare(Arrays.asList(instance("1.1.1.1", 1.0D), instance("1.1.1.2", 1.0D)),
+                Arrays.asList(instance("1.1.1.1", 1.0D), modified));
+        assertTrue(diff.isChanged());
+        assertTrue(diff.getAddedInstances().isEmpty());
+        assertTrue(diff.getRemovedInstances().isEmpty());
+        assertEquals(1, diff.getModifiedInstances().size());
+        assertSame(modified, diff.getModifiedInstances().get(0));
+    }
+    
+    @Test
+    public void testReorderedAndReplaced() {
+        Instance metadataChanged = instance("1.1.1.1", 1.0D);
+        metadataChanged.addMetadata("k", "v");
+        InstancesDiff diff = InstancesDiff.compare(Arrays.asList(instance("1.1.1.1", 1.0D), instance("1.1.1.2", 1.0D)),
+                Arrays.asList(instance("1.1.1.3", 1.0D), metadataChanged));
+        assertEquals("1.1.1.3", diff.getAddedInstances().get(0).getIp());
+        assertEquals("1.1.1.2", diff.getRemovedInstances().get(0).getIp());
+        assertSame(metadataChanged, diff.getModifiedInstances().get(0));
+    }
+    
+    @Test
+    public void testRemoved() {
+        InstancesDiff diff = InstancesDiff.compare(Collections.singletonList(instance("1.1.1.1", 1.0D)),
+                Collections.<Instance>emptyList());
+        assertEquals(1, diff.getRemovedInstances().size());
+        assertTrue(diff.getAddedInstances().isEmpty());
+    }
+    
+    private Instance instance(String ip, double weight) {
+        Instance instance = new Instance();
+        instance.setIp(ip);
+        instance.setPort(8080);
+        instance.setWeight(weight);
+        instance.setClusterName("DEFAULT");
+        instance.setServiceName("DEFAULT_GROUP@@test");
+        return instance;
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.client.naming.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChooserTest {
+    
+    @Test
+    public void testRandomWithWeight() {
+        List<Pair<String>> pairs = new ArrayList<Pair<String>>();
+        pairs.add(new Pair<String>("a", 1));
+        pairs.add(new Pair<String>("b", 3));
+        pairs.add(new Pair<String>("c", 0));
+        Chooser<String, String> chooser = new Chooser<String, String>("test", pairs);
+        int countA = 0;
+        int countB = 0;
+        int total = 100000;
+        for (int i = 0; i < total; i++) {
+            String item = chooser.randomWithWeight();
+            Assert.assertNotEquals("c", item);
+            if ("a".equals(item)) {
+                countA++;
+            } else {
+                countB++;
+            }
+        }
+        Assert.assertEquals(0.25D, (double) countA / total, 0.02D);
+        Assert.assertEquals(0.75D, (double) countB / total, 0.02D);
+    }
+    
+    @Test
+    public void testRandomWithWeightSingleItem() {
+        List<Pair<String>> pairs = new ArrayList<Pair<String>>();
+        pairs.add(new Pair<String>("a", 5));
+        Chooser<String, String> chooser = new Chooser<String, String>("test", pairs);
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals("a", chooser.randomWithWeight());
+        }
+    }
+}
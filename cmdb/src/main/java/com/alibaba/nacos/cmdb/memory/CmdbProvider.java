@@ -41,6 +41,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * CMDB provider.
@@ -60,6 +61,13 @@ public class CmdbProvider implements CmdbReader, CmdbWriter {
     
     private Map<String, Map<String, Entity>> entityMap = new ConcurrentHashMap<>();
     
+    /**
+     * Label index of entityMap, rebuilt by the dump task and updated by the event task.
+     */
+    private volatile EntityLabelIndex labelIndex = new EntityLabelIndex();
+    
+    private final AtomicLong revision = new AtomicLong();
+    
     private Map<String, Label> labelMap = new ConcurrentHashMap<>();
     
     private Set<String> entityTypeSet = new HashSet<>();
@@ -104,7 +112,13 @@ public class CmdbProvider implements CmdbReader, CmdbWriter {
         entityTypeSet = cmdbService.getEntityTypes();
         
         // init entity map:
-        entityMap = cmdbService.getAllEntities();
+        refreshEntities(cmdbService.getAllEntities());
+    }
+    
+    private synchronized void refreshEntities(Map<String, Map<String, Entity>> entities) {
+        labelIndex = EntityLabelIndex.build(entities);
+        entityMap = entities;
+        revision.incrementAndGet();
     }
     
     /**
@@ -142,7 +156,12 @@ public class CmdbProvider implements CmdbReader, CmdbWriter {
     
     @Override
     public List<Entity> queryEntitiesByLabel(String labelName, String labelValue) {
-        throw new UnsupportedOperationException("Not available now!");
+        return labelIndex.get(labelName, labelValue);
+    }
+    
+    @Override
+    public long getRevision() {
+        return revision.get();
     }
     
     /**
@@ -151,11 +170,15 @@ public class CmdbProvider implements CmdbReader, CmdbWriter {
      * @param entityName entity name
      * @param entityType entity type
      */
-    public void removeEntity(String entityName, String entityType) {
+    public synchronized void removeEntity(String entityName, String entityType) {
         if (!entityMap.containsKey(entityType)) {
             return;
         }
-        entityMap.get(entityType).remove(entityName);
+        Entity removed = entityMap.get(entityType).remove(entityName);
+        if (removed != null) {
+            labelIndex.remove(removed);
+            revision.incrementAndGet();
+        }
     }
     
     /**
@@ -163,11 +186,14 @@ public class CmdbProvider implements CmdbReader, CmdbWriter {
      *
      * @param entity entity
      */
-    public void updateEntity(Entity entity) {
+    public synchronized void updateEntity(Entity entity) {
         if (!entityTypeSet.contains(entity.getType())) {
             return;
         }
-        entityMap.get(entity.getType()).put(entity.getName(), entity);
+        Entity old = entityMap.get(entity.getType()).put(entity.getName(), entity);
+        labelIndex.remove(old);
+        labelIndex.add(entity);
+        revision.incrementAndGet();
     }
     
     public class CmdbLabelTask implements Runnable {
@@ -222,7 +248,7 @@ public class CmdbProvider implements CmdbReader, CmdbWriter {
                     return;
                 }
                 // refresh entity map:
-                entityMap = cmdbService.getAllEntities();
+                refreshEntities(cmdbService.getAllEntities());
             } catch (Exception e) {
                 Loggers.MAIN.error("DUMP-TASK {}", "dump failed!", e);
             } finally {
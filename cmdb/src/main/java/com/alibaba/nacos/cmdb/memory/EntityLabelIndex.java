@@ -0,0 +1,117 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.cmdb.memory;
+
+import com.alibaba.nacos.api.cmdb.pojo.Entity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index of the entities, label name -> label value -> entities.
+ *
+ * @author Nacos
+ */
+public class EntityLabelIndex {
+    
+    private final Map<String, Map<String, Map<String, Entity>>> index = new ConcurrentHashMap<>();
+    
+    /**
+     * Build the index of all the entities.
+     *
+     * @param entityMap entities by type and name
+     * @return index
+     */
+    public static EntityLabelIndex build(Map<String, Map<String, Entity>> entityMap) {
+        EntityLabelIndex result = new EntityLabelIndex();
+        if (entityMap != null) {
+            for (Map<String, Entity> entities : entityMap.values()) {
+                for (Entity entity : entities.values()) {
+                    result.add(entity);
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Add the labels of an entity.
+     *
+     * @param entity entity
+     */
+    public void add(Entity entity) {
+        if (entity == null || entity.getLabels() == null) {
+            return;
+        }
+        String entityKey = entityKey(entity);
+        for (Map.Entry<String, String> label : entity.getLabels().entrySet()) {
+            if (label.getKey() == null || label.getValue() == null) {
+                continue;
+            }
+            index.computeIfAbsent(label.getKey(), key -> new ConcurrentHashMap<>())
+                    .computeIfAbsent(label.getValue(), key -> new ConcurrentHashMap<>()).put(entityKey, entity);
+        }
+    }
+    
+    /**
+     * Remove the labels of an entity.
+     *
+     * @param entity entity
+     */
+    public void remove(Entity entity) {
+        if (entity == null || entity.getLabels() == null) {
+            return;
+        }
+        String entityKey = entityKey(entity);
+        for (Map.Entry<String, String> label : entity.getLabels().entrySet()) {
+            if (label.getKey() == null || label.getValue() == null) {
+                continue;
+            }
+            Map<String, Map<String, Entity>> values = index.get(label.getKey());
+            if (values == null) {
+                continue;
+            }
+            values.computeIfPresent(label.getValue(), (key, entities) -> {
+                entities.remove(entityKey);
+                return entities.isEmpty() ? null : entities;
+            });
+        }
+    }
+    
+    /**
+     * Get the entities of a label value.
+     *
+     * @param labelName  label name
+     * @param labelValue label value
+     * @return entities, empty if none
+     */
+    public List<Entity> get(String labelName, String labelValue) {
+        Map<String, Map<String, Entity>> values = index.get(labelName);
+        Map<String, Entity> entities = values == null ? null : values.get(labelValue);
+        if (entities == null) {
+            return Collections.emptyList();
+        }
+        return new ArrayList<>(entities.values());
+    }
+    
+    private static String entityKey(Entity entity) {
+        return entity.getType() + "@@" + entity.getName();
+    }
+}
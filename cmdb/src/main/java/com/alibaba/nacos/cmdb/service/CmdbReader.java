@@ -55,4 +55,11 @@ public interface CmdbReader {
      * @return list of entiy
      */
     List<Entity> queryEntitiesByLabel(String labelName, String labelValue);
+    
+    /**
+     * Get revision of the entities, which is increased when any entity changed.
+     *
+     * @return revision
+     */
+    long getRevision();
 }
@@ -32,6 +32,8 @@ public abstract class Connection implements Requester {
     
     private boolean abandon = false;
     
+    private boolean hedge = false;
+    
     protected RpcClient.ServerInfo serverInfo;
     
     protected Map<String, String> labels = new HashMap<String, String>();
@@ -63,6 +65,24 @@ public abstract class Connection implements Requester {
         this.abandon = abandon;
     }
     
+    /**
+     * Getter method for property <tt>hedge</tt>.
+     *
+     * @return whether the connection is only used to send hedged requests
+     */
+    public boolean isHedge() {
+        return hedge;
+    }
+    
+    /**
+     * Setter method for property <tt>hedge</tt>.
+     *
+     * @param hedge value to be assigned to property hedge
+     */
+    public void setHedge(boolean hedge) {
+        this.hedge = hedge;
+    }
+    
     /**
      * Getter method for property <tt>labels</tt>.
      *
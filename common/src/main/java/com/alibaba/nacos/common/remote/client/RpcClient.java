@@ -19,6 +19,7 @@ package com.alibaba.nacos.common.remote.client;
 import com.alibaba.nacos.api.common.Constants;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.remote.PayloadRegistry;
+import com.alibaba.nacos.api.remote.RemoteConstants;
 import com.alibaba.nacos.api.remote.RequestCallBack;
 import com.alibaba.nacos.api.remote.RequestFuture;
 import com.alibaba.nacos.api.remote.request.ConnectResetRequest;
@@ -38,16 +39,22 @@ import com.alibaba.nacos.common.utils.VersionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -85,15 +92,48 @@ public abstract class RpcClient implements Closeable {
     
     private static final long DEFAULT_TIMEOUT_MILLS = 3000L;
     
+    private static final long SERVER_SELECT_INTERVAL_MILLS = 30000L;
+    
+    private static final double SLOW_SERVER_RATIO = 2.0D;
+    
+    private static final int MIN_LATENCY_SAMPLES = 20;
+    
+    private static final long MIN_HEDGE_DELAY_MILLS = 10L;
+    
+    private static final long HEDGE_POLL_MILLS = 2L;
+    
+    private static final int HEDGE_BUDGET_UNIT = 1000;
+    
+    private static final int MAX_HEDGE_BUDGET = 10 * HEDGE_BUDGET_UNIT;
+    
+    private final ServerLatencyTracker latencyTracker = new ServerLatencyTracker();
+    
+    /**
+     * hedge budget earned by every hedgeable request, in 1/1000 of a hedged request, 0 means hedging is disabled.
+     */
+    private volatile int hedgeBudgetPerRequest = 0;
+    
+    private final AtomicInteger hedgeBudget = new AtomicInteger(0);
+    
+    /**
+     * connection to another server, only used to send hedged requests.
+     */
+    private final AtomicReference<Connection> hedgeConnection = new AtomicReference<Connection>();
+    
+    private final AtomicBoolean hedgeConnecting = new AtomicBoolean(false);
+    
+    private final AtomicLong reconnectCount = new AtomicLong(0);
+    
     /**
      * listener called where connection's status changed.
      */
-    protected List<ConnectionEventListener> connectionEventListeners = new ArrayList<ConnectionEventListener>();
+    protected List<ConnectionEventListener> connectionEventListeners =
+            new CopyOnWriteArrayList<ConnectionEventListener>();
     
     /**
      * handlers to process server push request.
      */
-    protected List<ServerRequestHandler> serverRequestHandlers = new ArrayList<ServerRequestHandler>();
+    protected List<ServerRequestHandler> serverRequestHandlers = new CopyOnWriteArrayList<ServerRequestHandler>();
     
     static {
         PayloadRegistry.init();
@@ -111,6 +151,20 @@ public abstract class RpcClient implements Closeable {
         return meta;
     }
     
+    /**
+     * build the meta of the setup request of hedge connections, which are labelled by
+     * {@link RemoteConstants#LABEL_HEDGE} so that servers don't register them as clients.
+     *
+     * @return meta with hedge label.
+     */
+    protected RequestMeta buildHedgeMeta() {
+        RequestMeta meta = buildMeta();
+        Map<String, String> hedgeLabels = new HashMap<String, String>(labels);
+        hedgeLabels.put(RemoteConstants.LABEL_HEDGE, Boolean.TRUE.toString());
+        meta.setLabels(hedgeLabels);
+        return meta;
+    }
+    
     public RpcClient(ServerListFactory serverListFactory) {
         this.serverListFactory = serverListFactory;
         rpcClientStatus.compareAndSet(RpcClientStatus.WAIT_INIT, RpcClientStatus.INITIALIZED);
@@ -225,7 +279,7 @@ public abstract class RpcClient implements Closeable {
             return;
         }
         
-        executor = new ScheduledThreadPoolExecutor(2, new ThreadFactory() {
+        executor = new ScheduledThreadPoolExecutor(3, new ThreadFactory() {
             @Override
             public Thread newThread(Runnable r) {
                 Thread t = new Thread(r);
@@ -263,9 +317,8 @@ public abstract class RpcClient implements Closeable {
                         ReconnectContext reconnectContext = reconnectionSignal.take();
                         if (reconnectContext.serverInfo != null) {
                             //clear recommend server if server is not in server list.
-                            String address = reconnectContext.serverInfo.serverIp + Constants.COLON
-                                    + reconnectContext.serverInfo.serverPort;
-                            if (!getServerListFactory().getServerList().contains(address)) {
+                            String address = serverKey(reconnectContext.serverInfo);
+                            if (!serverAddresses().containsKey(address)) {
                                 reconnectContext.serverInfo = null;
                             }
                         }
@@ -277,6 +330,14 @@ public abstract class RpcClient implements Closeable {
             }
         });
         
+        // leave the current server if another server is much faster.
+        executor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                switchToFasterServer();
+            }
+        }, SERVER_SELECT_INTERVAL_MILLS, SERVER_SELECT_INTERVAL_MILLS, TimeUnit.MILLISECONDS);
+        
         //connect to server ,try to connect to server sync once, async starting if fail.
         Connection connectToServer = null;
         rpcClientStatus.set(RpcClientStatus.STARTING);
@@ -301,6 +362,7 @@ public abstract class RpcClient implements Closeable {
         if (connectToServer != null) {
             LoggerUtils.printIfInfoEnabled(LOGGER, "[{}] success to connect to server on start up", name);
             this.currentConnection = connectToServer;
+            syncServerListFactory(connectToServer.serverInfo);
             rpcClientStatus.set(RpcClientStatus.RUNNING);
             eventLinkedBlockingQueue.offer(new ConnectionEvent(ConnectionEvent.CONNECTED));
         } else {
@@ -359,9 +421,12 @@ public abstract class RpcClient implements Closeable {
     
     @Override
     public void shutdown() throws NacosException {
-        executor.shutdown();
+        if (executor != null) {
+            executor.shutdown();
+        }
         rpcClientStatus.set(RpcClientStatus.SHUTDOWN);
         closeConnection(currentConnection);
+        closeHedgeConnection(hedgeConnection.get());
     }
     
     private final ReentrantLock switchingLock = new ReentrantLock();
@@ -426,8 +491,11 @@ public abstract class RpcClient implements Closeable {
                             closeConnection(currentConnection);
                         }
                         currentConnection = connectionNew;
+                        syncServerListFactory(connectionNew.serverInfo);
                         rpcClientStatus.set(RpcClientStatus.RUNNING);
                         switchSuccess = true;
+                        reconnectCount.incrementAndGet();
+                        closeHedgeConnectionTo(connectionNew.serverInfo);
                         boolean s = eventLinkedBlockingQueue.add(new ConnectionEvent(ConnectionEvent.CONNECTED));
                         return;
                     }
@@ -438,9 +506,10 @@ public abstract class RpcClient implements Closeable {
                     }
                     
                     lastException = null;
-                    
+                    recordFailure(serverInfo);
                 } catch (Exception e) {
                     lastException = e;
+                    recordFailure(serverInfo);
                 } finally {
                     recommendServer.set(null);
                 }
@@ -534,11 +603,13 @@ public abstract class RpcClient implements Closeable {
         Exception exceptionToThrow = null;
         long start = System.currentTimeMillis();
         while (retryTimes < RETRY_TIMES && System.currentTimeMillis() < timeoutMills + start) {
+            Connection connection = this.currentConnection;
             try {
-                if (this.currentConnection == null || !isRunning()) {
+                if (connection == null || !isRunning()) {
                     throw new NacosException(NacosException.CLIENT_DISCONNECT, "Client not connected.");
                 }
-                response = this.currentConnection.request(request, buildMeta());
+                long requestStart = System.currentTimeMillis();
+                response = connection.request(request, buildMeta());
                 
                 if (response != null) {
                     if (response instanceof ConnectionUnregisterResponse) {
@@ -549,6 +620,7 @@ public abstract class RpcClient implements Closeable {
                             throw new IllegalStateException("Invalid client status.");
                         }
                     } else {
+                        recordLatency(connection.serverInfo, System.currentTimeMillis() - requestStart);
                         return response;
                     }
                 }
@@ -559,6 +631,7 @@ public abstract class RpcClient implements Closeable {
                         && ((NacosException) e).getErrCode() == NacosException.CLIENT_DISCONNECT) {
                     // Do nothing.
                 } else {
+                    recordFailure(connection.serverInfo);
                     LoggerUtils
                             .printIfErrorEnabled(LOGGER, "send request fail, request={}, retryTimes={},errorMessage={}",
                                     request, retryTimes, e.getMessage());
@@ -664,6 +737,235 @@ public abstract class RpcClient implements Closeable {
         
     }
     
+    /**
+     * Enable hedged requests, see {@link #hedgedRequest(Request, long)}.
+     *
+     * @param ratio max ratio of the hedgeable requests which are hedged, 0 to disable hedging.
+     */
+    public void setHedgeRatio(double ratio) {
+        this.hedgeBudgetPerRequest = (int) Math.round(Math.max(0D, Math.min(ratio, 1D)) * HEDGE_BUDGET_UNIT);
+    }
+    
+    /**
+     * send idempotent request with hedging.
+     *
+     * @param request request.
+     * @return response from server.
+     */
+    public Response hedgedRequest(Request request) throws NacosException {
+        return hedgedRequest(request, DEFAULT_TIMEOUT_MILLS);
+    }
+    
+    /**
+     * send idempotent request with hedging. If the current server does not respond within its p95 latency, the request
+     * is sent again to another server and the first response is used. Hedged requests are limited by the hedge ratio,
+     * and the request is sent as {@link #request(Request, long)} if hedging is disabled.
+     *
+     * @param request      request, which must be idempotent.
+     * @param timeoutMills timeout of the request.
+     * @return response from server.
+     */
+    public Response hedgedRequest(Request request, long timeoutMills) throws NacosException {
+        Connection connection = this.currentConnection;
+        long hedgeDelay = hedgeDelay(connection);
+        if (hedgeDelay <= 0L || hedgeDelay >= timeoutMills || !isRunning()) {
+            return request(request, timeoutMills);
+        }
+        long start = System.currentTimeMillis();
+        RequestFuture primary = sendRequestFuture(connection, request);
+        Connection hedge = null;
+        RequestFuture secondary = null;
+        long hedgeStart = 0L;
+        boolean hedged = false;
+        while (primary != null || secondary != null) {
+            long now = System.currentTimeMillis();
+            if (now - start >= timeoutMills) {
+                break;
+            }
+            if (!hedged && now - start >= hedgeDelay) {
+                hedged = true;
+                hedge = hedgeConnectionOf(connection);
+                if (hedge != null && tryAcquireHedgeBudget()) {
+                    hedgeStart = now;
+                    secondary = sendRequestFuture(hedge, request);
+                }
+            }
+            long remaining = start + timeoutMills - now;
+            long wait;
+            if (!hedged) {
+                wait = Math.min(start + hedgeDelay - now, remaining);
+            } else if (primary != null && secondary != null) {
+                wait = Math.min(HEDGE_POLL_MILLS, remaining);
+            } else {
+                // only one request is in flight, no need to poll.
+                wait = remaining;
+            }
+            if (primary != null) {
+                try {
+                    Response response = pollResponse(primary, wait);
+                    if (response != null && !(response instanceof ConnectionUnregisterResponse)) {
+                        recordLatency(connection.serverInfo, System.currentTimeMillis() - start);
+                        return response;
+                    }
+                    if (response != null) {
+                        primary = null;
+                    }
+                } catch (Exception e) {
+                    recordFailure(connection.serverInfo);
+                    primary = null;
+                }
+            }
+            if (secondary != null) {
+                try {
+                    Response response = pollResponse(secondary, primary == null ? wait : 0L);
+                    if (response != null && !(response instanceof ConnectionUnregisterResponse)) {
+                        recordLatency(hedge.serverInfo, System.currentTimeMillis() - hedgeStart);
+                        return response;
+                    }
+                    if (response != null) {
+                        closeHedgeConnection(hedge);
+                        secondary = null;
+                    }
+                } catch (Exception e) {
+                    recordFailure(hedge.serverInfo);
+                    closeHedgeConnection(hedge);
+                    secondary = null;
+                }
+            }
+        }
+        if (primary != null) {
+            recordFailure(connection.serverInfo);
+        }
+        // let the normal request retry and switch server.
+        long remaining = start + timeoutMills - System.currentTimeMillis();
+        if (remaining > 0L) {
+            return request(request, remaining);
+        }
+        if (rpcClientStatus.compareAndSet(RpcClientStatus.RUNNING, RpcClientStatus.UNHEALTHY)) {
+            switchServerAsyncOnRequestFail();
+        }
+        throw new NacosException(SERVER_ERROR, "Request timeout after " + timeoutMills + " milliseconds.");
+    }
+    
+    private long hedgeDelay(Connection connection) {
+        int budgetPerRequest = hedgeBudgetPerRequest;
+        if (budgetPerRequest <= 0 || connection == null) {
+            return -1L;
+        }
+        int budget;
+        do {
+            budget = hedgeBudget.get();
+        } while (budget < MAX_HEDGE_BUDGET && !hedgeBudget
+                .compareAndSet(budget, Math.min(budget + budgetPerRequest, MAX_HEDGE_BUDGET)));
+        ServerLatencyStats stats = latencyTracker.getStats(serverKey(connection.serverInfo));
+        if (stats.getSampleCount() < MIN_LATENCY_SAMPLES) {
+            return -1L;
+        }
+        return Math.max(MIN_HEDGE_DELAY_MILLS, stats.getPercentile(0.95D));
+    }
+    
+    private boolean tryAcquireHedgeBudget() {
+        int budget;
+        do {
+            budget = hedgeBudget.get();
+            if (budget < HEDGE_BUDGET_UNIT) {
+                return false;
+            }
+        } while (!hedgeBudget.compareAndSet(budget, budget - HEDGE_BUDGET_UNIT));
+        return true;
+    }
+    
+    private RequestFuture sendRequestFuture(Connection connection, Request request) {
+        try {
+            return connection.requestFuture(request, buildMeta());
+        } catch (Exception e) {
+            recordFailure(connection.serverInfo);
+            return null;
+        }
+    }
+    
+    private Response pollResponse(RequestFuture future, long waitMills) throws Exception {
+        if (waitMills <= 0L && !future.isDone()) {
+            return null;
+        }
+        try {
+            return future.get(Math.max(waitMills, 0L));
+        } catch (TimeoutException e) {
+            return null;
+        }
+    }
+    
+    /**
+     * get the hedge connection to another server than current connection, connect asynchronously if absent.
+     *
+     * @param current current connection.
+     * @return hedge connection, null if not connected yet.
+     */
+    private Connection hedgeConnectionOf(final Connection current) {
+        Connection hedge = hedgeConnection.get();
+        if (hedge != null && !serverKey(hedge.serverInfo).equals(serverKey(current.serverInfo))) {
+            return hedge;
+        }
+        closeHedgeConnection(hedge);
+        if (hedgeConnecting.compareAndSet(false, true)) {
+            try {
+                executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        connectHedgeServer(serverKey(current.serverInfo));
+                    }
+                });
+            } catch (Exception e) {
+                hedgeConnecting.set(false);
+            }
+        }
+        return null;
+    }
+    
+    private void connectHedgeServer(String currentServer) {
+        ServerInfo serverInfo = null;
+        try {
+            Map<String, String> serverAddresses = serverAddresses();
+            String server = latencyTracker.pick(serverAddresses.keySet(), currentServer);
+            if (server == null) {
+                return;
+            }
+            serverInfo = resolveServerInfo(serverAddresses.get(server));
+            Connection connection = connectToHedgeServer(serverInfo);
+            if (connection == null) {
+                recordFailure(serverInfo);
+                return;
+            }
+            // the errors of hedge connection should not switch the current connection.
+            connection.setHedge(true);
+            connection.setAbandon(true);
+            if (isShutdown() || !hedgeConnection.compareAndSet(null, connection)) {
+                connection.close();
+                return;
+            }
+            LoggerUtils.printIfInfoEnabled(LOGGER, "[{}] success to connect hedge server : {}", name, serverInfo);
+        } catch (Throwable e) {
+            recordFailure(serverInfo);
+            LoggerUtils.printIfWarnEnabled(LOGGER, "[{}] fail to connect hedge server {}, errorMessage={}", name,
+                    serverInfo, e.getMessage());
+        } finally {
+            hedgeConnecting.set(false);
+        }
+    }
+    
+    private void closeHedgeConnectionTo(ServerInfo serverInfo) {
+        Connection hedge = hedgeConnection.get();
+        if (hedge != null && serverKey(hedge.serverInfo).equals(serverKey(serverInfo))) {
+            closeHedgeConnection(hedge);
+        }
+    }
+    
+    private void closeHedgeConnection(Connection connection) {
+        if (connection != null && hedgeConnection.compareAndSet(connection, null)) {
+            connection.close();
+        }
+    }
+    
     /**
      * connect to server.
      *
@@ -673,6 +975,35 @@ public abstract class RpcClient implements Closeable {
      */
     public abstract Connection connectToServer(ServerInfo serverInfo) throws Exception;
     
+    /**
+     * connect to server for hedged requests, the connection must be marked as hedge and set up with
+     * {@link #buildHedgeMeta()}.
+     *
+     * @param serverInfo server address to connect.
+     * @return return connection when sucussfully connect to server, or null if failed.
+     * @throws Exception exception when fail to connect to server.
+     */
+    protected abstract Connection connectToHedgeServer(ServerInfo serverInfo) throws Exception;
+    
+    /**
+     * handle server request received by the connection. Connect reset requests received by hedge connections are
+     * ignored, they should not switch the current connection.
+     *
+     * @param request    request.
+     * @param meta       request meta.
+     * @param connection connection received the request.
+     * @return response.
+     */
+    protected Response handleServerRequest(final Request request, final RequestMeta meta,
+            final Connection connection) {
+        if (connection.isHedge() && request instanceof ConnectResetRequest) {
+            LoggerUtils.printIfInfoEnabled(LOGGER, "[{}]ignore connect reset request of hedge connection,requestId={}",
+                    name, request.getRequestId());
+            return new ConnectResetResponse();
+        }
+        return handleServerRequest(request, meta);
+    }
+    
     /**
      * handle server request.
      *
@@ -722,6 +1053,28 @@ public abstract class RpcClient implements Closeable {
         this.serverRequestHandlers.add(serverRequestHandler);
     }
     
+    /**
+     * Unregister connection handler.
+     *
+     * @param connectionEventListener connectionEventListener
+     */
+    public synchronized void unregisterConnectionListener(ConnectionEventListener connectionEventListener) {
+        LoggerUtils.printIfInfoEnabled(LOGGER, "[{}]Unregister connection listener from current client:{}", name,
+                connectionEventListener.getClass().getName());
+        this.connectionEventListeners.remove(connectionEventListener);
+    }
+    
+    /**
+     * Unregister serverRequestHandler.
+     *
+     * @param serverRequestHandler serverRequestHandler
+     */
+    public synchronized void unregisterServerRequestHandler(ServerRequestHandler serverRequestHandler) {
+        LoggerUtils.printIfInfoEnabled(LOGGER, "[{}]Unregister server push request handler:{}", name,
+                serverRequestHandler.getClass().getName());
+        this.serverRequestHandlers.remove(serverRequestHandler);
+    }
+    
     /**
      * Getter method for property <tt>name</tt>.
      *
@@ -750,10 +1103,99 @@ public abstract class RpcClient implements Closeable {
     }
     
     protected ServerInfo nextRpcServer() {
-        String serverAddress = getServerListFactory().genNextServer();
+        Map<String, String> serverAddresses = serverAddresses();
+        Connection connection = this.currentConnection;
+        String server = latencyTracker
+                .pick(serverAddresses.keySet(), connection == null ? null : serverKey(connection.serverInfo));
+        String serverAddress = server == null ? getServerListFactory().genNextServer() : serverAddresses.get(server);
         return resolveServerInfo(serverAddress);
     }
     
+    /**
+     * Switch the server list factory to the server connected, which may be picked by latency or recommended instead of
+     * generated by the factory.
+     *
+     * @param serverInfo server connected.
+     */
+    private void syncServerListFactory(ServerInfo serverInfo) {
+        try {
+            String serverAddress = serverAddresses().get(serverKey(serverInfo));
+            if (serverAddress != null) {
+                getServerListFactory().switchToServer(serverAddress);
+            }
+        } catch (Throwable e) {
+            LoggerUtils.printIfWarnEnabled(LOGGER, "[{}] fail to sync current server, errorMessage={}", name,
+                    e.getMessage());
+        }
+    }
+    
+    /**
+     * Get request latency of the servers of this client.
+     *
+     * @return latency tracker.
+     */
+    public ServerLatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
+    
+    /**
+     * Get the times this client switched to a new connection after started.
+     *
+     * @return reconnect count.
+     */
+    public long getReconnectCount() {
+        return reconnectCount.get();
+    }
+    
+    private String serverKey(ServerInfo serverInfo) {
+        return serverInfo.getServerIp() + Constants.COLON + (serverInfo.getServerPort() - rpcPortOffset());
+    }
+    
+    /**
+     * server list of server list factory.
+     *
+     * @return ip:port -> address in server list.
+     */
+    private Map<String, String> serverAddresses() {
+        List<String> serverList = getServerListFactory().getServerList();
+        Map<String, String> result = new LinkedHashMap<String, String>(serverList.size());
+        for (String each : serverList) {
+            result.put(serverKey(resolveServerInfo(each)), each);
+        }
+        return result;
+    }
+    
+    private void recordLatency(ServerInfo serverInfo, long latencyMills) {
+        latencyTracker.getStats(serverKey(serverInfo)).record(latencyMills);
+    }
+    
+    private void recordFailure(ServerInfo serverInfo) {
+        if (serverInfo != null) {
+            latencyTracker.getStats(serverKey(serverInfo)).recordFailure(DEFAULT_TIMEOUT_MILLS);
+        }
+    }
+    
+    private void switchToFasterServer() {
+        try {
+            Connection connection = this.currentConnection;
+            if (connection == null || !isRunning()) {
+                return;
+            }
+            Map<String, String> serverAddresses = serverAddresses();
+            String currentServer = serverKey(connection.serverInfo);
+            String fasterServer = latencyTracker
+                    .pickFaster(serverAddresses.keySet(), currentServer, SLOW_SERVER_RATIO, MIN_LATENCY_SAMPLES);
+            if (fasterServer == null) {
+                return;
+            }
+            LoggerUtils.printIfInfoEnabled(LOGGER, "[{}] server {} is much slower than {}, switch server", name,
+                    currentServer, fasterServer);
+            switchServerAsync(resolveServerInfo(serverAddresses.get(fasterServer)), false);
+        } catch (Throwable e) {
+            LoggerUtils.printIfWarnEnabled(LOGGER, "[{}] fail to select server, errorMessage={}", name, e.getMessage());
+        }
+    }
+    
     protected ServerInfo currentRpcServer() {
         String serverAddress = getServerListFactory().getCurrentServer();
         return resolveServerInfo(serverAddress);
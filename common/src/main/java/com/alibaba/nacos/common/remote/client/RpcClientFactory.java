@@ -21,7 +21,11 @@ import com.alibaba.nacos.common.remote.ConnectionType;
 import com.alibaba.nacos.common.remote.client.grpc.GrpcClusterClient;
 import com.alibaba.nacos.common.remote.client.grpc.GrpcSdkClient;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -35,6 +39,13 @@ public class RpcClientFactory {
     
     static Map<String, RpcClient> clientMap = new HashMap<String, RpcClient>();
     
+    private static final String SHARED_CLIENT_PREFIX = "shared-";
+    
+    /**
+     * shared client name -> modules holding a lease of it.
+     */
+    static Map<String, Set<String>> sharedClientModules = new HashMap<String, Set<String>>();
+    
     /**
      * get all client.
      *
@@ -57,6 +68,17 @@ public class RpcClientFactory {
         }
     }
     
+    /**
+     * get all clients.
+     *
+     * @return copy of all clients.
+     */
+    public static List<RpcClient> getAllClients() {
+        synchronized (clientMap) {
+            return new ArrayList<RpcClient>(clientMap.values());
+        }
+    }
+    
     public static RpcClient getClient(String clientName) {
         
         return clientMap.get(clientName);
@@ -117,4 +139,101 @@ public class RpcClientFactory {
         }
     }
     
+    /**
+     * Acquire a lease of the rpc client shared by the modules in this jvm which connect to the same servers. The client
+     * is created by the first lease and shut down when the last lease is released, the caller should start it after
+     * its handlers are registered.
+     *
+     * <p>Server push requests are handled by the first handler which replies, so one module can hold only one lease of
+     * a shared client, {@code null} is returned if the module already holds one. The server list factory of the first
+     * lease is used by the shared client, so only fixed server lists should be shared.
+     *
+     * <p>The labels of all leases are merged, since they are sent to server when connecting, new labels can only be
+     * added before the shared client is started. {@code null} is returned if the labels of the lease conflict with the
+     * shared client, or add new ones to a started shared client, the module should create its own client then.
+     *
+     * @param module            module acquiring the lease.
+     * @param connectionType    client type.
+     * @param labels            labels of the shared client.
+     * @param serverListFactory server list factory, whose server list identifies the shared client.
+     * @return lease of the shared client, or {@code null} if the module already holds a lease of it or the labels
+     *     can't be carried by it.
+     */
+    public static RpcClientLease acquireSharedClient(String module, ConnectionType connectionType,
+            Map<String, String> labels, ServerListFactory serverListFactory) {
+        String clientName = sharedClientName(connectionType, serverListFactory.getServerList());
+        synchronized (clientMap) {
+            Set<String> modules = sharedClientModules.get(clientName);
+            if (modules != null && modules.contains(module)) {
+                return null;
+            }
+            RpcClient rpcClient = clientMap.get(clientName);
+            if (modules == null || rpcClient == null || rpcClient.isShutdown()) {
+                clientMap.remove(clientName);
+                rpcClient = createClient(clientName, connectionType, labels);
+                rpcClient.init(serverListFactory);
+                modules = new HashSet<String>();
+                sharedClientModules.put(clientName, modules);
+            } else if (!mergeLabels(rpcClient, labels)) {
+                return null;
+            }
+            modules.add(module);
+            return new RpcClientLease(clientName, module, rpcClient);
+        }
+    }
+    
+    /**
+     * release a lease of shared client, shut down the client if it is the last lease.
+     *
+     * @param lease lease of shared client.
+     */
+    static void releaseSharedClient(RpcClientLease lease) throws NacosException {
+        String clientName = lease.getKey();
+        synchronized (clientMap) {
+            Set<String> modules = sharedClientModules.get(clientName);
+            if (modules == null || clientMap.get(clientName) != lease.getRpcClient()) {
+                return;
+            }
+            modules.remove(lease.getModule());
+            if (modules.isEmpty()) {
+                sharedClientModules.remove(clientName);
+                destroyClient(clientName);
+            }
+        }
+    }
+    
+    private static boolean mergeLabels(RpcClient rpcClient, Map<String, String> labels) {
+        if (labels == null || labels.isEmpty()) {
+            return true;
+        }
+        boolean added = false;
+        for (Map.Entry<String, String> entry : labels.entrySet()) {
+            String current = rpcClient.getLabels().get(entry.getKey());
+            if (current == null) {
+                added = true;
+            } else if (!current.equals(entry.getValue())) {
+                return false;
+            }
+        }
+        if (!added) {
+            return true;
+        }
+        if (rpcClient.rpcClientStatus.get() != RpcClientStatus.INITIALIZED) {
+            // The connection has been set up with the old labels.
+            return false;
+        }
+        rpcClient.initLabels(labels);
+        return true;
+    }
+    
+    private static String sharedClientName(ConnectionType connectionType, List<String> serverList) {
+        List<String> servers = new ArrayList<String>(serverList.size());
+        for (String each : serverList) {
+            String server = each.trim();
+            int schemaEnd = server.indexOf("://");
+            servers.add(schemaEnd < 0 ? server : server.substring(schemaEnd + 3));
+        }
+        Collections.sort(servers);
+        return SHARED_CLIENT_PREFIX + connectionType.getType() + "-" + servers;
+    }
 }
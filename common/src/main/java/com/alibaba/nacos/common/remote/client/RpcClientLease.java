@@ -0,0 +1,106 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.remote.client;
+
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.common.lifecycle.Closeable;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One module's use of a shared rpc client, see {@link RpcClientFactory#acquireSharedClient}.
+ *
+ * <p>Handlers and listeners registered by the lease are unregistered when the lease is shut down, the shared client
+ * itself is shut down when its last lease is shut down.
+ *
+ * @author Nacos
+ */
+public class RpcClientLease implements Closeable {
+    
+    private final String key;
+    
+    private final String module;
+    
+    private final RpcClient rpcClient;
+    
+    private final List<ServerRequestHandler> serverRequestHandlers = new CopyOnWriteArrayList<ServerRequestHandler>();
+    
+    private final List<ConnectionEventListener> connectionEventListeners =
+            new CopyOnWriteArrayList<ConnectionEventListener>();
+    
+    private final AtomicBoolean released = new AtomicBoolean(false);
+    
+    RpcClientLease(String key, String module, RpcClient rpcClient) {
+        this.key = key;
+        this.module = module;
+        this.rpcClient = rpcClient;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public String getModule() {
+        return module;
+    }
+    
+    public RpcClient getRpcClient() {
+        return rpcClient;
+    }
+    
+    /**
+     * Register server request handler to the shared client.
+     *
+     * @param serverRequestHandler serverRequestHandler
+     */
+    public void registerServerRequestHandler(ServerRequestHandler serverRequestHandler) {
+        serverRequestHandlers.add(serverRequestHandler);
+        rpcClient.registerServerRequestHandler(serverRequestHandler);
+    }
+    
+    /**
+     * Register connection listener to the shared client.
+     *
+     * @param connectionEventListener connectionEventListener
+     */
+    public void registerConnectionListener(ConnectionEventListener connectionEventListener) {
+        connectionEventListeners.add(connectionEventListener);
+        rpcClient.registerConnectionListener(connectionEventListener);
+    }
+    
+    public boolean isReleased() {
+        return released.get();
+    }
+    
+    @Override
+    public void shutdown() throws NacosException {
+        if (!released.compareAndSet(false, true)) {
+            return;
+        }
+        for (ServerRequestHandler each : serverRequestHandlers) {
+            rpcClient.unregisterServerRequestHandler(each);
+        }
+        for (ConnectionEventListener each : connectionEventListeners) {
+            rpcClient.unregisterConnectionListener(each);
+        }
+        serverRequestHandlers.clear();
+        connectionEventListeners.clear();
+        RpcClientFactory.releaseSharedClient(this);
+    }
+}
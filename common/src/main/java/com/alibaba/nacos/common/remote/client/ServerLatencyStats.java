@@ -0,0 +1,105 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.remote.client;
+
+import java.util.Arrays;
+
+/**
+ * Request latency of one server, an EWMA of the latency and the latest samples for percentiles.
+ *
+ * @author Nacos
+ */
+public class ServerLatencyStats {
+    
+    private static final double EWMA_ALPHA = 0.2D;
+    
+    private static final int MAX_SAMPLES = 128;
+    
+    private final long[] samples = new long[MAX_SAMPLES];
+    
+    private int sampleCount;
+    
+    private int nextSample;
+    
+    private double ewma;
+    
+    private long lastUpdateTime;
+    
+    private long lastFailureTime;
+    
+    /**
+     * Record the latency of a successful request.
+     *
+     * @param latencyMillis latency in milliseconds
+     */
+    public synchronized void record(long latencyMillis) {
+        updateEwma(latencyMillis);
+        samples[nextSample] = latencyMillis;
+        nextSample = (nextSample + 1) % MAX_SAMPLES;
+        sampleCount = Math.min(sampleCount + 1, MAX_SAMPLES);
+    }
+    
+    /**
+     * Record a failed request or connection, the penalty is counted in the EWMA but not in the percentiles.
+     *
+     * @param penaltyMillis latency counted for the failure
+     */
+    public synchronized void recordFailure(long penaltyMillis) {
+        updateEwma(penaltyMillis);
+        lastFailureTime = System.currentTimeMillis();
+    }
+    
+    private void updateEwma(long latencyMillis) {
+        ewma = lastUpdateTime == 0 ? latencyMillis : ewma + EWMA_ALPHA * (latencyMillis - ewma);
+        lastUpdateTime = System.currentTimeMillis();
+    }
+    
+    public synchronized double getEwma() {
+        return ewma;
+    }
+    
+    public synchronized int getSampleCount() {
+        return sampleCount;
+    }
+    
+    public synchronized long getLastUpdateTime() {
+        return lastUpdateTime;
+    }
+    
+    public synchronized long getLastFailureTime() {
+        return lastFailureTime;
+    }
+    
+    /**
+     * Get the percentile of the latest samples.
+     *
+     * @param percentile percentile between 0 and 1, such as 0.99
+     * @return latency in milliseconds, 0 if there is no sample
+     */
+    public long getPercentile(double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            if (sampleCount == 0) {
+                return 0L;
+            }
+            sorted = Arrays.copyOf(samples, sampleCount);
+        }
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.remote.client;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Request latency of the servers of one rpc client, used to choose the server to connect.
+ *
+ * <p>Servers are chosen by the power of two choices: two random servers are compared by the EWMA of latency, so that
+ * slow servers are avoided while the clients are still spread over the fast ones. Servers never measured count as the
+ * fastest, and servers failed recently are skipped.
+ *
+ * @author Nacos
+ */
+public class ServerLatencyTracker {
+    
+    static final long FAILURE_COOLDOWN_MILLIS = 30000L;
+    
+    static final long STATS_EXPIRE_MILLIS = 300000L;
+    
+    private final Map<String, ServerLatencyStats> stats = new ConcurrentHashMap<String, ServerLatencyStats>(8);
+    
+    /**
+     * Get the latency stats of the server, created if absent.
+     *
+     * @param server server address, ip:port
+     * @return latency stats
+     */
+    public ServerLatencyStats getStats(String server) {
+        ServerLatencyStats result = stats.get(server);
+        if (result == null) {
+            stats.putIfAbsent(server, new ServerLatencyStats());
+            result = stats.get(server);
+        }
+        return result;
+    }
+    
+    public Map<String, ServerLatencyStats> getAllStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+    
+    /**
+     * Choose a server to connect.
+     *
+     * @param servers candidate servers, ip:port
+     * @param exclude server which should not be chosen, such as the current server, nullable
+     * @return chosen server, or {@code null} if every candidate is excluded or failed recently
+     */
+    public String pick(Collection<String> servers, String exclude) {
+        long now = System.currentTimeMillis();
+        List<String> candidates = new ArrayList<String>(servers.size());
+        for (String each : servers) {
+            if (each.equals(exclude)) {
+                continue;
+            }
+            ServerLatencyStats serverStats = stats.get(each);
+            if (serverStats != null && now - serverStats.getLastFailureTime() < FAILURE_COOLDOWN_MILLIS) {
+                continue;
+            }
+            candidates.add(each);
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String first = candidates.get(random.nextInt(candidates.size()));
+        if (candidates.size() == 1) {
+            return first;
+        }
+        String second = candidates.get(random.nextInt(candidates.size()));
+        return score(second, now) < score(first, now) ? second : first;
+    }
+    
+    /**
+     * Find a server much faster than the current one, both measured recently.
+     *
+     * @param servers    candidate servers, ip:port
+     * @param current    current server
+     * @param ratio      how many times the EWMA of the current server should be of the faster one
+     * @param minSamples samples needed to trust the EWMA of a server
+     * @return the fastest server if it is faster than the current server by the ratio, otherwise {@code null}
+     */
+    public String pickFaster(Collection<String> servers, String current, double ratio, int minSamples) {
+        long now = System.currentTimeMillis();
+        ServerLatencyStats currentStats = stats.get(current);
+        if (!isTrusted(currentStats, now, minSamples)) {
+            return null;
+        }
+        String fastest = null;
+        double fastestEwma = currentStats.getEwma() / ratio;
+        for (String each : servers) {
+            ServerLatencyStats serverStats = stats.get(each);
+            if (each.equals(current) || !isTrusted(serverStats, now, minSamples)
+                    || now - serverStats.getLastFailureTime() < FAILURE_COOLDOWN_MILLIS) {
+                continue;
+            }
+            if (serverStats.getEwma() < fastestEwma) {
+                fastest = each;
+                fastestEwma = serverStats.getEwma();
+            }
+        }
+        return fastest;
+    }
+    
+    private boolean isTrusted(ServerLatencyStats serverStats, long now, int minSamples) {
+        return serverStats != null && serverStats.getSampleCount() >= minSamples
+                && now - serverStats.getLastUpdateTime() < STATS_EXPIRE_MILLIS;
+    }
+    
+    private double score(String server, long now) {
+        ServerLatencyStats serverStats = stats.get(server);
+        if (serverStats == null || now - serverStats.getLastUpdateTime() >= STATS_EXPIRE_MILLIS) {
+            return 0D;
+        }
+        return serverStats.getEwma();
+    }
+}
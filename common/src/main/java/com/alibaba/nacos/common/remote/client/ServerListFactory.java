@@ -45,4 +45,16 @@ public interface ServerListFactory {
      */
     List<String> getServerList();
     
+    /**
+     * switch to the server picked by the client, so that the current server is the one connected. By default it
+     * switches to the next server until the server is reached, so that the servers after it are tried in turn.
+     *
+     * @param server server " ip:port" in the server list.
+     */
+    default void switchToServer(String server) {
+        int size = getServerList().size();
+        for (int i = 0; i < size && !server.equals(getCurrentServer()); i++) {
+            genNextServer();
+        }
+    }
 }
@@ -149,10 +149,10 @@ public abstract class GrpcClient extends RpcClient {
                     if (request != null) {
                         
                         try {
-                            Response response = handleServerRequest(request, parse.metadata);
+                            Response response = handleServerRequest(request, parse.metadata, grpcConn);
                             if (response != null) {
                                 response.setRequestId(request.getRequestId());
-                                sendResponse(response);
+                                sendResponse(grpcConn, response);
                             } else {
                                 LOGGER.warn("[{}]Fail to process server request, ackId->{}", GrpcClient.this.getName(),
                                         request.getRequestId());
@@ -217,9 +217,9 @@ public abstract class GrpcClient extends RpcClient {
         }
     }
     
-    private void sendResponse(Response response) {
+    private void sendResponse(GrpcConnection grpcConn, Response response) {
         try {
-            ((GrpcConnection) this.currentConnection).sendResponse(response);
+            grpcConn.sendResponse(response);
         } catch (Exception e) {
             LOGGER.error("[{}]Error to send ack response, ackId->{}", GrpcClient.this.getName(),
                     response.getRequestId());
@@ -228,6 +228,15 @@ public abstract class GrpcClient extends RpcClient {
     
     @Override
     public Connection connectToServer(ServerInfo serverInfo) {
+        return connectToServer(serverInfo, false);
+    }
+    
+    @Override
+    protected Connection connectToHedgeServer(ServerInfo serverInfo) {
+        return connectToServer(serverInfo, true);
+    }
+    
+    private Connection connectToServer(ServerInfo serverInfo, boolean hedge) {
         try {
             if (executor == null) {
                 executor = new ThreadPoolExecutor(0, Runtime.getRuntime().availableProcessors() * 8, 10L,
@@ -242,6 +251,9 @@ public abstract class GrpcClient extends RpcClient {
                 BiRequestStreamGrpc.BiRequestStreamStub biRequestStreamStub = BiRequestStreamGrpc
                         .newStub(newChannelStubTemp.getChannel());
                 GrpcConnection grpcConn = new GrpcConnection(serverInfo, executor);
+                // the events of hedge connection should not switch the current connection.
+                grpcConn.setHedge(hedge);
+                grpcConn.setAbandon(hedge);
                 
                 //create stream request and bind connection event to this connection.
                 StreamObserver<Payload> payloadStreamObserver = bindRequestStream(biRequestStreamStub, grpcConn);
@@ -253,7 +265,7 @@ public abstract class GrpcClient extends RpcClient {
                 
                 //send a connection setup request.
                 ConnectionSetupRequest conSetupRequest = new ConnectionSetupRequest();
-                grpcConn.sendRequest(conSetupRequest, buildMeta());
+                grpcConn.sendRequest(conSetupRequest, hedge ? buildHedgeMeta() : buildMeta());
                 return grpcConn;
             }
             return null;
@@ -37,6 +37,8 @@ import com.google.protobuf.ByteString;
 
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * gRPC utils, use to parse request and response.
@@ -85,6 +87,41 @@ public class GrpcUtils {
         }
     }
     
+    /**
+     * Serialize the body of request without headers, the body can be shared by the payloads of the request to many
+     * connections, see {@link #convert(Request, RequestMeta, Map, ByteString)}.
+     *
+     * @param request request.
+     * @return body.
+     */
+    public static ByteString toBody(Request request) {
+        Map<String, String> headers = new HashMap<String, String>(request.getHeaders());
+        request.clearHeaders();
+        try {
+            return ByteString.copyFrom(toJson(request), Charset.forName(Constants.ENCODE));
+        } finally {
+            request.putAllHeader(headers);
+        }
+    }
+    
+    /**
+     * convert request with serialized body to payload.
+     *
+     * @param request request, only the type is used.
+     * @param meta    request meta.
+     * @param headers headers of request.
+     * @param body    body serialized by {@link #toBody(Request)}.
+     * @return payload.
+     */
+    public static Payload convert(Request request, RequestMeta meta, Map<String, String> headers, ByteString body) {
+        Metadata.Builder metaBuilder = Metadata.newBuilder();
+        metaBuilder.setClientIp(meta.getClientIp()).setClientPort(meta.getClientPort())
+                .setConnectionId(meta.getConnectionId()).putAllLabels(meta.getLabels())
+                .setClientVersion(meta.getClientVersion()).putAllHeaders(headers)
+                .setType(request.getClass().getName());
+        return Payload.newBuilder().setMetadata(metaBuilder.build()).setBody(Any.newBuilder().setValue(body)).build();
+    }
+    
     /**
      * convert request to payload.
      *
@@ -102,6 +102,25 @@ public final class ConvertUtils {
         }
     }
     
+    /**
+     * Convert String value to double value if parameter value is legal. And return default value if parameter value is
+     * null or blank str.
+     *
+     * @param val          value
+     * @param defaultValue default value
+     * @return double value if input value is legal, otherwise default value
+     */
+    public static double toDouble(String val, double defaultValue) {
+        if (StringUtils.isBlank(val)) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(val);
+        } catch (NumberFormatException exception) {
+            return defaultValue;
+        }
+    }
+    
     /**
      * Convert String value to boolean value if parameter value is legal. And return default value if parameter value is
      * null or blank str.
@@ -0,0 +1,98 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.remote.client;
+
+import com.alibaba.nacos.common.remote.ConnectionType;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class RpcClientFactoryTest {
+    
+    @Test
+    public void testAcquireSharedClient() throws Exception {
+        RpcClientLease config = RpcClientFactory.acquireSharedClient("config", ConnectionType.GRPC,
+                Collections.<String, String>emptyMap(), serverList("http://127.0.0.1:8848", "http://127.0.0.2:8848"));
+        RpcClientLease naming = RpcClientFactory.acquireSharedClient("naming", ConnectionType.GRPC,
+                Collections.<String, String>emptyMap(), serverList("127.0.0.2:8848", "127.0.0.1:8848"));
+        Assert.assertSame(config.getRpcClient(), naming.getRpcClient());
+        Assert.assertNull(RpcClientFactory.acquireSharedClient("naming", ConnectionType.GRPC,
+                Collections.<String, String>emptyMap(), serverList("127.0.0.1:8848", "127.0.0.2:8848")));
+        
+        ServerRequestHandler handler = (request, requestMeta) -> null;
+        naming.registerServerRequestHandler(handler);
+        naming.shutdown();
+        Assert.assertFalse(config.getRpcClient().serverRequestHandlers.contains(handler));
+        Assert.assertFalse(config.getRpcClient().isShutdown());
+        
+        config.shutdown();
+        Assert.assertTrue(config.getRpcClient().isShutdown());
+        Assert.assertNull(RpcClientFactory.getClient(config.getKey()));
+    }
+    
+    @Test
+    public void testSharedClientLabels() throws Exception {
+        RpcClientLease naming = RpcClientFactory.acquireSharedClient("naming", ConnectionType.GRPC,
+                Collections.singletonMap("module", "shared"), serverList("127.0.0.3:8848"));
+        Map<String, String> configLabels = new HashMap<String, String>(4);
+        configLabels.put("module", "shared");
+        configLabels.put("config.push.content", "true");
+        RpcClientLease config = RpcClientFactory
+                .acquireSharedClient("config", ConnectionType.GRPC, configLabels, serverList("127.0.0.3:8848"));
+        Assert.assertSame(naming.getRpcClient(), config.getRpcClient());
+        Assert.assertEquals("true", naming.getRpcClient().getLabels().get("config.push.content"));
+        
+        Assert.assertNull(RpcClientFactory.acquireSharedClient("other", ConnectionType.GRPC,
+                Collections.singletonMap("module", "naming"), serverList("127.0.0.3:8848")));
+        naming.getRpcClient().rpcClientStatus.set(RpcClientStatus.STARTING);
+        Assert.assertNull(RpcClientFactory.acquireSharedClient("other", ConnectionType.GRPC,
+                Collections.singletonMap("app", "test"), serverList("127.0.0.3:8848")));
+        RpcClientLease other = RpcClientFactory.acquireSharedClient("other", ConnectionType.GRPC,
+                Collections.singletonMap("module", "shared"), serverList("127.0.0.3:8848"));
+        Assert.assertSame(naming.getRpcClient(), other.getRpcClient());
+        
+        naming.shutdown();
+        config.shutdown();
+        other.shutdown();
+        Assert.assertTrue(naming.getRpcClient().isShutdown());
+    }
+    
+    private ServerListFactory serverList(String... servers) {
+        final List<String> serverList = Arrays.asList(servers);
+        return new ServerListFactory() {
+            @Override
+            public String genNextServer() {
+                return serverList.get(0);
+            }
+            
+            @Override
+            public String getCurrentServer() {
+                return serverList.get(0);
+            }
+            
+            @Override
+            public List<String> getServerList() {
+                return serverList;
+            }
+        };
+    }
+}
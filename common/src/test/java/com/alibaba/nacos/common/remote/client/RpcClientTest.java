@@ -0,0 +1,241 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.remote.client;
+
+import com.alibaba.nacos.api.remote.RemoteConstants;
+import com.alibaba.nacos.api.remote.RequestFuture;
+import com.alibaba.nacos.api.remote.request.ConnectResetRequest;
+import com.alibaba.nacos.api.remote.request.Request;
+import com.alibaba.nacos.api.remote.request.RequestMeta;
+import com.alibaba.nacos.api.remote.request.ServerCheckRequest;
+import com.alibaba.nacos.api.remote.response.ConnectResetResponse;
+import com.alibaba.nacos.api.remote.response.Response;
+import com.alibaba.nacos.api.remote.response.ServerCheckResponse;
+import com.alibaba.nacos.common.remote.ConnectionType;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class RpcClientTest {
+    
+    private static final List<String> SERVERS = Arrays.asList("127.0.0.1:8848", "127.0.0.2:8848");
+    
+    private static final long HEDGE_DELAY = 50L;
+    
+    private final Map<String, Connection> connections = new HashMap<String, Connection>(4);
+    
+    private final AtomicInteger connectCount = new AtomicInteger();
+    
+    private final AtomicInteger hedgeConnectCount = new AtomicInteger();
+    
+    private volatile boolean hedgeAvailable = true;
+    
+    private ServerListFactory serverListFactory;
+    
+    private TestRpcClient rpcClient;
+    
+    @Before
+    public void setUp() throws Exception {
+        serverListFactory = Mockito.mock(ServerListFactory.class);
+        Mockito.when(serverListFactory.getServerList()).thenReturn(SERVERS);
+        Mockito.when(serverListFactory.genNextServer()).thenReturn(SERVERS.get(0));
+        for (String each : SERVERS) {
+            RpcClient.ServerInfo serverInfo = new RpcClient.ServerInfo();
+            serverInfo.setServerIp(each.split(":")[0]);
+            serverInfo.setServerPort(Integer.parseInt(each.split(":")[1]) + 1000);
+            connections.put(serverInfo.getServerIp(), Mockito.mock(Connection.class,
+                    Mockito.withSettings().useConstructor(serverInfo).defaultAnswer(Mockito.CALLS_REAL_METHODS)));
+        }
+        rpcClient = new TestRpcClient(serverListFactory);
+        rpcClient.initLabels(
+                Collections.singletonMap(RemoteConstants.LABEL_MODULE, RemoteConstants.LABEL_MODULE_NAMING));
+        rpcClient.start();
+        Assert.assertTrue(rpcClient.isRunning());
+        // hedge after the p95 latency of the current server.
+        ServerLatencyStats stats = rpcClient.getLatencyTracker().getStats(key(rpcClient.currentConnection));
+        for (int i = 0; i < 20; i++) {
+            stats.record(HEDGE_DELAY);
+        }
+        rpcClient.setHedgeRatio(1D);
+    }
+    
+    @After
+    public void tearDown() throws Exception {
+        rpcClient.shutdown();
+    }
+    
+    @Test
+    public void testBlockOnPrimaryWithoutHedgeConnection() throws Exception {
+        hedgeAvailable = false;
+        Response response = new ServerCheckResponse();
+        DelayedFuture primary = new DelayedFuture(HEDGE_DELAY * 4, response);
+        stubRequestFuture(rpcClient.currentConnection, primary);
+        
+        Assert.assertSame(response, rpcClient.hedgedRequest(new ServerCheckRequest(), 3000L));
+        // wait for the hedge delay, then wait for the response as there is nothing to hedge to, instead of polling.
+        Assert.assertTrue(primary.getCount.get() <= 3);
+    }
+    
+    @Test
+    public void testHedgedToAnotherServer() throws Exception {
+        Response primaryResponse = new ServerCheckResponse();
+        Response hedgeResponse = new ServerCheckResponse();
+        Mockito.doAnswer(invocation -> new DelayedFuture(HEDGE_DELAY * 4, primaryResponse))
+                .when(rpcClient.currentConnection)
+                .requestFuture(ArgumentMatchers.any(Request.class), ArgumentMatchers.any(RequestMeta.class));
+        Connection hedge = otherConnection();
+        stubRequestFuture(hedge, new DelayedFuture(0L, hedgeResponse));
+        
+        // the hedge connection is connected asynchronously by the first hedged request.
+        Response response = null;
+        for (int i = 0; i < 10 && response != hedgeResponse; i++) {
+            response = rpcClient.hedgedRequest(new ServerCheckRequest(), 3000L);
+        }
+        Assert.assertSame(hedgeResponse, response);
+        Assert.assertTrue(hedge.isHedge());
+        Assert.assertTrue(hedge.isAbandon());
+        Assert.assertEquals(1, hedgeConnectCount.get());
+        Assert.assertEquals(1, connectCount.get());
+    }
+    
+    @Test
+    public void testConnectResetIgnoredOnHedgeConnection() throws Exception {
+        Connection current = rpcClient.currentConnection;
+        Connection hedge = otherConnection();
+        hedge.setHedge(true);
+        Response response = rpcClient.handleServerRequest(new ConnectResetRequest(), new RequestMeta(), hedge);
+        Assert.assertTrue(response instanceof ConnectResetResponse);
+        Thread.sleep(100L);
+        Assert.assertSame(current, rpcClient.currentConnection);
+        Assert.assertEquals(1, connectCount.get());
+    }
+    
+    @Test
+    public void testServerListFactorySyncedToConnectedServer() {
+        // the server connected may be picked by latency instead of generated by the factory.
+        Mockito.verify(serverListFactory).switchToServer(key(rpcClient.currentConnection));
+    }
+    
+    @Test
+    public void testHedgeMeta() {
+        Map<String, String> labels = rpcClient.buildHedgeMeta().getLabels();
+        Assert.assertEquals(Boolean.TRUE.toString(), labels.get(RemoteConstants.LABEL_HEDGE));
+        Assert.assertEquals(RemoteConstants.LABEL_MODULE_NAMING, labels.get(RemoteConstants.LABEL_MODULE));
+        Assert.assertFalse(rpcClient.buildMeta().getLabels().containsKey(RemoteConstants.LABEL_HEDGE));
+    }
+    
+    private String key(Connection connection) {
+        return connection.serverInfo.getServerIp() + ":" + (connection.serverInfo.getServerPort() - 1000);
+    }
+    
+    private Connection otherConnection() {
+        for (Connection each : connections.values()) {
+            if (each != rpcClient.currentConnection) {
+                return each;
+            }
+        }
+        throw new IllegalStateException("no other connection");
+    }
+    
+    private static void stubRequestFuture(Connection connection, RequestFuture future) throws Exception {
+        Mockito.doReturn(future).when(connection)
+                .requestFuture(ArgumentMatchers.any(Request.class), ArgumentMatchers.any(RequestMeta.class));
+    }
+    
+    private class TestRpcClient extends RpcClient {
+        
+        TestRpcClient(ServerListFactory serverListFactory) {
+            super("test", serverListFactory);
+        }
+        
+        @Override
+        public ConnectionType getConnectionType() {
+            return ConnectionType.GRPC;
+        }
+        
+        @Override
+        public int rpcPortOffset() {
+            return 1000;
+        }
+        
+        @Override
+        public Connection connectToServer(ServerInfo serverInfo) {
+            connectCount.incrementAndGet();
+            return connections.get(serverInfo.getServerIp());
+        }
+        
+        @Override
+        protected Connection connectToHedgeServer(ServerInfo serverInfo) {
+            if (!hedgeAvailable) {
+                return null;
+            }
+            hedgeConnectCount.incrementAndGet();
+            return connections.get(serverInfo.getServerIp());
+        }
+    }
+    
+    private static class DelayedFuture implements RequestFuture {
+        
+        private final long doneTime;
+        
+        private final Response response;
+        
+        private final AtomicInteger getCount = new AtomicInteger();
+        
+        DelayedFuture(long delay, Response response) {
+            this.doneTime = System.currentTimeMillis() + delay;
+            this.response = response;
+        }
+        
+        @Override
+        public boolean isDone() {
+            return System.currentTimeMillis() >= doneTime;
+        }
+        
+        @Override
+        public Response get() throws InterruptedException {
+            try {
+                return get(Long.MAX_VALUE);
+            } catch (TimeoutException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        
+        @Override
+        public Response get(long timeout) throws TimeoutException, InterruptedException {
+            getCount.incrementAndGet();
+            long wait = doneTime - System.currentTimeMillis();
+            if (wait > timeout) {
+                Thread.sleep(timeout);
+                throw new TimeoutException();
+            }
+            Thread.sleep(Math.max(wait, 0L));
+            return response;
+        }
+    }
+}
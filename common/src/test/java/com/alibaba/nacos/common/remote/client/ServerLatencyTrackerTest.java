@@ -0,0 +1,83 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.common.remote.client;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class ServerLatencyTrackerTest {
+    
+    private static final List<String> SERVERS = Arrays.asList("127.0.0.1:8848", "127.0.0.2:8848", "127.0.0.3:8848");
+    
+    @Test
+    public void testPercentile() {
+        ServerLatencyStats stats = new ServerLatencyStats();
+        Assert.assertEquals(0L, stats.getPercentile(0.99D));
+        for (int i = 1; i <= 100; i++) {
+            stats.record(i);
+        }
+        Assert.assertEquals(50L, stats.getPercentile(0.5D));
+        Assert.assertEquals(99L, stats.getPercentile(0.99D));
+        Assert.assertEquals(100, stats.getSampleCount());
+    }
+    
+    @Test
+    public void testPickSkipsFailedAndExcluded() {
+        ServerLatencyTracker tracker = new ServerLatencyTracker();
+        tracker.getStats("127.0.0.2:8848").recordFailure(3000L);
+        for (int i = 0; i < 20; i++) {
+            Assert.assertEquals("127.0.0.3:8848", tracker.pick(SERVERS, "127.0.0.1:8848"));
+        }
+        tracker.getStats("127.0.0.3:8848").recordFailure(3000L);
+        Assert.assertNull(tracker.pick(SERVERS, "127.0.0.1:8848"));
+    }
+    
+    @Test
+    public void testPickPrefersFasterServer() {
+        ServerLatencyTracker tracker = new ServerLatencyTracker();
+        tracker.getStats("127.0.0.1:8848").record(100L);
+        tracker.getStats("127.0.0.2:8848").record(10L);
+        List<String> servers = Arrays.asList("127.0.0.1:8848", "127.0.0.2:8848");
+        int fastPicked = 0;
+        for (int i = 0; i < 100; i++) {
+            // the slow server is only picked when it is compared with itself.
+            if ("127.0.0.2:8848".equals(tracker.pick(servers, null))) {
+                fastPicked++;
+            }
+        }
+        Assert.assertTrue(fastPicked > 50);
+        Assert.assertEquals("127.0.0.2:8848", tracker.pick(servers, "127.0.0.1:8848"));
+    }
+    
+    @Test
+    public void testPickFaster() {
+        ServerLatencyTracker tracker = new ServerLatencyTracker();
+        for (int i = 0; i < 20; i++) {
+            tracker.getStats("127.0.0.1:8848").record(100L);
+            tracker.getStats("127.0.0.2:8848").record(60L);
+        }
+        Assert.assertNull(tracker.pickFaster(SERVERS, "127.0.0.1:8848", 2D, 20));
+        for (int i = 0; i < 20; i++) {
+            tracker.getStats("127.0.0.3:8848").record(10L);
+        }
+        Assert.assertEquals("127.0.0.3:8848", tracker.pickFaster(SERVERS, "127.0.0.1:8848", 2D, 20));
+        Assert.assertNull(tracker.pickFaster(SERVERS, "127.0.0.1:8848", 2D, 30));
+    }
+}
@@ -16,12 +16,15 @@
 
 package com.alibaba.nacos.config.server.aspect;
 
+import com.alibaba.nacos.common.model.RestResult;
 import com.alibaba.nacos.config.server.constant.Constants;
 import com.alibaba.nacos.config.server.constant.CounterMode;
 import com.alibaba.nacos.config.server.model.ConfigInfo;
 import com.alibaba.nacos.config.server.model.capacity.Capacity;
+import com.alibaba.nacos.config.server.service.repository.ConfigInfoContextUtils;
 import com.alibaba.nacos.config.server.service.repository.PersistService;
 import com.alibaba.nacos.config.server.service.capacity.CapacityService;
+import com.alibaba.nacos.config.server.utils.GroupKey2;
 import com.alibaba.nacos.config.server.utils.PropertyUtil;
 import org.apache.commons.lang3.StringUtils;
 import org.aspectj.lang.ProceedingJoinPoint;
@@ -34,6 +37,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Capacity management aspect: batch write and update but don't process it.
@@ -54,6 +63,10 @@ public class CapacityManagementAspect {
             "execution(* com.alibaba.nacos.config.server.controller.ConfigController.deleteConfig(..)) && args"
                     + "(request,response,dataId,group,tenant,..)";
     
+    private static final String BATCH_PUBLISH_CONFIG =
+            "execution(* com.alibaba.nacos.config.server.controller.ConfigController.batchPublishConfig(..)) && args"
+                    + "(request,tenant,configInfoList,..)";
+    
     @Autowired
     private CapacityService capacityService;
     
@@ -71,6 +84,18 @@ public class CapacityManagementAspect {
             return pjp.proceed();
         }
         LOGGER.info("[capacityManagement] aroundSyncUpdateConfigAll");
+        // The row read for the capacity check is reused by the persist service when publishing.
+        ConfigInfoContextUtils.open();
+        try {
+            return doSyncUpdateConfigAll(pjp, request, response, dataId, group, content, tenant, tag);
+        } finally {
+            ConfigInfoContextUtils.cleanAllContext();
+        }
+    }
+    
+    private Object doSyncUpdateConfigAll(ProceedingJoinPoint pjp, HttpServletRequest request,
+            HttpServletResponse response, String dataId, String group, String content, String tenant, String tag)
+            throws Throwable {
         String betaIps = request.getHeader("betaIps");
         if (StringUtils.isBlank(betaIps)) {
             if (StringUtils.isBlank(tag)) {
@@ -86,6 +111,148 @@ public class CapacityManagementAspect {
         return pjp.proceed();
     }
     
+    /**
+     * Check every config of a batch publish like a single publish. The configs over the limit are left out of the
+     * batch and reported as failed in the result, the usage of the inserted configs is rolled back when they fail.
+     */
+    @Around(BATCH_PUBLISH_CONFIG)
+    public Object aroundBatchPublishConfig(ProceedingJoinPoint pjp, HttpServletRequest request, String tenant,
+            List<ConfigInfo> configInfoList) throws Throwable {
+        // An oversized batch is rejected by the controller before anything is written
+        if (!PropertyUtil.isManageCapacity() || configInfoList == null
+                || configInfoList.size() > Constants.ATOMIC_MAX_SIZE) {
+            return pjp.proceed();
+        }
+        LOGGER.info("[capacityManagement] aroundBatchPublishConfig");
+        ConfigInfoContextUtils.open();
+        try {
+            return doBatchPublishConfig(pjp, request, tenant, configInfoList);
+        } finally {
+            ConfigInfoContextUtils.cleanAllContext();
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private Object doBatchPublishConfig(ProceedingJoinPoint pjp, HttpServletRequest request, String tenant,
+            List<ConfigInfo> configInfoList) throws Throwable {
+        final boolean hasTenant = hasTenant(tenant);
+        final List<ConfigInfo> configInfos = new ArrayList<>(configInfoList.size());
+        final List<LimitType> limitTypes = new ArrayList<>(configInfoList.size());
+        final List<ConfigInfo> accepted = new ArrayList<>(configInfoList.size());
+        final List<Boolean> inserted = new ArrayList<>(configInfoList.size());
+        // A config inserted earlier in the same batch is an update when it shows up again
+        final Set<String> insertedKeys = new HashSet<>();
+        for (ConfigInfo configInfo : configInfoList) {
+            if (configInfo == null) {
+                continue;
+            }
+            configInfos.add(configInfo);
+            final String dataId = configInfo.getDataId();
+            final String group = configInfo.getGroup();
+            // An invalid config is passed through and reported by the controller, nothing is counted for it
+            if (StringUtils.isBlank(dataId) || StringUtils.isBlank(group)) {
+                limitTypes.add(null);
+                accepted.add(configInfo);
+                inserted.add(false);
+                continue;
+            }
+            final String key = GroupKey2.getKey(dataId, group, tenant);
+            final boolean insert =
+                    !insertedKeys.contains(key) && persistService.findConfigInfo(dataId, group, tenant) == null;
+            final LimitType limitType = insert ? reserve4Insert(group, tenant, configInfo.getContent(), hasTenant)
+                    : check4Update(group, tenant, configInfo.getContent(), hasTenant);
+            limitTypes.add(limitType);
+            if (limitType != null) {
+                continue;
+            }
+            if (insert) {
+                insertedKeys.add(key);
+            }
+            accepted.add(configInfo);
+            inserted.add(insert);
+        }
+        
+        final Object result;
+        try {
+            result = pjp.proceed(new Object[] {request, tenant, accepted});
+        } catch (Throwable throwable) {
+            LOGGER.warn("[capacityManagement] batch publish throw exception, rollback, tenant: {}", tenant, throwable);
+            rollbackInserted(accepted, inserted, null, tenant, hasTenant);
+            throw throwable;
+        }
+        if (!(result instanceof RestResult) || !((RestResult<?>) result).ok()) {
+            rollbackInserted(accepted, inserted, null, tenant, hasTenant);
+            return result;
+        }
+        final RestResult<List<Map<String, Object>>> restResult = (RestResult<List<Map<String, Object>>>) result;
+        final List<Map<String, Object>> acceptedResults = restResult.getData();
+        rollbackInserted(accepted, inserted, acceptedResults, tenant, hasTenant);
+        
+        final List<Map<String, Object>> results = new ArrayList<>(configInfos.size());
+        int acceptedIndex = 0;
+        for (int i = 0; i < configInfos.size(); i++) {
+            final LimitType limitType = limitTypes.get(i);
+            if (limitType == null) {
+                results.add(acceptedResults.get(acceptedIndex++));
+                continue;
+            }
+            final Map<String, Object> limited = new HashMap<>(4);
+            limited.put("dataId", configInfos.get(i).getDataId());
+            limited.put("group", configInfos.get(i).getGroup());
+            limited.put("success", false);
+            limited.put("message", limitType.name());
+            results.add(limited);
+        }
+        restResult.setData(results);
+        return restResult;
+    }
+    
+    /**
+     * Count the usage of a config inserted by a batch publish, checking the quota and size when the limit is on.
+     *
+     * @return the limit the config is over, null if it can be inserted
+     */
+    private LimitType reserve4Insert(String group, String tenant, String content, boolean hasTenant) {
+        if (PropertyUtil.isCapacityLimitCheck()) {
+            return getLimitType(CounterMode.INCREMENT, group, tenant, content, hasTenant);
+        }
+        insertOrUpdateUsage(group, tenant, CounterMode.INCREMENT, hasTenant);
+        return null;
+    }
+    
+    private LimitType check4Update(String group, String tenant, String content, boolean hasTenant) {
+        if (!PropertyUtil.isCapacityLimitCheck() || content == null) {
+            return null;
+        }
+        try {
+            Capacity capacity = getCapacity(group, tenant, hasTenant);
+            if (isSizeLimited(group, tenant, getCurrentSize(content), hasTenant, false, capacity)) {
+                return LimitType.OVER_MAX_SIZE;
+            }
+        } catch (Exception e) {
+            LOGGER.error("[capacityManagement] check4Update ", e);
+        }
+        return null;
+    }
+    
+    /**
+     * Give back the usage counted for the inserted configs that were not published.
+     *
+     * @param results publish result of each accepted config, null when none of them was published
+     */
+    private void rollbackInserted(List<ConfigInfo> accepted, List<Boolean> inserted, List<Map<String, Object>> results,
+            String tenant, boolean hasTenant) {
+        for (int i = 0; i < accepted.size(); i++) {
+            if (!inserted.get(i)) {
+                continue;
+            }
+            if (results != null && i < results.size() && Boolean.TRUE.equals(results.get(i).get("success"))) {
+                continue;
+            }
+            rollback(CounterMode.INCREMENT, accepted.get(i).getGroup(), tenant, hasTenant);
+        }
+    }
+    
     /**
      * Update operation: open the limination of capacity management and it will check the size of content.
      *
@@ -152,11 +319,16 @@ public class CapacityManagementAspect {
             return pjp.proceed();
         }
         LOGGER.info("[capacityManagement] aroundDeleteConfig");
-        ConfigInfo configInfo = persistService.findConfigInfo(dataId, group, tenant);
-        if (configInfo == null) {
-            return pjp.proceed();
+        ConfigInfoContextUtils.open();
+        try {
+            ConfigInfo configInfo = persistService.findConfigInfo(dataId, group, tenant);
+            if (configInfo == null) {
+                return pjp.proceed();
+            }
+            return do4Delete(pjp, response, group, tenant, configInfo);
+        } finally {
+            ConfigInfoContextUtils.cleanAllContext();
         }
-        return do4Delete(pjp, response, group, tenant, configInfo);
     }
     
     /**
@@ -263,6 +263,11 @@ public class Constants {
      */
     public static final String EXTEND_INFOS_CONFIG_DUMP_EVENT = ConfigDumpEvent.class.getName() + "@@many";
     
+    /**
+     * Configure the dump event name of each item in a batch update, in the order of the items.
+     */
+    public static final String EXTEND_INFO_BATCH_CONFIG_DUMP_EVENT = ConfigDumpEvent.class.getName() + "@@batch";
+    
     /**
      * Specifies that reads wait without timeout.
      */
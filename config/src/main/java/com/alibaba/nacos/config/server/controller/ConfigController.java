@@ -184,6 +184,78 @@ public class ConfigController {
         return true;
     }
 
+    /**
+     * Publish several configs in one call, all configs are written as a single batch.
+     *
+     * @param request        http servlet request.
+     * @param tenant         tenant of all configs.
+     * @param configInfoList configs to publish, dataId, group, content, appName and type of each config are used.
+     * @return RestResult with the publish result of each config, in the order of configInfoList.
+     * @throws NacosException NacosException.
+     */
+    @PostMapping(params = "batch=true")
+    @Secured(action = ActionTypes.WRITE, parser = ConfigResourceParser.class)
+    public RestResult<List<Map<String, Object>>> batchPublishConfig(HttpServletRequest request,
+            @RequestParam(value = "tenant", required = false, defaultValue = StringUtils.EMPTY) String tenant,
+            @RequestBody(required = true) List<ConfigInfo> configInfoList) throws NacosException {
+        ParamUtils.checkTenant(tenant);
+        configInfoList.removeAll(Collections.singleton(null));
+        if (configInfoList.size() > Constants.ATOMIC_MAX_SIZE) {
+            throw new NacosException(NacosException.INVALID_PARAM,
+                    "too many configs in one batch, max size is " + Constants.ATOMIC_MAX_SIZE);
+        }
+        final String srcIp = RequestUtil.getRemoteIp(request);
+        final String requestIpApp = RequestUtil.getAppName(request);
+        final String srcUser = RequestUtil.getSrcUserName(request);
+        final Timestamp time = TimeUtils.getCurrentTime();
+        
+        List<Map<String, Object>> results = new ArrayList<>(configInfoList.size());
+        List<ConfigInfo> configInfos4Save = new ArrayList<>(configInfoList.size());
+        List<Map<String, Object>> results4Save = new ArrayList<>(configInfoList.size());
+        for (ConfigInfo configInfo : configInfoList) {
+            Map<String, Object> result = new HashMap<>(4);
+            result.put("dataId", configInfo.getDataId());
+            result.put("group", configInfo.getGroup());
+            results.add(result);
+            try {
+                ParamUtils.checkParam(configInfo.getDataId(), configInfo.getGroup(), "datumId",
+                        configInfo.getContent());
+                if (AggrWhitelist.isAggrDataId(configInfo.getDataId())) {
+                    throw new NacosException(NacosException.NO_RIGHT, "dataId:" + configInfo.getDataId() + " is aggr");
+                }
+            } catch (NacosException e) {
+                result.put("success", false);
+                result.put("message", e.getErrMsg());
+                continue;
+            }
+            if (!ConfigType.isValidType(configInfo.getType())) {
+                configInfo.setType(ConfigType.getDefaultType().getType());
+            }
+            configInfo.setTenant(tenant);
+            configInfos4Save.add(configInfo);
+            results4Save.add(result);
+        }
+        
+        List<Boolean> saveResults = configInfos4Save.isEmpty() ? Collections.emptyList()
+                : persistService.batchInsertOrUpdate(configInfos4Save, srcIp, srcUser, time);
+        for (int i = 0; i < configInfos4Save.size(); i++) {
+            ConfigInfo configInfo = configInfos4Save.get(i);
+            boolean success = Boolean.TRUE.equals(saveResults.get(i));
+            results4Save.get(i).put("success", success);
+            if (!success) {
+                continue;
+            }
+            ConfigChangePublisher.notifyConfigChange(
+                    new ConfigDataChangeEvent(false, configInfo.getDataId(), configInfo.getGroup(), tenant,
+                            time.getTime()));
+            ConfigTraceService
+                    .logPersistenceEvent(configInfo.getDataId(), configInfo.getGroup(), tenant, requestIpApp,
+                            time.getTime(), InetUtils.getSelfIP(), ConfigTraceService.PERSISTENCE_EVENT_PUB,
+                            configInfo.getContent());
+        }
+        return RestResultUtils.success(results);
+    }
+    
     /**
      * Get configure board information fail.
      *
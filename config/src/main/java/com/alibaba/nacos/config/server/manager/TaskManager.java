@@ -27,6 +27,7 @@ import org.slf4j.Logger;
 import javax.management.ObjectName;
 import java.lang.management.ManagementFactory;
 import java.util.Date;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 
@@ -102,6 +103,23 @@ public final class TaskManager extends NacosDelayTaskExecuteEngine implements Ta
         MetricsMonitor.getDumpTaskMonitor().set(tasks.size());
     }
     
+    /**
+     * Add a batch of tasks while holding the lock once.
+     *
+     * @param newTasks tasks by key
+     */
+    public void addTasks(Map<Object, AbstractDelayTask> newTasks) {
+        this.lock.lock();
+        try {
+            for (Map.Entry<Object, AbstractDelayTask> entry : newTasks.entrySet()) {
+                super.addTask(entry.getKey(), entry.getValue());
+            }
+        } finally {
+            this.lock.unlock();
+        }
+        MetricsMonitor.getDumpTaskMonitor().set(tasks.size());
+    }
+    
     @Override
     public AbstractDelayTask removeTask(Object key) {
         AbstractDelayTask result = super.removeTask(key);
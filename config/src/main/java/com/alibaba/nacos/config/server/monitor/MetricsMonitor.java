@@ -126,6 +126,30 @@ public class MetricsMonitor {
         return Metrics.timer("nacos_timer", "module", "config", "name", "notifyRt");
     }
     
+    public static Timer getDerbyBackupRtTimer() {
+        return Metrics.timer("nacos_timer", "module", "config", "name", "derbyBackupRt");
+    }
+    
+    public static Timer getDerbySnapshotSaveRtTimer() {
+        return Metrics.timer("nacos_timer", "module", "config", "name", "derbySnapshotSaveRt");
+    }
+    
+    public static Timer getDerbySnapshotLoadRtTimer() {
+        return Metrics.timer("nacos_timer", "module", "config", "name", "derbySnapshotLoadRt");
+    }
+    
+    public static Timer getPushFanOutTimer() {
+        return Metrics.timer("nacos_timer", "module", "config", "name", "pushFanOut");
+    }
+    
+    public static Counter getNotifyQueryCounter() {
+        return Metrics.counter("nacos_counter", "module", "config", "name", "notifyQuery");
+    }
+    
+    public static Counter getPushDroppedCounter() {
+        return Metrics.counter("nacos_counter", "module", "config", "name", "pushDropped");
+    }
+    
     public static Counter getIllegalArgumentException() {
         return Metrics.counter("nacos_exception", "module", "config", "name", "illegalArgument");
     }
@@ -16,13 +16,11 @@
 
 package com.alibaba.nacos.config.server.remote;
 
-import com.alibaba.nacos.common.utils.CollectionUtils;
+import com.alibaba.nacos.core.remote.ConnectionCostContributor;
 import org.springframework.stereotype.Component;
 
-import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -30,21 +28,27 @@ import java.util.concurrent.ConcurrentHashMap;
 /**
  * config change listen context.
  *
+ * <p>No global lock is held. The keys of one connection are updated in the bin of {@code connectionIdContext}, and the
+ * listeners of one group key in the bin of {@code groupKeyContext}, always in this order, so that a listen added while
+ * the connection is cleared is either cleared too or kept in both maps. Reconnecting clients registering their keys do
+ * not block each other or the push of config changes.
+ *
  * @author liuzunfei
  * @version $Id: ConfigChangeListenContext.java, v 0.1 2020年07月20日 1:37 PM liuzunfei Exp $
  */
 @Component
-public class ConfigChangeListenContext {
+public class ConfigChangeListenContext implements ConnectionCostContributor {
     
     /**
      * groupKey-> connection set.
      */
-    private ConcurrentHashMap<String, HashSet<String>> groupKeyContext = new ConcurrentHashMap<String, HashSet<String>>();
+    private final ConcurrentHashMap<String, Set<String>> groupKeyContext = new ConcurrentHashMap<String, Set<String>>();
     
     /**
      * connectionId-> group key set.
      */
-    private ConcurrentHashMap<String, HashMap<String, String>> connectionIdContext = new ConcurrentHashMap<String, HashMap<String, String>>();
+    private final ConcurrentHashMap<String, ConcurrentHashMap<String, String>> connectionIdContext =
+            new ConcurrentHashMap<String, ConcurrentHashMap<String, String>>();
     
     /**
      * add listen.
@@ -52,23 +56,21 @@ public class ConfigChangeListenContext {
      * @param groupKey     groupKey.
      * @param connectionId connectionId.
      */
-    public synchronized void addListen(String groupKey, String md5, String connectionId) {
-        // 1.add groupKeyContext
-        Set<String> listenClients = groupKeyContext.get(groupKey);
-        if (listenClients == null) {
-            groupKeyContext.putIfAbsent(groupKey, new HashSet<String>());
-            listenClients = groupKeyContext.get(groupKey);
-        }
-        listenClients.add(connectionId);
-        
-        // 2.add connectionIdContext
-        HashMap<String, String> groupKeys = connectionIdContext.get(connectionId);
-        if (groupKeys == null) {
-            connectionIdContext.putIfAbsent(connectionId, new HashMap<String, String>(16));
-            groupKeys = connectionIdContext.get(connectionId);
-        }
-        groupKeys.put(groupKey, md5);
-        
+    public void addListen(String groupKey, String md5, final String connectionId) {
+        connectionIdContext.compute(connectionId, (id, groupKeys) -> {
+            // 1.add groupKeyContext
+            groupKeyContext.compute(groupKey, (key, listenClients) -> {
+                Set<String> result = listenClients == null ? ConcurrentHashMap.<String>newKeySet() : listenClients;
+                result.add(connectionId);
+                return result;
+            });
+            
+            // 2.add connectionIdContext
+            ConcurrentHashMap<String, String> result =
+                    groupKeys == null ? new ConcurrentHashMap<String, String>(16) : groupKeys;
+            result.put(groupKey, md5);
+            return result;
+        });
     }
     
     /**
@@ -77,52 +79,39 @@ public class ConfigChangeListenContext {
      * @param groupKey     groupKey.
      * @param connectionId connection id.
      */
-    public synchronized void removeListen(String groupKey, String connectionId) {
-        
-        //1. remove groupKeyContext
-        Set<String> connectionIds = groupKeyContext.get(groupKey);
-        if (connectionIds != null) {
-            connectionIds.remove(connectionId);
-            if (connectionIds.isEmpty()) {
-                groupKeyContext.remove(groupKey);
+    public void removeListen(String groupKey, String connectionId) {
+        connectionIdContext.compute(connectionId, (id, groupKeys) -> {
+            //1. remove groupKeyContext
+            removeConnectionOfGroupKey(groupKey, connectionId);
+            
+            //2.remove connectionIdContext
+            if (groupKeys != null) {
+                groupKeys.remove(groupKey);
             }
-        }
-        
-        //2.remove connectionIdContext
-        HashMap<String, String> groupKeys = connectionIdContext.get(connectionId);
-        if (groupKeys != null) {
-            groupKeys.remove(groupKey);
-        }
+            return groupKeys;
+        });
     }
     
-    /**
-     * get listeners of the group key.
-     *
-     * @param groupKey groupKey.
-     * @return the copy of listeners, may be return null.
-     */
-    public synchronized Set<String> getListeners(String groupKey) {
-        
-        HashSet<String> strings = groupKeyContext.get(groupKey);
-        if (CollectionUtils.isNotEmpty(strings)) {
-            Set<String> listenConnections = new HashSet<String>();
-            safeCopy(strings, listenConnections);
-            return listenConnections;
-        }
-        return null;
+    private void removeConnectionOfGroupKey(String groupKey, final String connectionId) {
+        groupKeyContext.computeIfPresent(groupKey, (key, connectionIds) -> {
+            connectionIds.remove(connectionId);
+            return connectionIds.isEmpty() ? null : connectionIds;
+        });
     }
     
     /**
-     * copy collections.
+     * get listeners of the group key.
+     *
+     * <p>The listeners are not copied, the returned set is a read-only view which can be iterated while listeners are
+     * added or removed concurrently.
      *
-     * @param src  may be modified concurrently
-     * @param dest dest collection
+     * @param groupKey groupKey.
+     * @return the view of listeners, empty if no listener.
      */
-    private void safeCopy(Collection src, Collection dest) {
-        Iterator iterator = src.iterator();
-        while (iterator.hasNext()) {
-            dest.add(iterator.next());
-        }
+    public Set<String> getListeners(String groupKey) {
+        Set<String> listenConnections = groupKeyContext.get(groupKey);
+        return listenConnections == null ? Collections.<String>emptySet()
+                : Collections.unmodifiableSet(listenConnections);
     }
     
     /**
@@ -130,24 +119,13 @@ public class ConfigChangeListenContext {
      *
      * @param connectionId connectionId.
      */
-    public synchronized void clearContextForConnectionId(final String connectionId) {
-        
-        Map<String, String> listenKeys = getListenKeys(connectionId);
-        
-        if (listenKeys != null) {
-            for (Map.Entry<String, String> groupKey : listenKeys.entrySet()) {
-                
-                Set<String> connectionIds = groupKeyContext.get(groupKey.getKey());
-                if (CollectionUtils.isNotEmpty(connectionIds)) {
-                    connectionIds.remove(connectionId);
-                } else {
-                    groupKeyContext.remove(groupKey.getKey());
-                }
-                
+    public void clearContextForConnectionId(final String connectionId) {
+        connectionIdContext.computeIfPresent(connectionId, (id, listenKeys) -> {
+            for (String groupKey : listenKeys.keySet()) {
+                removeConnectionOfGroupKey(groupKey, connectionId);
             }
-        }
-        
-        connectionIdContext.remove(connectionId);
+            return null;
+        });
     }
     
     /**
@@ -156,9 +134,21 @@ public class ConfigChangeListenContext {
      * @param connectionId connection id.
      * @return listen group keys of the connection id, key:group key,value:md5
      */
-    public synchronized Map<String, String> getListenKeys(String connectionId) {
-        HashMap<String, String> stringStringHashMap = connectionIdContext.get(connectionId);
-        return stringStringHashMap == null ? null : new HashMap<String, String>(stringStringHashMap);
+    public Map<String, String> getListenKeys(String connectionId) {
+        Map<String, String> groupKeys = connectionIdContext.get(connectionId);
+        return groupKeys == null ? null : new HashMap<String, String>(groupKeys);
+    }
+    
+    /**
+     * Cost of a connection is the count of the keys it listens.
+     *
+     * @param connectionId connection id
+     * @return count of listen keys
+     */
+    @Override
+    public long getCost(String connectionId) {
+        Map<String, String> groupKeys = connectionIdContext.get(connectionId);
+        return groupKeys == null ? 0 : groupKeys.size();
     }
     
     /**
@@ -0,0 +1,237 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.remote;
+
+import com.alibaba.nacos.common.utils.StringUtils;
+import com.alibaba.nacos.config.server.monitor.MetricsMonitor;
+import com.alibaba.nacos.config.server.utils.ConfigExecutor;
+import com.alibaba.nacos.core.remote.Connection;
+import com.alibaba.nacos.core.utils.Loggers;
+import com.alibaba.nacos.sys.env.EnvUtil;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Paces the config change pushes of this node.
+ *
+ * <p>Pushes are sent at most {@code nacos.config.push.rate} per second with at most
+ * {@code nacos.config.push.maxInFlight} pushes waiting for ack, so that a config listened by many clients does not
+ * cause a burst of pushes and of the queries which follow them. Connections of the apps in
+ * {@code nacos.config.push.priorityApps} are pushed first. At most {@code nacos.config.push.maxQueued} pushes wait in
+ * the queues, the pushes beyond it are dropped and counted, the caller should close their connections so that the
+ * clients listen again.
+ * Non-positive rate, max in flight or max queued means no limit.
+ *
+ * @author Nacos
+ */
+@Component
+public class ConfigChangePushScheduler {
+    
+    static final String PUSH_RATE = "nacos.config.push.rate";
+    
+    static final String PUSH_MAX_IN_FLIGHT = "nacos.config.push.maxInFlight";
+    
+    static final String PUSH_PRIORITY_APPS = "nacos.config.push.priorityApps";
+    
+    static final String PUSH_MAX_QUEUED = "nacos.config.push.maxQueued";
+    
+    private static final int DEFAULT_PUSH_RATE = 10000;
+    
+    private static final int DEFAULT_PUSH_MAX_IN_FLIGHT = 2000;
+    
+    private static final int DEFAULT_PUSH_MAX_QUEUED = 100000;
+    
+    /**
+     * log the drops once per so many drops.
+     */
+    private static final long DROP_LOG_INTERVAL = 1000L;
+    
+    private static final long DISPATCH_INTERVAL_MILLIS = 10L;
+    
+    /**
+     * permits saved when idle, as a burst of 100 milliseconds.
+     */
+    private static final double MAX_BURST_SECONDS = 0.1D;
+    
+    private final int rate;
+    
+    private final int maxInFlight;
+    
+    private final int maxQueued;
+    
+    private final Set<String> priorityApps;
+    
+    private final ScheduledExecutorService executor;
+    
+    private final Queue<Runnable> priorityQueue = new ConcurrentLinkedQueue<Runnable>();
+    
+    private final Queue<Runnable> normalQueue = new ConcurrentLinkedQueue<Runnable>();
+    
+    private final AtomicInteger queued = new AtomicInteger();
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    private final AtomicLong dropped = new AtomicLong();
+    
+    /**
+     * only accessed by the dispatch task.
+     */
+    private double permits;
+    
+    private long lastDispatchTime = System.currentTimeMillis();
+    
+    public ConfigChangePushScheduler() {
+        this(EnvUtil.getProperty(PUSH_RATE, Integer.class, DEFAULT_PUSH_RATE),
+                EnvUtil.getProperty(PUSH_MAX_IN_FLIGHT, Integer.class, DEFAULT_PUSH_MAX_IN_FLIGHT),
+                EnvUtil.getProperty(PUSH_MAX_QUEUED, Integer.class, DEFAULT_PUSH_MAX_QUEUED),
+                parseApps(EnvUtil.getProperty(PUSH_PRIORITY_APPS, "")),
+                ConfigExecutor.getClientConfigNotifierServiceExecutor());
+    }
+    
+    ConfigChangePushScheduler(int rate, int maxInFlight, int maxQueued, Set<String> priorityApps,
+            ScheduledExecutorService executor) {
+        this.rate = rate;
+        this.maxInFlight = maxInFlight;
+        this.maxQueued = maxQueued;
+        this.priorityApps = priorityApps;
+        this.executor = executor;
+        if (isPaced()) {
+            executor.scheduleWithFixedDelay(this::dispatch, DISPATCH_INTERVAL_MILLIS, DISPATCH_INTERVAL_MILLIS,
+                    TimeUnit.MILLISECONDS);
+        }
+        Loggers.REMOTE_PUSH.info("config push rate={}, maxInFlight={}, maxQueued={}, priorityApps={}", rate,
+                maxInFlight, maxQueued, priorityApps);
+    }
+    
+    private static Set<String> parseApps(String apps) {
+        if (StringUtils.isBlank(apps)) {
+            return Collections.emptySet();
+        }
+        Set<String> result = new HashSet<String>();
+        for (String each : apps.split(",")) {
+            if (StringUtils.isNotBlank(each)) {
+                result.add(each.trim());
+            }
+        }
+        return result;
+    }
+    
+    private boolean isPaced() {
+        return rate > 0 || maxInFlight > 0;
+    }
+    
+    /**
+     * Whether the pushes to the connection go before the others.
+     *
+     * @param connection connection
+     * @return true if the app of the connection is a priority app
+     */
+    public boolean isPriority(Connection connection) {
+        String appName = connection.getMetaInfo().getAppName();
+        return appName != null && priorityApps.contains(appName);
+    }
+    
+    /**
+     * Submit a push, {@link #release()} must be called once the push is acked or failed.
+     *
+     * @param push     push task
+     * @param priority whether to run before the normal pushes
+     * @return false if the push is dropped because the queues are full
+     */
+    public boolean submit(Runnable push, boolean priority) {
+        if (!isPaced()) {
+            inFlight.incrementAndGet();
+            executor.execute(push);
+            return true;
+        }
+        int queuedCount = queued.incrementAndGet();
+        if (maxQueued > 0 && queuedCount > maxQueued) {
+            queued.decrementAndGet();
+            long droppedCount = dropped.incrementAndGet();
+            MetricsMonitor.getPushDroppedCounter().increment();
+            if (droppedCount % DROP_LOG_INTERVAL == 1) {
+                Loggers.REMOTE_PUSH.warn("config push queue is full, maxQueued={}, {} pushes dropped so far",
+                        maxQueued, droppedCount);
+            }
+            return false;
+        }
+        if (priority) {
+            priorityQueue.offer(push);
+        } else {
+            normalQueue.offer(push);
+        }
+        return true;
+    }
+    
+    /**
+     * Release the in flight budget of a push.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+    
+    public int getQueued() {
+        return queued.get();
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    public long getDropped() {
+        return dropped.get();
+    }
+    
+    void dispatch() {
+        dispatch(System.currentTimeMillis());
+    }
+    
+    void dispatch(long now) {
+        if (rate > 0) {
+            double maxPermits = Math.max(1D, rate * MAX_BURST_SECONDS);
+            permits = Math.min(permits + rate * (now - lastDispatchTime) / 1000D, maxPermits);
+        }
+        lastDispatchTime = now;
+        while ((rate <= 0 || permits >= 1D) && (maxInFlight <= 0 || inFlight.get() < maxInFlight)) {
+            Runnable push = priorityQueue.poll();
+            if (push == null) {
+                push = normalQueue.poll();
+            }
+            if (push == null) {
+                return;
+            }
+            queued.decrementAndGet();
+            inFlight.incrementAndGet();
+            permits--;
+            try {
+                push.run();
+            } catch (Throwable e) {
+                release();
+                Loggers.REMOTE_PUSH.error("config push failed", e);
+            }
+        }
+    }
+}
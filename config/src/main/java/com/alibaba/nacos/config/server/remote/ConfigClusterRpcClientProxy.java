@@ -16,6 +16,7 @@
 
 package com.alibaba.nacos.config.server.remote;
 
+import com.alibaba.nacos.api.config.remote.request.cluster.ConfigChangeClusterBatchSyncRequest;
 import com.alibaba.nacos.api.config.remote.request.cluster.ConfigChangeClusterSyncRequest;
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.remote.RequestCallBack;
@@ -52,4 +53,17 @@ public class ConfigClusterRpcClientProxy {
         clusterRpcClientProxy.asyncRequest(member, request, callBack);
         
     }
+    
+    /**
+     * sync a batch of config changes.
+     *
+     * @param member   member of server.
+     * @param request  request of config changes sync.
+     * @param callBack callBack of config changes sync.
+     * @throws NacosException exception.
+     */
+    public void syncConfigChangeBatch(Member member, ConfigChangeClusterBatchSyncRequest request,
+            RequestCallBack callBack) throws NacosException {
+        clusterRpcClientProxy.asyncRequest(member, request, callBack);
+    }
 }
@@ -27,6 +27,7 @@ import com.alibaba.nacos.config.server.auth.ConfigResourceParser;
 import com.alibaba.nacos.config.server.constant.Constants;
 import com.alibaba.nacos.config.server.model.CacheItem;
 import com.alibaba.nacos.config.server.model.ConfigInfoBase;
+import com.alibaba.nacos.config.server.monitor.MetricsMonitor;
 import com.alibaba.nacos.config.server.service.ConfigCacheService;
 import com.alibaba.nacos.config.server.service.repository.PersistService;
 import com.alibaba.nacos.config.server.service.trace.ConfigTraceService;
@@ -80,6 +81,10 @@ public class ConfigQueryRequestHandler extends RequestHandler<ConfigQueryRequest
         String dataId = configQueryRequest.getDataId();
         String tenant = configQueryRequest.getTenant();
         String clientIp = requestMeta.getClientIp();
+        if (request.isNotify()) {
+            // queries following config change pushes.
+            MetricsMonitor.getNotifyQueryCounter().increment();
+        }
         try {
             ConfigQueryResponse context = getContext(dataId, group, tenant, configQueryRequest.getTag(),
                     requestMeta.getClientIp(), requestMeta, request.isNotify());
@@ -18,26 +18,40 @@ package com.alibaba.nacos.config.server.remote;
 
 import com.alibaba.nacos.api.config.remote.request.ConfigChangeNotifyRequest;
 import com.alibaba.nacos.api.remote.AbstractPushCallBack;
+import com.alibaba.nacos.api.remote.PushCallBack;
+import com.alibaba.nacos.api.remote.RemoteConstants;
 import com.alibaba.nacos.api.utils.NetUtils;
 import com.alibaba.nacos.common.notify.Event;
 import com.alibaba.nacos.common.notify.NotifyCenter;
 import com.alibaba.nacos.common.notify.listener.Subscriber;
 import com.alibaba.nacos.common.remote.exception.ConnectionAlreadyClosedException;
 import com.alibaba.nacos.common.utils.CollectionUtils;
+import com.alibaba.nacos.common.utils.MD5Utils;
+import com.alibaba.nacos.common.utils.MapUtil;
+import com.alibaba.nacos.config.server.constant.Constants;
+import com.alibaba.nacos.config.server.model.CacheItem;
 import com.alibaba.nacos.config.server.model.event.LocalDataChangeEvent;
+import com.alibaba.nacos.config.server.monitor.MetricsMonitor;
+import com.alibaba.nacos.config.server.service.ConfigCacheService;
 import com.alibaba.nacos.config.server.utils.ConfigExecutor;
 import com.alibaba.nacos.config.server.utils.GroupKey;
 import com.alibaba.nacos.core.remote.Connection;
 import com.alibaba.nacos.core.remote.ConnectionManager;
+import com.alibaba.nacos.core.remote.PreparedRequest;
 import com.alibaba.nacos.core.remote.RpcPushService;
 import com.alibaba.nacos.core.remote.event.ConnectionLimitRuleChangeEvent;
+import com.alibaba.nacos.core.remote.event.TpsControlRuleChangeEvent;
 import com.alibaba.nacos.core.utils.Loggers;
+import com.alibaba.nacos.sys.env.EnvUtil;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * ConfigChangeNotifier.
@@ -48,6 +62,17 @@ import java.util.concurrent.TimeUnit;
 @Component(value = "rpcConfigChangeNotifier")
 public class RpcConfigChangeNotifier extends Subscriber<LocalDataChangeEvent> {
     
+    static final String PUSH_CONTENT_MAX_SIZE = "nacos.config.push.contentMaxSize";
+    
+    private static final int DEFAULT_PUSH_CONTENT_MAX_SIZE = 1024;
+    
+    /**
+     * configs not longer than it are pushed with content to the connections labeled
+     * {@link RemoteConstants#LABEL_CONFIG_PUSH_CONTENT}, non-positive value means never.
+     */
+    private final int pushContentMaxSize = EnvUtil
+            .getProperty(PUSH_CONTENT_MAX_SIZE, Integer.class, DEFAULT_PUSH_CONTENT_MAX_SIZE);
+    
     public RpcConfigChangeNotifier() {
         NotifyCenter.registerSubscriber(this);
     }
@@ -61,18 +86,38 @@ public class RpcConfigChangeNotifier extends Subscriber<LocalDataChangeEvent> {
     @Autowired
     private ConnectionManager connectionManager;
     
+    @Autowired
+    private ConfigChangePushScheduler pushScheduler;
+    
     /**
      * adaptor to config module ,when server side config change ,invoke this method.
      *
+     * <p>All the pushes of one change share one serialized request, and they are paced by
+     * {@link ConfigChangePushScheduler}.
+     *
      * @param groupKey      groupKey
      * @param notifyRequest notifyRequest
      */
     public void configDataChanged(String groupKey, final ConfigChangeNotifyRequest notifyRequest, boolean isBeta,
             List<String> betaIps, String content) {
+        configDataChanged(groupKey, notifyRequest, null, isBeta, betaIps, content);
+    }
+    
+    /**
+     * adaptor to config module ,when server side config change ,invoke this method.
+     *
+     * @param groupKey       groupKey
+     * @param notifyRequest  notifyRequest
+     * @param contentRequest notifyRequest with content, pushed to the connections which accept it, nullable
+     */
+    public void configDataChanged(String groupKey, final ConfigChangeNotifyRequest notifyRequest,
+            ConfigChangeNotifyRequest contentRequest, boolean isBeta, List<String> betaIps, String content) {
         
         Set<String> listeners = configChangeListenContext.getListeners(groupKey);
         if (!CollectionUtils.isEmpty(listeners)) {
-            int notifyCount = 0;
+            PreparedRequest preparedRequest = new PreparedRequest(notifyRequest);
+            PreparedRequest preparedContentRequest = null == contentRequest ? null : new PreparedRequest(contentRequest);
+            List<RpcPushTask> pushTasks = new ArrayList<RpcPushTask>(listeners.size());
             for (final String client : listeners) {
                 Connection connection = connectionManager.getConnection(client);
                 if (connection == null) {
@@ -87,24 +132,48 @@ public class RpcConfigChangeNotifier extends Subscriber<LocalDataChangeEvent> {
                 
                 RpcPushTask rpcPushRetryTask = new RpcPushTask(notifyRequest, 50, client,
                         connection.getMetaInfo().getClientIp(), connection.getMetaInfo().getConnectionId());
-                push(rpcPushRetryTask);
-                notifyCount++;
+                rpcPushRetryTask.preparedRequest =
+                        null != preparedContentRequest && isPushContentAccepted(connection) ? preparedContentRequest
+                                : preparedRequest;
+                rpcPushRetryTask.priority = pushScheduler.isPriority(connection);
+                pushTasks.add(rpcPushRetryTask);
             }
-            Loggers.REMOTE_PUSH.info("push [{}] clients ,groupKey=[{}]", notifyCount, groupKey);
+            FanOut fanOut = new FanOut(groupKey, pushTasks.size());
+            for (RpcPushTask each : pushTasks) {
+                each.fanOut = fanOut;
+                push(each);
+            }
+            Loggers.REMOTE_PUSH.info("push [{}] clients ,groupKey=[{}]", pushTasks.size(), groupKey);
         }
         notifyInternalConfigChange(groupKey, content, betaIps);
     }
     
+    private static boolean isPushContentAccepted(Connection connection) {
+        return Boolean.parseBoolean(connection.getMetaInfo().getLabel(RemoteConstants.LABEL_CONFIG_PUSH_CONTENT));
+    }
+    
     private static final String DATD_ID_CONNECTION_LIMIT_RULE = "nacos.internal.connection.limit.rule";
     
     private static final String GROUP_CONNECTION_LIMIT_RULE = "nacos";
     
+    private static final String DATA_ID_TPS_CONTROL_RULE = "nacos.internal.tps.control.rule";
+    
+    private static final String GROUP_TPS_CONTROL_RULE = "nacos";
+    
     private void notifyInternalConfigChange(String groupKey, String content, List<String> betaIps) {
-        if (GroupKey.getKey(DATD_ID_CONNECTION_LIMIT_RULE, GROUP_CONNECTION_LIMIT_RULE).equals(groupKey)) {
-            if (betaIps != null && !betaIps.contains(NetUtils.localIP())) {
-                return;
-            }
+        boolean connectionLimitRule = GroupKey.getKey(DATD_ID_CONNECTION_LIMIT_RULE, GROUP_CONNECTION_LIMIT_RULE)
+                .equals(groupKey);
+        boolean tpsControlRule = GroupKey.getKey(DATA_ID_TPS_CONTROL_RULE, GROUP_TPS_CONTROL_RULE).equals(groupKey);
+        if (!connectionLimitRule && !tpsControlRule) {
+            return;
+        }
+        if (betaIps != null && !betaIps.contains(NetUtils.localIP())) {
+            return;
+        }
+        if (connectionLimitRule) {
             NotifyCenter.publishEvent(new ConnectionLimitRuleChangeEvent(content));
+        } else {
+            NotifyCenter.publishEvent(new TpsControlRuleChangeEvent(content));
         }
     }
     
@@ -118,19 +187,88 @@ public class RpcConfigChangeNotifier extends Subscriber<LocalDataChangeEvent> {
         String group = strings[1];
         String tenant = strings.length > 2 ? strings[2] : "";
         ConfigChangeNotifyRequest notifyRequest = ConfigChangeNotifyRequest.build(dataId, group, tenant);
-        configDataChanged(groupKey, notifyRequest, isBeta, betaIps, event.content);
+        ConfigChangeNotifyRequest contentRequest = buildContentRequest(event, dataId, group, tenant,
+                pushContentMaxSize);
+        configDataChanged(groupKey, notifyRequest, contentRequest, isBeta, betaIps, event.content);
         
     }
     
+    /**
+     * Build the request with content for a formal config change.
+     *
+     * <p>Beta and tag configs are not pushed with content, because the content queried by a client depends on the
+     * client. The md5 lets the client check the content, and the client still confirms the md5 with the server by the
+     * next listen.
+     *
+     * @param event   config change event
+     * @param dataId  dataId
+     * @param group   group
+     * @param tenant  tenant
+     * @param maxSize max length of the content pushed
+     * @return request with content, or null if the change should not be pushed with content
+     */
+    static ConfigChangeNotifyRequest buildContentRequest(LocalDataChangeEvent event, String dataId, String group,
+            String tenant, int maxSize) {
+        if (maxSize <= 0 || event.isBeta || null != event.tag || null == event.content
+                || event.content.length() > maxSize) {
+            return null;
+        }
+        CacheItem cacheItem = ConfigCacheService.getContentCache(event.groupKey);
+        if (null != cacheItem && (cacheItem.isBeta() || !MapUtil.isEmpty(cacheItem.getTagMd5()))) {
+            return null;
+        }
+        ConfigChangeNotifyRequest request = ConfigChangeNotifyRequest.build(dataId, group, tenant);
+        request.setContent(event.content);
+        request.setContentType(event.type);
+        request.setMd5(MD5Utils.md5Hex(event.content, Constants.ENCODE));
+        request.setLastModified(event.lastModifiedTs);
+        return request;
+    }
+    
     @Override
     public Class<? extends Event> subscribeType() {
         return LocalDataChangeEvent.class;
     }
     
+    /**
+     * pushes of one config change, the time until all of them finished is recorded.
+     */
+    static class FanOut {
+        
+        final String groupKey;
+        
+        final long startTime = System.currentTimeMillis();
+        
+        final AtomicInteger remaining;
+        
+        FanOut(String groupKey, int size) {
+            this.groupKey = groupKey;
+            this.remaining = new AtomicInteger(size);
+        }
+        
+        void finish() {
+            if (remaining.decrementAndGet() == 0) {
+                long cost = System.currentTimeMillis() - startTime;
+                MetricsMonitor.getPushFanOutTimer().record(cost, TimeUnit.MILLISECONDS);
+                Loggers.REMOTE_PUSH.info("push finished in {}ms, groupKey=[{}]", cost, groupKey);
+            }
+        }
+    }
+    
     class RpcPushTask implements Runnable {
         
         ConfigChangeNotifyRequest notifyRequest;
         
+        /**
+         * request shared by the pushes of a config change, only used by the first try. Retries never carry the content,
+         * which may be stale by then.
+         */
+        PreparedRequest preparedRequest;
+        
+        FanOut fanOut;
+        
+        boolean priority;
+        
         int maxRetryTimes = -1;
         
         int tryTimes = 0;
@@ -141,6 +279,8 @@ public class RpcConfigChangeNotifier extends Subscriber<LocalDataChangeEvent> {
         
         String appName;
         
+        private final AtomicBoolean finished = new AtomicBoolean(false);
+        
         public RpcPushTask(ConfigChangeNotifyRequest notifyRequest, String clientId, String clientIp, String appName) {
             this(notifyRequest, -1, clientId, clientIp, appName);
         }
@@ -158,31 +298,56 @@ public class RpcConfigChangeNotifier extends Subscriber<LocalDataChangeEvent> {
             return maxRetryTimes > 0 && this.tryTimes >= maxRetryTimes;
         }
         
+        void finish() {
+            if (fanOut != null && finished.compareAndSet(false, true)) {
+                fanOut.finish();
+            }
+        }
+        
         @Override
         public void run() {
-            rpcPushService.pushWithCallback(clientId, notifyRequest, new AbstractPushCallBack(3000L) {
-                int retryTimes = tryTimes;
+            boolean firstTry = tryTimes == 0;
+            tryTimes++;
+            PushCallBack callBack = new AbstractPushCallBack(3000L) {
                 
                 @Override
                 public void onSuccess() {
-                
+                    pushScheduler.release();
+                    finish();
                 }
                 
                 @Override
                 public void onFail(Throwable e) {
+                    pushScheduler.release();
                     if (e instanceof ConnectionAlreadyClosedException) {
                         Loggers.CORE.warn(e.getMessage());
                     }
                     push(RpcPushTask.this);
                 }
                 
-            }, ConfigExecutor.getClientConfigNotifierServiceExecutor());
-            
-            tryTimes++;
+            };
+            if (firstTry && preparedRequest != null) {
+                rpcPushService.pushWithCallback(clientId, preparedRequest, callBack,
+                        ConfigExecutor.getClientConfigNotifierServiceExecutor());
+            } else {
+                // the request is not shared with other pushes, so the request id set by the push is not overwritten.
+                ConfigChangeNotifyRequest retryRequest = ConfigChangeNotifyRequest
+                        .build(notifyRequest.getDataId(), notifyRequest.getGroup(), notifyRequest.getTenant());
+                rpcPushService.pushWithCallback(clientId, retryRequest, callBack,
+                        ConfigExecutor.getClientConfigNotifierServiceExecutor());
+            }
         }
     }
     
-    private void push(RpcPushTask retryTask) {
+    private void submit(RpcPushTask task) {
+        if (!pushScheduler.submit(task, task.priority)) {
+            // dropped as the push queue is full, the client listens all its configs again after reconnected.
+            connectionManager.unregister(task.clientId);
+            task.finish();
+        }
+    }
+    
+    private void push(final RpcPushTask retryTask) {
         ConfigChangeNotifyRequest notifyRequet = retryTask.notifyRequest;
         if (retryTask.isOverTimes()) {
             Loggers.CORE
@@ -190,15 +355,20 @@ public class RpcConfigChangeNotifier extends Subscriber<LocalDataChangeEvent> {
                             notifyRequet.getDataId(), notifyRequet.getGroup(), notifyRequet.getTenant(),
                             retryTask.clientId);
             connectionManager.unregister(retryTask.clientId);
+            retryTask.finish();
             return;
         } else if (connectionManager.getConnection(retryTask.clientId) != null) {
             // first time :delay 0s; sencond time:delay 2s  ;third time :delay 4s
-            ConfigExecutor.getClientConfigNotifierServiceExecutor()
-                    .schedule(retryTask, retryTask.tryTimes * 2, TimeUnit.SECONDS);
+            if (retryTask.tryTimes == 0) {
+                submit(retryTask);
+            } else {
+                ConfigExecutor.getClientConfigNotifierServiceExecutor()
+                        .schedule(() -> submit(retryTask), retryTask.tryTimes * 2, TimeUnit.SECONDS);
+            }
         } else {
             // client is already offline,ingnore task.
+            retryTask.finish();
         }
         
     }
 }
-
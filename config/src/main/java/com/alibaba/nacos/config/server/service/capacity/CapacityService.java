@@ -36,6 +36,8 @@ import org.springframework.stereotype.Service;
 import javax.annotation.PostConstruct;
 import java.sql.Timestamp;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -62,6 +64,16 @@ public class CapacityService {
     @Autowired
     private PersistService persistService;
     
+    /**
+     * Usage counters of groups, only used when the capacity usage is counted in memory.
+     */
+    private final Map<String, CapacityUsageCounter> groupUsageCounters = new ConcurrentHashMap<>();
+    
+    /**
+     * Usage counters of tenants, only used when the capacity usage is counted in memory.
+     */
+    private final Map<String, CapacityUsageCounter> tenantUsageCounters = new ConcurrentHashMap<>();
+    
     /**
      * Init.
      */
@@ -79,11 +91,158 @@ public class CapacityService {
                 
             }
         }, PropertyUtil.getCorrectUsageDelay(), PropertyUtil.getCorrectUsageDelay(), TimeUnit.SECONDS);
+        if (PropertyUtil.isCapacityUsageInMemory()) {
+            // Runs on the same executor as the correct usage task, so they never overlap.
+            ConfigExecutor.scheduleCapacityUsageFlushTask(new Runnable() {
+                @Override
+                public void run() {
+                    flushUsage();
+                }
+            }, PropertyUtil.getCapacityUsageFlushInterval(), PropertyUtil.getCapacityUsageFlushInterval(),
+                    TimeUnit.SECONDS);
+        }
     }
     
+    /**
+     * Correct the usage of all capacities, the usage counted in memory is flushed before and reloaded after it.
+     */
     public void correctUsage() {
+        boolean usageInMemory = PropertyUtil.isCapacityUsageInMemory();
+        if (usageInMemory) {
+            flushUsage();
+        }
         correctGroupUsage();
         correctTenantUsage();
+        if (usageInMemory) {
+            flushUsage();
+        }
+    }
+    
+    /**
+     * Write the usage counted in memory to the capacity table and reload the capacities, so that the changes of quota
+     * and the usage counted by other servers are seen by the limit check.
+     */
+    public void flushUsage() {
+        final Timestamp now = TimeUtils.getCurrentTime();
+        for (Map.Entry<String, CapacityUsageCounter> entry : groupUsageCounters.entrySet()) {
+            String group = entry.getKey();
+            CapacityUsageCounter counter = entry.getValue();
+            try {
+                long pendingUsage = counter.getPendingUsage();
+                if (pendingUsage != 0) {
+                    GroupCapacity groupCapacity = new GroupCapacity();
+                    groupCapacity.setGroup(group);
+                    groupCapacity.setGmtModified(now);
+                    groupCapacityPersistService.addUsage(groupCapacity, pendingUsage);
+                }
+                GroupCapacity latest = groupCapacityPersistService.getGroupCapacity(group);
+                if (latest == null) {
+                    groupUsageCounters.remove(group, counter);
+                    continue;
+                }
+                counter.onFlushed(pendingUsage, latest);
+            } catch (Exception e) {
+                LOGGER.error("[capacityManagement] flush usage failed, group: {}", group, e);
+            }
+        }
+        for (Map.Entry<String, CapacityUsageCounter> entry : tenantUsageCounters.entrySet()) {
+            String tenant = entry.getKey();
+            CapacityUsageCounter counter = entry.getValue();
+            try {
+                long pendingUsage = counter.getPendingUsage();
+                if (pendingUsage != 0) {
+                    TenantCapacity tenantCapacity = new TenantCapacity();
+                    tenantCapacity.setTenant(tenant);
+                    tenantCapacity.setGmtModified(now);
+                    tenantCapacityPersistService.addUsage(tenantCapacity, pendingUsage);
+                }
+                TenantCapacity latest = tenantCapacityPersistService.getTenantCapacity(tenant);
+                if (latest == null) {
+                    tenantUsageCounters.remove(tenant, counter);
+                    continue;
+                }
+                counter.onFlushed(pendingUsage, latest);
+            } catch (Exception e) {
+                LOGGER.error("[capacityManagement] flush usage failed, tenant: {}", tenant, e);
+            }
+        }
+    }
+    
+    private CapacityUsageCounter getGroupUsageCounter(String group) {
+        CapacityUsageCounter counter = groupUsageCounters.get(group);
+        if (counter != null) {
+            return counter;
+        }
+        GroupCapacity groupCapacity = groupCapacityPersistService.getGroupCapacity(group);
+        if (groupCapacity == null) {
+            return null;
+        }
+        counter = new CapacityUsageCounter(groupCapacity);
+        CapacityUsageCounter old = groupUsageCounters.putIfAbsent(group, counter);
+        return old == null ? counter : old;
+    }
+    
+    private CapacityUsageCounter getTenantUsageCounter(String tenant) {
+        CapacityUsageCounter counter = tenantUsageCounters.get(tenant);
+        if (counter != null) {
+            return counter;
+        }
+        TenantCapacity tenantCapacity = tenantCapacityPersistService.getTenantCapacity(tenant);
+        if (tenantCapacity == null) {
+            return null;
+        }
+        counter = new CapacityUsageCounter(tenantCapacity);
+        CapacityUsageCounter old = tenantUsageCounters.putIfAbsent(tenant, counter);
+        return old == null ? counter : old;
+    }
+    
+    private boolean updateUsage(CapacityUsageCounter counter, CounterMode counterMode, int defaultQuota,
+            boolean ignoreQuotaLimit) {
+        if (counter == null) {
+            return false;
+        }
+        if (CounterMode.INCREMENT == counterMode) {
+            if (ignoreQuotaLimit) {
+                counter.increment();
+                return true;
+            }
+            return counter.incrementWithQuotaLimit(defaultQuota);
+        }
+        return counter.decrement();
+    }
+    
+    /**
+     * Reload the capacity of the counter after the quota or the size limits are modified.
+     */
+    private void refreshUsageCounter(String group, String tenant) {
+        if (!PropertyUtil.isCapacityUsageInMemory()) {
+            return;
+        }
+        if (tenant != null) {
+            CapacityUsageCounter counter = tenantUsageCounters.get(tenant);
+            TenantCapacity latest = counter == null ? null : tenantCapacityPersistService.getTenantCapacity(tenant);
+            if (latest != null) {
+                counter.setCapacity(latest);
+            }
+            return;
+        }
+        CapacityUsageCounter counter = groupUsageCounters.get(group);
+        GroupCapacity latest = counter == null ? null : groupCapacityPersistService.getGroupCapacity(group);
+        if (latest != null) {
+            counter.setCapacity(latest);
+        }
+    }
+    
+    private static void copyCapacity(CapacityUsageCounter counter, Capacity target) {
+        Capacity capacity = counter.getCapacity();
+        target.setId(capacity.getId());
+        target.setQuota(capacity.getQuota());
+        target.setUsage((int) counter.getUsage());
+        target.setMaxSize(capacity.getMaxSize());
+        target.setMaxAggrCount(capacity.getMaxAggrCount());
+        target.setMaxAggrSize(capacity.getMaxAggrSize());
+        target.setGmtCreate(capacity.getGmtCreate());
+        target.setGmtModified(capacity.getGmtModified());
     }
     
     /**
@@ -113,10 +272,12 @@ public class CapacityService {
     
     public void correctGroupUsage(String group) {
         groupCapacityPersistService.correctUsage(group, TimeUtils.getCurrentTime());
+        refreshUsageCounter(group, null);
     }
     
     public void correctTenantUsage(String tenant) {
         tenantCapacityPersistService.correctUsage(tenant, TimeUtils.getCurrentTime());
+        refreshUsageCounter(null, tenant);
     }
     
     /**
@@ -186,7 +347,7 @@ public class CapacityService {
      * @return
      */
     public boolean insertAndUpdateClusterUsage(CounterMode counterMode, boolean ignoreQuotaLimit) {
-        Capacity capacity = groupCapacityPersistService.getClusterCapacity();
+        Capacity capacity = getGroupCapacity(GroupCapacityPersistService.CLUSTER);
         if (capacity == null) {
             insertGroupCapacity(GroupCapacityPersistService.CLUSTER);
         }
@@ -222,6 +383,9 @@ public class CapacityService {
     
     private boolean updateGroupUsage(CounterMode counterMode, String group, int defaultQuota,
             boolean ignoreQuotaLimit) {
+        if (PropertyUtil.isCapacityUsageInMemory()) {
+            return updateUsage(getGroupUsageCounter(group), counterMode, defaultQuota, ignoreQuotaLimit);
+        }
         final Timestamp now = TimeUtils.getCurrentTime();
         GroupCapacity groupCapacity = new GroupCapacity();
         groupCapacity.setGroup(group);
@@ -239,7 +403,23 @@ public class CapacityService {
         return groupCapacityPersistService.decrementUsage(groupCapacity);
     }
     
+    /**
+     * Get the capacity of the group, the usage includes the changes counted in memory.
+     *
+     * @param group group string value.
+     * @return capacity of the group, null if not exist.
+     */
     public GroupCapacity getGroupCapacity(String group) {
+        if (PropertyUtil.isCapacityUsageInMemory()) {
+            CapacityUsageCounter counter = getGroupUsageCounter(group);
+            if (counter == null) {
+                return null;
+            }
+            GroupCapacity groupCapacity = new GroupCapacity();
+            copyCapacity(counter, groupCapacity);
+            groupCapacity.setGroup(group);
+            return groupCapacity;
+        }
         return groupCapacityPersistService.getGroupCapacity(group);
     }
     
@@ -295,11 +475,13 @@ public class CapacityService {
             int finalQuota = (int) (usage + defaultQuota * (1.0 * initialExpansionPercent / 100));
             if (tenant != null) {
                 tenantCapacityPersistService.updateQuota(tenant, finalQuota);
+                refreshUsageCounter(null, tenant);
                 LogUtil.DEFAULT_LOG
                         .warn("[capacityManagement] 初始化的时候该租户（{}）使用量（{}）就已经到达限额{}，自动扩容到{}", tenant, usage, defaultQuota,
                                 finalQuota);
             } else {
                 groupCapacityPersistService.updateQuota(group, finalQuota);
+                refreshUsageCounter(group, null);
                 LogUtil.DEFAULT_LOG.warn("[capacityManagement] 初始化的时候该Group（{}）使用量（{}）就已经到达限额{}，自动扩容到{}", group, usage,
                         defaultQuota, finalQuota);
             }
@@ -425,6 +607,10 @@ public class CapacityService {
     }
     
     private boolean updateTenantUsage(CounterMode counterMode, String tenant, boolean ignoreQuotaLimit) {
+        if (PropertyUtil.isCapacityUsageInMemory()) {
+            return updateUsage(getTenantUsageCounter(tenant), counterMode, PropertyUtil.getDefaultTenantQuota(),
+                    ignoreQuotaLimit);
+        }
         final Timestamp now = TimeUtils.getCurrentTime();
         TenantCapacity tenantCapacity = new TenantCapacity();
         tenantCapacity.setTenant(tenant);
@@ -508,7 +694,23 @@ public class CapacityService {
         return false;
     }
     
+    /**
+     * Get the capacity of the tenant, the usage includes the changes counted in memory.
+     *
+     * @param tenant tenant string value.
+     * @return capacity of the tenant, null if not exist.
+     */
     public TenantCapacity getTenantCapacity(String tenant) {
+        if (PropertyUtil.isCapacityUsageInMemory()) {
+            CapacityUsageCounter counter = getTenantUsageCounter(tenant);
+            if (counter == null) {
+                return null;
+            }
+            TenantCapacity tenantCapacity = new TenantCapacity();
+            copyCapacity(counter, tenantCapacity);
+            tenantCapacity.setTenant(tenant);
+            return tenantCapacity;
+        }
         return tenantCapacityPersistService.getTenantCapacity(tenant);
     }
     
@@ -531,12 +733,18 @@ public class CapacityService {
             if (capacity == null) {
                 return initTenantCapacity(tenant, quota, maxSize, maxAggrCount, maxAggrSize);
             }
-            return tenantCapacityPersistService.updateTenantCapacity(tenant, quota, maxSize, maxAggrCount, maxAggrSize);
+            boolean updateSuccess = tenantCapacityPersistService
+                    .updateTenantCapacity(tenant, quota, maxSize, maxAggrCount, maxAggrSize);
+            refreshUsageCounter(null, tenant);
+            return updateSuccess;
         }
         Capacity capacity = groupCapacityPersistService.getGroupCapacity(group);
         if (capacity == null) {
             return initGroupCapacity(group, quota, maxSize, maxAggrCount, maxAggrSize);
         }
-        return groupCapacityPersistService.updateGroupCapacity(group, quota, maxSize, maxAggrCount, maxAggrSize);
+        boolean updateSuccess = groupCapacityPersistService
+                .updateGroupCapacity(group, quota, maxSize, maxAggrCount, maxAggrSize);
+        refreshUsageCounter(group, null);
+        return updateSuccess;
     }
 }
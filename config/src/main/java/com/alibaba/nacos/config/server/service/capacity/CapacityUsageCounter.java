@@ -0,0 +1,122 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.capacity;
+
+import com.alibaba.nacos.config.server.model.capacity.Capacity;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Usage counter of one group or tenant capacity, used when capacity usage is counted in memory.
+ *
+ * <p>The usage is the usage persisted in the capacity table plus the changes which have not been flushed yet, kept in
+ * one atomic so that a change and its quota check are a single compare-and-set without lock. A flush or a reload of
+ * the capacity only moves the persisted part of the usage into the new capacity, by adding the difference to the
+ * usage, so a reader never counts the flushed changes twice or misses them.
+ *
+ * @author Nacos
+ */
+public class CapacityUsageCounter {
+    
+    private final AtomicLong usage;
+    
+    private volatile Capacity capacity;
+    
+    public CapacityUsageCounter(Capacity capacity) {
+        this.capacity = capacity;
+        this.usage = new AtomicLong(persistedUsage(capacity));
+    }
+    
+    public Capacity getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * Replace the capacity reloaded from the capacity table, the changes not flushed yet are kept.
+     *
+     * @param capacity the capacity reloaded.
+     */
+    public synchronized void setCapacity(Capacity capacity) {
+        usage.addAndGet(persistedUsage(capacity) - persistedUsage(this.capacity));
+        this.capacity = capacity;
+    }
+    
+    public long getUsage() {
+        return usage.get();
+    }
+    
+    public synchronized long getPendingUsage() {
+        return usage.get() - persistedUsage(capacity);
+    }
+    
+    public void increment() {
+        usage.incrementAndGet();
+    }
+    
+    /**
+     * Increase the usage if the quota allows.
+     *
+     * @param defaultQuota quota used when the quota of the capacity is 0.
+     * @return whether the usage is increased.
+     */
+    public boolean incrementWithQuotaLimit(int defaultQuota) {
+        Integer quota = capacity.getQuota();
+        int finalQuota = quota == null || quota == 0 ? defaultQuota : quota;
+        while (true) {
+            long current = usage.get();
+            if (current >= finalQuota) {
+                return false;
+            }
+            if (usage.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Decrease the usage, never below 0.
+     *
+     * @return whether the usage is decreased.
+     */
+    public boolean decrement() {
+        while (true) {
+            long current = usage.get();
+            if (current <= 0) {
+                return false;
+            }
+            if (usage.compareAndSet(current, current - 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Called after the pending usage is written to the capacity table.
+     *
+     * @param flushedUsage the pending usage that has been written.
+     * @param latest       the capacity read after the write.
+     */
+    public synchronized void onFlushed(long flushedUsage, Capacity latest) {
+        usage.addAndGet(persistedUsage(latest) - persistedUsage(capacity) - flushedUsage);
+        this.capacity = latest;
+    }
+    
+    private static long persistedUsage(Capacity capacity) {
+        Integer persisted = capacity.getUsage();
+        return persisted == null ? 0 : persisted;
+    }
+}
@@ -213,6 +213,23 @@ public class GroupCapacityPersistService {
         }
     }
     
+    /**
+     * Add the usage changes counted in memory.
+     *
+     * @param groupCapacity groupCapacity object instance.
+     * @param delta usage changes, may be negative.
+     * @return operate result.
+     */
+    public boolean addUsage(GroupCapacity groupCapacity, long delta) {
+        String sql = "UPDATE group_capacity SET `usage` = `usage` + ?, gmt_modified = ? WHERE group_id = ?";
+        try {
+            return jdbcTemplate.update(sql, delta, groupCapacity.getGmtModified(), groupCapacity.getGroup()) == 1;
+        } catch (CannotGetJdbcConnectionException e) {
+            FATAL_LOG.error("[db-error]", e);
+            throw e;
+        }
+    }
+    
     /**
      * Decrement Usage.
      * @param groupCapacity groupCapacity object instance.
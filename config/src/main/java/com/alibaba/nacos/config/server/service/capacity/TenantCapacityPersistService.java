@@ -181,6 +181,23 @@ public class TenantCapacityPersistService {
         }
     }
     
+    /**
+     * Add the usage changes counted in memory.
+     *
+     * @param tenantCapacity tenantCapacity object instance.
+     * @param delta usage changes, may be negative.
+     * @return operate result.
+     */
+    public boolean addUsage(TenantCapacity tenantCapacity, long delta) {
+        String sql = "UPDATE tenant_capacity SET `usage` = `usage` + ?, gmt_modified = ? WHERE tenant_id = ?";
+        try {
+            return jdbcTemplate.update(sql, delta, tenantCapacity.getGmtModified(), tenantCapacity.getTenant()) == 1;
+        } catch (CannotGetJdbcConnectionException e) {
+            FATAL_LOG.error("[db-error]", e);
+            throw e;
+        }
+    }
+    
     /**
      * DecrementUsage.
      *
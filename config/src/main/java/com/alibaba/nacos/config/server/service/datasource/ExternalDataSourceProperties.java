@@ -23,6 +23,7 @@ import org.springframework.core.env.Environment;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Properties;
 
 import static com.alibaba.nacos.common.utils.CollectionUtils.getOrDefault;
 
@@ -84,6 +85,12 @@ public class ExternalDataSourceProperties {
             poolProperties.setPassword(getOrDefault(password, index, password.get(0)).trim());
             HikariDataSource ds = poolProperties.getDataSource();
             ds.setConnectionTestQuery(TEST_QUERY);
+            // Let the driver reuse prepared statements, can be overridden by db.pool.config.dataSourceProperties
+            Properties dsProperties = ds.getDataSourceProperties();
+            dsProperties.putIfAbsent("cachePrepStmts", "true");
+            dsProperties.putIfAbsent("prepStmtCacheSize", "250");
+            dsProperties.putIfAbsent("prepStmtCacheSqlLimit", "2048");
+            dsProperties.putIfAbsent("useServerPrepStmts", "true");
             dataSources.add(ds);
             callback.accept(ds);
         }
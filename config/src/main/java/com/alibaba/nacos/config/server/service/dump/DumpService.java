@@ -16,7 +16,9 @@
 
 package com.alibaba.nacos.config.server.service.dump;
 
+import com.alibaba.nacos.api.config.remote.request.cluster.ConfigChangeClusterBatchSyncRequest;
 import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.common.task.AbstractDelayTask;
 import com.alibaba.nacos.common.utils.IoUtils;
 import com.alibaba.nacos.common.utils.MD5Utils;
 import com.alibaba.nacos.common.utils.StringUtils;
@@ -62,7 +64,9 @@ import java.sql.Timestamp;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -354,6 +358,21 @@ public abstract class DumpService {
         dumpTaskMgr.addTask(groupKey, new DumpTask(groupKey, tag, lastModified, handleIp, isBeta));
     }
     
+    /**
+     * Dump a batch of configs changed, the dump tasks are added at once.
+     *
+     * @param items    configs changed
+     * @param handleIp ip of the server which handled the changes
+     */
+    public void dumpBatch(List<ConfigChangeClusterBatchSyncRequest.SyncItem> items, String handleIp) {
+        Map<Object, AbstractDelayTask> tasks = new LinkedHashMap<Object, AbstractDelayTask>(items.size() * 4 / 3 + 1);
+        for (ConfigChangeClusterBatchSyncRequest.SyncItem each : items) {
+            String groupKey = GroupKey2.getKey(each.getDataId(), each.getGroup(), each.getTenant());
+            tasks.put(groupKey, new DumpTask(groupKey, each.getLastModified(), handleIp, each.isBeta()));
+        }
+        dumpTaskMgr.addTasks(tasks);
+    }
+    
     public void dumpAll() {
         dumpAllTaskMgr.addTask(DumpAllTask.TASK_ID, new DumpAllTask());
     }
@@ -16,7 +16,9 @@
 
 package com.alibaba.nacos.config.server.service.notify;
 
+import com.alibaba.nacos.api.config.remote.request.cluster.ConfigChangeClusterBatchSyncRequest;
 import com.alibaba.nacos.api.config.remote.request.cluster.ConfigChangeClusterSyncRequest;
+import com.alibaba.nacos.api.config.remote.response.cluster.ConfigChangeClusterBatchSyncResponse;
 import com.alibaba.nacos.api.config.remote.response.cluster.ConfigChangeClusterSyncResponse;
 import com.alibaba.nacos.api.remote.RequestCallBack;
 import com.alibaba.nacos.api.utils.NetUtils;
@@ -53,6 +55,7 @@ import java.net.URLEncoder;
 import java.text.MessageFormat;
 import java.util.Collection;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
@@ -60,17 +63,41 @@ import java.util.concurrent.TimeUnit;
 /**
  * Async notify service.
  *
+ * <p>Changes to the members which support batch sync are aggregated over {@code nacos.config.notify.batchWindow}
+ * milliseconds into batches of at most {@code nacos.config.notify.batchMaxSize} configs, a non-positive window
+ * notifies each change alone.
+ *
  * @author Nacos
  */
 @Service
 public class AsyncNotifyService {
     
+    static final String NOTIFY_BATCH_WINDOW = "nacos.config.notify.batchWindow";
+    
+    static final String NOTIFY_BATCH_MAX_SIZE = "nacos.config.notify.batchMaxSize";
+    
+    /**
+     * member meta key of whether the member handles {@link ConfigChangeClusterBatchSyncRequest}.
+     */
+    static final String SUPPORT_BATCH_SYNC = "configBatchSync";
+    
+    private static final long DEFAULT_NOTIFY_BATCH_WINDOW = 50L;
+    
+    private static final int DEFAULT_NOTIFY_BATCH_MAX_SIZE = 1000;
+    
     @Autowired
     private DumpService dumpService;
     
     @Autowired
     public AsyncNotifyService(ServerMemberManager memberManager) {
         this.memberManager = memberManager;
+        long batchWindow = EnvUtil.getProperty(NOTIFY_BATCH_WINDOW, Long.class, DEFAULT_NOTIFY_BATCH_WINDOW);
+        int batchMaxSize = EnvUtil.getProperty(NOTIFY_BATCH_MAX_SIZE, Integer.class, DEFAULT_NOTIFY_BATCH_MAX_SIZE);
+        this.batcher = batchWindow > 0 ? new ClusterSyncBatcher(batchWindow, Math.max(1, batchMaxSize),
+                ConfigExecutor.getAsyncNotifyExecutor(), (member, items) -> syncBatch(member, items, 0)) : null;
+        if (batcher != null) {
+            memberManager.getSelf().setExtendVal(SUPPORT_BATCH_SYNC, true);
+        }
         
         // Register ConfigDataChangeEvent to NotifyCenter.
         NotifyCenter.registerToPublisher(ConfigDataChangeEvent.class, NotifyCenter.ringBufferSize);
@@ -98,6 +125,8 @@ public class AsyncNotifyService {
                         if (MemberUtil.getSupportedConnectionType(member) == null) {
                             httpQueue.add(new NotifySingleTask(dataId, group, tenant, tag, dumpTs, member.getAddress(),
                                     evt.isBeta));
+                        } else if (isBatchSupported(member)) {
+                            batcher.add(member, buildSyncItem(evt));
                         } else {
                             rpcQueue.add(
                                     new NotifySingleRpcTask(dataId, group, tenant, tag, dumpTs, evt.isBeta, member));
@@ -129,6 +158,63 @@ public class AsyncNotifyService {
     
     private ServerMemberManager memberManager;
     
+    private final ClusterSyncBatcher batcher;
+    
+    private boolean isBatchSupported(Member member) {
+        return batcher != null && (memberManager.getSelf().equals(member) || Boolean.TRUE.toString()
+                .equals(String.valueOf(member.getExtendVal(SUPPORT_BATCH_SYNC))));
+    }
+    
+    private static ConfigChangeClusterBatchSyncRequest.SyncItem buildSyncItem(ConfigDataChangeEvent evt) {
+        ConfigChangeClusterBatchSyncRequest.SyncItem item = new ConfigChangeClusterBatchSyncRequest.SyncItem();
+        item.setDataId(evt.dataId);
+        item.setGroup(evt.group);
+        item.setTenant(evt.tenant);
+        item.setTag(evt.tag);
+        item.setLastModified(evt.lastModifiedTs);
+        item.setBeta(evt.isBeta);
+        return item;
+    }
+    
+    /**
+     * Sync a batch of changes to the member, the batch is retried as a whole.
+     *
+     * @param member    member to notify
+     * @param items     configs changed
+     * @param failCount count of failed tries
+     */
+    void syncBatch(Member member, List<ConfigChangeClusterBatchSyncRequest.SyncItem> items, int failCount) {
+        if (memberManager.getSelf().equals(member)) {
+            dumpService.dumpBatch(items, NetUtils.localIP());
+            return;
+        }
+        if (!memberManager.hasMember(member.getAddress())) {
+            // the member is offline.
+            return;
+        }
+        if (memberManager.isUnHealth(member.getAddress())) {
+            LogUtil.NOTIFY_LOG.warn("[notify-unhealth] target:{} batch size:{}, retry later", member.getAddress(),
+                    items.size());
+            retryBatch(member, items, failCount);
+            return;
+        }
+        ConfigChangeClusterBatchSyncRequest request = new ConfigChangeClusterBatchSyncRequest();
+        request.setItems(items);
+        try {
+            configClusterRpcClientProxy
+                    .syncConfigChangeBatch(member, request, new AsyncRpcBatchNotifyCallBack(member, items, failCount));
+        } catch (Exception e) {
+            MetricsMonitor.getConfigNotifyException().increment();
+            retryBatch(member, items, failCount);
+        }
+    }
+    
+    private void retryBatch(Member member, List<ConfigChangeClusterBatchSyncRequest.SyncItem> items, int failCount) {
+        int nextFailCount = Math.min(failCount + 1, MAX_COUNT + 1);
+        ConfigExecutor.scheduleAsyncNotify(() -> syncBatch(member, items, nextFailCount), getDelayTime(failCount),
+                TimeUnit.MILLISECONDS);
+    }
+    
     class AsyncTask implements Runnable {
         
         private Queue<NotifySingleTask> queue;
@@ -398,6 +484,57 @@ public class AsyncNotifyService {
         }
     }
     
+    class AsyncRpcBatchNotifyCallBack implements RequestCallBack<ConfigChangeClusterBatchSyncResponse> {
+        
+        private final Member member;
+        
+        private final List<ConfigChangeClusterBatchSyncRequest.SyncItem> items;
+        
+        private final int failCount;
+        
+        public AsyncRpcBatchNotifyCallBack(Member member, List<ConfigChangeClusterBatchSyncRequest.SyncItem> items,
+                int failCount) {
+            this.member = member;
+            this.items = items;
+            this.failCount = failCount;
+        }
+        
+        @Override
+        public Executor getExecutor() {
+            return ConfigExecutor.getConfigSubServiceExecutor();
+        }
+        
+        @Override
+        public long getTimeout() {
+            return 3000L;
+        }
+        
+        @Override
+        public void onResponse(ConfigChangeClusterBatchSyncResponse response) {
+            if (response.isSuccess()) {
+                long now = System.currentTimeMillis();
+                for (ConfigChangeClusterBatchSyncRequest.SyncItem each : items) {
+                    ConfigTraceService.logNotifyEvent(each.getDataId(), each.getGroup(), each.getTenant(), null,
+                            each.getLastModified(), InetUtils.getSelfIP(), ConfigTraceService.NOTIFY_EVENT_OK,
+                            now - each.getLastModified(), member.getAddress());
+                }
+            } else {
+                LOGGER.error("[notify-error] target:{} batch size:{} code:{}", member.getAddress(), items.size(),
+                        response.getErrorCode());
+                retryBatch(member, items, failCount);
+                MetricsMonitor.getConfigNotifyException().increment();
+            }
+        }
+        
+        @Override
+        public void onException(Throwable ex) {
+            LOGGER.error("[notify-exception] target:{} batch size:{} ex:{}", member.getAddress(), items.size(),
+                    ex.toString());
+            retryBatch(member, items, failCount);
+            MetricsMonitor.getConfigNotifyException().increment();
+        }
+    }
+    
     static class NotifySingleTask extends NotifyTask {
         
         private String target;
@@ -473,13 +610,17 @@ public class AsyncNotifyService {
      */
     private static int getDelayTime(NotifyTask task) {
         int failCount = task.getFailCount();
-        int delay = MIN_RETRY_INTERVAL + failCount * failCount * INCREASE_STEPS;
+        int delay = getDelayTime(failCount);
         if (failCount <= MAX_COUNT) {
             task.setFailCount(failCount + 1);
         }
         return delay;
     }
     
+    private static int getDelayTime(int failCount) {
+        return MIN_RETRY_INTERVAL + failCount * failCount * INCREASE_STEPS;
+    }
+    
     private static final int MIN_RETRY_INTERVAL = 500;
     
     private static final int INCREASE_STEPS = 1000;
@@ -0,0 +1,116 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.nacos.config.server.service.notify;
+
+import com.alibaba.nacos.api.config.remote.request.cluster.ConfigChangeClusterBatchSyncRequest.SyncItem;
+import com.alibaba.nacos.config.server.utils.GroupKey2;
+import com.alibaba.nacos.core.cluster.Member;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * Aggregates the config changes to notify by member.
+ *
+ * <p>Changes are sent {@code window} milliseconds after the first change of a batch, or at once when the batch
+ * reaches {@code maxSize}. Changes of one config in a batch are merged into the latest one.
+ *
+ * @author Nacos
+ */
+class ClusterSyncBatcher {
+    
+    private final long window;
+    
+    private final int maxSize;
+    
+    private final ScheduledExecutorService executor;
+    
+    private final BiConsumer<Member, List<SyncItem>> sender;
+    
+    private final Map<String, Batch> batches = new ConcurrentHashMap<String, Batch>();
+    
+    ClusterSyncBatcher(long window, int maxSize, ScheduledExecutorService executor,
+            BiConsumer<Member, List<SyncItem>> sender) {
+        this.window = window;
+        this.maxSize = maxSize;
+        this.executor = executor;
+        this.sender = sender;
+    }
+    
+    /**
+     * Add a change to the batch of the member.
+     *
+     * @param member member to notify
+     * @param item   config changed
+     */
+    void add(Member member, SyncItem item) {
+        Batch batch = batches.computeIfAbsent(member.getAddress(), address -> new Batch(member));
+        boolean full;
+        synchronized (batch) {
+            batch.items.merge(itemKey(item), item,
+                    (older, newer) -> newer.getLastModified() >= older.getLastModified() ? newer : older);
+            full = batch.items.size() >= maxSize;
+            if (!full && !batch.scheduled) {
+                batch.scheduled = true;
+                executor.schedule(() -> flush(batch), window, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (full) {
+            executor.execute(() -> flush(batch));
+        }
+    }
+    
+    void flush(Batch batch) {
+        List<SyncItem> items;
+        synchronized (batch) {
+            batch.scheduled = false;
+            if (batch.items.isEmpty()) {
+                return;
+            }
+            items = new ArrayList<SyncItem>(batch.items.values());
+            batch.items = new LinkedHashMap<String, SyncItem>();
+        }
+        for (int from = 0; from < items.size(); from += maxSize) {
+            sender.accept(batch.member, items.subList(from, Math.min(from + maxSize, items.size())));
+        }
+    }
+    
+    private static String itemKey(SyncItem item) {
+        return GroupKey2.getKey(item.getDataId(), item.getGroup(), item.getTenant()) + "+" + item.isBeta() + "+"
+                + item.getTag();
+    }
+    
+    static class Batch {
+        
+        private final Member member;
+        
+        private Map<String, SyncItem> items = new LinkedHashMap<String, SyncItem>();
+        
+        private boolean scheduled;
+        
+        private Batch(Member member) {
+            this.member = member;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.repository;
+
+import com.alibaba.nacos.common.utils.StringUtils;
+import com.alibaba.nacos.config.server.model.ConfigInfo;
+import com.alibaba.nacos.config.server.utils.GroupKey2;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Caches the config_info rows read during one request, so that the same row is not queried several times by the
+ * aspects and the persist service handling that request.
+ *
+ * <p>The cache only works between {@link #open()} and {@link #cleanAllContext()}, outside of that scope every lookup
+ * misses and nothing is recorded.
+ *
+ * @author Nacos
+ */
+public class ConfigInfoContextUtils {
+    
+    private static final ThreadLocal<Map<String, ConfigInfo>> CONFIG_INFO_CONTEXT = new ThreadLocal<>();
+    
+    /**
+     * Open the row cache for the current thread.
+     */
+    public static void open() {
+        CONFIG_INFO_CONTEXT.set(new HashMap<>(4));
+    }
+    
+    /**
+     * Whether the row of the config has been read in the current request.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     * @return {@code true} if the row (or its absence) is known
+     */
+    public static boolean contains(String dataId, String group, String tenant) {
+        Map<String, ConfigInfo> context = CONFIG_INFO_CONTEXT.get();
+        return context != null && context.containsKey(key(dataId, group, tenant));
+    }
+    
+    /**
+     * Get the row read in the current request.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     * @return {@link ConfigInfo}, null if the config does not exist or has not been read
+     */
+    public static ConfigInfo getConfigInfo(String dataId, String group, String tenant) {
+        Map<String, ConfigInfo> context = CONFIG_INFO_CONTEXT.get();
+        return context == null ? null : context.get(key(dataId, group, tenant));
+    }
+    
+    /**
+     * Record the row read in the current request, null means the config does not exist.
+     *
+     * @param dataId     dataId
+     * @param group      group
+     * @param tenant     tenant
+     * @param configInfo {@link ConfigInfo}
+     */
+    public static void putConfigInfo(String dataId, String group, String tenant, ConfigInfo configInfo) {
+        Map<String, ConfigInfo> context = CONFIG_INFO_CONTEXT.get();
+        if (context != null) {
+            context.put(key(dataId, group, tenant), configInfo);
+        }
+    }
+    
+    /**
+     * Forget the row after it was modified in the current request.
+     *
+     * @param dataId dataId
+     * @param group  group
+     * @param tenant tenant
+     */
+    public static void remove(String dataId, String group, String tenant) {
+        Map<String, ConfigInfo> context = CONFIG_INFO_CONTEXT.get();
+        if (context != null) {
+            context.remove(key(dataId, group, tenant));
+        }
+    }
+    
+    public static void cleanAllContext() {
+        CONFIG_INFO_CONTEXT.remove();
+    }
+    
+    private static String key(String dataId, String group, String tenant) {
+        return GroupKey2.getKey(dataId, group, StringUtils.isBlank(tenant) ? StringUtils.EMPTY : tenant);
+    }
+}
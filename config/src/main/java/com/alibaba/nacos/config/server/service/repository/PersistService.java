@@ -213,6 +213,18 @@ public interface PersistService {
     void insertOrUpdate(String srcIp, String srcUser, ConfigInfo configInfo, Timestamp time,
             Map<String, Object> configAdvanceInfo, boolean notify);
     
+    /**
+     * Write several configs to the main table at once, insert or update. Each config is written in its own
+     * transaction, the failure of one config does not affect the others.
+     *
+     * @param configInfoList config info list, the type of each config is taken from {@link ConfigInfo#getType()}
+     * @param srcIp          remote ip
+     * @param srcUser        user
+     * @param time           time
+     * @return whether each config was written, in the order of configInfoList
+     */
+    List<Boolean> batchInsertOrUpdate(List<ConfigInfo> configInfoList, String srcIp, String srcUser, Timestamp time);
+    
     // ----------------------- config_aggr_info table insert update delete
     
     /**
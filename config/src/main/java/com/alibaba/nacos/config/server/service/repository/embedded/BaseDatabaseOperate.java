@@ -30,6 +30,8 @@ import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
 import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.function.BiConsumer;
@@ -242,6 +244,41 @@ public interface BaseDatabaseOperate extends DatabaseOperate {
         });
     }
     
+    /**
+     * execute a batch of independent update operations, each item runs in its own transaction, so a failed item is
+     * rolled back without affecting the others.
+     *
+     * @param transactionTemplate {@link TransactionTemplate}
+     * @param jdbcTemplate        {@link JdbcTemplate}
+     * @param items               ModifyRequest list of each item
+     * @return whether each item succeeded, in the order of items
+     */
+    default List<Boolean> batchUpdate(TransactionTemplate transactionTemplate, JdbcTemplate jdbcTemplate,
+            List<List<ModifyRequest>> items) {
+        List<Boolean> results = new ArrayList<>(items.size());
+        for (List<ModifyRequest> contexts : items) {
+            contexts.sort(Comparator.comparingInt(ModifyRequest::getExecuteNo));
+            Boolean result = transactionTemplate.execute(status -> {
+                String[] errSql = new String[] {null};
+                Object[][] args = new Object[][] {null};
+                try {
+                    contexts.forEach(pair -> {
+                        errSql[0] = pair.getSql();
+                        args[0] = pair.getArgs();
+                        jdbcTemplate.update(pair.getSql(), pair.getArgs());
+                    });
+                    return Boolean.TRUE;
+                } catch (BadSqlGrammarException | DataIntegrityViolationException e) {
+                    FATAL_LOG.error("[db-error] sql : {}, args : {}, error : {}", errSql[0], args[0], e.toString());
+                    status.setRollbackOnly();
+                    return Boolean.FALSE;
+                }
+            });
+            results.add(Boolean.TRUE.equals(result));
+        }
+        return results;
+    }
+    
     /**
      * Perform data import.
      *
@@ -117,6 +117,16 @@ public interface DatabaseOperate {
         return update(modifyRequests, null);
     }
     
+    /**
+     * Submit several independent modify transactions at once. Each item is executed in its own transaction and a
+     * failed item does not affect the others.
+     *
+     * @param items       ModifyRequest list of each item
+     * @param extendInfos extend info of each item, in the order of items
+     * @return whether each item succeeded, in the order of items
+     */
+    List<Boolean> batchUpdate(List<List<ModifyRequest>> items, List<Map<String, String>> extendInfos);
+    
     /**
      * data importing, This method is suitable for importing data from external data sources into embedded data
      * sources.
@@ -18,6 +18,7 @@ package com.alibaba.nacos.config.server.service.repository.embedded;
 
 import com.alibaba.nacos.common.notify.NotifyCenter;
 import com.alibaba.nacos.config.server.model.event.DerbyLoadEvent;
+import com.alibaba.nacos.config.server.monitor.MetricsMonitor;
 import com.alibaba.nacos.config.server.service.datasource.DataSourceService;
 import com.alibaba.nacos.config.server.service.datasource.DynamicDataSource;
 import com.alibaba.nacos.config.server.service.datasource.LocalDataSourceServiceImpl;
@@ -31,22 +32,41 @@ import com.alibaba.nacos.sys.env.EnvUtil;
 import com.alibaba.nacos.sys.utils.DiskUtils;
 import com.alibaba.nacos.core.utils.TimerContext;
 import com.alipay.sofa.jraft.util.CRC64;
+import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.NullOutputStream;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.CallableStatement;
 import java.sql.Connection;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CheckedInputStream;
 import java.util.zip.Checksum;
 import javax.sql.DataSource;
 
 /**
  * Derby Snapshot operation.
  *
+ * <p>The online backup of Derby is kept as separate files, one per container, each recorded with its own checksum.
+ * Containers that did not change since the previous snapshot keep the same checksum, so a follower installing the
+ * snapshot only receives the changed ones and reuses the rest from its local last snapshot. Snapshots in the old
+ * single archive format can still be loaded.
+ *
  * @author <a href="mailto:liaochuntao@live.com">liaochuntao</a>
  */
 public class DerbySnapshotOperation implements SnapshotOperation {
@@ -77,32 +97,33 @@ public class DerbySnapshotOperation implements SnapshotOperation {
     public void onSnapshotSave(Writer writer, BiConsumer<Boolean, Throwable> callFinally) {
         RaftExecutor.doSnapshot(() -> {
             TimerContext.start(DERBY_SNAPSHOT_SAVE);
-            
-            final Lock lock = writeLock;
-            lock.lock();
+            final long startTime = System.currentTimeMillis();
             try {
                 final String writePath = writer.getPath();
                 final String parentPath = Paths.get(writePath, snapshotDir).toString();
                 DiskUtils.deleteDirectory(parentPath);
                 DiskUtils.forceMkdir(parentPath);
                 
-                doDerbyBackup(parentPath);
-                
-                final String outputFile = Paths.get(writePath, snapshotArchive).toString();
-                final Checksum checksum = new CRC64();
-                DiskUtils.compress(writePath, snapshotDir, outputFile, checksum);
-                DiskUtils.deleteDirectory(parentPath);
-                
-                final LocalFileMeta meta = new LocalFileMeta();
-                meta.append(checkSumKey, Long.toHexString(checksum.getValue()));
+                // Only the backup itself has to be exclusive, the checksums are computed on the private copy
+                final Lock lock = writeLock;
+                lock.lock();
+                try {
+                    final long backupStartTime = System.currentTimeMillis();
+                    doDerbyBackup(parentPath);
+                    MetricsMonitor.getDerbyBackupRtTimer()
+                            .record(System.currentTimeMillis() - backupStartTime, TimeUnit.MILLISECONDS);
+                } finally {
+                    lock.unlock();
+                }
                 
-                callFinally.accept(writer.addFile(snapshotArchive, meta), null);
+                callFinally.accept(addFiles(writer, Paths.get(parentPath)), null);
             } catch (Throwable t) {
-                LogUtil.FATAL_LOG.error("Fail to compress snapshot, path={}, file list={}, {}.", writer.getPath(),
+                LogUtil.FATAL_LOG.error("Fail to save snapshot, path={}, file list={}, {}.", writer.getPath(),
                         writer.listFiles(), t);
                 callFinally.accept(false, t);
             } finally {
-                lock.unlock();
+                MetricsMonitor.getDerbySnapshotSaveRtTimer()
+                        .record(System.currentTimeMillis() - startTime, TimeUnit.MILLISECONDS);
                 TimerContext.end(DERBY_SNAPSHOT_SAVE, LogUtil.FATAL_LOG);
             }
         });
@@ -111,20 +132,16 @@ public class DerbySnapshotOperation implements SnapshotOperation {
     @Override
     public boolean onSnapshotLoad(Reader reader) {
         final String readerPath = reader.getPath();
-        final String sourceFile = Paths.get(readerPath, snapshotArchive).toString();
         TimerContext.start(DERBY_SNAPSHOT_LOAD);
+        final long startTime = System.currentTimeMillis();
         final Lock lock = writeLock;
         lock.lock();
         try {
-            final Checksum checksum = new CRC64();
-            DiskUtils.decompress(sourceFile, readerPath, checksum);
-            
-            LocalFileMeta fileMeta = reader.getFileMeta(snapshotArchive);
-            
-            if (fileMeta.getFileMeta().containsKey(checkSumKey)) {
-                if (!Objects.equals(Long.toHexString(checksum.getValue()), fileMeta.get(checkSumKey))) {
-                    throw new IllegalArgumentException("Snapshot checksum failed");
-                }
+            final boolean isArchive = reader.listFiles().containsKey(snapshotArchive);
+            if (isArchive) {
+                decompressArchive(reader);
+            } else {
+                verifyFiles(reader);
             }
             
             final String loadPath = Paths.get(readerPath, snapshotDir, "derby-data").toString();
@@ -138,7 +155,10 @@ public class DerbySnapshotOperation implements SnapshotOperation {
                 LogUtil.FATAL_LOG.info("Complete database recovery");
                 return null;
             });
-            DiskUtils.deleteDirectory(loadPath);
+            // The per file snapshot must stay in place, JRaft reuses it for the next snapshot install
+            if (isArchive) {
+                DiskUtils.deleteDirectory(loadPath);
+            }
             NotifyCenter.publishEvent(DerbyLoadEvent.INSTANCE);
             return true;
         } catch (final Throwable t) {
@@ -147,10 +167,73 @@ public class DerbySnapshotOperation implements SnapshotOperation {
             return false;
         } finally {
             lock.unlock();
+            MetricsMonitor.getDerbySnapshotLoadRtTimer()
+                    .record(System.currentTimeMillis() - startTime, TimeUnit.MILLISECONDS);
             TimerContext.end(DERBY_SNAPSHOT_LOAD, LogUtil.FATAL_LOG);
         }
     }
     
+    private void decompressArchive(Reader reader) throws IOException {
+        final String readerPath = reader.getPath();
+        final String sourceFile = Paths.get(readerPath, snapshotArchive).toString();
+        final Checksum checksum = new CRC64();
+        DiskUtils.decompress(sourceFile, readerPath, checksum);
+        
+        LocalFileMeta fileMeta = reader.getFileMeta(snapshotArchive);
+        
+        if (fileMeta.getFileMeta().containsKey(checkSumKey)) {
+            if (!Objects.equals(Long.toHexString(checksum.getValue()), fileMeta.get(checkSumKey))) {
+                throw new IllegalArgumentException("Snapshot checksum failed");
+            }
+        }
+    }
+    
+    /**
+     * Record every file under the directory into the snapshot with the checksum of its content.
+     *
+     * @param writer snapshot writer
+     * @param dir    directory of the backup, inside the snapshot path
+     * @return true if all files are added
+     * @throws IOException if a file can not be read
+     */
+    boolean addFiles(Writer writer, Path dir) throws IOException {
+        boolean result = true;
+        for (Path file : listFiles(dir)) {
+            final LocalFileMeta meta = new LocalFileMeta();
+            meta.append(LocalFileMeta.CONTENT_CHECKSUM, checksum(file));
+            result &= writer.addFile(Paths.get(writer.getPath()).relativize(file).toString(), meta);
+        }
+        return result;
+    }
+    
+    void verifyFiles(Reader reader) throws IOException {
+        for (Map.Entry<String, LocalFileMeta> entry : reader.listFiles().entrySet()) {
+            final Object expect = entry.getValue().get(LocalFileMeta.CONTENT_CHECKSUM);
+            if (expect == null) {
+                continue;
+            }
+            final Path file = Paths.get(reader.getPath(), entry.getKey());
+            if (!Objects.equals(checksum(file), expect)) {
+                throw new IllegalArgumentException("Snapshot checksum failed : " + entry.getKey());
+            }
+        }
+    }
+    
+    private List<Path> listFiles(Path dir) throws IOException {
+        try (Stream<Path> stream = Files.walk(dir)) {
+            return stream.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+    
+    private String checksum(Path file) throws IOException {
+        final Checksum checksum = new CRC64();
+        try (InputStream fis = new FileInputStream(file.toFile());
+                CheckedInputStream cis = new CheckedInputStream(new BufferedInputStream(fis), checksum)) {
+            IOUtils.copy(cis, NullOutputStream.NULL_OUTPUT_STREAM);
+        }
+        return Long.toHexString(checksum.getValue());
+    }
+    
     private void doDerbyBackup(String backupDirectory) throws Exception {
         DataSourceService sourceService = DynamicDataSource.getInstance().getDataSource();
         DataSource dataSource = sourceService.getJdbcTemplate().getDataSource();
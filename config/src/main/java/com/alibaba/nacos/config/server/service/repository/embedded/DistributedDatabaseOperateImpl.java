@@ -45,10 +45,12 @@ import com.alibaba.nacos.config.server.service.sql.QueryType;
 import com.alibaba.nacos.config.server.service.sql.SelectRequest;
 import com.alibaba.nacos.config.server.utils.ConfigExecutor;
 import com.alibaba.nacos.config.server.utils.LogUtil;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
 import com.alibaba.nacos.consistency.SerializeFactory;
 import com.alibaba.nacos.consistency.Serializer;
 import com.alibaba.nacos.consistency.cp.CPProtocol;
 import com.alibaba.nacos.consistency.cp.RequestProcessor4CP;
+import com.alibaba.nacos.consistency.entity.ReadMode;
 import com.alibaba.nacos.consistency.entity.ReadRequest;
 import com.alibaba.nacos.consistency.entity.Response;
 import com.alibaba.nacos.consistency.entity.WriteRequest;
@@ -149,6 +151,11 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
      */
     private static final String DATA_IMPORT_KEY = "00--0-data_import-0--00";
     
+    /**
+     * The batch update operation is dedicated key, the log data is a list of independent transactions.
+     */
+    private static final String BATCH_UPDATE_KEY = "00--0-batch_update-0--00";
+    
     private ServerMemberManager memberManager;
     
     private CPProtocol protocol;
@@ -226,8 +233,7 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
             final boolean blockRead = EmbeddedStorageContextUtils
                     .containsExtendInfo(Constants.EXTEND_NEED_READ_UNTIL_HAVE_DATA);
             
-            Response response = innerRead(
-                    ReadRequest.newBuilder().setGroup(group()).setData(ByteString.copyFrom(data)).build(), blockRead);
+            Response response = innerRead(buildReadRequest(group(), data, blockRead), blockRead);
             if (response.getSuccess()) {
                 return serializer.deserialize(response.getData().toByteArray(), cls);
             }
@@ -250,8 +256,7 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
             final boolean blockRead = EmbeddedStorageContextUtils
                     .containsExtendInfo(Constants.EXTEND_NEED_READ_UNTIL_HAVE_DATA);
             
-            Response response = innerRead(
-                    ReadRequest.newBuilder().setGroup(group()).setData(ByteString.copyFrom(data)).build(), blockRead);
+            Response response = innerRead(buildReadRequest(group(), data, blockRead), blockRead);
             if (response.getSuccess()) {
                 return serializer.deserialize(response.getData().toByteArray(), cls);
             }
@@ -274,8 +279,7 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
             final boolean blockRead = EmbeddedStorageContextUtils
                     .containsExtendInfo(Constants.EXTEND_NEED_READ_UNTIL_HAVE_DATA);
             
-            Response response = innerRead(
-                    ReadRequest.newBuilder().setGroup(group()).setData(ByteString.copyFrom(data)).build(), blockRead);
+            Response response = innerRead(buildReadRequest(group(), data, blockRead), blockRead);
             if (response.getSuccess()) {
                 return serializer.deserialize(response.getData().toByteArray(),
                         ClassUtils.resolveGenericTypeByInterface(mapper.getClass()));
@@ -299,8 +303,7 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
             final boolean blockRead = EmbeddedStorageContextUtils
                     .containsExtendInfo(Constants.EXTEND_NEED_READ_UNTIL_HAVE_DATA);
             
-            Response response = innerRead(
-                    ReadRequest.newBuilder().setGroup(group()).setData(ByteString.copyFrom(data)).build(), blockRead);
+            Response response = innerRead(buildReadRequest(group(), data, blockRead), blockRead);
             if (response.getSuccess()) {
                 return serializer.deserialize(response.getData().toByteArray(), List.class);
             }
@@ -323,8 +326,7 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
             final boolean blockRead = EmbeddedStorageContextUtils
                     .containsExtendInfo(Constants.EXTEND_NEED_READ_UNTIL_HAVE_DATA);
             
-            Response response = innerRead(
-                    ReadRequest.newBuilder().setGroup(group()).setData(ByteString.copyFrom(data)).build(), blockRead);
+            Response response = innerRead(buildReadRequest(group(), data, blockRead), blockRead);
             if (response.getSuccess()) {
                 return serializer.deserialize(response.getData().toByteArray(), List.class);
             }
@@ -347,8 +349,7 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
             final boolean blockRead = EmbeddedStorageContextUtils
                     .containsExtendInfo(Constants.EXTEND_NEED_READ_UNTIL_HAVE_DATA);
             
-            Response response = innerRead(
-                    ReadRequest.newBuilder().setGroup(group()).setData(ByteString.copyFrom(data)).build(), blockRead);
+            Response response = innerRead(buildReadRequest(group(), data, blockRead), blockRead);
             if (response.getSuccess()) {
                 return serializer.deserialize(response.getData().toByteArray(), List.class);
             }
@@ -359,6 +360,32 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
         }
     }
     
+    /**
+     * Build the read request of a select. A blocking read waits for data this node has just written, so it stays
+     * linearizable, the other reads are served with {@link PropertyUtil#getEmbeddedStorageReadMode()}.
+     *
+     * @param group     raft group
+     * @param data      serialized {@link SelectRequest}
+     * @param blockRead is async read operation
+     * @return {@link ReadRequest}
+     */
+    static ReadRequest buildReadRequest(String group, byte[] data, boolean blockRead) {
+        final ReadRequest.Builder builder = ReadRequest.newBuilder().setGroup(group).setData(ByteString.copyFrom(data));
+        if (!blockRead) {
+            builder.setReadMode(parseReadMode(PropertyUtil.getEmbeddedStorageReadMode()));
+        }
+        return builder.build();
+    }
+    
+    static ReadMode parseReadMode(String readMode) {
+        for (ReadMode mode : ReadMode.values()) {
+            if (mode != ReadMode.UNRECOGNIZED && mode.name().equalsIgnoreCase(readMode)) {
+                return mode;
+            }
+        }
+        return ReadMode.LINEARIZABLE;
+    }
+    
     /**
      * In some business situations, you need to avoid the timeout issue, so blockRead is used to determine this.
      *
@@ -455,6 +482,37 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
         }
     }
     
+    @Override
+    public List<Boolean> batchUpdate(List<List<ModifyRequest>> items, List<Map<String, String>> extendInfos) {
+        try {
+            LoggerUtils.printIfDebugEnabled(LogUtil.DEFAULT_LOG, "batch modifyRequests info : {}", items);
+            
+            final List<String> dumpEvents = extendInfos.stream()
+                    .map(extendInfo -> extendInfo.get(Constants.EXTEND_INFO_CONFIG_DUMP_EVENT))
+                    .collect(Collectors.toList());
+            final String key =
+                    System.currentTimeMillis() + "-" + group() + "-" + memberManager.getSelf().getAddress() + "-"
+                            + MD5Utils.md5Hex(items.toString(), Constants.ENCODE);
+            WriteRequest request = WriteRequest.newBuilder().setGroup(group()).setKey(key)
+                    .setData(ByteString.copyFrom(serializer.serialize(items)))
+                    .putExtendInfo(BATCH_UPDATE_KEY, Boolean.TRUE.toString())
+                    .putExtendInfo(Constants.EXTEND_INFO_BATCH_CONFIG_DUMP_EVENT, JacksonUtils.toJson(dumpEvents))
+                    .setType(items.getClass().getCanonicalName()).build();
+            Response response = this.protocol.write(request);
+            if (response.getSuccess()) {
+                return serializer.deserialize(response.getData().toByteArray(), List.class);
+            }
+            LogUtil.DEFAULT_LOG.error("execute sql batch modify operation failed : {}", response.getErrMsg());
+            return Collections.nCopies(items.size(), Boolean.FALSE);
+        } catch (TimeoutException e) {
+            LogUtil.FATAL_LOG.error("An timeout exception occurred during the batch update operation");
+            throw new NacosRuntimeException(NacosException.SERVER_ERROR, e.toString());
+        } catch (Throwable e) {
+            LogUtil.FATAL_LOG.error("An exception occurred during the batch update operation : {}", e);
+            throw new NacosRuntimeException(NacosException.SERVER_ERROR, e.toString());
+        }
+    }
+    
     @Override
     public List<SnapshotOperation> loadSnapshotOperate() {
         return Collections.singletonList(new DerbySnapshotOperation(writeLock));
@@ -515,6 +573,9 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
         LoggerUtils.printIfDebugEnabled(LogUtil.DEFAULT_LOG, "onApply info : log : {}", log);
         final ByteString byteString = log.getData();
         Preconditions.checkArgument(byteString != null, "Log.getData() must not null");
+        if (log.containsExtendInfo(BATCH_UPDATE_KEY)) {
+            return onApplyBatch(log);
+        }
         List<ModifyRequest> sqlContext = serializer.deserialize(byteString.toByteArray(), List.class);
         final Lock lock = readLock;
         lock.lock();
@@ -546,6 +607,22 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
         }
     }
     
+    private Response onApplyBatch(WriteRequest log) {
+        List<List<ModifyRequest>> items = serializer.deserialize(log.getData().toByteArray(), List.class);
+        final Lock lock = readLock;
+        lock.lock();
+        try {
+            final List<Boolean> results = batchUpdate(transactionTemplate, jdbcTemplate, items);
+            ConfigExecutor.executeEmbeddedDump(() -> handleBatchExtendInfo(log.getExtendInfoMap(), results));
+            return Response.newBuilder().setSuccess(true)
+                    .setData(ByteString.copyFrom(serializer.serialize(new ArrayList<>(results)))).build();
+        } catch (DataAccessException e) {
+            throw new ConsistencyException(e.toString());
+        } finally {
+            lock.unlock();
+        }
+    }
+    
     @Override
     public void onError(Throwable throwable) {
         // Trigger reversion strategy
@@ -557,6 +634,21 @@ public class DistributedDatabaseOperateImpl extends RequestProcessor4CP implemen
         return Constants.CONFIG_MODEL_RAFT_GROUP;
     }
     
+    private void handleBatchExtendInfo(Map<String, String> extendInfo, List<Boolean> results) {
+        String jsonVal = extendInfo.get(Constants.EXTEND_INFO_BATCH_CONFIG_DUMP_EVENT);
+        if (StringUtils.isBlank(jsonVal)) {
+            return;
+        }
+        List<String> events = JacksonUtils.toObj(jsonVal, new GenericType<List<String>>() {
+        }.getType());
+        for (int i = 0; i < events.size() && i < results.size(); i++) {
+            // Only the items that were actually written need to be dumped
+            if (results.get(i) && StringUtils.isNotBlank(events.get(i))) {
+                NotifyCenter.publishEvent(JacksonUtils.toObj(events.get(i), ConfigDumpEvent.class));
+            }
+        }
+    }
+    
     private void handleExtendInfo(Map<String, String> extendInfo) {
         if (extendInfo.containsKey(Constants.EXTEND_INFO_CONFIG_DUMP_EVENT)) {
             String jsonVal = extendInfo.get(Constants.EXTEND_INFO_CONFIG_DUMP_EVENT);
@@ -20,6 +20,7 @@ import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.exception.runtime.NacosRuntimeException;
 import com.alibaba.nacos.common.notify.NotifyCenter;
 import com.alibaba.nacos.common.utils.MD5Utils;
+import com.alibaba.nacos.common.utils.MapUtil;
 import com.alibaba.nacos.config.server.configuration.ConditionOnEmbeddedStorage;
 import com.alibaba.nacos.config.server.constant.Constants;
 import com.alibaba.nacos.config.server.enums.FileTypeEnum;
@@ -47,6 +48,7 @@ import com.alibaba.nacos.config.server.service.datasource.DynamicDataSource;
 import com.alibaba.nacos.config.server.service.repository.PaginationHelper;
 import com.alibaba.nacos.config.server.service.repository.PersistService;
 import com.alibaba.nacos.config.server.service.sql.EmbeddedStorageContextUtils;
+import com.alibaba.nacos.config.server.service.sql.ModifyRequest;
 import com.alibaba.nacos.config.server.utils.LogUtil;
 import com.alibaba.nacos.config.server.utils.ParamUtils;
 import com.alibaba.nacos.core.distributed.id.IdGeneratorManager;
@@ -415,6 +417,44 @@ public class EmbeddedStoragePersistServiceImpl implements PersistService {
         }
     }
     
+    @Override
+    public List<Boolean> batchInsertOrUpdate(List<ConfigInfo> configInfoList, String srcIp, String srcUser,
+            Timestamp time) {
+        final List<List<ModifyRequest>> items = new ArrayList<>(configInfoList.size());
+        final List<Map<String, String>> extendInfos = new ArrayList<>(configInfoList.size());
+        for (ConfigInfo configInfo : configInfoList) {
+            try {
+                final String tenantTmp =
+                        StringUtils.isBlank(configInfo.getTenant()) ? StringUtils.EMPTY : configInfo.getTenant();
+                configInfo.setTenant(tenantTmp);
+                Map<String, Object> configAdvanceInfo = new HashMap<>(2);
+                MapUtil.putIfValNoNull(configAdvanceInfo, "type", configInfo.getType());
+                
+                ConfigInfo oldConfigInfo = findConfigInfo(configInfo.getDataId(), configInfo.getGroup(), tenantTmp);
+                if (Objects.isNull(oldConfigInfo)) {
+                    long configId = idGeneratorManager.nextId(RESOURCE_CONFIG_INFO_ID);
+                    long hisId = idGeneratorManager.nextId(RESOURCE_CONFIG_HISTORY_ID);
+                    addConfigInfoAtomic(configId, srcIp, srcUser, configInfo, time, configAdvanceInfo);
+                    insertConfigHistoryAtomic(hisId, configInfo, srcIp, srcUser, time, "I");
+                } else {
+                    oldConfigInfo.setTenant(tenantTmp);
+                    if (configInfo.getAppName() == null) {
+                        configInfo.setAppName(oldConfigInfo.getAppName());
+                    }
+                    updateConfigInfoAtomic(configInfo, srcIp, srcUser, time, configAdvanceInfo);
+                    insertConfigHistoryAtomic(oldConfigInfo.getId(), oldConfigInfo, srcIp, srcUser, time, "U");
+                }
+                EmbeddedStorageContextUtils.onModifyConfigInfo(configInfo, srcIp, time);
+                items.add(new ArrayList<>(EmbeddedStorageContextUtils.getCurrentSqlContext()));
+                extendInfos.add(new HashMap<>(EmbeddedStorageContextUtils.getCurrentExtendInfo()));
+            } finally {
+                EmbeddedStorageContextUtils.cleanAllContext();
+            }
+        }
+        // All configs are replicated as a single log entry
+        return databaseOperate.batchUpdate(items, extendInfos);
+    }
+    
     @Override
     public void insertOrUpdateSub(SubInfo subInfo) {
         if (isAlreadyExist(subInfo)) {
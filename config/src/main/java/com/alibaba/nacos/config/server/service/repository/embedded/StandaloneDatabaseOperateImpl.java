@@ -131,6 +131,11 @@ public class StandaloneDatabaseOperateImpl implements BaseDatabaseOperate {
         return update(transactionTemplate, jdbcTemplate, modifyRequests, consumer);
     }
     
+    @Override
+    public List<Boolean> batchUpdate(List<List<ModifyRequest>> items, List<Map<String, String>> extendInfos) {
+        return batchUpdate(transactionTemplate, jdbcTemplate, items);
+    }
+    
     @Override
     public Boolean update(List<ModifyRequest> requestList) {
         return update(transactionTemplate, jdbcTemplate, requestList);
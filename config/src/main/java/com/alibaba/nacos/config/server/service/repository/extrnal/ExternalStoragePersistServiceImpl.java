@@ -18,6 +18,7 @@ package com.alibaba.nacos.config.server.service.repository.extrnal;
 
 import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.common.utils.MD5Utils;
+import com.alibaba.nacos.common.utils.MapUtil;
 import com.alibaba.nacos.config.server.configuration.ConditionOnExternalStorage;
 import com.alibaba.nacos.config.server.constant.Constants;
 import com.alibaba.nacos.config.server.enums.FileTypeEnum;
@@ -40,6 +41,7 @@ import com.alibaba.nacos.config.server.model.SubInfo;
 import com.alibaba.nacos.config.server.model.TenantInfo;
 import com.alibaba.nacos.config.server.service.datasource.DataSourceService;
 import com.alibaba.nacos.config.server.service.datasource.DynamicDataSource;
+import com.alibaba.nacos.config.server.service.repository.ConfigInfoContextUtils;
 import com.alibaba.nacos.config.server.service.repository.PaginationHelper;
 import com.alibaba.nacos.config.server.service.repository.PersistService;
 import com.alibaba.nacos.config.server.utils.LogUtil;
@@ -54,6 +56,7 @@ import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
 import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.PreparedStatementCreator;
 import org.springframework.jdbc.core.PreparedStatementSetter;
@@ -339,11 +342,48 @@ public class ExternalStoragePersistServiceImpl implements PersistService {
     @Override
     public void insertOrUpdate(String srcIp, String srcUser, ConfigInfo configInfo, Timestamp time,
             Map<String, Object> configAdvanceInfo, boolean notify) {
+        final String dataId = configInfo.getDataId();
+        final String group = configInfo.getGroup();
+        final String tenant = configInfo.getTenant();
         try {
-            addConfigInfo(srcIp, srcUser, configInfo, time, configAdvanceInfo, notify);
-        } catch (DataIntegrityViolationException ive) { // Unique constraint conflict
-            updateConfigInfo(configInfo, srcIp, srcUser, time, configAdvanceInfo, notify);
+            // The row has already been read in this request, skip the insert that is known to conflict
+            if (ConfigInfoContextUtils.getConfigInfo(dataId, group, tenant) != null) {
+                try {
+                    updateConfigInfo(configInfo, srcIp, srcUser, time, configAdvanceInfo, notify);
+                    return;
+                } catch (JdbcUpdateAffectedIncorrectNumberOfRowsException e) {
+                    // The row has been deleted since it was read, insert it again
+                    ConfigInfoContextUtils.remove(dataId, group, tenant);
+                }
+            }
+            try {
+                addConfigInfo(srcIp, srcUser, configInfo, time, configAdvanceInfo, notify);
+            } catch (DataIntegrityViolationException ive) { // Unique constraint conflict
+                ConfigInfoContextUtils.remove(dataId, group, tenant);
+                updateConfigInfo(configInfo, srcIp, srcUser, time, configAdvanceInfo, notify);
+            }
+        } finally {
+            ConfigInfoContextUtils.remove(dataId, group, tenant);
+        }
+    }
+    
+    @Override
+    public List<Boolean> batchInsertOrUpdate(List<ConfigInfo> configInfoList, String srcIp, String srcUser,
+            Timestamp time) {
+        List<Boolean> results = new ArrayList<>(configInfoList.size());
+        for (ConfigInfo configInfo : configInfoList) {
+            Map<String, Object> configAdvanceInfo = new HashMap<>(2);
+            MapUtil.putIfValNoNull(configAdvanceInfo, "type", configInfo.getType());
+            try {
+                insertOrUpdate(srcIp, srcUser, configInfo, time, configAdvanceInfo, true);
+                results.add(Boolean.TRUE);
+            } catch (DataAccessException e) {
+                LogUtil.FATAL_LOG.error("[db-error] batch insert or update config failed, dataId : {}, group : {}, "
+                        + "error : {}", configInfo.getDataId(), configInfo.getGroup(), e.toString());
+                results.add(Boolean.FALSE);
+            }
         }
+        return results;
     }
     
     @Override
@@ -370,6 +410,7 @@ public class ExternalStoragePersistServiceImpl implements PersistService {
                         removeTagByIdAtomic(configInfo.getId());
                         insertConfigHistoryAtomic(configInfo.getId(), configInfo, srcIp, srcUser, time, "D");
                     }
+                    ConfigInfoContextUtils.remove(dataId, group, tenant);
                 } catch (CannotGetJdbcConnectionException e) {
                     LogUtil.FATAL_LOG.error("[db-error] " + e.toString(), e);
                     throw e;
@@ -765,11 +806,17 @@ public class ExternalStoragePersistServiceImpl implements PersistService {
     @Override
     public ConfigInfo findConfigInfo(final String dataId, final String group, final String tenant) {
         final String tenantTmp = StringUtils.isBlank(tenant) ? StringUtils.EMPTY : tenant;
+        if (ConfigInfoContextUtils.contains(dataId, group, tenantTmp)) {
+            return ConfigInfoContextUtils.getConfigInfo(dataId, group, tenantTmp);
+        }
         try {
-            return this.jt.queryForObject(
+            ConfigInfo configInfo = this.jt.queryForObject(
                     "SELECT ID,data_id,group_id,tenant_id,app_name,content,md5,type FROM config_info WHERE data_id=? AND group_id=? AND tenant_id=?",
                     new Object[] {dataId, group, tenantTmp}, CONFIG_INFO_ROW_MAPPER);
+            ConfigInfoContextUtils.putConfigInfo(dataId, group, tenantTmp, configInfo);
+            return configInfo;
         } catch (EmptyResultDataAccessException e) { // Indicates that the data does not exist, returns null.
+            ConfigInfoContextUtils.putConfigInfo(dataId, group, tenantTmp, null);
             return null;
         } catch (CannotGetJdbcConnectionException e) {
             LogUtil.FATAL_LOG.error("[db-error] " + e.toString(), e);
@@ -2120,11 +2167,15 @@ public class ExternalStoragePersistServiceImpl implements PersistService {
         String schema = configAdvanceInfo == null ? null : (String) configAdvanceInfo.get("schema");
         
         try {
-            jt.update("UPDATE config_info SET content=?, md5 = ?, src_ip=?,src_user=?,gmt_modified=?,"
-                            + "app_name=?,c_desc=?,c_use=?,effect=?,type=?,c_schema=? "
-                            + "WHERE data_id=? AND group_id=? AND tenant_id=?", configInfo.getContent(), md5Tmp, srcIp, srcUser,
-                    time, appNameTmp, desc, use, effect, type, schema, configInfo.getDataId(), configInfo.getGroup(),
-                    tenantTmp);
+            String sql = "UPDATE config_info SET content=?, md5 = ?, src_ip=?,src_user=?,gmt_modified=?,"
+                    + "app_name=?,c_desc=?,c_use=?,effect=?,type=?,c_schema=? "
+                    + "WHERE data_id=? AND group_id=? AND tenant_id=?";
+            int updated = jt.update(sql, configInfo.getContent(), md5Tmp, srcIp, srcUser, time, appNameTmp, desc, use,
+                    effect, type, schema, configInfo.getDataId(), configInfo.getGroup(), tenantTmp);
+            // The row may be deleted after it was read, fail instead of losing the write silently
+            if (updated == 0) {
+                throw new JdbcUpdateAffectedIncorrectNumberOfRowsException(sql, 1, updated);
+            }
         } catch (CannotGetJdbcConnectionException e) {
             LogUtil.FATAL_LOG.error("[db-error] " + e.toString(), e);
             throw e;
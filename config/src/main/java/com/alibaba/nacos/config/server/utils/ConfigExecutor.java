@@ -77,6 +77,11 @@ public final class ConfigExecutor {
         CAPACITY_MANAGEMENT_EXECUTOR.scheduleWithFixedDelay(runnable, initialDelay, delay, unit);
     }
     
+    public static void scheduleCapacityUsageFlushTask(Runnable runnable, long initialDelay, long delay,
+            TimeUnit unit) {
+        CAPACITY_MANAGEMENT_EXECUTOR.scheduleWithFixedDelay(runnable, initialDelay, delay, unit);
+    }
+    
     public static void executeAsyncNotify(Runnable runnable) {
         ASYNC_NOTIFY_EXECUTOR.execute(runnable);
     }
@@ -85,6 +90,10 @@ public final class ConfigExecutor {
         ASYNC_NOTIFY_EXECUTOR.schedule(command, delay, unit);
     }
     
+    public static ScheduledExecutorService getAsyncNotifyExecutor() {
+        return ASYNC_NOTIFY_EXECUTOR;
+    }
+    
     public static int asyncNotifyQueueSize() {
         return ((ScheduledThreadPoolExecutor) ASYNC_NOTIFY_EXECUTOR).getQueue().size();
     }
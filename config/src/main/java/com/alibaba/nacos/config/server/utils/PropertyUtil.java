@@ -91,6 +91,16 @@ public class PropertyUtil implements ApplicationContextInitializer<ConfigurableA
      */
     private static int correctUsageDelay = 10 * 60;
     
+    /**
+     * Whether to count the capacity usage in memory and flush it to the capacity table asynchronously.
+     */
+    private static boolean isCapacityUsageInMemory = false;
+    
+    /**
+     * The time interval of flushing capacity usage counted in memory, the unit is in seconds.
+     */
+    private static int capacityUsageFlushInterval = 5;
+    
     /**
      * Standalone mode uses DB.
      */
@@ -101,6 +111,11 @@ public class PropertyUtil implements ApplicationContextInitializer<ConfigurableA
      */
     private static boolean embeddedStorage = EnvUtil.getStandaloneMode();
     
+    /**
+     * How the embedded storage serves reads in cluster mode, one of LINEARIZABLE, LEASE and LOCAL.
+     */
+    private static String embeddedStorageReadMode = "LINEARIZABLE";
+    
     public static int getNotifyConnectTimeout() {
         return notifyConnectTimeout;
     }
@@ -221,6 +236,22 @@ public class PropertyUtil implements ApplicationContextInitializer<ConfigurableA
         PropertyUtil.correctUsageDelay = correctUsageDelay;
     }
     
+    public static boolean isCapacityUsageInMemory() {
+        return isCapacityUsageInMemory;
+    }
+    
+    public static void setCapacityUsageInMemory(boolean isCapacityUsageInMemory) {
+        PropertyUtil.isCapacityUsageInMemory = isCapacityUsageInMemory;
+    }
+    
+    public static int getCapacityUsageFlushInterval() {
+        return capacityUsageFlushInterval;
+    }
+    
+    public static void setCapacityUsageFlushInterval(int capacityUsageFlushInterval) {
+        PropertyUtil.capacityUsageFlushInterval = capacityUsageFlushInterval;
+    }
+    
     public static boolean isStandaloneMode() {
         return EnvUtil.getStandaloneMode();
     }
@@ -249,6 +280,14 @@ public class PropertyUtil implements ApplicationContextInitializer<ConfigurableA
         PropertyUtil.embeddedStorage = embeddedStorage;
     }
     
+    public static String getEmbeddedStorageReadMode() {
+        return embeddedStorageReadMode;
+    }
+    
+    public static void setEmbeddedStorageReadMode(String embeddedStorageReadMode) {
+        PropertyUtil.embeddedStorageReadMode = embeddedStorageReadMode;
+    }
+    
     private void loadSetting() {
         try {
             setNotifyConnectTimeout(Integer.parseInt(EnvUtil.getProperty("notifyConnectTimeout", "100")));
@@ -271,7 +310,10 @@ public class PropertyUtil implements ApplicationContextInitializer<ConfigurableA
             setDefaultMaxAggrCount(getInt("defaultMaxAggrCount", defaultMaxAggrCount));
             setDefaultMaxAggrSize(getInt("defaultMaxAggrSize", defaultMaxAggrSize));
             setCorrectUsageDelay(getInt("correctUsageDelay", correctUsageDelay));
+            setCapacityUsageInMemory(getBoolean("isCapacityUsageInMemory", isCapacityUsageInMemory));
+            setCapacityUsageFlushInterval(getInt("capacityUsageFlushInterval", capacityUsageFlushInterval));
             setInitialExpansionPercent(getInt("initialExpansionPercent", initialExpansionPercent));
+            setEmbeddedStorageReadMode(getString("embeddedStorageReadMode", embeddedStorageReadMode));
             // External data sources are used by default in cluster mode
             setUseExternalDB("mysql".equalsIgnoreCase(getString("spring.datasource.platform", "")));
             
@@ -0,0 +1,177 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.aspect;
+
+import com.alibaba.nacos.common.model.RestResult;
+import com.alibaba.nacos.common.model.RestResultUtils;
+import com.alibaba.nacos.config.server.constant.CounterMode;
+import com.alibaba.nacos.config.server.model.ConfigInfo;
+import com.alibaba.nacos.config.server.service.capacity.CapacityService;
+import com.alibaba.nacos.config.server.service.repository.PersistService;
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class CapacityManagementAspectTest {
+    
+    @InjectMocks
+    private CapacityManagementAspect aspect;
+    
+    @Mock
+    private CapacityService capacityService;
+    
+    @Mock
+    private PersistService persistService;
+    
+    @Mock
+    private ProceedingJoinPoint pjp;
+    
+    private boolean manageCapacity;
+    
+    private boolean capacityLimitCheck;
+    
+    @Before
+    public void setUp() {
+        manageCapacity = PropertyUtil.isManageCapacity();
+        capacityLimitCheck = PropertyUtil.isCapacityLimitCheck();
+        PropertyUtil.setManageCapacity(true);
+        PropertyUtil.setCapacityLimitCheck(true);
+        
+        // "a" exists, "b" and "c" are new, the quota of GROUP_C is used up
+        Mockito.when(persistService.findConfigInfo(eq("a"), anyString(), anyString()))
+                .thenReturn(new ConfigInfo("a", "GROUP_A", "a"));
+        Mockito.when(capacityService.insertAndUpdateClusterUsage(CounterMode.INCREMENT, false)).thenReturn(true);
+        Mockito.when(capacityService.updateClusterUsage(any())).thenReturn(true);
+        Mockito.when(capacityService.updateGroupUsage(CounterMode.INCREMENT, "GROUP_B")).thenReturn(true);
+        Mockito.when(capacityService.updateGroupUsage(CounterMode.INCREMENT, "GROUP_C")).thenReturn(false);
+    }
+    
+    @After
+    public void tearDown() {
+        PropertyUtil.setManageCapacity(manageCapacity);
+        PropertyUtil.setCapacityLimitCheck(capacityLimitCheck);
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBatchPublishLeavesOutConfigsOverQuota() throws Throwable {
+        Mockito.when(pjp.proceed(any(Object[].class)))
+                .thenReturn(RestResultUtils.success(Arrays.asList(result("a", true), result("b", true))));
+        
+        RestResult<List<Map<String, Object>>> result = (RestResult<List<Map<String, Object>>>) aspect
+                .aroundBatchPublishConfig(pjp, new MockHttpServletRequest(), "", configInfos());
+        
+        ArgumentCaptor<Object[]> captor = ArgumentCaptor.forClass(Object[].class);
+        Mockito.verify(pjp).proceed(captor.capture());
+        List<ConfigInfo> accepted = (List<ConfigInfo>) captor.getValue()[2];
+        Assert.assertEquals(2, accepted.size());
+        Assert.assertEquals("a", accepted.get(0).getDataId());
+        Assert.assertEquals("b", accepted.get(1).getDataId());
+        
+        List<Map<String, Object>> results = result.getData();
+        Assert.assertEquals(3, results.size());
+        Assert.assertEquals(true, results.get(0).get("success"));
+        Assert.assertEquals(true, results.get(1).get("success"));
+        Assert.assertEquals("c", results.get(2).get("dataId"));
+        Assert.assertEquals(false, results.get(2).get("success"));
+        Assert.assertEquals(CapacityManagementAspect.LimitType.OVER_GROUP_QUOTA.name(), results.get(2).get("message"));
+        
+        // only the cluster usage counted for "c" is given back
+        Mockito.verify(capacityService, Mockito.times(1)).updateClusterUsage(CounterMode.DECREMENT);
+        Mockito.verify(capacityService, Mockito.never()).updateGroupUsage(CounterMode.DECREMENT, "GROUP_B");
+    }
+    
+    @Test
+    public void testBatchPublishRollbackFailedInsert() throws Throwable {
+        Mockito.when(pjp.proceed(any(Object[].class)))
+                .thenReturn(RestResultUtils.success(Arrays.asList(result("a", false), result("b", false))));
+        
+        aspect.aroundBatchPublishConfig(pjp, new MockHttpServletRequest(), "", configInfos());
+        
+        // "c" was over quota, "b" was not written, the update of "a" counted nothing
+        Mockito.verify(capacityService, Mockito.times(2)).updateClusterUsage(CounterMode.DECREMENT);
+        Mockito.verify(capacityService).updateGroupUsage(CounterMode.DECREMENT, "GROUP_B");
+        Mockito.verify(capacityService, Mockito.never()).updateGroupUsage(CounterMode.DECREMENT, "GROUP_A");
+    }
+    
+    @Test
+    public void testBatchPublishRollbackOnException() throws Throwable {
+        Mockito.when(pjp.proceed(any(Object[].class))).thenThrow(new IllegalStateException("test"));
+        try {
+            aspect.aroundBatchPublishConfig(pjp, new MockHttpServletRequest(), "", configInfos());
+            Assert.fail();
+        } catch (IllegalStateException ignored) {
+        }
+        Mockito.verify(capacityService).updateGroupUsage(CounterMode.DECREMENT, "GROUP_B");
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBatchPublishOverMaxSize() throws Throwable {
+        char[] content = new char[PropertyUtil.getDefaultMaxSize() + 1];
+        Arrays.fill(content, 'a');
+        List<ConfigInfo> configInfos = new ArrayList<>();
+        configInfos.add(new ConfigInfo("a", "GROUP_A", new String(content)));
+        Mockito.when(pjp.proceed(any(Object[].class))).thenReturn(RestResultUtils.success(new ArrayList<>()));
+        
+        Object result = aspect.aroundBatchPublishConfig(pjp, new MockHttpServletRequest(), "", configInfos);
+        
+        Assert.assertEquals(CapacityManagementAspect.LimitType.OVER_MAX_SIZE.name(),
+                ((RestResult<List<Map<String, Object>>>) result).getData().get(0).get("message"));
+    }
+    
+    @Test
+    public void testBatchPublishWithoutCapacityManagement() throws Throwable {
+        PropertyUtil.setManageCapacity(false);
+        aspect.aroundBatchPublishConfig(pjp, new MockHttpServletRequest(), "", configInfos());
+        Mockito.verify(pjp).proceed();
+        Mockito.verifyZeroInteractions(capacityService);
+    }
+    
+    private List<ConfigInfo> configInfos() {
+        return new ArrayList<>(Arrays.asList(new ConfigInfo("a", "GROUP_A", "a"), new ConfigInfo("b", "GROUP_B", "b"),
+                new ConfigInfo("c", "GROUP_C", "c")));
+    }
+    
+    private Map<String, Object> result(String dataId, boolean success) {
+        Map<String, Object> result = new HashMap<>(4);
+        result.put("dataId", dataId);
+        result.put("success", success);
+        return result;
+    }
+}
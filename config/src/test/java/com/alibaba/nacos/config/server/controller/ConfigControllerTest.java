@@ -0,0 +1,110 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.controller;
+
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.common.model.RestResult;
+import com.alibaba.nacos.config.server.constant.Constants;
+import com.alibaba.nacos.config.server.model.ConfigInfo;
+import com.alibaba.nacos.config.server.service.ConfigSubService;
+import com.alibaba.nacos.config.server.service.repository.PersistService;
+import com.alibaba.nacos.sys.env.EnvUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+
+public class ConfigControllerTest {
+    
+    private PersistService persistService;
+    
+    private ConfigController configController;
+    
+    @Before
+    public void setUp() {
+        EnvUtil.setEnvironment(new MockEnvironment());
+        persistService = Mockito.mock(PersistService.class);
+        configController = new ConfigController(Mockito.mock(ConfigServletInner.class), persistService,
+                Mockito.mock(ConfigSubService.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBatchPublishConfig() throws NacosException {
+        Mockito.when(persistService.batchInsertOrUpdate(anyList(), any(), any(), any()))
+                .thenReturn(Arrays.asList(true, false));
+        List<ConfigInfo> configInfos = new ArrayList<>(
+                Arrays.asList(new ConfigInfo("a.properties", "DEFAULT_GROUP", "a=1"), null,
+                        new ConfigInfo("", "DEFAULT_GROUP", "b=1"),
+                        new ConfigInfo("c.yaml", "DEFAULT_GROUP", "c: 1")));
+        
+        RestResult<List<Map<String, Object>>> result = configController
+                .batchPublishConfig(new MockHttpServletRequest(), "tenant", configInfos);
+        
+        Assert.assertTrue(result.ok());
+        List<Map<String, Object>> results = result.getData();
+        Assert.assertEquals(3, results.size());
+        Assert.assertEquals("a.properties", results.get(0).get("dataId"));
+        Assert.assertEquals(true, results.get(0).get("success"));
+        Assert.assertEquals(false, results.get(1).get("success"));
+        Assert.assertNotNull(results.get(1).get("message"));
+        Assert.assertEquals("c.yaml", results.get(2).get("dataId"));
+        Assert.assertEquals(false, results.get(2).get("success"));
+        
+        // only the valid configs are written, all in one batch
+        ArgumentCaptor<List<ConfigInfo>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(persistService).batchInsertOrUpdate(captor.capture(), any(), any(), any(Timestamp.class));
+        Assert.assertEquals(2, captor.getValue().size());
+        Assert.assertEquals("tenant", captor.getValue().get(0).getTenant());
+        Assert.assertEquals("text", captor.getValue().get(0).getType());
+    }
+    
+    @Test
+    public void testBatchPublishConfigWithoutValidConfig() throws NacosException {
+        List<ConfigInfo> configInfos = new ArrayList<>(
+                Arrays.asList(new ConfigInfo("a.properties", "", "a=1"), new ConfigInfo("b", "DEFAULT_GROUP", "")));
+        
+        RestResult<List<Map<String, Object>>> result = configController
+                .batchPublishConfig(new MockHttpServletRequest(), "", configInfos);
+        
+        Assert.assertEquals(2, result.getData().size());
+        Assert.assertEquals(false, result.getData().get(0).get("success"));
+        Assert.assertEquals(false, result.getData().get(1).get("success"));
+        Mockito.verify(persistService, Mockito.never()).batchInsertOrUpdate(anyList(), any(), any(), any());
+    }
+    
+    @Test(expected = NacosException.class)
+    public void testBatchPublishTooManyConfigs() throws NacosException {
+        List<ConfigInfo> configInfos = new ArrayList<>();
+        for (int i = 0; i <= Constants.ATOMIC_MAX_SIZE; i++) {
+            configInfos.add(new ConfigInfo("data" + i, "DEFAULT_GROUP", "content"));
+        }
+        configController.batchPublishConfig(new MockHttpServletRequest(), "", configInfos);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.remote;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConfigChangeListenContextTest {
+    
+    private static final int CONNECTIONS = 200;
+    
+    private static final int KEYS = 500;
+    
+    @Test
+    public void testAddAndRemoveListen() {
+        ConfigChangeListenContext context = new ConfigChangeListenContext();
+        context.addListen("key1", "md5", "conn1");
+        context.addListen("key1", "md5", "conn2");
+        context.addListen("key2", "md5", "conn1");
+        Assert.assertEquals(2, context.getListeners("key1").size());
+        Assert.assertEquals("md5", context.getListenKeyMd5("conn1", "key2"));
+        
+        context.removeListen("key2", "conn1");
+        Assert.assertTrue(context.getListeners("key2").isEmpty());
+        Assert.assertNull(context.getListenKeyMd5("conn1", "key2"));
+        
+        context.clearContextForConnectionId("conn1");
+        Assert.assertEquals(1, context.getListeners("key1").size());
+        Assert.assertTrue(context.getListeners("key1").contains("conn2"));
+        Assert.assertNull(context.getListenKeys("conn1"));
+    }
+    
+    /**
+     * Connections reconnect and register all their keys again while config changes are pushed.
+     */
+    @Test
+    public void testReconnectStormWithPublish() throws Exception {
+        final ConfigChangeListenContext context = new ConfigChangeListenContext();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        final AtomicBoolean storming = new AtomicBoolean(true);
+        final AtomicReference<Throwable> publishError = new AtomicReference<Throwable>();
+        final CountDownLatch publisherStopped = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                while (storming.get()) {
+                    for (int i = 0; i < KEYS; i++) {
+                        for (String each : context.getListeners(groupKey(i))) {
+                            Assert.assertNotNull(each);
+                        }
+                    }
+                }
+            } catch (Throwable e) {
+                publishError.set(e);
+            }
+            publisherStopped.countDown();
+        });
+        final CountDownLatch registered = new CountDownLatch(CONNECTIONS);
+        for (int c = 0; c < CONNECTIONS; c++) {
+            final String connectionId = "conn" + c;
+            executor.execute(() -> {
+                for (int i = 0; i < KEYS; i++) {
+                    context.addListen(groupKey(i), "md5", connectionId);
+                }
+                // the old connection of the client is closed after the client reconnected.
+                context.clearContextForConnectionId(connectionId);
+                for (int i = 0; i < KEYS; i++) {
+                    context.addListen(groupKey(i), "md5", connectionId + "-new");
+                }
+                registered.countDown();
+            });
+        }
+        Assert.assertTrue(registered.await(60, TimeUnit.SECONDS));
+        storming.set(false);
+        Assert.assertTrue(publisherStopped.await(10, TimeUnit.SECONDS));
+        executor.shutdown();
+        Assert.assertNull(publishError.get());
+        
+        for (int i = 0; i < KEYS; i++) {
+            Set<String> listeners = context.getListeners(groupKey(i));
+            Assert.assertEquals(CONNECTIONS, listeners.size());
+            for (String each : listeners) {
+                Assert.assertTrue(each.endsWith("-new"));
+            }
+        }
+        for (int c = 0; c < CONNECTIONS; c++) {
+            Assert.assertEquals(KEYS, context.getListenKeys("conn" + c + "-new").size());
+            Assert.assertNull(context.getListenKeys("conn" + c));
+            Assert.assertEquals(0, context.getCost("conn" + c));
+        }
+    }
+    
+    /**
+     * A connection is cleared while its listen requests are still being handled, the listens added are either cleared
+     * or kept in both the listeners and the listen keys.
+     */
+    @Test
+    public void testAddListenRacingClear() throws Exception {
+        final ConfigChangeListenContext context = new ConfigChangeListenContext();
+        ExecutorService executor = Executors.newFixedThreadPool(2 * CONNECTIONS / 10);
+        final CountDownLatch done = new CountDownLatch(2 * CONNECTIONS / 10);
+        for (int c = 0; c < CONNECTIONS / 10; c++) {
+            final String connectionId = "conn" + c;
+            executor.execute(() -> {
+                for (int i = 0; i < KEYS; i++) {
+                    context.addListen(groupKey(i), "md5", connectionId);
+                }
+                done.countDown();
+            });
+            executor.execute(() -> {
+                for (int i = 0; i < KEYS / 10; i++) {
+                    context.clearContextForConnectionId(connectionId);
+                }
+                done.countDown();
+            });
+        }
+        Assert.assertTrue(done.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+        
+        for (int c = 0; c < CONNECTIONS / 10; c++) {
+            String connectionId = "conn" + c;
+            Map<String, String> listenKeys = context.getListenKeys(connectionId);
+            for (int i = 0; i < KEYS; i++) {
+                boolean listened = listenKeys != null && listenKeys.containsKey(groupKey(i));
+                Assert.assertEquals(listened, context.getListeners(groupKey(i)).contains(connectionId));
+            }
+            context.clearContextForConnectionId(connectionId);
+        }
+        for (int i = 0; i < KEYS; i++) {
+            Assert.assertTrue(context.getListeners(groupKey(i)).isEmpty());
+        }
+    }
+    
+    private static String groupKey(int index) {
+        return "dataId" + index + "+DEFAULT_GROUP";
+    }
+}
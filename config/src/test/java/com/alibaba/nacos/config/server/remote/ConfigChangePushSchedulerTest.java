@@ -0,0 +1,86 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.remote;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+public class ConfigChangePushSchedulerTest {
+    
+    @Test
+    public void testMaxInFlightAndPriority() {
+        ConfigChangePushScheduler scheduler = new ConfigChangePushScheduler(0, 2, 0, Collections.<String>emptySet(),
+                Mockito.mock(ScheduledExecutorService.class));
+        List<String> pushed = new ArrayList<String>();
+        scheduler.submit(() -> pushed.add("normal1"), false);
+        scheduler.submit(() -> pushed.add("normal2"), false);
+        scheduler.submit(() -> pushed.add("priority"), true);
+        scheduler.dispatch();
+        Assert.assertEquals(Arrays.asList("priority", "normal1"), pushed);
+        Assert.assertEquals(2, scheduler.getInFlight());
+        Assert.assertEquals(1, scheduler.getQueued());
+        
+        scheduler.release();
+        scheduler.dispatch();
+        Assert.assertEquals(Arrays.asList("priority", "normal1", "normal2"), pushed);
+        Assert.assertEquals(0, scheduler.getQueued());
+    }
+    
+    @Test
+    public void testRate() {
+        ConfigChangePushScheduler scheduler = new ConfigChangePushScheduler(100, 0, 0, Collections.<String>emptySet(),
+                Mockito.mock(ScheduledExecutorService.class));
+        List<String> pushed = new ArrayList<String>();
+        for (int i = 0; i < 100; i++) {
+            scheduler.submit(() -> pushed.add("push"), false);
+        }
+        long now = System.currentTimeMillis() + 1000L;
+        scheduler.dispatch(now);
+        // the burst is 100 milliseconds of permits at most.
+        Assert.assertEquals(10, pushed.size());
+        scheduler.dispatch(now);
+        Assert.assertEquals(10, pushed.size());
+        scheduler.dispatch(now + 50L);
+        Assert.assertEquals(15, pushed.size());
+        Assert.assertEquals(85, scheduler.getQueued());
+    }
+    
+    @Test
+    public void testMaxQueued() {
+        ConfigChangePushScheduler scheduler = new ConfigChangePushScheduler(0, 1, 2, Collections.<String>emptySet(),
+                Mockito.mock(ScheduledExecutorService.class));
+        List<String> pushed = new ArrayList<String>();
+        Assert.assertTrue(scheduler.submit(() -> pushed.add("push1"), false));
+        Assert.assertTrue(scheduler.submit(() -> pushed.add("push2"), true));
+        Assert.assertFalse(scheduler.submit(() -> pushed.add("push3"), false));
+        Assert.assertFalse(scheduler.submit(() -> pushed.add("push4"), true));
+        Assert.assertEquals(2, scheduler.getQueued());
+        Assert.assertEquals(2, scheduler.getDropped());
+        
+        scheduler.dispatch();
+        Assert.assertEquals(Collections.singletonList("push2"), pushed);
+        Assert.assertTrue(scheduler.submit(() -> pushed.add("push5"), false));
+        Assert.assertEquals(2, scheduler.getDropped());
+    }
+}
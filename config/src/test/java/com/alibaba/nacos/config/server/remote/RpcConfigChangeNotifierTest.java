@@ -0,0 +1,175 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.remote;
+
+import com.alibaba.nacos.api.config.remote.request.ConfigChangeNotifyRequest;
+import com.alibaba.nacos.api.remote.PushCallBack;
+import com.alibaba.nacos.api.remote.RemoteConstants;
+import com.alibaba.nacos.common.utils.MD5Utils;
+import com.alibaba.nacos.config.server.constant.Constants;
+import com.alibaba.nacos.config.server.model.event.LocalDataChangeEvent;
+import com.alibaba.nacos.core.remote.Connection;
+import com.alibaba.nacos.core.remote.ConnectionManager;
+import com.alibaba.nacos.core.remote.ConnectionMetaInfo;
+import com.alibaba.nacos.core.remote.PreparedRequest;
+import com.alibaba.nacos.core.remote.RpcPushService;
+import com.alibaba.nacos.sys.env.EnvUtil;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+
+public class RpcConfigChangeNotifierTest {
+    
+    private static final String GROUP_KEY = "dataId+group+tenant";
+    
+    private ConfigChangeListenContext listenContext;
+    
+    private ConnectionManager connectionManager;
+    
+    private RpcPushService rpcPushService;
+    
+    private ConfigChangePushScheduler pushScheduler;
+    
+    private RpcConfigChangeNotifier notifier;
+    
+    @Before
+    public void setUp() {
+        EnvUtil.setEnvironment(new MockEnvironment());
+        listenContext = new ConfigChangeListenContext();
+        connectionManager = Mockito.mock(ConnectionManager.class);
+        rpcPushService = Mockito.mock(RpcPushService.class);
+        ScheduledExecutorService executor = Mockito.mock(ScheduledExecutorService.class);
+        Mockito.doAnswer(invocation -> {
+            ((Runnable) invocation.getArgument(0)).run();
+            return null;
+        }).when(executor).execute(ArgumentMatchers.any(Runnable.class));
+        pushScheduler = new ConfigChangePushScheduler(0, 0, 0, Collections.<String>emptySet(), executor);
+        notifier = new RpcConfigChangeNotifier();
+        notifier.configChangeListenContext = listenContext;
+        ReflectionTestUtils.setField(notifier, "connectionManager", connectionManager);
+        ReflectionTestUtils.setField(notifier, "rpcPushService", rpcPushService);
+        ReflectionTestUtils.setField(notifier, "pushScheduler", pushScheduler);
+    }
+    
+    @Test
+    public void testFanOutSharesPreparedRequests() {
+        listen("conn1", "127.0.0.1", false);
+        listen("conn2", "127.0.0.2", true);
+        listen("conn3", "127.0.0.3", true);
+        // the connection is closed but its listen context is not cleared yet.
+        listenContext.addListen(GROUP_KEY, "md5", "closed");
+        ConfigChangeNotifyRequest notifyRequest = ConfigChangeNotifyRequest.build("dataId", "group", "tenant");
+        ConfigChangeNotifyRequest contentRequest = ConfigChangeNotifyRequest.build("dataId", "group", "tenant");
+        contentRequest.setContent("a=b");
+        notifier.configDataChanged(GROUP_KEY, notifyRequest, contentRequest, false, null, "a=b");
+        
+        ArgumentCaptor<String> clients = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<PreparedRequest> requests = ArgumentCaptor.forClass(PreparedRequest.class);
+        ArgumentCaptor<PushCallBack> callBacks = ArgumentCaptor.forClass(PushCallBack.class);
+        Mockito.verify(rpcPushService, Mockito.times(3))
+                .pushWithCallback(clients.capture(), requests.capture(), callBacks.capture(),
+                        ArgumentMatchers.any(Executor.class));
+        Map<String, PreparedRequest> pushed = new HashMap<String, PreparedRequest>(4);
+        for (int i = 0; i < clients.getAllValues().size(); i++) {
+            pushed.put(clients.getAllValues().get(i), requests.getAllValues().get(i));
+        }
+        Assert.assertEquals(3, pushed.size());
+        Assert.assertSame(notifyRequest, pushed.get("conn1").getRequest());
+        // the connections accepting content share one prepared request, so the body is serialized once.
+        Assert.assertSame(pushed.get("conn2"), pushed.get("conn3"));
+        Assert.assertSame(contentRequest, pushed.get("conn2").getRequest());
+        
+        Assert.assertEquals(3, pushScheduler.getInFlight());
+        for (PushCallBack each : callBacks.getAllValues()) {
+            each.onSuccess();
+        }
+        Assert.assertEquals(0, pushScheduler.getInFlight());
+    }
+    
+    @Test
+    public void testBetaPushedToBetaIpsOnly() {
+        listen("conn1", "127.0.0.1", false);
+        listen("conn2", "127.0.0.2", false);
+        ConfigChangeNotifyRequest notifyRequest = ConfigChangeNotifyRequest.build("dataId", "group", "tenant");
+        List<String> betaIps = Arrays.asList("127.0.0.2", "127.0.0.3");
+        notifier.configDataChanged(GROUP_KEY, notifyRequest, null, true, betaIps, "a=b");
+        
+        Mockito.verify(rpcPushService).pushWithCallback(ArgumentMatchers.eq("conn2"),
+                ArgumentMatchers.any(PreparedRequest.class), ArgumentMatchers.any(PushCallBack.class),
+                ArgumentMatchers.any(Executor.class));
+        Mockito.verify(rpcPushService, Mockito.never()).pushWithCallback(ArgumentMatchers.eq("conn1"),
+                ArgumentMatchers.any(PreparedRequest.class), ArgumentMatchers.any(PushCallBack.class),
+                ArgumentMatchers.any(Executor.class));
+    }
+    
+    @Test
+    public void testBuildContentRequest() {
+        LocalDataChangeEvent event = new LocalDataChangeEvent(GROUP_KEY, "a=b", "properties", 100L);
+        ConfigChangeNotifyRequest request = RpcConfigChangeNotifier
+                .buildContentRequest(event, "dataId", "group", "tenant", 1024);
+        Assert.assertNotNull(request);
+        Assert.assertEquals("dataId", request.getDataId());
+        Assert.assertEquals("a=b", request.getContent());
+        Assert.assertEquals("properties", request.getContentType());
+        Assert.assertEquals(MD5Utils.md5Hex("a=b", Constants.ENCODE), request.getMd5());
+        Assert.assertEquals(100L, request.getLastModified());
+    }
+    
+    @Test
+    public void testBuildContentRequestSkipped() {
+        LocalDataChangeEvent large = new LocalDataChangeEvent(GROUP_KEY, "a=bcd", "properties", 100L);
+        Assert.assertNull(RpcConfigChangeNotifier.buildContentRequest(large, "dataId", "group", "tenant", 4));
+        Assert.assertNull(RpcConfigChangeNotifier.buildContentRequest(large, "dataId", "group", "tenant", 0));
+        
+        LocalDataChangeEvent removed = new LocalDataChangeEvent(GROUP_KEY, 100L);
+        Assert.assertNull(RpcConfigChangeNotifier.buildContentRequest(removed, "dataId", "group", "tenant", 1024));
+        
+        LocalDataChangeEvent beta = new LocalDataChangeEvent(GROUP_KEY, true, Collections.singletonList("127.0.0.1"),
+                "a=b", "properties", 100L);
+        Assert.assertNull(RpcConfigChangeNotifier.buildContentRequest(beta, "dataId", "group", "tenant", 1024));
+        
+        LocalDataChangeEvent tag = new LocalDataChangeEvent(GROUP_KEY, false, null, "tag", "a=b", "properties", 100L);
+        Assert.assertNull(RpcConfigChangeNotifier.buildContentRequest(tag, "dataId", "group", "tenant", 1024));
+    }
+    
+    private void listen(String connectionId, String clientIp, boolean pushContent) {
+        Map<String, String> labels = new HashMap<String, String>(4);
+        labels.put(RemoteConstants.LABEL_SOURCE, RemoteConstants.LABEL_SOURCE_SDK);
+        if (pushContent) {
+            labels.put(RemoteConstants.LABEL_CONFIG_PUSH_CONTENT, Boolean.TRUE.toString());
+        }
+        ConnectionMetaInfo metaInfo = new ConnectionMetaInfo(connectionId, clientIp, 8080, 9848, "GRPC", "2.0.0",
+                "app", labels);
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.getMetaInfo()).thenReturn(metaInfo);
+        Mockito.when(connectionManager.getConnection(connectionId)).thenReturn(connection);
+        listenContext.addListen(GROUP_KEY, "md5", connectionId);
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.capacity;
+
+import com.alibaba.nacos.config.server.model.capacity.Capacity;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class CapacityUsageCounterTest {
+    
+    @Test
+    public void testIncrementWithQuotaLimit() {
+        CapacityUsageCounter counter = new CapacityUsageCounter(capacity(0, 1));
+        Assert.assertTrue(counter.incrementWithQuotaLimit(2));
+        Assert.assertFalse(counter.incrementWithQuotaLimit(2));
+        Assert.assertEquals(2, counter.getUsage());
+        
+        counter = new CapacityUsageCounter(capacity(3, 1));
+        Assert.assertTrue(counter.incrementWithQuotaLimit(2));
+        Assert.assertTrue(counter.incrementWithQuotaLimit(2));
+        Assert.assertFalse(counter.incrementWithQuotaLimit(2));
+        Assert.assertEquals(2, counter.getPendingUsage());
+    }
+    
+    @Test
+    public void testDecrement() {
+        CapacityUsageCounter counter = new CapacityUsageCounter(capacity(0, 1));
+        Assert.assertTrue(counter.decrement());
+        Assert.assertFalse(counter.decrement());
+        Assert.assertEquals(0, counter.getUsage());
+    }
+    
+    @Test
+    public void testOnFlushed() {
+        CapacityUsageCounter counter = new CapacityUsageCounter(capacity(0, 1));
+        counter.increment();
+        counter.increment();
+        long pendingUsage = counter.getPendingUsage();
+        counter.increment();
+        counter.onFlushed(pendingUsage, capacity(0, 3));
+        Assert.assertEquals(1, counter.getPendingUsage());
+        Assert.assertEquals(4, counter.getUsage());
+    }
+    
+    @Test
+    public void testSetCapacityKeepsPendingUsage() {
+        CapacityUsageCounter counter = new CapacityUsageCounter(capacity(0, 1));
+        counter.increment();
+        counter.setCapacity(capacity(10, 5));
+        Assert.assertEquals(1, counter.getPendingUsage());
+        Assert.assertEquals(6, counter.getUsage());
+    }
+    
+    @Test
+    public void testQuotaLimitExactUnderContention() throws InterruptedException {
+        final CapacityUsageCounter counter = new CapacityUsageCounter(capacity(1000, 0));
+        final AtomicInteger passed = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int j = 0; j < 500; j++) {
+                    if (counter.incrementWithQuotaLimit(0)) {
+                        passed.incrementAndGet();
+                    }
+                }
+            });
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread each : threads) {
+            each.join();
+        }
+        // exactly the quota passes, neither more nor less.
+        Assert.assertEquals(1000, passed.get());
+        Assert.assertEquals(1000, counter.getUsage());
+    }
+    
+    @Test
+    public void testUsageConsistentDuringFlush() throws InterruptedException {
+        final CapacityUsageCounter counter = new CapacityUsageCounter(capacity(0, 0));
+        final AtomicInteger written = new AtomicInteger();
+        final AtomicBoolean finished = new AtomicBoolean(false);
+        final AtomicReference<String> error = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            long last = 0;
+            while (!finished.get() && error.get() == null) {
+                long usage = counter.getUsage();
+                // the flushed usage is never counted twice, nor missed
+                if (usage > written.get() || usage < last) {
+                    error.set("usage " + usage + " after " + last + ", written " + written.get());
+                }
+                last = usage;
+            }
+        });
+        reader.start();
+        int flushed = 0;
+        for (int i = 0; i < 20000 && error.get() == null; i++) {
+            written.incrementAndGet();
+            counter.increment();
+            long pendingUsage = counter.getPendingUsage();
+            flushed += pendingUsage;
+            counter.onFlushed(pendingUsage, capacity(0, flushed));
+        }
+        finished.set(true);
+        reader.join();
+        Assert.assertNull(error.get());
+        Assert.assertEquals(written.get(), counter.getUsage());
+    }
+    
+    private Capacity capacity(int quota, int usage) {
+        Capacity capacity = new Capacity();
+        capacity.setQuota(quota);
+        capacity.setUsage(usage);
+        return capacity;
+    }
+}
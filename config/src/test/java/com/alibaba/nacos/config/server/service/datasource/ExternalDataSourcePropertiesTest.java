@@ -22,6 +22,7 @@ import org.junit.Test;
 import org.springframework.mock.env.MockEnvironment;
 
 import java.util.List;
+import java.util.Properties;
 
 public class ExternalDataSourcePropertiesTest {
     
@@ -112,6 +113,25 @@ public class ExternalDataSourcePropertiesTest {
         Assert.assertEquals(dataSources.size(), 1);
     }
     
+    @Test
+    public void externalDatasourceCachesPreparedStatements() {
+        MockEnvironment environment = new MockEnvironment();
+        environment.setProperty("db.num", "1");
+        environment.setProperty("db.user", USERNAME);
+        environment.setProperty("db.password", PASSWORD);
+        environment.setProperty("db.url.0", JDBC_URL);
+        environment.setProperty("db.pool.config.dataSourceProperties.prepStmtCacheSize", "500");
+        List<HikariDataSource> dataSources = new ExternalDataSourceProperties().build(environment, (dataSource -> {
+            Properties properties = dataSource.getDataSourceProperties();
+            Assert.assertEquals("true", properties.get("cachePrepStmts"));
+            Assert.assertEquals("true", properties.get("useServerPrepStmts"));
+            Assert.assertEquals("2048", properties.get("prepStmtCacheSqlLimit"));
+            // a value set by the user is kept
+            Assert.assertEquals("500", properties.get("prepStmtCacheSize"));
+        }));
+        Assert.assertEquals(dataSources.size(), 1);
+    }
+    
     @Test(expected = IllegalArgumentException.class)
     public void externalDatasourceFailureWithLarkInfo() {
         
@@ -0,0 +1,104 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.nacos.config.server.service.notify;
+
+import com.alibaba.nacos.api.config.remote.request.cluster.ConfigChangeClusterBatchSyncRequest.SyncItem;
+import com.alibaba.nacos.core.cluster.Member;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ClusterSyncBatcherTest {
+    
+    private ScheduledExecutorService executor;
+    
+    private BlockingQueue<List<SyncItem>> sent;
+    
+    @Before
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        sent = new LinkedBlockingQueue<List<SyncItem>>();
+    }
+    
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+    
+    @Test
+    public void testMergeInWindow() throws InterruptedException {
+        ClusterSyncBatcher batcher = new ClusterSyncBatcher(50L, 100, executor,
+                (member, items) -> sent.add(new ArrayList<SyncItem>(items)));
+        Member member = Member.builder().ip("127.0.0.1").port(8848).build();
+        batcher.add(member, item("dataId1", 1L));
+        batcher.add(member, item("dataId2", 1L));
+        batcher.add(member, item("dataId1", 2L));
+        
+        List<SyncItem> items = sent.poll(5, TimeUnit.SECONDS);
+        Assert.assertNotNull(items);
+        Assert.assertEquals(2, items.size());
+        Assert.assertEquals("dataId1", items.get(0).getDataId());
+        Assert.assertEquals(2L, items.get(0).getLastModified());
+        Assert.assertNull(sent.poll(200, TimeUnit.MILLISECONDS));
+    }
+    
+    @Test
+    public void testFlushWhenFull() {
+        // the full flushes are queued until run by the test, the flush of the window is never run.
+        List<Runnable> queued = new ArrayList<Runnable>();
+        ScheduledExecutorService queuedExecutor = Mockito.mock(ScheduledExecutorService.class);
+        Mockito.doAnswer(invocation -> queued.add(invocation.getArgument(0))).when(queuedExecutor)
+                .execute(ArgumentMatchers.any(Runnable.class));
+        ClusterSyncBatcher batcher = new ClusterSyncBatcher(60000L, 2, queuedExecutor,
+                (member, items) -> sent.add(new ArrayList<SyncItem>(items)));
+        Member member = Member.builder().ip("127.0.0.1").port(8848).build();
+        for (int i = 0; i < 4; i++) {
+            batcher.add(member, item("dataId" + i, 1L));
+        }
+        Assert.assertEquals(3, queued.size());
+        Assert.assertTrue(sent.isEmpty());
+        
+        // the first flush sends all the items in batches of the max size, the others find nothing to send.
+        for (Runnable each : queued) {
+            each.run();
+        }
+        Assert.assertEquals(2, sent.size());
+        for (List<SyncItem> each : sent) {
+            Assert.assertEquals(2, each.size());
+        }
+    }
+    
+    private static SyncItem item(String dataId, long lastModified) {
+        SyncItem item = new SyncItem();
+        item.setDataId(dataId);
+        item.setGroup("DEFAULT_GROUP");
+        item.setLastModified(lastModified);
+        return item;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.repository;
+
+import com.alibaba.nacos.config.server.model.ConfigInfo;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConfigInfoContextUtilsTest {
+    
+    @After
+    public void tearDown() {
+        ConfigInfoContextUtils.cleanAllContext();
+    }
+    
+    @Test
+    public void testNothingRecordedOutsideContext() {
+        ConfigInfoContextUtils.putConfigInfo("a", "g", "", new ConfigInfo("a", "g", "content"));
+        Assert.assertFalse(ConfigInfoContextUtils.contains("a", "g", ""));
+        Assert.assertNull(ConfigInfoContextUtils.getConfigInfo("a", "g", ""));
+        ConfigInfoContextUtils.remove("a", "g", "");
+    }
+    
+    @Test
+    public void testRecordRow() {
+        ConfigInfoContextUtils.open();
+        ConfigInfo configInfo = new ConfigInfo("a", "g", "content");
+        ConfigInfoContextUtils.putConfigInfo("a", "g", "", configInfo);
+        Assert.assertTrue(ConfigInfoContextUtils.contains("a", "g", ""));
+        // a blank tenant is the same as an empty one
+        Assert.assertSame(configInfo, ConfigInfoContextUtils.getConfigInfo("a", "g", null));
+        Assert.assertFalse(ConfigInfoContextUtils.contains("a", "g", "tenant"));
+        Assert.assertFalse(ConfigInfoContextUtils.contains("a", "other", ""));
+        
+        ConfigInfoContextUtils.remove("a", "g", "");
+        Assert.assertFalse(ConfigInfoContextUtils.contains("a", "g", ""));
+    }
+    
+    @Test
+    public void testRecordAbsentRow() {
+        ConfigInfoContextUtils.open();
+        ConfigInfoContextUtils.putConfigInfo("a", "g", "tenant", null);
+        Assert.assertTrue(ConfigInfoContextUtils.contains("a", "g", "tenant"));
+        Assert.assertNull(ConfigInfoContextUtils.getConfigInfo("a", "g", "tenant"));
+    }
+    
+    @Test
+    public void testCleanAllContext() {
+        ConfigInfoContextUtils.open();
+        ConfigInfoContextUtils.putConfigInfo("a", "g", "", new ConfigInfo("a", "g", "content"));
+        ConfigInfoContextUtils.cleanAllContext();
+        Assert.assertFalse(ConfigInfoContextUtils.contains("a", "g", ""));
+    }
+}
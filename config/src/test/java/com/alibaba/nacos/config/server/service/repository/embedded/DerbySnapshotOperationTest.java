@@ -0,0 +1,103 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.repository.embedded;
+
+import com.alibaba.nacos.consistency.snapshot.LocalFileMeta;
+import com.alibaba.nacos.consistency.snapshot.Reader;
+import com.alibaba.nacos.consistency.snapshot.Writer;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class DerbySnapshotOperationTest {
+    
+    private static final String SEGMENT = Paths.get("derby_data", "derby-data", "seg0").toString();
+    
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+    
+    private DerbySnapshotOperation operation;
+    
+    @Before
+    public void setUp() {
+        operation = new DerbySnapshotOperation(new ReentrantReadWriteLock().writeLock());
+    }
+    
+    @Test
+    public void testUnchangedContainerKeepsChecksum() throws Exception {
+        Writer first = backup("first", "config_info", "his_config_info");
+        Writer second = backup("second", "config_info", "his_config_info changed");
+        
+        Assert.assertEquals(2, first.listFiles().size());
+        Assert.assertEquals(first.listFiles().keySet(), second.listFiles().keySet());
+        Assert.assertEquals(checksum(first, "c10.dat"), checksum(second, "c10.dat"));
+        Assert.assertNotEquals(checksum(first, "c20.dat"), checksum(second, "c20.dat"));
+    }
+    
+    @Test
+    public void testVerifyFiles() throws Exception {
+        Writer writer = backup("snapshot", "config_info", "his_config_info");
+        operation.verifyFiles(new Reader(writer.getPath(), writer.listFiles()));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testVerifyCorruptedFile() throws Exception {
+        Writer writer = backup("snapshot", "config_info", "his_config_info");
+        write(Paths.get(writer.getPath(), SEGMENT, "c20.dat"), "corrupted");
+        operation.verifyFiles(new Reader(writer.getPath(), writer.listFiles()));
+    }
+    
+    @Test
+    public void testVerifySkipsFileWithoutChecksum() throws Exception {
+        Writer writer = backup("snapshot", "config_info", "his_config_info");
+        Map<String, LocalFileMeta> files = new HashMap<>(writer.listFiles());
+        files.put(Paths.get(SEGMENT, "c30.dat").toString(), new LocalFileMeta());
+        operation.verifyFiles(new Reader(writer.getPath(), files));
+    }
+    
+    private Writer backup(String name, String c10, String c20) throws IOException {
+        Path snapshot = folder.newFolder(name).toPath();
+        Path segment = snapshot.resolve(SEGMENT);
+        Files.createDirectories(segment);
+        write(segment.resolve("c10.dat"), c10);
+        write(segment.resolve("c20.dat"), c20);
+        Writer writer = new Writer(snapshot.toString());
+        Assert.assertTrue(operation.addFiles(writer, snapshot.resolve("derby_data")));
+        return writer;
+    }
+    
+    private Object checksum(Writer writer, String container) {
+        LocalFileMeta meta = writer.listFiles().get(Paths.get(SEGMENT, container).toString());
+        Assert.assertNotNull(meta);
+        return meta.get(LocalFileMeta.CONTENT_CHECKSUM);
+    }
+    
+    private void write(Path file, String content) throws IOException {
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.repository.embedded;
+
+import com.alibaba.nacos.config.server.utils.PropertyUtil;
+import com.alibaba.nacos.consistency.entity.ReadMode;
+import com.alibaba.nacos.consistency.entity.ReadRequest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DistributedDatabaseOperateImplTest {
+    
+    @After
+    public void tearDown() {
+        PropertyUtil.setEmbeddedStorageReadMode("LINEARIZABLE");
+    }
+    
+    @Test
+    public void testParseReadMode() {
+        Assert.assertEquals(ReadMode.LEASE, DistributedDatabaseOperateImpl.parseReadMode("lease"));
+        Assert.assertEquals(ReadMode.LOCAL, DistributedDatabaseOperateImpl.parseReadMode("LOCAL"));
+        Assert.assertEquals(ReadMode.LINEARIZABLE, DistributedDatabaseOperateImpl.parseReadMode("linearizable"));
+        Assert.assertEquals(ReadMode.LINEARIZABLE, DistributedDatabaseOperateImpl.parseReadMode("UNRECOGNIZED"));
+        Assert.assertEquals(ReadMode.LINEARIZABLE, DistributedDatabaseOperateImpl.parseReadMode(""));
+        Assert.assertEquals(ReadMode.LINEARIZABLE, DistributedDatabaseOperateImpl.parseReadMode(null));
+    }
+    
+    @Test
+    public void testBuildReadRequestUsesConfiguredMode() {
+        PropertyUtil.setEmbeddedStorageReadMode("LEASE");
+        ReadRequest request = DistributedDatabaseOperateImpl.buildReadRequest("group", new byte[] {1}, false);
+        Assert.assertEquals("group", request.getGroup());
+        Assert.assertEquals(ReadMode.LEASE, request.getReadMode());
+        Assert.assertEquals(1, request.getData().size());
+    }
+    
+    @Test
+    public void testBlockReadStaysLinearizable() {
+        PropertyUtil.setEmbeddedStorageReadMode("LOCAL");
+        ReadRequest request = DistributedDatabaseOperateImpl.buildReadRequest("group", new byte[0], true);
+        Assert.assertEquals(ReadMode.LINEARIZABLE, request.getReadMode());
+    }
+}
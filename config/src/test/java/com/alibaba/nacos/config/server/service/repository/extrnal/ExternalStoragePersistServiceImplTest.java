@@ -0,0 +1,144 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.config.server.service.repository.extrnal;
+
+import com.alibaba.nacos.config.server.model.ConfigInfo;
+import com.alibaba.nacos.config.server.service.repository.ConfigInfoContextUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.Timestamp;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+
+public class ExternalStoragePersistServiceImplTest {
+    
+    private ExternalStoragePersistServiceImpl persistService;
+    
+    private JdbcTemplate jdbcTemplate;
+    
+    @Before
+    public void setUp() {
+        jdbcTemplate = Mockito.mock(JdbcTemplate.class);
+        persistService = Mockito.spy(new ExternalStoragePersistServiceImpl());
+        persistService.jt = jdbcTemplate;
+    }
+    
+    @After
+    public void tearDown() {
+        ConfigInfoContextUtils.cleanAllContext();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFindConfigInfoReusedInContext() {
+        ConfigInfo configInfo = new ConfigInfo("a", "g", "content");
+        Mockito.when(jdbcTemplate.queryForObject(anyString(), any(Object[].class), any(RowMapper.class)))
+                .thenReturn(configInfo);
+        ConfigInfoContextUtils.open();
+        Assert.assertSame(configInfo, persistService.findConfigInfo("a", "g", ""));
+        Assert.assertSame(configInfo, persistService.findConfigInfo("a", "g", null));
+        Mockito.verify(jdbcTemplate, Mockito.times(1))
+                .queryForObject(anyString(), any(Object[].class), any(RowMapper.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFindAbsentConfigInfoReusedInContext() {
+        Mockito.when(jdbcTemplate.queryForObject(anyString(), any(Object[].class), any(RowMapper.class)))
+                .thenThrow(new EmptyResultDataAccessException(1));
+        ConfigInfoContextUtils.open();
+        Assert.assertNull(persistService.findConfigInfo("a", "g", ""));
+        Assert.assertNull(persistService.findConfigInfo("a", "g", ""));
+        Mockito.verify(jdbcTemplate, Mockito.times(1))
+                .queryForObject(anyString(), any(Object[].class), any(RowMapper.class));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testFindConfigInfoWithoutContext() {
+        Mockito.when(jdbcTemplate.queryForObject(anyString(), any(Object[].class), any(RowMapper.class)))
+                .thenReturn(new ConfigInfo("a", "g", "content"));
+        persistService.findConfigInfo("a", "g", "");
+        persistService.findConfigInfo("a", "g", "");
+        Mockito.verify(jdbcTemplate, Mockito.times(2))
+                .queryForObject(anyString(), any(Object[].class), any(RowMapper.class));
+    }
+    
+    @Test
+    public void testInsertOrUpdateKnownRowGoesToUpdate() {
+        ConfigInfo configInfo = new ConfigInfo("a", "g", "content");
+        Mockito.doNothing().when(persistService)
+                .updateConfigInfo(any(), anyString(), anyString(), any(), any(), anyBoolean());
+        ConfigInfoContextUtils.open();
+        ConfigInfoContextUtils.putConfigInfo("a", "g", "", configInfo);
+        
+        persistService.insertOrUpdate("127.0.0.1", "user", configInfo, new Timestamp(0), null, false);
+        
+        Mockito.verify(persistService, Mockito.never())
+                .addConfigInfo(anyString(), anyString(), any(), any(), any(), anyBoolean());
+        Mockito.verify(persistService).updateConfigInfo(any(), anyString(), anyString(), any(), any(), anyBoolean());
+        // the row is stale after the update
+        Assert.assertFalse(ConfigInfoContextUtils.contains("a", "g", ""));
+    }
+    
+    @Test
+    public void testInsertOrUpdateKnownRowDeletedGoesToInsert() {
+        ConfigInfo configInfo = new ConfigInfo("a", "g", "content");
+        Mockito.doThrow(new JdbcUpdateAffectedIncorrectNumberOfRowsException("UPDATE", 1, 0)).when(persistService)
+                .updateConfigInfo(any(), anyString(), anyString(), any(), any(), anyBoolean());
+        Mockito.doNothing().when(persistService)
+                .addConfigInfo(anyString(), anyString(), any(), any(), any(), anyBoolean());
+        ConfigInfoContextUtils.open();
+        ConfigInfoContextUtils.putConfigInfo("a", "g", "", configInfo);
+        
+        persistService.insertOrUpdate("127.0.0.1", "user", configInfo, new Timestamp(0), null, false);
+        
+        Mockito.verify(persistService).addConfigInfo(anyString(), anyString(), any(), any(), any(), anyBoolean());
+    }
+    
+    @Test(expected = JdbcUpdateAffectedIncorrectNumberOfRowsException.class)
+    public void testUpdateConfigInfoAtomicWithoutRow() {
+        // the mocked update changes no row
+        persistService.updateConfigInfoAtomic(new ConfigInfo("a", "g", "content"), "127.0.0.1", "user",
+                new Timestamp(0), null);
+    }
+    
+    @Test
+    public void testInsertOrUpdateFallsBackToUpdateOnConflict() {
+        ConfigInfo configInfo = new ConfigInfo("a", "g", "content");
+        Mockito.doThrow(new DataIntegrityViolationException("duplicate")).when(persistService)
+                .addConfigInfo(anyString(), anyString(), any(), any(), any(), anyBoolean());
+        Mockito.doNothing().when(persistService)
+                .updateConfigInfo(any(), anyString(), anyString(), any(), any(), anyBoolean());
+        
+        persistService.insertOrUpdate("127.0.0.1", "user", configInfo, new Timestamp(0), null, false);
+        
+        Mockito.verify(persistService).addConfigInfo(anyString(), anyString(), any(), any(), any(), anyBoolean());
+        Mockito.verify(persistService).updateConfigInfo(any(), anyString(), anyString(), any(), any(), anyBoolean());
+    }
+}
@@ -63,7 +63,8 @@ public interface ConsistencyProtocol<T extends Config, P extends RequestProcesso
     ProtocolMetaData protocolMetaData();
     
     /**
-     * Obtain data according to the request.
+     * Obtain data according to the request. The consistency of the read is decided by {@link
+     * ReadRequest#getReadMode()}, protocols that can not relax it serve every read linearizable.
      *
      * @param request request
      * @return data {@link Response}
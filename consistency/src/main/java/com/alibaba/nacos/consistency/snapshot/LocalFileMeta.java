@@ -25,6 +25,12 @@ import java.util.Properties;
  */
 public class LocalFileMeta {
     
+    /**
+     * Checksum of the file content. When present, the protocol may reuse an identical file of the previous snapshot
+     * instead of transferring it again when a follower installs the snapshot.
+     */
+    public static final String CONTENT_CHECKSUM = "contentChecksum";
+    
     private final Properties fileMeta;
     
     public LocalFileMeta() {
@@ -234,6 +234,31 @@ public class ServerLoaderController {
         return ResponseEntity.ok().body(stringConnectionMap);
     }
     
+    /**
+     * Get current clients by page.
+     *
+     * @param pageNo   page number, starts from 1.
+     * @param pageSize page size.
+     * @param ip       client ip to filter, nullable.
+     * @param appName  app name to filter, nullable.
+     * @return state json.
+     */
+    @Secured(resource = NacosAuthConfig.CONSOLE_RESOURCE_NAME_PREFIX + "loader", action = ActionTypes.READ)
+    @GetMapping("/connections")
+    public ResponseEntity connections(@RequestParam(value = "pageNo", defaultValue = "1") int pageNo,
+            @RequestParam(value = "pageSize", defaultValue = "100") int pageSize,
+            @RequestParam(value = "ip", required = false) String ip,
+            @RequestParam(value = "appName", required = false) String appName) {
+        if (pageNo < 1 || pageSize < 1 || pageSize > 1000) {
+            return ResponseEntity.badRequest().body("pageNo must be positive and pageSize must be in [1, 1000]");
+        }
+        Map<String, Object> responseMap = new HashMap<>(4);
+        responseMap.put("totalCount", connectionManager.getConnectionCount(ip, appName));
+        responseMap.put("pageNumber", pageNo);
+        responseMap.put("pageItems", connectionManager.getConnections(ip, appName, pageNo, pageSize));
+        return ResponseEntity.ok().body(responseMap);
+    }
+    
     
     /**
      * Get current clients.
@@ -26,6 +26,7 @@ import com.alibaba.nacos.consistency.RequestProcessor;
 import com.alibaba.nacos.consistency.SerializeFactory;
 import com.alibaba.nacos.consistency.Serializer;
 import com.alibaba.nacos.consistency.cp.RequestProcessor4CP;
+import com.alibaba.nacos.consistency.entity.ReadMode;
 import com.alibaba.nacos.consistency.entity.ReadRequest;
 import com.alibaba.nacos.consistency.entity.Response;
 import com.alibaba.nacos.consistency.exception.ConsistencyException;
@@ -150,6 +151,10 @@ public class JRaftServer {
     
     private int rpcRequestTimeoutMs;
     
+    private long readMaxLag;
+    
+    private long readLeaseMs;
+    
     public JRaftServer() {
         this.conf = new Configuration();
     }
@@ -178,6 +183,15 @@ public class JRaftServer {
         rpcRequestTimeoutMs = ConvertUtils.toInt(raftConfig.getVal(RaftSysConstants.RAFT_RPC_REQUEST_TIMEOUT_MS),
                 RaftSysConstants.DEFAULT_RAFT_RPC_REQUEST_TIMEOUT_MS);
         
+        readMaxLag = ConvertUtils.toLong(raftConfig.getVal(RaftSysConstants.RAFT_READ_MAX_LAG),
+                RaftSysConstants.DEFAULT_RAFT_READ_MAX_LAG);
+        
+        // The rest of the election timeout is the margin for the clock drift between nodes
+        int readLeaseRatio = ConvertUtils.toInt(raftConfig.getVal(RaftSysConstants.RAFT_READ_LEASE_RATIO),
+                RaftSysConstants.DEFAULT_RAFT_READ_LEASE_RATIO);
+        readLeaseRatio = Math.min(Math.max(readLeaseRatio, 0), RaftSysConstants.MAX_RAFT_READ_LEASE_RATIO);
+        readLeaseMs = (long) electionTimeout * readLeaseRatio / 100;
+        
         nodeOptions.setSharedElectionTimer(true);
         nodeOptions.setSharedVoteTimer(true);
         nodeOptions.setSharedStepDownTimer(true);
@@ -276,7 +290,8 @@ public class JRaftServer {
             long period = nodeOptions.getElectionTimeoutMs() + random.nextInt(5 * 1000);
             RaftExecutor.scheduleRaftMemberRefreshJob(() -> refreshRouteTable(groupName),
                     nodeOptions.getElectionTimeoutMs(), period, TimeUnit.MILLISECONDS);
-            multiRaftGroup.put(groupName, new RaftGroupTuple(node, processor, raftGroupService, machine));
+            multiRaftGroup.put(groupName,
+                    new RaftGroupTuple(node, processor, raftGroupService, machine, new ReadLease(readLeaseMs)));
         }
     }
     
@@ -290,11 +305,27 @@ public class JRaftServer {
         }
         final Node node = tuple.node;
         final RequestProcessor processor = tuple.processor;
+        final ReadMode readMode = request.getReadMode();
+        
+        if (ReadMode.LEASE == readMode && isLeaseValid(tuple)) {
+            MetricsMonitor.raftReadByLease();
+            readFromLocal(request, processor, future);
+            return future;
+        }
+        if (ReadMode.LOCAL == readMode && isLagAcceptable(node, request)) {
+            MetricsMonitor.raftReadFromLocal();
+            readFromLocal(request, processor, future);
+            return future;
+        }
+        MetricsMonitor.raftReadIndex();
+        final long readIndexStart = System.nanoTime();
+        final long readIndexTerm = currentTerm(tuple);
         try {
             node.readIndex(BytesUtil.EMPTY_BYTES, new ReadIndexClosure() {
                 @Override
                 public void run(Status status, long index, byte[] reqCtx) {
                     if (status.isOk()) {
+                        renewLease(tuple, readIndexTerm, readIndexStart);
                         try {
                             Response response = processor.onRequest(request);
                             future.complete(response);
@@ -322,6 +353,69 @@ public class JRaftServer {
         }
     }
     
+    /**
+     * Whether this node can serve a {@link ReadMode#LEASE} read without confirming its leadership again.
+     *
+     * <p>It must still be the leader of the term its lease was renewed in, see {@link ReadLease} for the clock drift
+     * assumption. Otherwise the read goes through readIndex, which renews the lease when it succeeds on the leader.
+     *
+     * @param tuple raft group
+     * @return true if the lease of the leader is valid
+     */
+    private boolean isLeaseValid(final RaftGroupTuple tuple) {
+        if (Objects.isNull(tuple.readLease) || !tuple.node.isLeader()) {
+            return false;
+        }
+        return tuple.readLease.isValid(currentTerm(tuple), System.nanoTime());
+    }
+    
+    private void renewLease(final RaftGroupTuple tuple, final long term, final long startNanos) {
+        if (Objects.isNull(tuple.readLease)) {
+            return;
+        }
+        // The leader may have changed while the readIndex was running, the lease belongs to the term it started in
+        if (tuple.node.isLeader() && term >= 0 && term == currentTerm(tuple)) {
+            tuple.readLease.renew(term, startNanos);
+        } else {
+            tuple.readLease.revoke();
+        }
+    }
+    
+    private long currentTerm(final RaftGroupTuple tuple) {
+        return Objects.isNull(tuple.machine) ? -1L : tuple.machine.getTerm();
+    }
+    
+    private void readFromLocal(final ReadRequest request, final RequestProcessor processor,
+            final CompletableFuture<Response> future) {
+        try {
+            future.complete(processor.onRequest(request));
+        } catch (Throwable t) {
+            future.completeExceptionally(
+                    new ConsistencyException("The conformance protocol is temporarily unavailable for reading", t));
+        }
+    }
+    
+    /**
+     * Whether the local state machine is close enough to the leader to serve a {@link ReadMode#LOCAL} read.
+     *
+     * <p>The node must know a leader (which is reset on election timeout) and the number of committed but not yet
+     * applied logs must not exceed the staleness bound of the request, or the server default when it is not set.
+     *
+     * @param node    raft node
+     * @param request read request
+     * @return true if the read can be served by the local state machine
+     */
+    private boolean isLagAcceptable(final Node node, final ReadRequest request) {
+        final PeerId leader = node.getLeaderId();
+        if (Objects.isNull(leader) || leader.isEmpty()) {
+            return false;
+        }
+        final long lag = Math.max(0L, node.getLastCommittedIndex() - node.getLastAppliedLogIndex());
+        MetricsMonitor.raftReadLag(lag);
+        final long maxLag = request.getMaxLag() > 0 ? request.getMaxLag() : readMaxLag;
+        return lag <= maxLag;
+    }
+    
     public void readFromLeader(final ReadRequest request, final CompletableFuture<Response> future) {
         commit(request.getGroup(), request, future).whenComplete(new BiConsumer<Response, Throwable>() {
             @Override
@@ -548,16 +642,24 @@ public class JRaftServer {
         
         private NacosStateMachine machine;
         
+        private ReadLease readLease;
+        
         @JustForTest
         public RaftGroupTuple() {
         }
         
         public RaftGroupTuple(Node node, RequestProcessor processor, RaftGroupService raftGroupService,
                 NacosStateMachine machine) {
+            this(node, processor, raftGroupService, machine, null);
+        }
+        
+        RaftGroupTuple(Node node, RequestProcessor processor, RaftGroupService raftGroupService,
+                NacosStateMachine machine, ReadLease readLease) {
             this.node = node;
             this.processor = processor;
             this.raftGroupService = raftGroupService;
             this.machine = machine;
+            this.readLease = readLease;
         }
         
         public Node getNode() {
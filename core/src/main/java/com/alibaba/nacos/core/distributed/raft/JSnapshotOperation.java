@@ -63,8 +63,17 @@ interface JSnapshotOperation {
      * @throws Exception Exception
      */
     default LocalFileMetaOutter.LocalFileMeta buildMetadata(final LocalFileMeta metadata) throws Exception {
-        return metadata == null ? null : LocalFileMetaOutter.LocalFileMeta.newBuilder()
-                .setUserMeta(ZeroByteStringHelper.wrap(JacksonUtils.toJsonBytes(metadata))).build();
+        if (metadata == null) {
+            return null;
+        }
+        final LocalFileMetaOutter.LocalFileMeta.Builder builder = LocalFileMetaOutter.LocalFileMeta.newBuilder()
+                .setUserMeta(ZeroByteStringHelper.wrap(JacksonUtils.toJsonBytes(metadata)));
+        // JRaft skips copying a file whose checksum equals the one in the local last snapshot
+        final Object checksum = metadata.get(LocalFileMeta.CONTENT_CHECKSUM);
+        if (checksum != null) {
+            builder.setChecksum(checksum.toString());
+        }
+        return builder.build();
     }
     
 }
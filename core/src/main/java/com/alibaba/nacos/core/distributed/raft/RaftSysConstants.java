@@ -51,6 +51,21 @@ public final class RaftSysConstants {
      */
     public static final int DEFAULT_RAFT_RPC_REQUEST_TIMEOUT_MS = 5000;
     
+    /**
+     * {@link RaftSysConstants#RAFT_READ_MAX_LAG}
+     */
+    public static final long DEFAULT_RAFT_READ_MAX_LAG = 100L;
+    
+    /**
+     * {@link RaftSysConstants#RAFT_READ_LEASE_RATIO}
+     */
+    public static final int DEFAULT_RAFT_READ_LEASE_RATIO = 50;
+    
+    /**
+     * Upper bound of {@link RaftSysConstants#RAFT_READ_LEASE_RATIO}, keeps a margin for the clock drift
+     */
+    public static final int MAX_RAFT_READ_LEASE_RATIO = 90;
+    
     /**
      * The maximum size of each file RPC (snapshot copy) request between nodes is 128 K by default 节点之间每次文件 RPC
      * (snapshot拷贝）请求的最大大小，默认为 128 K
@@ -163,6 +178,17 @@ public final class RaftSysConstants {
      */
     public static final String RAFT_RPC_REQUEST_TIMEOUT_MS = "rpc_request_timeout_ms";
     
+    /**
+     * Max number of committed but not yet applied logs tolerated by a local read, default is 100
+     */
+    public static final String RAFT_READ_MAX_LAG = "read_max_lag";
+    
+    /**
+     * Percentage of the election timeout during which a leader serves lease reads after its leadership was confirmed,
+     * default is 50, 0 disables lease reads
+     */
+    public static final String RAFT_READ_LEASE_RATIO = "read_lease_ratio";
+    
     /**
      * Maximum size of each file RPC (snapshot copy) request between nodes, default is 128 K
      */
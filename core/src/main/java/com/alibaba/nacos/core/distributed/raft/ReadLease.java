@@ -0,0 +1,68 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.distributed.raft;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leader lease of one raft group, used to serve {@link com.alibaba.nacos.consistency.entity.ReadMode#LEASE} reads.
+ *
+ * <p>The lease is renewed by every readIndex that succeeded on the leader, starting from the time the readIndex was
+ * issued: at that time a majority acknowledged the leader, so no follower starts an election before one election
+ * timeout has elapsed on its own clock. The lease only covers a part of the election timeout, the rest is the margin
+ * for the clock drift between nodes, which is assumed to be smaller than it. A lease is bound to the term it was
+ * renewed in, so it never survives a leader change, including a leadership transfer.
+ *
+ * @author Nacos
+ */
+final class ReadLease {
+    
+    private final long leaseNanos;
+    
+    private volatile long term = -1L;
+    
+    private volatile long expireNanos;
+    
+    ReadLease(long leaseMillis) {
+        this.leaseNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0L, leaseMillis));
+    }
+    
+    /**
+     * Renew the lease after the leadership was confirmed by a majority.
+     *
+     * @param term       term of the leader when the confirmation was started
+     * @param startNanos {@link System#nanoTime()} when the confirmation was started
+     */
+    synchronized void renew(long term, long startNanos) {
+        if (leaseNanos <= 0) {
+            return;
+        }
+        final long expire = startNanos + leaseNanos;
+        if (term != this.term || expire - this.expireNanos > 0) {
+            this.expireNanos = expire;
+            this.term = term;
+        }
+    }
+    
+    boolean isValid(long term, long nowNanos) {
+        return leaseNanos > 0 && term >= 0 && term == this.term && nowNanos - expireNanos < 0;
+    }
+    
+    synchronized void revoke() {
+        this.term = -1L;
+    }
+}
@@ -16,6 +16,7 @@
 
 package com.alibaba.nacos.core.monitor;
 
+import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.ImmutableTag;
 import io.micrometer.core.instrument.Metrics;
@@ -37,15 +38,31 @@ public final class MetricsMonitor {
     
     private static final DistributionSummary RAFT_FROM_LEADER;
     
+    private static final DistributionSummary RAFT_READ_INDEX;
+    
+    private static final DistributionSummary RAFT_READ_BY_LEASE;
+    
+    private static final DistributionSummary RAFT_READ_FROM_LOCAL;
+    
+    private static final DistributionSummary RAFT_READ_LAG;
+    
     private static final Timer RAFT_APPLY_LOG_TIMER;
     
     private static final Timer RAFT_APPLY_READ_TIMER;
     
     private static AtomicInteger longConnection = new AtomicInteger();
     
+    private static AtomicInteger connectionLoadImbalance = new AtomicInteger();
+    
+    private static AtomicInteger connectionLoadPercent = new AtomicInteger();
+    
     static {
         RAFT_READ_INDEX_FAILED = NacosMeterRegistry.summary("protocol", "raft_read_index_failed");
         RAFT_FROM_LEADER = NacosMeterRegistry.summary("protocol", "raft_read_from_leader");
+        RAFT_READ_INDEX = NacosMeterRegistry.summary("protocol", "raft_read_index");
+        RAFT_READ_BY_LEASE = NacosMeterRegistry.summary("protocol", "raft_read_by_lease");
+        RAFT_READ_FROM_LOCAL = NacosMeterRegistry.summary("protocol", "raft_read_from_local");
+        RAFT_READ_LAG = NacosMeterRegistry.summary("protocol", "raft_read_lag");
         
         RAFT_APPLY_LOG_TIMER = NacosMeterRegistry.timer("protocol", "raft_apply_log_timer");
         RAFT_APPLY_READ_TIMER = NacosMeterRegistry.timer("protocol", "raft_apply_read_timer");
@@ -56,12 +73,49 @@ public final class MetricsMonitor {
         tags.add(new ImmutableTag("name", "longConnection"));
         Metrics.gauge("nacos_monitor", tags, longConnection);
         
+        tags = new ArrayList<Tag>();
+        tags.add(new ImmutableTag("module", "core"));
+        tags.add(new ImmutableTag("name", "connectionLoadImbalance"));
+        Metrics.gauge("nacos_monitor", tags, connectionLoadImbalance);
+        
+        tags = new ArrayList<Tag>();
+        tags.add(new ImmutableTag("module", "core"));
+        tags.add(new ImmutableTag("name", "connectionLoadPercent"));
+        Metrics.gauge("nacos_monitor", tags, connectionLoadPercent);
+        
     }
     
     public static AtomicInteger getLongConnectionMonitor() {
         return longConnection;
     }
     
+    /**
+     * Percent of the max connection load of the cluster above the average load.
+     *
+     * @return gauge
+     */
+    public static AtomicInteger getConnectionLoadImbalance() {
+        return connectionLoadImbalance;
+    }
+    
+    /**
+     * Percent of the connection load of this node to the average load of the cluster.
+     *
+     * @return gauge
+     */
+    public static AtomicInteger getConnectionLoadPercent() {
+        return connectionLoadPercent;
+    }
+    
+    /**
+     * Counter of the connections redirected to other nodes by rebalancing.
+     *
+     * @return counter
+     */
+    public static Counter getRebalanceExpelledCounter() {
+        return Metrics.counter("nacos_counter", "module", "core", "name", "rebalanceExpelled");
+    }
+    
     public static void raftReadIndexFailed() {
         RAFT_READ_INDEX_FAILED.record(1);
     }
@@ -70,6 +124,22 @@ public final class MetricsMonitor {
         RAFT_FROM_LEADER.record(1);
     }
     
+    public static void raftReadIndex() {
+        RAFT_READ_INDEX.record(1);
+    }
+    
+    public static void raftReadByLease() {
+        RAFT_READ_BY_LEASE.record(1);
+    }
+    
+    public static void raftReadFromLocal() {
+        RAFT_READ_FROM_LOCAL.record(1);
+    }
+    
+    public static void raftReadLag(long lag) {
+        RAFT_READ_LAG.record(lag);
+    }
+    
     public static Timer getRaftApplyLogTimer() {
         return RAFT_APPLY_LOG_TIMER;
     }
@@ -77,4 +147,16 @@ public final class MetricsMonitor {
     public static Timer getRaftApplyReadTimer() {
         return RAFT_APPLY_READ_TIMER;
     }
+    
+    /**
+     * Counter of the requests rejected by a tps control point.
+     *
+     * @param pointName point name
+     * @param dimension point, ip or app, by which the request is rejected
+     * @return counter
+     */
+    public static Counter getTpsRejectedCounter(String pointName, String dimension) {
+        return Metrics.counter("nacos_counter", "module", "core", "name", "tpsRejected", "point", pointName,
+                "dimension", dimension);
+    }
 }
@@ -16,6 +16,8 @@
 
 package com.alibaba.nacos.core.remote;
 
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.remote.RequestCallBack;
 import com.alibaba.nacos.api.remote.Requester;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 
@@ -42,10 +44,24 @@ public abstract class Connection implements Requester {
     public abstract boolean isConnected();
     
     /**
-     * Update last Active Time to now.
+     * Push a request prepared for many connections asynchronously.
+     *
+     * <p>Connections which can not share the serialized body send the request as a normal one.
+     *
+     * @param request         prepared request.
+     * @param requestCallBack callback of the response.
+     * @throws NacosException exception throw.
+     */
+    public void asyncRequest(PreparedRequest request, RequestCallBack requestCallBack) throws NacosException {
+        asyncRequest(request.getRequest(), null, requestCallBack);
+    }
+    
+    /**
+     * Update last Active Time to now, called once per request received.
      */
     public void freshActiveTime() {
         metaInfo.setLastActiveTime(System.currentTimeMillis());
+        metaInfo.increaseRequestCount();
     }
     
     /**
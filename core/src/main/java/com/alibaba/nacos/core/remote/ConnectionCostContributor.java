@@ -0,0 +1,35 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.nacos.core.remote;
+
+/**
+ * Contributor of the cost of connections, such as the config listened and the services subscribed, used to choose
+ * the connections to move when rebalancing.
+ *
+ * @author Nacos
+ */
+public interface ConnectionCostContributor {
+    
+    /**
+     * Get the cost of a connection contributed by this module.
+     *
+     * @param connectionId connection id
+     * @return non-negative cost, 0 if the connection is unknown
+     */
+    long getCost(String connectionId);
+}
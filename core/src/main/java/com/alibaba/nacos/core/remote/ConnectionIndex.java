@@ -0,0 +1,65 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of connection ids by an attribute of the connections, such as client ip.
+ *
+ * @author Nacos
+ */
+class ConnectionIndex {
+    
+    private final Map<String, Set<String>> index = new ConcurrentHashMap<String, Set<String>>(16);
+    
+    void add(String key, String connectionId) {
+        if (key == null) {
+            return;
+        }
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(connectionId);
+    }
+    
+    void remove(String key, String connectionId) {
+        if (key == null) {
+            return;
+        }
+        index.computeIfPresent(key, (k, connectionIds) -> {
+            connectionIds.remove(connectionId);
+            return connectionIds.isEmpty() ? null : connectionIds;
+        });
+    }
+    
+    /**
+     * Get the connection ids of the key.
+     *
+     * @param key key
+     * @return unmodifiable view of the connection ids, empty if none
+     */
+    Set<String> get(String key) {
+        Set<String> connectionIds = key == null ? null : index.get(key);
+        return connectionIds == null ? Collections.<String>emptySet() : Collections.unmodifiableSet(connectionIds);
+    }
+    
+    int count(String key) {
+        Set<String> connectionIds = key == null ? null : index.get(key);
+        return connectionIds == null ? 0 : connectionIds.size();
+    }
+}
@@ -37,14 +37,16 @@ import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * connect manager.
@@ -74,7 +76,15 @@ public class ConnectionManager extends Subscriber<ConnectionLimitRuleChangeEvent
     
     String redirectAddress = null;
     
-    private Map<String, AtomicInteger> connectionForClientIp = new ConcurrentHashMap<String, AtomicInteger>(16);
+    /**
+     * connection ids by client ip, by app name and by label name and value, maintained by register and unregister so
+     * that the queries by them do not scan all connections.
+     */
+    private final ConnectionIndex connectionsByIp = new ConnectionIndex();
+    
+    private final ConnectionIndex connectionsByApp = new ConnectionIndex();
+    
+    private final Map<String, ConnectionIndex> connectionsByLabel = new ConcurrentHashMap<String, ConnectionIndex>(16);
     
     @Autowired
     private ClientConnectionEventListenerRegistry clientConnectionEventListenerRegistry;
@@ -92,7 +102,8 @@ public class ConnectionManager extends Subscriber<ConnectionLimitRuleChangeEvent
     }
     
     /**
-     * register a new connect.
+     * register a new connect. Hedge connections only serve requests, they are not notified as clients. As the hedge
+     * label is set by the client, they are limited and counted like the other connections.
      *
      * @param connectionId connectionId
      * @param connection   connection
@@ -107,9 +118,10 @@ public class ConnectionManager extends Subscriber<ConnectionLimitRuleChangeEvent
                 return false;
             }
             connections.put(connectionId, connection);
-            connectionForClientIp.get(connection.getMetaInfo().clientIp).getAndIncrement();
-            
-            clientConnectionEventListenerRegistry.notifyClientConnected(connection);
+            indexConnection(connectionId, connection, true);
+            if (!connection.getMetaInfo().isHedge()) {
+                clientConnectionEventListenerRegistry.notifyClientConnected(connection);
+            }
             Loggers.REMOTE
                     .info("new connection registered successfully, connectionId = {},connection={} ", connectionId,
                             connection);
@@ -127,18 +139,14 @@ public class ConnectionManager extends Subscriber<ConnectionLimitRuleChangeEvent
         }
         
         String clientIp = connection.getMetaInfo().clientIp;
-        if (!connectionForClientIp.containsKey(clientIp)) {
-            connectionForClientIp.putIfAbsent(clientIp, new AtomicInteger(0));
-        }
-        
-        AtomicInteger currentCount = connectionForClientIp.get(clientIp);
+        int currentCount = connectionsByIp.count(clientIp);
         
         if (connectionLimitRule != null) {
             // 1.check rule of specific client ip limit.
             if (connectionLimitRule.getCountLimitPerClientIp().containsKey(clientIp)) {
                 Integer integer = connectionLimitRule.getCountLimitPerClientIp().get(clientIp);
                 if (integer != null && integer.intValue() >= 0) {
-                    return currentCount.get() < integer.intValue();
+                    return currentCount < integer.intValue();
                 }
             }
             // 2.check rule of specific client app limit.
@@ -147,13 +155,13 @@ public class ConnectionManager extends Subscriber<ConnectionLimitRuleChangeEvent
                     .containsKey(appName)) {
                 Integer integerApp = connectionLimitRule.getCountLimitPerClientApp().get(appName);
                 if (integerApp != null && integerApp.intValue() >= 0) {
-                    return currentCount.get() < integerApp.intValue();
+                    return connectionsByApp.count(appName) < integerApp.intValue();
                 }
             }
             
             // 3.check rule of default client ip.
             int countLimitPerClientIpDefault = connectionLimitRule.getCountLimitPerClientIpDefault();
-            return countLimitPerClientIpDefault <= 0 || currentCount.get() < countLimitPerClientIpDefault;
+            return countLimitPerClientIpDefault <= 0 || currentCount < countLimitPerClientIpDefault;
         }
         
         return true;
@@ -168,17 +176,41 @@ public class ConnectionManager extends Subscriber<ConnectionLimitRuleChangeEvent
     public synchronized void unregister(String connectionId) {
         Connection remove = this.connections.remove(connectionId);
         if (remove != null) {
-            String clientIp = remove.getMetaInfo().clientIp;
-            int count = connectionForClientIp.get(clientIp).decrementAndGet();
-            if (count == 0) {
-                connectionForClientIp.remove(clientIp);
-            }
+            indexConnection(connectionId, remove, false);
             remove.close();
             Loggers.REMOTE.info(" connection unregistered successfully,connectionId = {} ", connectionId);
-            clientConnectionEventListenerRegistry.notifyClientDisConnected(remove);
+            if (!remove.getMetaInfo().isHedge()) {
+                clientConnectionEventListenerRegistry.notifyClientDisConnected(remove);
+            }
+        }
+    }
+    
+    private void indexConnection(String connectionId, Connection connection, boolean add) {
+        ConnectionMetaInfo metaInfo = connection.getMetaInfo();
+        if (add) {
+            connectionsByIp.add(metaInfo.clientIp, connectionId);
+            connectionsByApp.add(metaInfo.getAppName(), connectionId);
+            for (Map.Entry<String, String> entry : metaInfo.labels.entrySet()) {
+                connectionsByLabel.computeIfAbsent(entry.getKey(), k -> new ConnectionIndex())
+                        .add(entry.getValue(), connectionId);
+            }
+        } else {
+            connectionsByIp.remove(metaInfo.clientIp, connectionId);
+            connectionsByApp.remove(metaInfo.getAppName(), connectionId);
+            for (Map.Entry<String, String> entry : metaInfo.labels.entrySet()) {
+                ConnectionIndex index = connectionsByLabel.get(entry.getKey());
+                if (index != null) {
+                    index.remove(entry.getValue(), connectionId);
+                }
+            }
         }
     }
     
+    private Set<String> connectionIdsOfLabel(String labelName, String labelValue) {
+        ConnectionIndex index = connectionsByLabel.get(labelName);
+        return index == null ? Collections.<String>emptySet() : index.get(labelValue);
+    }
+    
     /**
      * get by connection id.
      *
@@ -196,15 +228,96 @@ public class ConnectionManager extends Subscriber<ConnectionLimitRuleChangeEvent
      * @return connections of the client ip.
      */
     public List<Connection> getConnectionByIp(String clientIp) {
-        Set<Map.Entry<String, Connection>> entries = connections.entrySet();
-        List<Connection> connections = new ArrayList<>();
-        for (Map.Entry<String, Connection> entry : entries) {
-            Connection value = entry.getValue();
-            if (clientIp.equals(value.getMetaInfo().clientIp)) {
-                connections.add(value);
+        return getConnections(connectionsByIp.get(clientIp));
+    }
+    
+    /**
+     * get by app name.
+     *
+     * @param appName app name.
+     * @return connections of the app.
+     */
+    public List<Connection> getConnectionByApp(String appName) {
+        return getConnections(connectionsByApp.get(appName));
+    }
+    
+    private List<Connection> getConnections(Set<String> connectionIds) {
+        List<Connection> result = new ArrayList<Connection>(connectionIds.size());
+        for (String each : connectionIds) {
+            Connection connection = connections.get(each);
+            if (connection != null) {
+                result.add(connection);
             }
         }
-        return connections;
+        return result;
+    }
+    
+    /**
+     * get connections by page, filtered by client ip and app name if they are not blank.
+     *
+     * @param clientIp client ip, nullable.
+     * @param appName  app name, nullable.
+     * @param pageNo   page number, starts from 1.
+     * @param pageSize page size.
+     * @return connections of the page.
+     */
+    public List<Connection> getConnections(String clientIp, String appName, int pageNo, int pageSize) {
+        List<Connection> result = new ArrayList<Connection>(Math.max(0, Math.min(pageSize, 1000)));
+        int skip = (pageNo - 1) * pageSize;
+        Iterator<Connection> iterator = filterConnections(clientIp, appName).iterator();
+        while (iterator.hasNext() && result.size() < pageSize) {
+            Connection connection = iterator.next();
+            if (!matches(connection, clientIp, appName)) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            result.add(connection);
+        }
+        return result;
+    }
+    
+    /**
+     * get connection count, filtered by client ip and app name if they are not blank.
+     *
+     * @param clientIp client ip, nullable.
+     * @param appName  app name, nullable.
+     * @return connection count.
+     */
+    public int getConnectionCount(String clientIp, String appName) {
+        if (StringUtils.isBlank(clientIp) && StringUtils.isBlank(appName)) {
+            return connections.size();
+        }
+        if (StringUtils.isBlank(appName)) {
+            return connectionsByIp.count(clientIp);
+        }
+        if (StringUtils.isBlank(clientIp)) {
+            return connectionsByApp.count(appName);
+        }
+        int count = 0;
+        for (Connection each : filterConnections(clientIp, appName)) {
+            if (matches(each, clientIp, appName)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    private Collection<Connection> filterConnections(String clientIp, String appName) {
+        if (StringUtils.isNotBlank(clientIp)) {
+            return getConnectionByIp(clientIp);
+        }
+        if (StringUtils.isNotBlank(appName)) {
+            return getConnectionByApp(appName);
+        }
+        return connections.values();
+    }
+    
+    private static boolean matches(Connection connection, String clientIp, String appName) {
+        return (StringUtils.isBlank(clientIp) || clientIp.equals(connection.getMetaInfo().clientIp)) && (
+                StringUtils.isBlank(appName) || appName.equals(connection.getMetaInfo().getAppName()));
     }
     
     /**
@@ -240,27 +353,18 @@ public class ConnectionManager extends Subscriber<ConnectionLimitRuleChangeEvent
             public void run() {
                 try {
                     MetricsMonitor.getLongConnectionMonitor().set(connections.size());
-                    Set<Map.Entry<String, Connection>> entries = connections.entrySet();
                     int currentSdkClientCount = currentSdkClientCount();
                     boolean isLoaderClient = loadClient >= 0;
                     int currentMaxClient = isLoaderClient ? loadClient : maxClient;
                     int expelCount = currentMaxClient < 0 ? currentMaxClient : currentSdkClientCount - currentMaxClient;
                     List<String> expelClient = new LinkedList<String>();
-                    for (Map.Entry<String, Connection> entry : entries) {
-                        Connection client = entry.getValue();
-                        if (client.getMetaInfo().isSdkSource() && expelCount > 0) {
-                            expelClient.add(client.getMetaInfo().getConnectionId());
-                            expelCount--;
-                        }
-                        
+                    Iterator<String> sdkClients = sdkConnectionIds().iterator();
+                    while (expelCount > 0 && sdkClients.hasNext()) {
+                        expelClient.add(sdkClients.next());
+                        expelCount--;
                     }
                     
-                    ConnectResetRequest connectResetRequest = new ConnectResetRequest();
-                    if (StringUtils.isNotBlank(redirectAddress) && redirectAddress.contains(Constants.COLON)) {
-                        String[] split = redirectAddress.split(Constants.COLON);
-                        connectResetRequest.setServerIp(split[0]);
-                        connectResetRequest.setServerPort(split[1]);
-                    }
+                    ConnectResetRequest connectResetRequest = buildConnectResetRequest(redirectAddress);
                     
                     for (String expelledClientId : expelClient) {
                         try {
@@ -301,6 +405,16 @@ public class ConnectionManager extends Subscriber<ConnectionLimitRuleChangeEvent
         return meta;
     }
     
+    private ConnectResetRequest buildConnectResetRequest(String redirectAddress) {
+        ConnectResetRequest connectResetRequest = new ConnectResetRequest();
+        if (StringUtils.isNotBlank(redirectAddress) && redirectAddress.contains(Constants.COLON)) {
+            String[] split = redirectAddress.split(Constants.COLON);
+            connectResetRequest.setServerIp(split[0]);
+            connectResetRequest.setServerPort(split[1]);
+        }
+        return connectResetRequest;
+    }
+    
     public void setMaxClientCount(int maxClient) {
         this.maxClient = maxClient;
     }
@@ -321,12 +435,7 @@ public class ConnectionManager extends Subscriber<ConnectionLimitRuleChangeEvent
         
         if (connection != null) {
             if (connection.getMetaInfo().isSdkSource()) {
-                ConnectResetRequest connectResetRequest = new ConnectResetRequest();
-                if (StringUtils.isNotBlank(redirectAddress) && redirectAddress.contains(Constants.COLON)) {
-                    String[] split = redirectAddress.split(Constants.COLON);
-                    connectResetRequest.setServerIp(split[0]);
-                    connectResetRequest.setServerPort(split[1]);
-                }
+                ConnectResetRequest connectResetRequest = buildConnectResetRequest(redirectAddress);
                 try {
                     connection.request(connectResetRequest, buildMeta());
                 } catch (ConnectionAlreadyClosedException e) {
@@ -339,6 +448,29 @@ public class ConnectionManager extends Subscriber<ConnectionLimitRuleChangeEvent
         
     }
     
+    /**
+     * send load request to a specific connection asynchronously.
+     *
+     * @param connectionId    connection id of client.
+     * @param redirectAddress server address to redirect.
+     * @return true if the request is sent.
+     */
+    public boolean loadSingleAsync(String connectionId, String redirectAddress) {
+        Connection connection = getConnection(connectionId);
+        if (connection == null || !connection.getMetaInfo().isSdkSource()) {
+            return false;
+        }
+        try {
+            connection.asyncRequest(buildConnectResetRequest(redirectAddress), buildMeta(), null);
+            return true;
+        } catch (ConnectionAlreadyClosedException e) {
+            unregister(connectionId);
+        } catch (Exception e) {
+            Loggers.REMOTE.error("error occurs when expel connection :", connectionId, e);
+        }
+        return false;
+    }
+    
     /**
      * get all client count.
      *
@@ -355,8 +487,20 @@ public class ConnectionManager extends Subscriber<ConnectionLimitRuleChangeEvent
      * @return count with the specific filter labels.
      */
     public int currentClientsCount(Map<String, String> filterLabels) {
+        if (filterLabels.isEmpty()) {
+            return connections.size();
+        }
+        // only check the connections of the rarest label, they are checked again as the index is updated after the
+        // connections are put and removed.
+        Set<String> candidates = null;
+        for (Map.Entry<String, String> entry : filterLabels.entrySet()) {
+            Set<String> each = connectionIdsOfLabel(entry.getKey(), entry.getValue());
+            if (candidates == null || each.size() < candidates.size()) {
+                candidates = each;
+            }
+        }
         int count = 0;
-        for (Connection connection : connections.values()) {
+        for (Connection connection : getConnections(candidates)) {
             Map<String, String> labels = connection.getMetaInfo().labels;
             boolean disMatchFound = false;
             for (Map.Entry<String, String> entry : filterLabels.entrySet()) {
@@ -377,9 +521,20 @@ public class ConnectionManager extends Subscriber<ConnectionLimitRuleChangeEvent
      * @return
      */
     public int currentSdkClientCount() {
-        Map<String, String> filter = new HashMap<String, String>(2);
-        filter.put(RemoteConstants.LABEL_SOURCE, RemoteConstants.LABEL_SOURCE_SDK);
-        return currentClientsCount(filter);
+        return sdkConnectionIds().size();
+    }
+    
+    /**
+     * get connections from sdk.
+     *
+     * @return connections from sdk.
+     */
+    public List<Connection> getSdkConnections() {
+        return getConnections(sdkConnectionIds());
+    }
+    
+    private Set<String> sdkConnectionIds() {
+        return connectionIdsOfLabel(RemoteConstants.LABEL_SOURCE, RemoteConstants.LABEL_SOURCE_SDK);
     }
     
     public Map<String, Connection> currentClients() {
@@ -393,12 +548,9 @@ public class ConnectionManager extends Subscriber<ConnectionLimitRuleChangeEvent
         //reject all new connections.
         this.maxClient = 0;
         //send connect reset response to  all clients.
-        for (Map.Entry<String, Connection> entry : connections.entrySet()) {
-            Connection client = entry.getValue();
+        for (Connection client : getConnections(sdkConnectionIds())) {
             try {
-                if (client.getMetaInfo().isSdkSource()) {
-                    client.request(new ConnectResetRequest(), buildMeta());
-                }
+                client.request(new ConnectResetRequest(), buildMeta());
                 
             } catch (Exception e) {
                 //Do Nothing.
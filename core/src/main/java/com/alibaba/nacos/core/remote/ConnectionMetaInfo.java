@@ -22,6 +22,7 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * ConnectionMetaInfo.
@@ -76,6 +77,11 @@ public class ConnectionMetaInfo {
      */
     String appName;
     
+    /**
+     * count of requests received, including heart beats.
+     */
+    final AtomicLong requestCount = new AtomicLong();
+    
     protected Map<String, String> labels = new HashMap<String, String>();
     
     public String getLabel(String labelKey) {
@@ -106,6 +112,15 @@ public class ConnectionMetaInfo {
         return RemoteConstants.LABEL_SOURCE_SDK.equalsIgnoreCase(source);
     }
     
+    /**
+     * check if this connection is only used to send hedged requests.
+     *
+     * @return if this connection is a hedge connection.
+     */
+    public boolean isHedge() {
+        return Boolean.parseBoolean(labels.get(RemoteConstants.LABEL_HEDGE));
+    }
+    
     /**
      * Getter method for property <tt>labels</tt>.
      *
@@ -268,6 +283,14 @@ public class ConnectionMetaInfo {
         this.localPort = localPort;
     }
     
+    public long getRequestCount() {
+        return requestCount.get();
+    }
+    
+    public void increaseRequestCount() {
+        requestCount.incrementAndGet();
+    }
+    
     public String getAppName() {
         return appName;
     }
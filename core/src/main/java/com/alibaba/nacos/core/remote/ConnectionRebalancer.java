@@ -0,0 +1,357 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.nacos.core.remote;
+
+import com.alibaba.nacos.api.remote.request.ServerLoaderInfoRequest;
+import com.alibaba.nacos.api.remote.response.Response;
+import com.alibaba.nacos.api.remote.response.ServerLoaderInfoResponse;
+import com.alibaba.nacos.common.executor.ExecutorFactory;
+import com.alibaba.nacos.common.executor.NameThreadFactory;
+import com.alibaba.nacos.core.cluster.Member;
+import com.alibaba.nacos.core.cluster.MemberUtil;
+import com.alibaba.nacos.core.cluster.ServerMemberManager;
+import com.alibaba.nacos.core.cluster.remote.ClusterRpcClientProxy;
+import com.alibaba.nacos.core.monitor.MetricsMonitor;
+import com.alibaba.nacos.core.utils.Loggers;
+import com.alibaba.nacos.core.utils.RemoteUtils;
+import com.alibaba.nacos.sys.env.EnvUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rebalances the sdk connections of the cluster continuously.
+ *
+ * <p>The load of a node is the sum of the cost of its sdk connections. The cost of a connection is 1 plus the requests
+ * it sent per second plus the costs contributed by the modules, such as the configs listened and the services
+ * subscribed. In each round a node whose load exceeds the average by {@link RemoteUtils#LOADER_FACTOR} redirects its
+ * cheapest connections to the least loaded node, until a quarter of the excess is moved or
+ * {@code nacos.remote.server.rebalance.maxExpelPerRound} connections are redirected, so that the cluster converges
+ * gradually. Connections younger than {@code nacos.remote.server.rebalance.minConnectionAge} milliseconds and the
+ * clients redirected in the last {@code nacos.remote.server.rebalance.cooldown} milliseconds are not moved, a client is
+ * known by its ip and app name as it reconnects with a new connection id after redirected. Nodes are compared by
+ * connection count if any of them does not report the cost.
+ *
+ * @author Nacos
+ */
+@Service
+public class ConnectionRebalancer {
+    
+    static final String REBALANCE_ENABLED = "nacos.remote.server.rebalance.enabled";
+    
+    static final String REBALANCE_INTERVAL = "nacos.remote.server.rebalance.interval";
+    
+    static final String REBALANCE_MAX_EXPEL_PER_ROUND = "nacos.remote.server.rebalance.maxExpelPerRound";
+    
+    static final String REBALANCE_COOLDOWN = "nacos.remote.server.rebalance.cooldown";
+    
+    static final String REBALANCE_MIN_CONNECTION_AGE = "nacos.remote.server.rebalance.minConnectionAge";
+    
+    public static final String METRIC_SDK_CON_COUNT = "sdkConCount";
+    
+    public static final String METRIC_SDK_CON_COST = "sdkConCost";
+    
+    private static final long DEFAULT_INTERVAL = 30000L;
+    
+    private static final int DEFAULT_MAX_EXPEL_PER_ROUND = 100;
+    
+    private static final long DEFAULT_COOLDOWN = 600000L;
+    
+    private static final long DEFAULT_MIN_CONNECTION_AGE = 60000L;
+    
+    private static final double STEP_RATIO = 0.25D;
+    
+    private static final long LOADER_REQUEST_TIMEOUT = 3000L;
+    
+    @Autowired
+    private ConnectionManager connectionManager;
+    
+    @Autowired
+    private ServerMemberManager serverMemberManager;
+    
+    @Autowired
+    private ClusterRpcClientProxy clusterRpcClientProxy;
+    
+    @Autowired(required = false)
+    private List<ConnectionCostContributor> costContributors = Collections.emptyList();
+    
+    private boolean enabled;
+    
+    private int maxExpelPerRound;
+    
+    private long cooldown;
+    
+    private long minConnectionAge;
+    
+    private volatile long localCost;
+    
+    /**
+     * request counts of the connections in the last round, only accessed by the rebalance task.
+     */
+    private Map<String, Long> lastRequestCounts = new HashMap<String, Long>();
+    
+    private long lastRoundTime;
+    
+    /**
+     * redirect time by client ip and app name, only accessed by the rebalance task.
+     */
+    private final Map<String, Long> expelledClients = new HashMap<String, Long>();
+    
+    /**
+     * Start the rebalance task.
+     */
+    @PostConstruct
+    public void start() {
+        enabled = EnvUtil.getProperty(REBALANCE_ENABLED, Boolean.class, false);
+        long interval = EnvUtil.getProperty(REBALANCE_INTERVAL, Long.class, DEFAULT_INTERVAL);
+        maxExpelPerRound = EnvUtil.getProperty(REBALANCE_MAX_EXPEL_PER_ROUND, Integer.class,
+                DEFAULT_MAX_EXPEL_PER_ROUND);
+        cooldown = EnvUtil.getProperty(REBALANCE_COOLDOWN, Long.class, DEFAULT_COOLDOWN);
+        minConnectionAge = EnvUtil.getProperty(REBALANCE_MIN_CONNECTION_AGE, Long.class, DEFAULT_MIN_CONNECTION_AGE);
+        ScheduledExecutorService executor = ExecutorFactory
+                .newSingleScheduledExecutorService(new NameThreadFactory("com.alibaba.nacos.core.remote.rebalancer"));
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                rebalance();
+            } catch (Throwable e) {
+                Loggers.REMOTE.error("error occurs when rebalance connections", e);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+        Loggers.REMOTE.info("connection rebalance enabled={}, interval={}, maxExpelPerRound={}, cooldown={}", enabled,
+                interval, maxExpelPerRound, cooldown);
+    }
+    
+    /**
+     * Get the sum of the cost of the sdk connections, evaluated in the last round.
+     *
+     * @return cost
+     */
+    public long getLocalCost() {
+        return localCost;
+    }
+    
+    void rebalance() {
+        long now = System.currentTimeMillis();
+        List<ConnectionCost> costs = evaluate(now);
+        long total = 0;
+        for (ConnectionCost each : costs) {
+            total += each.cost;
+        }
+        localCost = total;
+        if (!enabled) {
+            return;
+        }
+        List<ServerLoad> loads = collectLoads(costs.size(), total);
+        if (loads.size() < 2) {
+            return;
+        }
+        boolean byCost = true;
+        for (ServerLoad each : loads) {
+            byCost &= each.cost > 0 || each.count == 0;
+        }
+        long sum = 0;
+        long max = 0;
+        ServerLoad target = null;
+        for (ServerLoad each : loads) {
+            long load = each.load(byCost);
+            sum += load;
+            max = Math.max(max, load);
+            if (each != loads.get(0) && (target == null || load < target.load(byCost))) {
+                target = each;
+            }
+        }
+        double avg = (double) sum / loads.size();
+        long selfLoad = loads.get(0).load(byCost);
+        if (avg > 0) {
+            MetricsMonitor.getConnectionLoadImbalance().set((int) ((max - avg) * 100 / avg));
+            MetricsMonitor.getConnectionLoadPercent().set((int) (selfLoad * 100 / avg));
+        }
+        long budget = budget(selfLoad, avg, target.load(byCost));
+        if (budget <= 0) {
+            return;
+        }
+        expelledClients.values().removeIf(expelTime -> now - expelTime >= cooldown);
+        List<ConnectionCost> candidates = new ArrayList<ConnectionCost>(costs.size());
+        for (ConnectionCost each : costs) {
+            // a hedge connection loads this node but ignores the redirection, redirecting it would waste the budget.
+            if (each.hedge || now - each.createTime < minConnectionAge || expelledClients.containsKey(each.clientKey)) {
+                continue;
+            }
+            // each connection counts 1 when the nodes are compared by connection count.
+            candidates.add(byCost ? each
+                    : new ConnectionCost(each.connectionId, each.clientKey, false, each.createTime, 1));
+        }
+        int expelled = 0;
+        for (ConnectionCost each : choose(candidates, budget, maxExpelPerRound)) {
+            if (connectionManager.loadSingleAsync(each.connectionId, target.address)) {
+                expelledClients.put(each.clientKey, now);
+                expelled++;
+            }
+        }
+        MetricsMonitor.getRebalanceExpelledCounter().increment(expelled);
+        Loggers.REMOTE.info("rebalance connections, byCost={}, load={}, avg={}, target={}, budget={}, expelled={}",
+                byCost, selfLoad, avg, target.address, budget, expelled);
+    }
+    
+    private List<ConnectionCost> evaluate(long now) {
+        double seconds = (now - lastRoundTime) / 1000D;
+        Map<String, Long> requestCounts = new HashMap<String, Long>(lastRequestCounts.size() * 4 / 3 + 1);
+        List<ConnectionCost> result = new ArrayList<ConnectionCost>();
+        for (Connection each : connectionManager.getSdkConnections()) {
+            ConnectionMetaInfo metaInfo = each.getMetaInfo();
+            String connectionId = metaInfo.getConnectionId();
+            long requestCount = metaInfo.getRequestCount();
+            Long lastRequestCount = lastRequestCounts.get(connectionId);
+            requestCounts.put(connectionId, requestCount);
+            long cost = 1;
+            if (lastRequestCount != null && seconds > 0) {
+                cost += Math.round((requestCount - lastRequestCount) / seconds);
+            }
+            for (ConnectionCostContributor contributor : costContributors) {
+                cost += contributor.getCost(connectionId);
+            }
+            result.add(new ConnectionCost(connectionId, clientKey(metaInfo), metaInfo.isHedge(),
+                    metaInfo.getCreateTime().getTime(), cost));
+        }
+        lastRequestCounts = requestCounts;
+        lastRoundTime = now;
+        return result;
+    }
+    
+    private static String clientKey(ConnectionMetaInfo metaInfo) {
+        return metaInfo.getClientIp() + "#" + metaInfo.getAppName();
+    }
+    
+    private List<ServerLoad> collectLoads(long selfCount, long selfCost) {
+        List<ServerLoad> result = new ArrayList<ServerLoad>();
+        result.add(new ServerLoad(serverMemberManager.getSelf().getAddress(), selfCount, selfCost));
+        for (Member member : serverMemberManager.allMembersWithoutSelf()) {
+            if (!MemberUtil.isSupportedLongCon(member)) {
+                continue;
+            }
+            try {
+                Response response = clusterRpcClientProxy
+                        .sendRequest(member, new ServerLoaderInfoRequest(), LOADER_REQUEST_TIMEOUT);
+                if (response instanceof ServerLoaderInfoResponse && response.isSuccess()) {
+                    Map<String, String> metrics = ((ServerLoaderInfoResponse) response).getLoaderMetrics();
+                    result.add(new ServerLoad(member.getAddress(), parseLong(metrics.get(METRIC_SDK_CON_COUNT)),
+                            parseLong(metrics.get(METRIC_SDK_CON_COST))));
+                }
+            } catch (Exception e) {
+                // a node unavailable is neither a target nor counted in the average.
+                Loggers.REMOTE.warn("fail to get loader info of {}, {}", member.getAddress(), e.getMessage());
+            }
+        }
+        return result;
+    }
+    
+    private static long parseLong(String value) {
+        try {
+            return value == null ? 0 : Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * Load to move to the target in this round.
+     *
+     * @param load       load of this node
+     * @param avg        average load of the cluster
+     * @param targetLoad load of the least loaded node
+     * @return load to move, 0 if this node is not overloaded
+     */
+    static long budget(long load, double avg, long targetLoad) {
+        if (load <= avg * (1 + RemoteUtils.LOADER_FACTOR) || targetLoad >= avg) {
+            return 0;
+        }
+        return (long) Math.ceil(Math.min(load - avg, avg - targetLoad) * STEP_RATIO);
+    }
+    
+    /**
+     * Choose the cheapest connections until the budget is used up.
+     *
+     * @param candidates connections which can be moved
+     * @param budget     load to move
+     * @param maxCount   max count of connections to move
+     * @return connections chosen
+     */
+    static List<ConnectionCost> choose(List<ConnectionCost> candidates, long budget, int maxCount) {
+        List<ConnectionCost> sorted = new ArrayList<ConnectionCost>(candidates);
+        sorted.sort(Comparator.comparingLong(each -> each.cost));
+        List<ConnectionCost> result = new ArrayList<ConnectionCost>();
+        long moved = 0;
+        Iterator<ConnectionCost> iterator = sorted.iterator();
+        while (moved < budget && result.size() < maxCount && iterator.hasNext()) {
+            ConnectionCost each = iterator.next();
+            result.add(each);
+            moved += each.cost;
+        }
+        return result;
+    }
+    
+    static class ConnectionCost {
+        
+        final String connectionId;
+        
+        final String clientKey;
+        
+        final boolean hedge;
+        
+        final long createTime;
+        
+        final long cost;
+        
+        ConnectionCost(String connectionId, String clientKey, boolean hedge, long createTime, long cost) {
+            this.connectionId = connectionId;
+            this.clientKey = clientKey;
+            this.hedge = hedge;
+            this.createTime = createTime;
+            this.cost = cost;
+        }
+    }
+    
+    private static class ServerLoad {
+        
+        private final String address;
+        
+        private final long count;
+        
+        private final long cost;
+        
+        private ServerLoad(String address, long count, long cost) {
+            this.address = address;
+            this.count = count;
+            this.cost = cost;
+        }
+        
+        private long load(boolean byCost) {
+            return byCost ? cost : count;
+        }
+    }
+}
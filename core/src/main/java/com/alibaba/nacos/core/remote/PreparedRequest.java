@@ -0,0 +1,80 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote;
+
+import com.alibaba.nacos.api.remote.request.ServerRequest;
+import com.alibaba.nacos.core.remote.grpc.PushAckIdGenerator;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Server request pushed to many connections.
+ *
+ * <p>All the pushes share one request id and one body, the body is serialized by the first push and reused by the
+ * others. Acks are matched by connection and request id, so the shared request id does not conflict.
+ *
+ * @author Nacos
+ */
+public class PreparedRequest {
+    
+    private final ServerRequest request;
+    
+    private final Map<String, String> headers;
+    
+    private Object body;
+    
+    public PreparedRequest(ServerRequest request) {
+        request.setRequestId(String.valueOf(PushAckIdGenerator.getNextId()));
+        this.request = request;
+        this.headers = Collections.unmodifiableMap(new HashMap<String, String>(request.getHeaders()));
+    }
+    
+    /**
+     * Get the request, which should not be modified after prepared.
+     *
+     * @return request
+     */
+    public ServerRequest getRequest() {
+        return request;
+    }
+    
+    public String getRequestId() {
+        return request.getRequestId();
+    }
+    
+    public Map<String, String> getHeaders() {
+        return headers;
+    }
+    
+    /**
+     * Get the serialized body, serialize it if absent.
+     *
+     * @param serializer serializer of the transport
+     * @param <T>        type of body
+     * @return serialized body
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <T> T getBody(Function<ServerRequest, T> serializer) {
+        if (body == null) {
+            body = serializer.apply(request);
+        }
+        return (T) body;
+    }
+}
@@ -52,27 +52,7 @@ public class RpcPushService {
         Connection connection = connectionManager.getConnection(connectionId);
         if (connection != null) {
             try {
-                connection.asyncRequest(request, null, new AbstractRequestCallBack(requestCallBack.getTimeout()) {
-                    
-                    @Override
-                    public Executor getExecutor() {
-                        return executor;
-                    }
-                    
-                    @Override
-                    public void onResponse(Response response) {
-                        if (response.isSuccess()) {
-                            requestCallBack.onSuccess();
-                        } else {
-                            requestCallBack.onFail(new NacosException(response.getErrorCode(), response.getMessage()));
-                        }
-                    }
-                    
-                    @Override
-                    public void onException(Throwable e) {
-                        requestCallBack.onFail(e);
-                    }
-                });
+                connection.asyncRequest(request, null, toRequestCallBack(requestCallBack, executor));
             } catch (ConnectionAlreadyClosedException e) {
                 connectionManager.unregister(connectionId);
                 requestCallBack.onSuccess();
@@ -87,6 +67,57 @@ public class RpcPushService {
         }
     }
     
+    /**
+     * push request prepared for many connections, the serialized body of the request is shared.
+     *
+     * @param connectionId    connectionId.
+     * @param request         prepared request.
+     * @param requestCallBack requestCallBack.
+     */
+    public void pushWithCallback(String connectionId, PreparedRequest request, PushCallBack requestCallBack,
+            Executor executor) {
+        Connection connection = connectionManager.getConnection(connectionId);
+        if (connection != null) {
+            try {
+                connection.asyncRequest(request, toRequestCallBack(requestCallBack, executor));
+            } catch (ConnectionAlreadyClosedException e) {
+                connectionManager.unregister(connectionId);
+                requestCallBack.onSuccess();
+            } catch (Exception e) {
+                Loggers.REMOTE_DIGEST
+                        .error("error to send push response to connectionId ={},push response={}", connectionId,
+                                request.getRequest(), e);
+                requestCallBack.onFail(e);
+            }
+        } else {
+            requestCallBack.onSuccess();
+        }
+    }
+    
+    private AbstractRequestCallBack toRequestCallBack(PushCallBack requestCallBack, Executor executor) {
+        return new AbstractRequestCallBack(requestCallBack.getTimeout()) {
+            
+            @Override
+            public Executor getExecutor() {
+                return executor;
+            }
+            
+            @Override
+            public void onResponse(Response response) {
+                if (response.isSuccess()) {
+                    requestCallBack.onSuccess();
+                } else {
+                    requestCallBack.onFail(new NacosException(response.getErrorCode(), response.getMessage()));
+                }
+            }
+            
+            @Override
+            public void onException(Throwable e) {
+                requestCallBack.onFail(e);
+            }
+        };
+    }
+    
     /**
      * push response with no ack.
      *
@@ -17,8 +17,17 @@
 package com.alibaba.nacos.core.remote.control;
 
 import com.alibaba.nacos.api.remote.RpcScheduledExecutor;
+import com.alibaba.nacos.common.notify.Event;
+import com.alibaba.nacos.common.notify.NotifyCenter;
+import com.alibaba.nacos.common.notify.listener.Subscriber;
+import com.alibaba.nacos.core.remote.event.TpsControlRuleChangeEvent;
+import com.alibaba.nacos.core.utils.Loggers;
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
 import org.springframework.stereotype.Service;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -27,42 +36,114 @@ import java.util.concurrent.TimeUnit;
 /**
  * tps control manager.
  *
+ * <p>Requests of a point are not limited until the point is registered. Recorders of the ips and apps without request
+ * for {@link #RECORDER_EXPIRE_MILLIS} milliseconds are removed. Rules are applied by {@link TpsControlRuleChangeEvent},
+ * whose content is the json of the rules by point name, the points not in it are no longer limited.
+ *
  * @author liuzunfei
  * @version $Id: TpsControlManager.java, v 0.1 2021年01月09日 12:38 PM liuzunfei Exp $
  */
 @Service
-public class TpsControlManager {
+public class TpsControlManager extends Subscriber<TpsControlRuleChangeEvent> {
+    
+    private static final long RECORDER_EXPIRE_MILLIS = 60000L;
+    
+    private final Map<String, TpsControlPoint> points = new ConcurrentHashMap<String, TpsControlPoint>(16);
     
-    private Map<String, TpsControlPoint> points = new ConcurrentHashMap<String, TpsControlPoint>(16);
+    private final Set<String> pointsWithRule = new HashSet<String>();
     
     public TpsControlManager() {
+        NotifyCenter.registerToPublisher(TpsControlRuleChangeEvent.class, NotifyCenter.ringBufferSize);
+        NotifyCenter.registerSubscriber(this);
         RpcScheduledExecutor.COMMON_SERVER_EXECUTOR.scheduleWithFixedDelay(new Runnable() {
             @Override
             public void run() {
                 try {
-                    
-                    Set<Map.Entry<String, TpsControlPoint>> entries = points.entrySet();
-                    long currentMillis = System.currentTimeMillis();
-                    long nextSecondMillis = System.currentTimeMillis() + 1000L;
-                    for (Map.Entry<String, TpsControlPoint> entry : entries) {
-                        TpsControlPoint tpsControlPoint = entry.getValue();
-                        TpsRecorder tpsRecorder = tpsControlPoint.tpsRecorder;
-                        tpsRecorder.checkSecond(currentMillis);
-                        tpsRecorder.checkSecond(nextSecondMillis);
-                        Map<String, TpsRecorder> tpsRecordForIp = tpsControlPoint.tpsRecordForIp;
-                        if (tpsRecordForIp != null) {
-                            for (TpsRecorder tpsIp : tpsRecordForIp.values()) {
-                                tpsIp.checkSecond(currentMillis);
-                                tpsIp.checkSecond(nextSecondMillis);
-                            }
-                        }
-                        
+                    long expireTime = System.currentTimeMillis() - RECORDER_EXPIRE_MILLIS;
+                    for (TpsControlPoint tpsControlPoint : points.values()) {
+                        tpsControlPoint.refreshRecorder(expireTime);
                     }
                 } catch (Throwable throwable) {
-                    //check point error.
+                    Loggers.REMOTE_DIGEST.warn("Refresh tps control points error", throwable);
                 }
                 
             }
-        }, 0L, 1L, TimeUnit.SECONDS);
+        }, 0L, 10L, TimeUnit.SECONDS);
+    }
+    
+    /**
+     * Register a point if absent.
+     *
+     * @param pointName point name
+     * @return point
+     */
+    public TpsControlPoint registerTpsPoint(String pointName) {
+        return points.computeIfAbsent(pointName, TpsControlPoint::new);
+    }
+    
+    /**
+     * Apply the rule to a point, register the point if absent.
+     *
+     * @param pointName point name
+     * @param rule      rule
+     */
+    public void applyTpsRule(String pointName, TpsControlRule rule) {
+        registerTpsPoint(pointName).applyRule(rule);
+        Loggers.REMOTE_DIGEST.info("Tps control rule of point {} applied, point rule={}, ip rule={}, app rule={}",
+                pointName, rule.getPointRule(), rule.getIpRule(), rule.getAppRule());
+    }
+    
+    public TpsControlPoint getPoint(String pointName) {
+        return points.get(pointName);
+    }
+    
+    public Map<String, TpsControlPoint> getPoints() {
+        return Collections.unmodifiableMap(points);
+    }
+    
+    /**
+     * increase tps of a point.
+     *
+     * @param pointName point name
+     * @param clientIp  client ip, nullable
+     * @param appName   app name of client, nullable
+     * @return true if allowed or the point is not registered
+     */
+    public boolean applyTps(String pointName, String clientIp, String appName) {
+        TpsControlPoint point = points.get(pointName);
+        return point == null || point.applyTps(clientIp, appName);
+    }
+    
+    @Override
+    public void onEvent(TpsControlRuleChangeEvent event) {
+        String controlRule = event.getControlRule();
+        Map<String, TpsControlRule> rules;
+        try {
+            rules = new Gson().fromJson(controlRule, new TypeToken<Map<String, TpsControlRule>>() {
+            }.getType());
+        } catch (Exception e) {
+            Loggers.REMOTE_DIGEST.error("Fail to parse tps control rule :{}", controlRule, e);
+            return;
+        }
+        if (rules == null) {
+            rules = Collections.emptyMap();
+        }
+        synchronized (pointsWithRule) {
+            for (String each : pointsWithRule) {
+                if (!rules.containsKey(each)) {
+                    applyTpsRule(each, new TpsControlRule());
+                }
+            }
+            pointsWithRule.clear();
+            for (Map.Entry<String, TpsControlRule> entry : rules.entrySet()) {
+                applyTpsRule(entry.getKey(), entry.getValue());
+                pointsWithRule.add(entry.getKey());
+            }
+        }
+    }
+    
+    @Override
+    public Class<? extends Event> subscribeType() {
+        return TpsControlRuleChangeEvent.class;
     }
 }
@@ -14,25 +14,59 @@
  * limitations under the License.
  */
 
+
 package com.alibaba.nacos.core.remote.control;
 
-import java.util.HashMap;
+import com.alibaba.nacos.core.monitor.MetricsMonitor;
+import io.micrometer.core.instrument.Counter;
+
+import java.util.Iterator;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * tps control point.
  *
+ * <p>A request is checked by the recorder of its ip, of its app and of the point in turn, a request rejected by one
+ * of them is given back to the ones it passed. Recorders of ips and apps are created on the first request, at most
+ * {@link #MAX_RECORDER_COUNT} of each, the ips and apps beyond are only limited by the point.
+ *
  * @author liuzunfei
  * @version $Id: TpsControlPoint.java, v 0.1 2021年01月09日 12:38 PM liuzunfei Exp $
  */
 public class TpsControlPoint {
     
-    private String pointName;
+    static final int MAX_RECORDER_COUNT = 10000;
+    
+    private static final String DIMENSION_POINT = "point";
+    
+    private static final String DIMENSION_IP = "ip";
+    
+    private static final String DIMENSION_APP = "app";
+    
+    private final String pointName;
+    
+    private volatile TpsControlRule rule;
+    
+    volatile TpsRecorder tpsRecorder;
+    
+    final Map<String, TpsRecorder> tpsRecordForIp = new ConcurrentHashMap<String, TpsRecorder>(64);
+    
+    final Map<String, TpsRecorder> tpsRecordForApp = new ConcurrentHashMap<String, TpsRecorder>(64);
+    
+    private final Counter pointRejected;
+    
+    private final Counter ipRejected;
     
-    TpsRecorder tpsRecorder;
+    private final Counter appRejected;
     
-    Map<String, TpsRecorder> tpsRecordForIp = new HashMap<String, TpsRecorder>();
+    public TpsControlPoint(String pointName) {
+        this.pointName = pointName;
+        this.pointRejected = MetricsMonitor.getTpsRejectedCounter(pointName, DIMENSION_POINT);
+        this.ipRejected = MetricsMonitor.getTpsRejectedCounter(pointName, DIMENSION_IP);
+        this.appRejected = MetricsMonitor.getTpsRejectedCounter(pointName, DIMENSION_APP);
+        applyRule(new TpsControlRule());
+    }
     
     /**
      * increase tps.
@@ -41,39 +75,111 @@ public class TpsControlPoint {
      * @return check current tps is allowed.
      */
     public boolean applyTps(String clientIp) {
+        return applyTps(clientIp, null);
+    }
+    
+    /**
+     * increase tps.
+     *
+     * @param clientIp client ip, nullable.
+     * @param appName  app name of client, nullable.
+     * @return check current tps is allowed.
+     */
+    public boolean applyTps(String clientIp, String appName) {
+        long now = System.currentTimeMillis();
+        TpsControlRule currentRule = rule;
         //1.check ip tps.
-        if (tpsRecordForIp.containsKey(clientIp)) {
-            TpsRecorder tpsRecorder = tpsRecordForIp.get(clientIp);
-            AtomicLong currentTps = tpsRecorder.getCurrentTps();
-            long maxTpsOfIp = tpsRecorder.getMaxTps();
-            if (tpsRecorder.isInterceptMode() && maxTpsOfIp > 0 && currentTps.longValue() >= maxTpsOfIp) {
-                return false;
-            }
-            currentTps.incrementAndGet();
-            
+        TpsRecorder ipRecorder = getRecorder(tpsRecordForIp, currentRule.getIpRules(), currentRule.getIpRule(),
+                clientIp);
+        if (ipRecorder != null && !ipRecorder.tryAcquire(now)) {
+            ipRejected.increment();
+            return false;
+        }
+        
+        //2.check app tps.
+        TpsRecorder appRecorder = getRecorder(tpsRecordForApp, currentRule.getAppRules(), currentRule.getAppRule(),
+                appName);
+        if (appRecorder != null && !appRecorder.tryAcquire(now)) {
+            release(ipRecorder, now);
+            appRejected.increment();
+            return false;
         }
         
-        //2.check total tps.
-        long maxTps = tpsRecorder.getMaxTps();
-        if (tpsRecorder.isInterceptMode() && maxTps > 0 && tpsRecorder.getCurrentTps().longValue() >= maxTps) {
+        //3.check total tps.
+        if (!tpsRecorder.tryAcquire(now)) {
+            release(ipRecorder, now);
+            release(appRecorder, now);
+            pointRejected.increment();
             return false;
         }
-        tpsRecorder.getCurrentTps().incrementAndGet();
         
-        //3.check pass.
+        //4.check pass.
         return true;
     }
     
-    public String getPointName() {
-        return pointName;
+    private static void release(TpsRecorder recorder, long now) {
+        if (recorder != null) {
+            recorder.release(now);
+        }
     }
     
-    public void setPointName(String pointName) {
-        this.pointName = pointName;
+    private TpsRecorder getRecorder(Map<String, TpsRecorder> recorders, Map<String, TpsControlRule.Rule> rules,
+            TpsControlRule.Rule defaultRule, String key) {
+        if (key == null) {
+            return null;
+        }
+        TpsRecorder recorder = recorders.get(key);
+        if (recorder != null) {
+            return recorder;
+        }
+        TpsControlRule.Rule keyRule = TpsControlRule.findRule(rules, defaultRule, key);
+        if (keyRule == null || recorders.size() >= MAX_RECORDER_COUNT) {
+            return null;
+        }
+        return recorders.computeIfAbsent(key, k -> keyRule.createRecorder());
+    }
+    
+    /**
+     * Apply a new rule, the requests recorded are discarded.
+     *
+     * @param rule rule
+     */
+    public synchronized void applyRule(TpsControlRule rule) {
+        TpsControlRule.Rule pointRule = rule.getPointRule();
+        this.tpsRecorder = pointRule == null ? new TpsRecorder() : pointRule.createRecorder();
+        this.rule = rule;
+        tpsRecordForIp.clear();
+        tpsRecordForApp.clear();
     }
     
-    protected void refreshRecorder() {
+    /**
+     * Remove the recorders of the ips and apps without request since the time.
+     *
+     * @param expireTime time before which the recorders are idle
+     */
+    protected void refreshRecorder(long expireTime) {
+        removeIdle(tpsRecordForIp, expireTime);
+        removeIdle(tpsRecordForApp, expireTime);
+    }
     
+    private static void removeIdle(Map<String, TpsRecorder> recorders, long expireTime) {
+        Iterator<TpsRecorder> iterator = recorders.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getLastActiveTime() < expireTime) {
+                iterator.remove();
+            }
+        }
     }
     
+    public String getPointName() {
+        return pointName;
+    }
+    
+    public TpsControlRule getRule() {
+        return rule;
+    }
+    
+    public TpsRecorder getTpsRecorder() {
+        return tpsRecorder;
+    }
 }
@@ -16,22 +16,55 @@
 
 package com.alibaba.nacos.core.remote.control;
 
+import com.alibaba.nacos.api.exception.NacosException;
 import com.alibaba.nacos.api.remote.request.Request;
 import com.alibaba.nacos.api.remote.request.RequestMeta;
 import com.alibaba.nacos.api.remote.response.Response;
 import com.alibaba.nacos.core.remote.AbstractRequestFilter;
+import com.alibaba.nacos.core.remote.Connection;
+import com.alibaba.nacos.core.remote.ConnectionManager;
+import com.alibaba.nacos.core.utils.Loggers;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
 
 /**
  * tps control point.
  *
+ * <p>The point of a request is named by the simple class name of the request, requests are limited by the client ip
+ * and the app name of the connection.
+ *
  * @author liuzunfei
  * @version $Id: TpsControlRequestFilter.java, v 0.1 2021年01月09日 12:38 PM liuzunfei Exp $
  */
+@Component
 public class TpsControlRequestFilter extends AbstractRequestFilter {
     
+    @Autowired
+    private TpsControlManager tpsControlManager;
+    
+    @Autowired
+    private ConnectionManager connectionManager;
+    
     @Override
     protected Response filter(Request request, RequestMeta meta, Class handlerClazz) {
-        
-        return null;
+        TpsControlPoint point = tpsControlManager.getPoint(request.getClass().getSimpleName());
+        if (point == null) {
+            return null;
+        }
+        Connection connection = connectionManager.getConnection(meta.getConnectionId());
+        String appName = connection == null ? null : connection.getMetaInfo().getAppName();
+        if (point.applyTps(meta.getClientIp(), appName)) {
+            return null;
+        }
+        try {
+            Response response = (Response) super.getResponseClazz(handlerClazz).getDeclaredConstructor()
+                    .newInstance();
+            response.setErrorInfo(NacosException.OVER_THRESHOLD, "Tps over limit of " + point.getPointName());
+            return response;
+        } catch (Exception e) {
+            Loggers.REMOTE_DIGEST.warn("Tps control fail to build response, request: {}",
+                    request.getClass().getSimpleName(), e);
+            return null;
+        }
     }
 }
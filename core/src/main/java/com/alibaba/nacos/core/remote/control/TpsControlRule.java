@@ -0,0 +1,153 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.nacos.core.remote.control;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * tps control rule of a point.
+ *
+ * <p>The rules of the ips and apps listed are applied to them, the default ip or app rule is applied to the others.
+ * Null rule means no limit.
+ *
+ * @author Nacos
+ */
+public class TpsControlRule {
+    
+    private Rule pointRule;
+    
+    private Rule ipRule;
+    
+    private Map<String, Rule> ipRules = new HashMap<String, Rule>();
+    
+    private Rule appRule;
+    
+    private Map<String, Rule> appRules = new HashMap<String, Rule>();
+    
+    public Rule getPointRule() {
+        return pointRule;
+    }
+    
+    public void setPointRule(Rule pointRule) {
+        this.pointRule = pointRule;
+    }
+    
+    public Rule getIpRule() {
+        return ipRule;
+    }
+    
+    public void setIpRule(Rule ipRule) {
+        this.ipRule = ipRule;
+    }
+    
+    public Map<String, Rule> getIpRules() {
+        return ipRules;
+    }
+    
+    public void setIpRules(Map<String, Rule> ipRules) {
+        this.ipRules = ipRules;
+    }
+    
+    public Rule getAppRule() {
+        return appRule;
+    }
+    
+    public void setAppRule(Rule appRule) {
+        this.appRule = appRule;
+    }
+    
+    public Map<String, Rule> getAppRules() {
+        return appRules;
+    }
+    
+    public void setAppRules(Map<String, Rule> appRules) {
+        this.appRules = appRules;
+    }
+    
+    /**
+     * Find the rule of a key.
+     *
+     * @param rules       rules of the keys listed
+     * @param defaultRule rule of the other keys
+     * @param key         ip or app
+     * @return rule, null if not limited
+     */
+    static Rule findRule(Map<String, Rule> rules, Rule defaultRule, String key) {
+        Rule rule = rules == null ? null : rules.get(key);
+        return rule == null ? defaultRule : rule;
+    }
+    
+    public static class Rule {
+        
+        private long maxTps = -1;
+        
+        /**
+         * monitor/intercept.
+         */
+        private String monitorType = TpsRecorder.MONITOR_TYPE_MONITOR;
+        
+        /**
+         * counter/tokenBucket/leakyBucket.
+         */
+        private String model = TpsRecorder.MODEL_COUNTER;
+        
+        public Rule() {
+        }
+        
+        public Rule(long maxTps, String monitorType, String model) {
+            this.maxTps = maxTps;
+            this.monitorType = monitorType;
+            this.model = model;
+        }
+        
+        public long getMaxTps() {
+            return maxTps;
+        }
+        
+        public void setMaxTps(long maxTps) {
+            this.maxTps = maxTps;
+        }
+        
+        public String getMonitorType() {
+            return monitorType;
+        }
+        
+        public void setMonitorType(String monitorType) {
+            this.monitorType = monitorType;
+        }
+        
+        public String getModel() {
+            return model;
+        }
+        
+        public void setModel(String model) {
+            this.model = model;
+        }
+        
+        TpsRecorder createRecorder() {
+            return new TpsRecorder(maxTps, monitorType, model);
+        }
+        
+        @Override
+        public String toString() {
+            return "Rule{" + "maxTps=" + maxTps + ", monitorType='" + monitorType + '\'' + ", model='" + model + '\''
+                    + '}';
+        }
+    }
+}
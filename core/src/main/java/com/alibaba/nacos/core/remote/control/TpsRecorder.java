@@ -14,57 +14,178 @@
  * limitations under the License.
  */
 
-package com.alibaba.nacos.core.remote.control;
 
-import com.google.common.cache.Cache;
-import com.google.common.cache.CacheBuilder;
+package com.alibaba.nacos.core.remote.control;
 
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * tps record.
  *
+ * <p>Requests passed are counted in a ring of {@link #SLOT_COUNT} slots of {@link #SLOT_MILLIS} milliseconds, which
+ * is a sliding window of one second. A slot is reset when it is reused by a later time, so counting a request
+ * allocates nothing and the counters are striped {@link LongAdder}s.
+ *
+ * <p>The tps is limited by the count of the window in {@link #MODEL_COUNTER} model. In {@link #MODEL_TOKEN_BUCKET}
+ * and {@link #MODEL_LEAKY_BUCKET} model it is limited by the theoretical arrival time of the next request, which
+ * allows a burst of one second and of {@link #LEAKY_BUCKET_MILLIS} milliseconds of requests respectively.
+ *
  * @author liuzunfei
  * @version $Id: TpsRecorder.java, v 0.1 2021年01月09日 12:38 PM liuzunfei Exp $
  */
 public class TpsRecorder {
     
-    private long maxTps = -1;
+    public static final String MONITOR_TYPE_MONITOR = "monitor";
+    
+    public static final String MONITOR_TYPE_INTERCEPT = "intercept";
+    
+    public static final String MODEL_COUNTER = "counter";
+    
+    public static final String MODEL_TOKEN_BUCKET = "tokenBucket";
+    
+    public static final String MODEL_LEAKY_BUCKET = "leakyBucket";
+    
+    static final int SLOT_COUNT = 10;
+    
+    static final long SLOT_MILLIS = 100L;
+    
+    static final long LEAKY_BUCKET_MILLIS = 100L;
+    
+    private static final long MICROS_PER_MILLI = 1000L;
+    
+    private static final long MICROS_PER_SECOND = 1000000L;
+    
+    private volatile long maxTps = -1;
     
     /**
      * monitor/intercept.
      */
-    private String monitorType = "";
+    private volatile String monitorType = "";
     
     /**
-     * second count.
+     * counter/tokenBucket/leakyBucket.
      */
-    private Cache<String, AtomicLong> tps = CacheBuilder.newBuilder().maximumSize(10).build();
+    private volatile String model = MODEL_COUNTER;
+    
+    private final Slot[] slots = new Slot[SLOT_COUNT];
     
-    public AtomicLong getTps(String second) {
-        AtomicLong atomicLong = tps.getIfPresent(second);
-        if (atomicLong != null) {
-            return atomicLong;
+    /**
+     * theoretical arrival time in microseconds of the next request, used by the bucket models.
+     */
+    private final AtomicLong theoreticalArrival = new AtomicLong();
+    
+    public TpsRecorder() {
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            slots[i] = new Slot();
         }
-        synchronized (tps) {
-            if (tps.getIfPresent(second) == null) {
-                tps.put(second, new AtomicLong());
+    }
+    
+    public TpsRecorder(long maxTps, String monitorType, String model) {
+        this();
+        this.maxTps = maxTps;
+        this.monitorType = monitorType;
+        this.model = model;
+    }
+    
+    /**
+     * Apply one request.
+     *
+     * @param timeMillis current time
+     * @return false if the request exceeds the max tps in intercept mode
+     */
+    public boolean tryAcquire(long timeMillis) {
+        long max = maxTps;
+        if (max > 0 && isInterceptMode()) {
+            boolean passed = MODEL_COUNTER.equals(model) ? getTps(timeMillis) < max : acquireBucket(timeMillis, max);
+            if (!passed) {
+                return false;
             }
-            return tps.getIfPresent(second);
         }
+        slot(timeMillis).count.increment();
+        return true;
     }
     
-    private String second(long timeStamp) {
-        String timeStampStr = String.valueOf(timeStamp);
-        return timeStampStr.substring(0, timeStampStr.length() - 3);
+    /**
+     * Give back a request acquired at the time, as it is rejected by another recorder.
+     *
+     * @param timeMillis time passed to {@link #tryAcquire(long)}
+     */
+    public void release(long timeMillis) {
+        long max = maxTps;
+        if (max > 0 && isInterceptMode() && !MODEL_COUNTER.equals(model)) {
+            theoreticalArrival.addAndGet(-Math.max(1L, MICROS_PER_SECOND / max));
+        }
+        Slot slot = slots[(int) (timeMillis / SLOT_MILLIS % SLOT_COUNT)];
+        if (slot.epoch == timeMillis / SLOT_MILLIS) {
+            slot.count.decrement();
+        }
     }
     
-    protected void checkSecond(long timeStamp) {
-        getTps(second(timeStamp));
+    private boolean acquireBucket(long timeMillis, long max) {
+        long now = timeMillis * MICROS_PER_MILLI;
+        long interval = Math.max(1L, MICROS_PER_SECOND / max);
+        long burst = MODEL_LEAKY_BUCKET.equals(model) ? LEAKY_BUCKET_MILLIS * MICROS_PER_MILLI : MICROS_PER_SECOND;
+        long tolerance = Math.max(0L, burst - interval);
+        while (true) {
+            long arrival = theoreticalArrival.get();
+            long base = Math.max(arrival, now);
+            if (base - now > tolerance) {
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, base + interval)) {
+                return true;
+            }
+        }
+    }
+    
+    private Slot slot(long timeMillis) {
+        long epoch = timeMillis / SLOT_MILLIS;
+        Slot slot = slots[(int) (epoch % SLOT_COUNT)];
+        if (slot.epoch != epoch) {
+            synchronized (slot) {
+                if (slot.epoch < epoch) {
+                    slot.count.reset();
+                    slot.epoch = epoch;
+                }
+            }
+        }
+        return slot;
+    }
+    
+    /**
+     * Get the count of requests passed in the second before the time.
+     *
+     * @param timeMillis time
+     * @return count of requests
+     */
+    public long getTps(long timeMillis) {
+        long epoch = timeMillis / SLOT_MILLIS;
+        long sum = 0;
+        for (Slot each : slots) {
+            long slotEpoch = each.epoch;
+            if (slotEpoch <= epoch && epoch - slotEpoch < SLOT_COUNT) {
+                sum += each.count.sum();
+            }
+        }
+        return sum;
+    }
+    
+    public long getCurrentTps() {
+        return getTps(System.currentTimeMillis());
     }
     
-    public AtomicLong getCurrentTps() {
-        return getTps(second(System.currentTimeMillis()));
+    /**
+     * Get the last time of a request passed.
+     *
+     * @return start time of the latest slot
+     */
+    public long getLastActiveTime() {
+        long epoch = 0;
+        for (Slot each : slots) {
+            epoch = Math.max(epoch, each.epoch);
+        }
+        return epoch * SLOT_MILLIS;
     }
     
     public long getMaxTps() {
@@ -75,7 +196,30 @@ public class TpsRecorder {
         this.maxTps = maxTps;
     }
     
+    public String getMonitorType() {
+        return monitorType;
+    }
+    
+    public void setMonitorType(String monitorType) {
+        this.monitorType = monitorType;
+    }
+    
+    public String getModel() {
+        return model;
+    }
+    
+    public void setModel(String model) {
+        this.model = model;
+    }
+    
     public boolean isInterceptMode() {
-        return "intercept".equals(this.monitorType);
+        return MONITOR_TYPE_INTERCEPT.equals(this.monitorType);
+    }
+    
+    private static class Slot {
+        
+        private volatile long epoch = -1;
+        
+        private final LongAdder count = new LongAdder();
     }
 }
@@ -22,6 +22,7 @@ import com.alibaba.nacos.api.remote.request.RequestMeta;
 import com.alibaba.nacos.api.remote.request.ServerLoaderInfoRequest;
 import com.alibaba.nacos.api.remote.response.ServerLoaderInfoResponse;
 import com.alibaba.nacos.core.remote.ConnectionManager;
+import com.alibaba.nacos.core.remote.ConnectionRebalancer;
 import com.alibaba.nacos.core.remote.RequestHandler;
 import com.alibaba.nacos.sys.env.EnvUtil;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -42,14 +43,19 @@ public class ServerLoaderInfoRequestHandler extends RequestHandler<ServerLoaderI
     @Autowired
     private ConnectionManager connectionManager;
     
+    @Autowired
+    private ConnectionRebalancer connectionRebalancer;
+    
     @Override
     public ServerLoaderInfoResponse handle(ServerLoaderInfoRequest request, RequestMeta meta) throws NacosException {
         ServerLoaderInfoResponse serverLoaderInfoResponse = new ServerLoaderInfoResponse();
         serverLoaderInfoResponse.putMetricsValue("conCount", String.valueOf(connectionManager.currentClientsCount()));
         Map<String, String> filter = new HashMap<String, String>(2);
         filter.put(RemoteConstants.LABEL_SOURCE, RemoteConstants.LABEL_SOURCE_SDK);
-        serverLoaderInfoResponse
-                .putMetricsValue("sdkConCount", String.valueOf(connectionManager.currentClientsCount(filter)));
+        serverLoaderInfoResponse.putMetricsValue(ConnectionRebalancer.METRIC_SDK_CON_COUNT,
+                String.valueOf(connectionManager.currentClientsCount(filter)));
+        serverLoaderInfoResponse.putMetricsValue(ConnectionRebalancer.METRIC_SDK_CON_COST,
+                String.valueOf(connectionRebalancer.getLocalCost()));
         serverLoaderInfoResponse.putMetricsValue("countLimit", String.valueOf(connectionManager.countLimited()));
         serverLoaderInfoResponse.putMetricsValue("load", String.valueOf(EnvUtil.getLoad()));
         serverLoaderInfoResponse.putMetricsValue("cpu", String.valueOf(EnvUtil.getCPU()));
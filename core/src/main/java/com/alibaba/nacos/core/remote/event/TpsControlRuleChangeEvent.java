@@ -0,0 +1,41 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote.event;
+
+import com.alibaba.nacos.common.notify.Event;
+
+/**
+ * tps control rule change event, the rule is a json of the rules by point name.
+ *
+ * @author Nacos
+ */
+public class TpsControlRuleChangeEvent extends Event {
+    
+    String controlRule;
+    
+    public TpsControlRuleChangeEvent(String controlRule) {
+        this.controlRule = controlRule;
+    }
+    
+    public String getControlRule() {
+        return controlRule;
+    }
+    
+    public void setControlRule(String controlRule) {
+        this.controlRule = controlRule;
+    }
+}
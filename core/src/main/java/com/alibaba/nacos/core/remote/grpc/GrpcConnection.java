@@ -17,6 +17,7 @@
 package com.alibaba.nacos.core.remote.grpc;
 
 import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.grpc.auto.Payload;
 import com.alibaba.nacos.api.remote.DefaultRequestFuture;
 import com.alibaba.nacos.api.remote.RequestCallBack;
 import com.alibaba.nacos.api.remote.RequestFuture;
@@ -29,8 +30,10 @@ import com.alibaba.nacos.common.remote.exception.ConnectionAlreadyClosedExceptio
 import com.alibaba.nacos.common.utils.VersionUtils;
 import com.alibaba.nacos.core.remote.Connection;
 import com.alibaba.nacos.core.remote.ConnectionMetaInfo;
+import com.alibaba.nacos.core.remote.PreparedRequest;
 import com.alibaba.nacos.core.remote.RpcAckCallbackSynchronizer;
 import com.alibaba.nacos.core.utils.Loggers;
+import com.google.protobuf.ByteString;
 import io.grpc.StatusRuntimeException;
 import io.grpc.netty.shaded.io.netty.channel.Channel;
 import io.grpc.stub.ServerCallStreamObserver;
@@ -57,10 +60,14 @@ public class GrpcConnection extends Connection {
     }
     
     private void sendRequestNoAck(Request request, RequestMeta meta) throws NacosException {
+        sendPayload(GrpcUtils.convert(request, wrapMeta(meta)));
+    }
+    
+    private void sendPayload(Payload payload) throws NacosException {
         try {
             //StreamObserver#onNext() is not thread-safe,synchronized is required to avoid direct memory leak.
             synchronized (streamObserver) {
-                streamObserver.onNext(GrpcUtils.convert(request, wrapMeta(meta)));
+                streamObserver.onNext(payload);
             }
         } catch (Exception e) {
             if (e instanceof StatusRuntimeException) {
@@ -86,7 +93,10 @@ public class GrpcConnection extends Connection {
         String requestId = String.valueOf(PushAckIdGenerator.getNextId());
         request.setRequestId(requestId);
         sendRequestNoAck(request, meta);
-        
+        return syncCallback(requestId, callBack);
+    }
+    
+    private DefaultRequestFuture syncCallback(String requestId, RequestCallBack callBack) throws NacosException {
         DefaultRequestFuture defaultPushFuture = new DefaultRequestFuture(getMetaInfo().getConnectionId(), requestId,
                 callBack, () -> RpcAckCallbackSynchronizer.clearFuture(getMetaInfo().getConnectionId(), requestId));
         
@@ -122,6 +132,13 @@ public class GrpcConnection extends Connection {
         sendRequestInner(request, requestMeta, requestCallBack);
     }
     
+    @Override
+    public void asyncRequest(PreparedRequest request, RequestCallBack requestCallBack) throws NacosException {
+        ByteString body = request.getBody(GrpcUtils::toBody);
+        sendPayload(GrpcUtils.convert(request.getRequest(), wrapMeta(null), request.getHeaders(), body));
+        syncCallback(request.getRequestId(), requestCallBack);
+    }
+    
     @Override
     public Map<String, String> getLabels() {
         return null;
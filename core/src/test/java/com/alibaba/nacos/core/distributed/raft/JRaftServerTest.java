@@ -18,9 +18,17 @@ package com.alibaba.nacos.core.distributed.raft;
 
 import com.alibaba.nacos.common.model.RestResult;
 import com.alibaba.nacos.common.model.RestResultUtils;
+import com.alibaba.nacos.consistency.cp.RequestProcessor4CP;
+import com.alibaba.nacos.consistency.entity.ReadMode;
+import com.alibaba.nacos.consistency.entity.ReadRequest;
+import com.alibaba.nacos.consistency.entity.Response;
 import com.alibaba.nacos.core.cluster.Member;
 import com.alibaba.nacos.core.distributed.ProtocolManager;
 import com.alibaba.nacos.sys.env.EnvUtil;
+import com.alipay.sofa.jraft.Node;
+import com.alipay.sofa.jraft.Status;
+import com.alipay.sofa.jraft.closure.ReadIndexClosure;
+import com.alipay.sofa.jraft.entity.PeerId;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -35,10 +43,25 @@ import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
 public class JRaftServerTest {
     
+    private static final String READ_GROUP = "test_read";
+    
     private JRaftServer server;
     
+    private Node node;
+    
+    private NacosStateMachine machine;
+    
+    private RequestProcessor4CP processor;
+    
     @BeforeClass
     public static void beforeClass() {
         EnvUtil.setEnvironment(new MockEnvironment());
@@ -60,11 +83,106 @@ public class JRaftServerTest {
         
         server.init(config);
         
+        node = mock(Node.class);
+        machine = mock(NacosStateMachine.class);
+        processor = mock(RequestProcessor4CP.class);
+        when(processor.onRequest(any())).thenReturn(Response.newBuilder().setSuccess(true).build());
+        doAnswer(invocationOnMock -> {
+            ReadIndexClosure closure = invocationOnMock.getArgument(1);
+            closure.run(Status.OK());
+            return null;
+        }).when(node).readIndex(any(), any());
+        
         Map<String, JRaftServer.RaftGroupTuple> map = new HashMap<>();
         map.put("test_nacos", new JRaftServer.RaftGroupTuple());
+        map.put(READ_GROUP, new JRaftServer.RaftGroupTuple(node, processor, null, machine, new ReadLease(60_000L)));
         server.mockMultiRaftGroup(map);
     }
     
+    @Test
+    public void testLeaseReadRenewedByReadIndex() throws Exception {
+        when(node.isLeader()).thenReturn(true);
+        when(machine.getTerm()).thenReturn(1L);
+        
+        Assert.assertTrue(server.get(readRequest(ReadMode.LEASE, 0)).get().getSuccess());
+        verify(node, times(1)).readIndex(any(), any());
+        
+        // the lease is valid now, the leader answers without confirming its leadership again
+        Assert.assertTrue(server.get(readRequest(ReadMode.LEASE, 0)).get().getSuccess());
+        Assert.assertTrue(server.get(readRequest(ReadMode.LEASE, 0)).get().getSuccess());
+        verify(node, times(1)).readIndex(any(), any());
+        verify(processor, times(3)).onRequest(any());
+        
+        // a linearizable read always goes through readIndex
+        server.get(readRequest(ReadMode.LINEARIZABLE, 0)).get();
+        verify(node, times(2)).readIndex(any(), any());
+    }
+    
+    @Test
+    public void testLeaseNotUsedAfterTermChange() throws Exception {
+        when(node.isLeader()).thenReturn(true);
+        when(machine.getTerm()).thenReturn(1L);
+        server.get(readRequest(ReadMode.LEASE, 0)).get();
+        verify(node, times(1)).readIndex(any(), any());
+        
+        when(machine.getTerm()).thenReturn(2L);
+        server.get(readRequest(ReadMode.LEASE, 0)).get();
+        verify(node, times(2)).readIndex(any(), any());
+    }
+    
+    @Test
+    public void testLeaseNotUsedByFollower() throws Exception {
+        when(node.isLeader()).thenReturn(true);
+        when(machine.getTerm()).thenReturn(1L);
+        server.get(readRequest(ReadMode.LEASE, 0)).get();
+        
+        when(node.isLeader()).thenReturn(false);
+        server.get(readRequest(ReadMode.LEASE, 0)).get();
+        server.get(readRequest(ReadMode.LEASE, 0)).get();
+        verify(node, times(3)).readIndex(any(), any());
+    }
+    
+    @Test
+    public void testLeaseNotRenewedByReadIndexOnFollower() throws Exception {
+        when(node.isLeader()).thenReturn(false);
+        when(machine.getTerm()).thenReturn(1L);
+        server.get(readRequest(ReadMode.LEASE, 0)).get();
+        
+        when(node.isLeader()).thenReturn(true);
+        server.get(readRequest(ReadMode.LEASE, 0)).get();
+        verify(node, times(2)).readIndex(any(), any());
+    }
+    
+    @Test
+    public void testLocalReadWithinMaxLag() throws Exception {
+        when(node.getLeaderId()).thenReturn(PeerId.parsePeer("1.1.1.2:7848"));
+        when(node.getLastCommittedIndex()).thenReturn(110L);
+        when(node.getLastAppliedLogIndex()).thenReturn(100L);
+        
+        Assert.assertTrue(server.get(readRequest(ReadMode.LOCAL, 10)).get().getSuccess());
+        // the server default of 100 logs is used when the request does not set a bound
+        Assert.assertTrue(server.get(readRequest(ReadMode.LOCAL, 0)).get().getSuccess());
+        verify(node, times(0)).readIndex(any(), any());
+        
+        Assert.assertTrue(server.get(readRequest(ReadMode.LOCAL, 5)).get().getSuccess());
+        verify(node, times(1)).readIndex(any(), any());
+        verify(processor, times(3)).onRequest(any());
+    }
+    
+    @Test
+    public void testLocalReadWithoutLeader() throws Exception {
+        when(node.getLeaderId()).thenReturn(PeerId.emptyPeer());
+        when(node.getLastCommittedIndex()).thenReturn(100L);
+        when(node.getLastAppliedLogIndex()).thenReturn(100L);
+        
+        server.get(readRequest(ReadMode.LOCAL, 10)).get();
+        verify(node, times(1)).readIndex(any(), any());
+    }
+    
+    private ReadRequest readRequest(ReadMode readMode, long maxLag) {
+        return ReadRequest.newBuilder().setGroup(READ_GROUP).setReadMode(readMode).setMaxLag(maxLag).build();
+    }
+    
     @Test
     public void testPeerChange() {
         AtomicBoolean changed = new AtomicBoolean(false);
@@ -0,0 +1,61 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.distributed.raft;
+
+import com.alibaba.nacos.consistency.snapshot.LocalFileMeta;
+import com.alipay.sofa.jraft.Closure;
+import com.alipay.sofa.jraft.entity.LocalFileMetaOutter;
+import com.alipay.sofa.jraft.storage.snapshot.SnapshotReader;
+import com.alipay.sofa.jraft.storage.snapshot.SnapshotWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JSnapshotOperationTest {
+    
+    private final JSnapshotOperation operation = new JSnapshotOperation() {
+        @Override
+        public void onSnapshotSave(SnapshotWriter writer, Closure done) {
+        }
+        
+        @Override
+        public boolean onSnapshotLoad(SnapshotReader reader) {
+            return true;
+        }
+        
+        @Override
+        public String info() {
+            return "test";
+        }
+    };
+    
+    @Test
+    public void testBuildMetadataWithContentChecksum() throws Exception {
+        LocalFileMeta meta = new LocalFileMeta().append(LocalFileMeta.CONTENT_CHECKSUM, "1a2b");
+        LocalFileMetaOutter.LocalFileMeta result = operation.buildMetadata(meta);
+        Assert.assertTrue(result.hasChecksum());
+        Assert.assertEquals("1a2b", result.getChecksum());
+        Assert.assertFalse(result.getUserMeta().isEmpty());
+    }
+    
+    @Test
+    public void testBuildMetadataWithoutContentChecksum() throws Exception {
+        LocalFileMeta meta = new LocalFileMeta().append("checkSum", "1a2b");
+        LocalFileMetaOutter.LocalFileMeta result = operation.buildMetadata(meta);
+        Assert.assertFalse(result.hasChecksum());
+        Assert.assertNull(operation.buildMetadata(null));
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.distributed.raft;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+public class ReadLeaseTest {
+    
+    private static final long LEASE_NANOS = TimeUnit.MILLISECONDS.toNanos(100L);
+    
+    @Test
+    public void testValidUntilExpired() {
+        ReadLease lease = new ReadLease(100L);
+        Assert.assertFalse(lease.isValid(1L, 0L));
+        lease.renew(1L, 0L);
+        Assert.assertTrue(lease.isValid(1L, 0L));
+        Assert.assertTrue(lease.isValid(1L, LEASE_NANOS - 1));
+        Assert.assertFalse(lease.isValid(1L, LEASE_NANOS));
+    }
+    
+    @Test
+    public void testBoundToTerm() {
+        ReadLease lease = new ReadLease(100L);
+        lease.renew(1L, 0L);
+        Assert.assertFalse(lease.isValid(2L, 0L));
+        lease.renew(2L, 0L);
+        Assert.assertTrue(lease.isValid(2L, 0L));
+        Assert.assertFalse(lease.isValid(1L, 0L));
+    }
+    
+    @Test
+    public void testRenewNeverShortensLease() {
+        ReadLease lease = new ReadLease(100L);
+        lease.renew(1L, LEASE_NANOS);
+        // a readIndex started earlier may complete later
+        lease.renew(1L, 0L);
+        Assert.assertTrue(lease.isValid(1L, LEASE_NANOS + 1));
+    }
+    
+    @Test
+    public void testRevoke() {
+        ReadLease lease = new ReadLease(100L);
+        lease.renew(1L, 0L);
+        lease.revoke();
+        Assert.assertFalse(lease.isValid(1L, 0L));
+    }
+    
+    @Test
+    public void testDisabled() {
+        ReadLease lease = new ReadLease(0L);
+        lease.renew(1L, 0L);
+        Assert.assertFalse(lease.isValid(1L, 0L));
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConnectionIndexTest {
+    
+    @Test
+    public void testAddAndRemove() {
+        ConnectionIndex index = new ConnectionIndex();
+        index.add("127.0.0.1", "conn1");
+        index.add("127.0.0.1", "conn2");
+        index.add("127.0.0.2", "conn3");
+        index.add(null, "conn4");
+        Assert.assertEquals(2, index.count("127.0.0.1"));
+        Assert.assertTrue(index.get("127.0.0.1").contains("conn2"));
+        Assert.assertEquals(0, index.count(null));
+        
+        index.remove("127.0.0.1", "conn1");
+        index.remove("127.0.0.2", "conn3");
+        index.remove("127.0.0.3", "conn3");
+        Assert.assertEquals(1, index.count("127.0.0.1"));
+        Assert.assertTrue(index.get("127.0.0.2").isEmpty());
+        Assert.assertEquals(0, index.count("127.0.0.2"));
+    }
+}
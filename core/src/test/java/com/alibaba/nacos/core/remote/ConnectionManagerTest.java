@@ -0,0 +1,126 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote;
+
+import com.alibaba.nacos.api.remote.RemoteConstants;
+import com.alibaba.nacos.core.remote.event.ConnectionLimitRuleChangeEvent;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ConnectionManagerTest {
+    
+    @Mock
+    private ClientConnectionEventListenerRegistry clientConnectionEventListenerRegistry;
+    
+    @InjectMocks
+    private ConnectionManager connectionManager;
+    
+    @Test
+    public void testHedgeConnectionNotNotifiedAsClient() {
+        Map<String, String> hedgeLabels = sdkLabels();
+        hedgeLabels.put(RemoteConstants.LABEL_HEDGE, Boolean.TRUE.toString());
+        Connection hedge = connection("hedge", "127.0.0.1", "app", hedgeLabels);
+        Connection client = connection("client", "127.0.0.1", "app", sdkLabels());
+        Assert.assertTrue(connectionManager.register("hedge", hedge));
+        Assert.assertTrue(connectionManager.register("client", client));
+        
+        // requests of the hedge connection are served and it is counted, but it is not a client.
+        Assert.assertTrue(connectionManager.checkValid("hedge"));
+        Assert.assertEquals(2, connectionManager.currentSdkClientCount());
+        Assert.assertEquals(2, connectionManager.getConnectionCount("127.0.0.1", "app"));
+        Mockito.verify(clientConnectionEventListenerRegistry, Mockito.never()).notifyClientConnected(hedge);
+        Mockito.verify(clientConnectionEventListenerRegistry).notifyClientConnected(client);
+        
+        connectionManager.unregister("hedge");
+        Assert.assertFalse(connectionManager.checkValid("hedge"));
+        Assert.assertEquals(1, connectionManager.currentSdkClientCount());
+        Mockito.verify(clientConnectionEventListenerRegistry, Mockito.never()).notifyClientDisConnected(hedge);
+        Mockito.verify(hedge).close();
+    }
+    
+    @Test
+    public void testHedgeConnectionLimited() {
+        connectionManager.onEvent(new ConnectionLimitRuleChangeEvent("{\"countLimitPerClientIpDefault\":1}"));
+        Map<String, String> hedgeLabels = sdkLabels();
+        hedgeLabels.put(RemoteConstants.LABEL_HEDGE, Boolean.TRUE.toString());
+        Assert.assertTrue(connectionManager.register("client", connection("client", "127.0.0.1", "app", sdkLabels())));
+        // the hedge label is set by the client, it does not lift the limits.
+        Assert.assertFalse(connectionManager.register("hedge", connection("hedge", "127.0.0.1", "app", hedgeLabels)));
+    }
+    
+    @Test
+    public void testLabelCount() {
+        Map<String, String> labels = sdkLabels();
+        labels.put("a", "b=c");
+        Map<String, String> otherLabels = sdkLabels();
+        otherLabels.put("a=b", "c");
+        connectionManager.register("conn1", connection("conn1", "127.0.0.1", "app", labels));
+        connectionManager.register("conn2", connection("conn2", "127.0.0.2", "app", otherLabels));
+        
+        // label names and values are indexed apart, so they can't be mixed up whatever characters they have.
+        Assert.assertEquals(1, connectionManager.currentClientsCount(Collections.singletonMap("a", "b=c")));
+        Assert.assertEquals(1, connectionManager.currentClientsCount(Collections.singletonMap("a=b", "c")));
+        Assert.assertEquals(0, connectionManager.currentClientsCount(Collections.singletonMap("a", "b")));
+        Assert.assertEquals(2, connectionManager.currentClientsCount(
+                Collections.singletonMap(RemoteConstants.LABEL_SOURCE, RemoteConstants.LABEL_SOURCE_SDK)));
+        Assert.assertEquals(1, connectionManager.currentClientsCount(labels));
+        Assert.assertEquals(2, connectionManager.currentSdkClientCount());
+        
+        connectionManager.unregister("conn1");
+        Assert.assertEquals(0, connectionManager.currentClientsCount(Collections.singletonMap("a", "b=c")));
+        Assert.assertEquals(0, connectionManager.currentClientsCount(labels));
+        Assert.assertEquals(1, connectionManager.currentSdkClientCount());
+    }
+    
+    @Test
+    public void testAppLimit() {
+        connectionManager.onEvent(new ConnectionLimitRuleChangeEvent("{\"countLimitPerClientApp\":{\"app\":2}}"));
+        Assert.assertTrue(connectionManager.register("conn1", connection("conn1", "127.0.0.1", "app", sdkLabels())));
+        Assert.assertTrue(connectionManager.register("conn2", connection("conn2", "127.0.0.2", "app", sdkLabels())));
+        // the limit of the app counts the connections of the app from all the client ips.
+        Assert.assertFalse(connectionManager.register("conn3", connection("conn3", "127.0.0.3", "app", sdkLabels())));
+        Assert.assertTrue(connectionManager.register("conn4", connection("conn4", "127.0.0.3", "other", sdkLabels())));
+        
+        connectionManager.unregister("conn1");
+        Assert.assertTrue(connectionManager.register("conn3", connection("conn3", "127.0.0.3", "app", sdkLabels())));
+    }
+    
+    static Map<String, String> sdkLabels() {
+        Map<String, String> labels = new HashMap<String, String>(4);
+        labels.put(RemoteConstants.LABEL_SOURCE, RemoteConstants.LABEL_SOURCE_SDK);
+        return labels;
+    }
+    
+    static Connection connection(String connectionId, String clientIp, String appName, Map<String, String> labels) {
+        ConnectionMetaInfo metaInfo = new ConnectionMetaInfo(connectionId, clientIp, 8080, 9848, "GRPC", "2.0.0",
+                appName, labels);
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.getMetaInfo()).thenReturn(metaInfo);
+        Mockito.when(connection.isConnected()).thenReturn(true);
+        return connection;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.nacos.core.remote;
+
+import com.alibaba.nacos.api.remote.RemoteConstants;
+import com.alibaba.nacos.api.remote.request.ServerLoaderInfoRequest;
+import com.alibaba.nacos.api.remote.response.ServerLoaderInfoResponse;
+import com.alibaba.nacos.common.remote.ConnectionType;
+import com.alibaba.nacos.core.cluster.Member;
+import com.alibaba.nacos.core.cluster.MemberMetaDataConstants;
+import com.alibaba.nacos.core.cluster.ServerMemberManager;
+import com.alibaba.nacos.core.cluster.remote.ClusterRpcClientProxy;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ConnectionRebalancerTest {
+    
+    private static final long MIN_CONNECTION_AGE = 60000L;
+    
+    @Mock
+    private ConnectionManager connectionManager;
+    
+    @Mock
+    private ServerMemberManager serverMemberManager;
+    
+    @Mock
+    private ClusterRpcClientProxy clusterRpcClientProxy;
+    
+    private final List<Connection> connections = new ArrayList<Connection>();
+    
+    private final List<Member> members = new ArrayList<Member>();
+    
+    private ConnectionRebalancer rebalancer;
+    
+    @Before
+    public void setUp() {
+        rebalancer = new ConnectionRebalancer();
+        ReflectionTestUtils.setField(rebalancer, "connectionManager", connectionManager);
+        ReflectionTestUtils.setField(rebalancer, "serverMemberManager", serverMemberManager);
+        ReflectionTestUtils.setField(rebalancer, "clusterRpcClientProxy", clusterRpcClientProxy);
+        ReflectionTestUtils.setField(rebalancer, "enabled", true);
+        ReflectionTestUtils.setField(rebalancer, "maxExpelPerRound", 100);
+        ReflectionTestUtils.setField(rebalancer, "cooldown", 600000L);
+        ReflectionTestUtils.setField(rebalancer, "minConnectionAge", MIN_CONNECTION_AGE);
+        Mockito.when(serverMemberManager.getSelf()).thenReturn(member("127.0.0.1"));
+        Mockito.when(serverMemberManager.allMembersWithoutSelf()).thenReturn(members);
+        Mockito.when(connectionManager.getSdkConnections()).thenReturn(connections);
+        Mockito.when(connectionManager.loadSingleAsync(ArgumentMatchers.anyString(), ArgumentMatchers.anyString()))
+                .thenReturn(true);
+    }
+    
+    @Test
+    public void testRebalanceToLeastLoaded() throws Exception {
+        addConnections(20, 0);
+        addMember("127.0.0.2", 20, 20);
+        addMember("127.0.0.3", 2, 2);
+        rebalancer.rebalance();
+        
+        // load 20 over the average 14, a quarter of the excess is moved to the least loaded node.
+        Assert.assertEquals(20, rebalancer.getLocalCost());
+        Mockito.verify(connectionManager, Mockito.times(2))
+                .loadSingleAsync(ArgumentMatchers.anyString(), ArgumentMatchers.eq("127.0.0.3:8848"));
+        Mockito.verify(connectionManager, Mockito.never())
+                .loadSingleAsync(ArgumentMatchers.anyString(), ArgumentMatchers.eq("127.0.0.2:8848"));
+    }
+    
+    @Test
+    public void testRebalanceByCountWithoutCost() throws Exception {
+        addConnections(20, 0);
+        // the node without cost would be the least loaded by cost.
+        addMember("127.0.0.2", 5, 0);
+        addMember("127.0.0.3", 2, 30);
+        rebalancer.rebalance();
+        
+        Mockito.verify(connectionManager, Mockito.times(2))
+                .loadSingleAsync(ArgumentMatchers.anyString(), ArgumentMatchers.eq("127.0.0.3:8848"));
+        Mockito.verify(connectionManager, Mockito.never())
+                .loadSingleAsync(ArgumentMatchers.anyString(), ArgumentMatchers.eq("127.0.0.2:8848"));
+    }
+    
+    @Test
+    public void testYoungAndRedirectedConnectionsKept() throws Exception {
+        addConnections(18, System.currentTimeMillis());
+        addConnections(2, 0);
+        addMember("127.0.0.2", 20, 20);
+        addMember("127.0.0.3", 2, 2);
+        rebalancer.rebalance();
+        Mockito.verify(connectionManager).loadSingleAsync("conn18", "127.0.0.3:8848");
+        Mockito.verify(connectionManager).loadSingleAsync("conn19", "127.0.0.3:8848");
+        
+        // the connections redirected are in cooldown, the others are too young.
+        rebalancer.rebalance();
+        Mockito.verify(connectionManager, Mockito.times(2))
+                .loadSingleAsync(ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+    }
+    
+    @Test
+    public void testReconnectedClientInCooldown() throws Exception {
+        ReflectionTestUtils.setField(rebalancer, "minConnectionAge", 0L);
+        addConnections(20, 0);
+        addMember("127.0.0.2", 20, 20);
+        addMember("127.0.0.3", 2, 2);
+        rebalancer.rebalance();
+        Mockito.verify(connectionManager).loadSingleAsync("conn0", "127.0.0.3:8848");
+        Mockito.verify(connectionManager).loadSingleAsync("conn1", "127.0.0.3:8848");
+        
+        // the redirected clients come back with new connection ids, they are not redirected again in the cooldown.
+        connections.set(0, connection("conn0-reconnected", "10.0.0.0", System.currentTimeMillis()));
+        connections.set(1, connection("conn1-reconnected", "10.0.0.1", System.currentTimeMillis()));
+        rebalancer.rebalance();
+        Mockito.verify(connectionManager, Mockito.never())
+                .loadSingleAsync(ArgumentMatchers.eq("conn0-reconnected"), ArgumentMatchers.anyString());
+        Mockito.verify(connectionManager, Mockito.never())
+                .loadSingleAsync(ArgumentMatchers.eq("conn1-reconnected"), ArgumentMatchers.anyString());
+        Mockito.verify(connectionManager).loadSingleAsync("conn2", "127.0.0.3:8848");
+        Mockito.verify(connectionManager).loadSingleAsync("conn3", "127.0.0.3:8848");
+    }
+    
+    @Test
+    public void testHedgeConnectionsNotMoved() throws Exception {
+        addConnections(20, 0);
+        for (Connection each : connections.subList(0, 19)) {
+            each.getMetaInfo().labels.put(RemoteConstants.LABEL_HEDGE, Boolean.TRUE.toString());
+        }
+        addMember("127.0.0.2", 20, 20);
+        addMember("127.0.0.3", 2, 2);
+        rebalancer.rebalance();
+        
+        // hedge connections count in the load, but only the other one is redirected.
+        Assert.assertEquals(20, rebalancer.getLocalCost());
+        Mockito.verify(connectionManager).loadSingleAsync("conn19", "127.0.0.3:8848");
+        Mockito.verify(connectionManager, Mockito.times(1))
+                .loadSingleAsync(ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+    }
+    
+    @Test
+    public void testDisabled() throws Exception {
+        ReflectionTestUtils.setField(rebalancer, "enabled", false);
+        addConnections(20, 0);
+        addMember("127.0.0.2", 2, 2);
+        rebalancer.rebalance();
+        Assert.assertEquals(20, rebalancer.getLocalCost());
+        Mockito.verifyZeroInteractions(clusterRpcClientProxy);
+        Mockito.verify(connectionManager, Mockito.never())
+                .loadSingleAsync(ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+    }
+    
+    @Test
+    public void testBudget() {
+        // balanced within the loader factor.
+        Assert.assertEquals(0, ConnectionRebalancer.budget(105, 100D, 95));
+        // no node below the average to move to.
+        Assert.assertEquals(0, ConnectionRebalancer.budget(150, 100D, 100));
+        // a quarter of the load to move, limited by the room of the target.
+        Assert.assertEquals(25, ConnectionRebalancer.budget(300, 200D, 100));
+        Assert.assertEquals(5, ConnectionRebalancer.budget(300, 200D, 180));
+    }
+    
+    @Test
+    public void testChooseCheapestFirst() {
+        List<ConnectionRebalancer.ConnectionCost> candidates = Arrays
+                .asList(cost("c1", 50), cost("c2", 1), cost("c3", 10), cost("c4", 3), cost("c5", 2));
+        List<ConnectionRebalancer.ConnectionCost> chosen = ConnectionRebalancer.choose(candidates, 5, 10);
+        Assert.assertEquals(Arrays.asList("c2", "c5", "c4"), ids(chosen));
+        
+        chosen = ConnectionRebalancer.choose(candidates, 100, 2);
+        Assert.assertEquals(Arrays.asList("c2", "c5"), ids(chosen));
+        
+        Assert.assertTrue(ConnectionRebalancer.choose(candidates, 0, 10).isEmpty());
+    }
+    
+    private static ConnectionRebalancer.ConnectionCost cost(String connectionId, long cost) {
+        return new ConnectionRebalancer.ConnectionCost(connectionId, "127.0.0.1#app", false, 0L, cost);
+    }
+    
+    private void addConnections(int count, long createTime) {
+        for (int i = 0; i < count; i++) {
+            int index = connections.size();
+            connections.add(connection("conn" + index, "10.0.0." + index, createTime));
+        }
+    }
+    
+    private static Connection connection(String connectionId, String clientIp, long createTime) {
+        Connection connection = ConnectionManagerTest
+                .connection(connectionId, clientIp, "app", ConnectionManagerTest.sdkLabels());
+        connection.getMetaInfo().setCreateTime(new Date(createTime));
+        return connection;
+    }
+    
+    private void addMember(String ip, long count, long cost) throws Exception {
+        Member member = member(ip);
+        members.add(member);
+        ServerLoaderInfoResponse response = new ServerLoaderInfoResponse();
+        response.putMetricsValue(ConnectionRebalancer.METRIC_SDK_CON_COUNT, String.valueOf(count));
+        if (cost > 0) {
+            response.putMetricsValue(ConnectionRebalancer.METRIC_SDK_CON_COST, String.valueOf(cost));
+        }
+        Mockito.when(clusterRpcClientProxy.sendRequest(ArgumentMatchers.eq(member),
+                ArgumentMatchers.any(ServerLoaderInfoRequest.class), ArgumentMatchers.anyLong())).thenReturn(response);
+    }
+    
+    private static Member member(String ip) {
+        Member member = Member.builder().ip(ip).port(8848).build();
+        member.setExtendVal(MemberMetaDataConstants.SUPPORT_REMOTE_C_TYPE, ConnectionType.GRPC.getType());
+        return member;
+    }
+    
+    private static List<String> ids(List<ConnectionRebalancer.ConnectionCost> costs) {
+        List<String> result = new ArrayList<String>();
+        for (ConnectionRebalancer.ConnectionCost each : costs) {
+            result.add(each.connectionId);
+        }
+        return result;
+    }
+}
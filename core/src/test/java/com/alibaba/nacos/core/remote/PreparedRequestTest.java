@@ -0,0 +1,77 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote;
+
+import com.alibaba.nacos.api.grpc.auto.Payload;
+import com.alibaba.nacos.api.remote.PayloadRegistry;
+import com.alibaba.nacos.api.remote.request.ConnectResetRequest;
+import com.alibaba.nacos.api.remote.request.RequestMeta;
+import com.alibaba.nacos.common.remote.client.grpc.GrpcUtils;
+import com.google.protobuf.ByteString;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PreparedRequestTest {
+    
+    @Test
+    public void testBodySerializedOnce() {
+        ConnectResetRequest request = new ConnectResetRequest();
+        request.setServerIp("127.0.0.1");
+        request.putHeader("key", "value");
+        PreparedRequest preparedRequest = new PreparedRequest(request);
+        Assert.assertNotNull(preparedRequest.getRequestId());
+        Assert.assertEquals("value", preparedRequest.getHeaders().get("key"));
+        
+        AtomicInteger serialized = new AtomicInteger();
+        ByteString body = preparedRequest.getBody(each -> {
+            serialized.incrementAndGet();
+            return GrpcUtils.toBody(each);
+        });
+        Assert.assertSame(body, preparedRequest.getBody(each -> {
+            serialized.incrementAndGet();
+            return GrpcUtils.toBody(each);
+        }));
+        Assert.assertEquals(1, serialized.get());
+        // the headers are sent in the metadata of each payload instead of the shared body.
+        Assert.assertEquals("value", request.getHeader("key"));
+        Assert.assertFalse(body.toStringUtf8().contains("value"));
+    }
+    
+    @Test
+    public void testPayloadsShareBody() {
+        PayloadRegistry.init();
+        ConnectResetRequest request = new ConnectResetRequest();
+        request.setServerIp("127.0.0.1");
+        request.putHeader("key", "value");
+        PreparedRequest preparedRequest = new PreparedRequest(request);
+        ByteString body = preparedRequest.getBody(GrpcUtils::toBody);
+        
+        for (String connectionId : new String[] {"conn1", "conn2"}) {
+            RequestMeta meta = new RequestMeta();
+            meta.setConnectionId(connectionId);
+            Payload payload = GrpcUtils.convert(preparedRequest.getRequest(), meta, preparedRequest.getHeaders(), body);
+            GrpcUtils.PlainRequest parsed = GrpcUtils.parse(payload);
+            ConnectResetRequest received = (ConnectResetRequest) parsed.getBody();
+            Assert.assertEquals(connectionId, parsed.getMetadata().getConnectionId());
+            Assert.assertEquals(preparedRequest.getRequestId(), received.getRequestId());
+            Assert.assertEquals("127.0.0.1", received.getServerIp());
+            Assert.assertEquals("value", received.getHeader("key"));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.core.remote.control;
+
+import com.alibaba.nacos.core.remote.event.TpsControlRuleChangeEvent;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TpsControlManagerTest {
+    
+    @Test
+    public void testRuleChange() {
+        TpsControlManager manager = new TpsControlManager();
+        Assert.assertTrue(manager.applyTps("TestRequest", "127.0.0.1", "app"));
+        
+        manager.onEvent(new TpsControlRuleChangeEvent(
+                "{\"TestRequest\":{\"pointRule\":{\"maxTps\":1,\"monitorType\":\"intercept\"},"
+                        + "\"appRules\":{\"app\":{\"maxTps\":5,\"monitorType\":\"intercept\"}}}}"));
+        TpsControlRule rule = manager.getPoint("TestRequest").getRule();
+        Assert.assertEquals(1, rule.getPointRule().getMaxTps());
+        Assert.assertEquals(TpsRecorder.MODEL_COUNTER, rule.getPointRule().getModel());
+        Assert.assertEquals(5, rule.getAppRules().get("app").getMaxTps());
+        Assert.assertTrue(manager.applyTps("TestRequest", "127.0.0.1", "app"));
+        Assert.assertFalse(manager.applyTps("TestRequest", "127.0.0.1", "app"));
+        
+        // a point not in the rule any more is no longer limited, an invalid rule is ignored.
+        manager.onEvent(new TpsControlRuleChangeEvent("{}"));
+        Assert.assertNull(manager.getPoint("TestRequest").getRule().getPointRule());
+        Assert.assertTrue(manager.applyTps("TestRequest", "127.0.0.1", "app"));
+        manager.onEvent(new TpsControlRuleChangeEvent("invalid"));
+        Assert.assertTrue(manager.applyTps("TestRequest", "127.0.0.1", "app"));
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.nacos.core.remote.control;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TpsControlPointTest {
+    
+    @Test
+    public void testIpAndAppRules() {
+        TpsControlPoint point = new TpsControlPoint("TestRequest");
+        TpsControlRule rule = new TpsControlRule();
+        rule.setIpRule(new TpsControlRule.Rule(2, TpsRecorder.MONITOR_TYPE_INTERCEPT, TpsRecorder.MODEL_COUNTER));
+        rule.getAppRules().put("app1",
+                new TpsControlRule.Rule(3, TpsRecorder.MONITOR_TYPE_INTERCEPT, TpsRecorder.MODEL_COUNTER));
+        point.applyRule(rule);
+        
+        Assert.assertTrue(point.applyTps("127.0.0.1", "app1"));
+        Assert.assertTrue(point.applyTps("127.0.0.1", "app1"));
+        Assert.assertFalse(point.applyTps("127.0.0.1", "app1"));
+        Assert.assertTrue(point.applyTps("127.0.0.2", "app1"));
+        Assert.assertFalse(point.applyTps("127.0.0.3", "app1"));
+        Assert.assertTrue(point.applyTps("127.0.0.3", "app2"));
+    }
+    
+    @Test
+    public void testRejectedGivenBack() {
+        TpsControlPoint point = new TpsControlPoint("TestRequest");
+        TpsControlRule rule = new TpsControlRule();
+        rule.setIpRule(new TpsControlRule.Rule(1, TpsRecorder.MONITOR_TYPE_INTERCEPT, TpsRecorder.MODEL_COUNTER));
+        rule.getAppRules().put("app1",
+                new TpsControlRule.Rule(1, TpsRecorder.MONITOR_TYPE_INTERCEPT, TpsRecorder.MODEL_COUNTER));
+        rule.setPointRule(new TpsControlRule.Rule(2, TpsRecorder.MONITOR_TYPE_INTERCEPT, TpsRecorder.MODEL_COUNTER));
+        point.applyRule(rule);
+        
+        Assert.assertTrue(point.applyTps("127.0.0.1", "app1"));
+        // rejected by the app, the request is not counted by the ip.
+        Assert.assertFalse(point.applyTps("127.0.0.2", "app1"));
+        Assert.assertTrue(point.applyTps("127.0.0.2", "app2"));
+        // rejected by the point, the request is counted by neither the ip nor the app.
+        Assert.assertFalse(point.applyTps("127.0.0.3", "app3"));
+        Assert.assertEquals(0, point.tpsRecordForIp.get("127.0.0.3").getCurrentTps());
+        Assert.assertEquals(2, point.getTpsRecorder().getCurrentTps());
+    }
+    
+    @Test
+    public void testPointRule() {
+        TpsControlPoint point = new TpsControlPoint("TestRequest");
+        TpsControlRule rule = new TpsControlRule();
+        rule.setPointRule(new TpsControlRule.Rule(1, TpsRecorder.MONITOR_TYPE_INTERCEPT, TpsRecorder.MODEL_COUNTER));
+        point.applyRule(rule);
+        Assert.assertTrue(point.applyTps("127.0.0.1"));
+        Assert.assertFalse(point.applyTps("127.0.0.2"));
+    }
+    
+    @Test
+    public void testBoundedRecorders() {
+        TpsControlPoint point = new TpsControlPoint("TestRequest");
+        TpsControlRule rule = new TpsControlRule();
+        rule.setIpRule(new TpsControlRule.Rule(1, TpsRecorder.MONITOR_TYPE_INTERCEPT, TpsRecorder.MODEL_COUNTER));
+        point.applyRule(rule);
+        for (int i = 0; i < TpsControlPoint.MAX_RECORDER_COUNT + 10; i++) {
+            point.applyTps("ip" + i);
+        }
+        Assert.assertEquals(TpsControlPoint.MAX_RECORDER_COUNT, point.tpsRecordForIp.size());
+        // ips beyond the bound are only limited by the point.
+        Assert.assertTrue(point.applyTps("ip" + (TpsControlPoint.MAX_RECORDER_COUNT + 1)));
+        Assert.assertTrue(point.applyTps("ip" + (TpsControlPoint.MAX_RECORDER_COUNT + 1)));
+        
+        point.refreshRecorder(System.currentTimeMillis() + 1000L);
+        Assert.assertTrue(point.tpsRecordForIp.isEmpty());
+    }
+}
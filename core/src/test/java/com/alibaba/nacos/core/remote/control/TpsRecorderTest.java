@@ -0,0 +1,95 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.alibaba.nacos.core.remote.control;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TpsRecorderTest {
+    
+    private static final long START = 1000000L;
+    
+    @Test
+    public void testSlidingWindow() {
+        TpsRecorder recorder = new TpsRecorder(10, TpsRecorder.MONITOR_TYPE_INTERCEPT, TpsRecorder.MODEL_COUNTER);
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(recorder.tryAcquire(START + i * 50L));
+        }
+        Assert.assertFalse(recorder.tryAcquire(START + 500L));
+        // the requests of the first slot slide out of the window.
+        Assert.assertTrue(recorder.tryAcquire(START + 1000L));
+        Assert.assertTrue(recorder.tryAcquire(START + 1050L));
+        Assert.assertFalse(recorder.tryAcquire(START + 1050L));
+        Assert.assertEquals(10, recorder.getTps(START + 1050L));
+        Assert.assertEquals(0, recorder.getTps(START + 3000L));
+    }
+    
+    @Test
+    public void testMonitorMode() {
+        TpsRecorder recorder = new TpsRecorder(1, TpsRecorder.MONITOR_TYPE_MONITOR, TpsRecorder.MODEL_COUNTER);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(recorder.tryAcquire(START));
+        }
+        Assert.assertEquals(5, recorder.getTps(START));
+    }
+    
+    @Test
+    public void testTokenBucket() {
+        TpsRecorder recorder = new TpsRecorder(10, TpsRecorder.MONITOR_TYPE_INTERCEPT,
+                TpsRecorder.MODEL_TOKEN_BUCKET);
+        // a burst of one second is allowed.
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(recorder.tryAcquire(START));
+        }
+        Assert.assertFalse(recorder.tryAcquire(START));
+        Assert.assertFalse(recorder.tryAcquire(START + 50L));
+        Assert.assertTrue(recorder.tryAcquire(START + 100L));
+        Assert.assertFalse(recorder.tryAcquire(START + 100L));
+    }
+    
+    @Test
+    public void testLeakyBucket() {
+        TpsRecorder recorder = new TpsRecorder(100, TpsRecorder.MONITOR_TYPE_INTERCEPT,
+                TpsRecorder.MODEL_LEAKY_BUCKET);
+        // a burst of 100 milliseconds is allowed.
+        for (int i = 0; i < 10; i++) {
+            Assert.assertTrue(recorder.tryAcquire(START));
+        }
+        Assert.assertFalse(recorder.tryAcquire(START));
+        Assert.assertTrue(recorder.tryAcquire(START + 10L));
+        Assert.assertFalse(recorder.tryAcquire(START + 10L));
+    }
+    
+    @Test
+    public void testRelease() {
+        TpsRecorder recorder = new TpsRecorder(1, TpsRecorder.MONITOR_TYPE_INTERCEPT, TpsRecorder.MODEL_COUNTER);
+        Assert.assertTrue(recorder.tryAcquire(START));
+        recorder.release(START);
+        Assert.assertEquals(0, recorder.getTps(START));
+        Assert.assertTrue(recorder.tryAcquire(START));
+        // a request of a slot reused since is not given back.
+        recorder.release(START - 1000L);
+        Assert.assertEquals(1, recorder.getTps(START));
+        
+        TpsRecorder bucket = new TpsRecorder(1, TpsRecorder.MONITOR_TYPE_INTERCEPT, TpsRecorder.MODEL_TOKEN_BUCKET);
+        Assert.assertTrue(bucket.tryAcquire(START));
+        Assert.assertFalse(bucket.tryAcquire(START));
+        bucket.release(START);
+        Assert.assertTrue(bucket.tryAcquire(START));
+    }
+}
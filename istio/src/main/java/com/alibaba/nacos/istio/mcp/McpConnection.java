@@ -0,0 +1,209 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.istio.mcp;
+
+import com.alibaba.nacos.istio.misc.Loggers;
+import com.alibaba.nacos.istio.model.mcp.Resource;
+import com.alibaba.nacos.istio.model.mcp.Resources;
+import io.grpc.stub.StreamObserver;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MCP stream of a sink subscribing the service entries.
+ *
+ * <p>An incremental sink only gets the resources changed since the last push and the names of the removed ones, other
+ * sinks get all the resources on every change. A push is sent after the previous one is acked, the changes in between
+ * are merged into the next push. A NACK makes all the resources pushed again at once, a lost ack makes them pushed
+ * with the next change. Nothing is pushed until the resources are loaded by the first full check, so that a sink
+ * subscribing after a restart neither gets a partial set nor has the resources not loaded yet removed.
+ *
+ * @author Nacos
+ */
+class McpConnection {
+    
+    private static final long ACK_TIMEOUT_MILLISECONDS = 30000L;
+    
+    private final int id;
+    
+    private final StreamObserver<Resources> observer;
+    
+    /**
+     * all resources of the service entries, by resource name.
+     */
+    private final Map<String, Resource> resources;
+    
+    /**
+     * resources changed and not pushed yet, a null value means the resource is removed.
+     */
+    private final Map<String, Resource> pending = new HashMap<>();
+    
+    private boolean ready;
+    
+    private boolean subscribed;
+    
+    private Map<String, String> initialVersions;
+    
+    private boolean incremental;
+    
+    private boolean fullPushNeeded;
+    
+    private String inFlightNonce;
+    
+    private long inFlightTime;
+    
+    private long nonceSequence;
+    
+    McpConnection(int id, StreamObserver<Resources> observer, Map<String, Resource> resources) {
+        this.id = id;
+        this.observer = observer;
+        this.resources = resources;
+    }
+    
+    /**
+     * Subscribe the service entries, by the first request of the sink.
+     *
+     * @param incremental     whether the sink accepts incremental pushes
+     * @param initialVersions versions of the resources the sink already has
+     */
+    synchronized void subscribe(boolean incremental, Map<String, String> initialVersions) {
+        this.subscribed = true;
+        this.incremental = incremental;
+        this.initialVersions = initialVersions;
+        this.inFlightNonce = null;
+        pending.clear();
+        if (ready) {
+            pushInitial();
+        }
+    }
+    
+    /**
+     * The resources are loaded by the first full check, push them to the sink subscribed before.
+     */
+    synchronized void onReady() {
+        if (ready) {
+            return;
+        }
+        ready = true;
+        if (subscribed) {
+            pushInitial();
+        }
+    }
+    
+    private void pushInitial() {
+        if (incremental && !initialVersions.isEmpty()) {
+            for (Map.Entry<String, Resource> entry : resources.entrySet()) {
+                String version = entry.getValue().getMetadata().getVersion();
+                if (!version.equals(initialVersions.get(entry.getKey()))) {
+                    pending.put(entry.getKey(), entry.getValue());
+                }
+            }
+            for (String each : initialVersions.keySet()) {
+                if (!resources.containsKey(each)) {
+                    pending.put(each, null);
+                }
+            }
+            fullPushNeeded = false;
+        } else {
+            fullPushNeeded = true;
+        }
+        flush();
+    }
+    
+    /**
+     * Push the changed resources, or keep them until the in flight push is acked.
+     *
+     * @param changed changed resources by name, a null value means the resource is removed
+     */
+    synchronized void onChange(Map<String, Resource> changed) {
+        if (!subscribed || !ready) {
+            return;
+        }
+        pending.putAll(changed);
+        flush();
+    }
+    
+    synchronized void onAck(String nonce) {
+        if (!nonce.equals(inFlightNonce)) {
+            return;
+        }
+        inFlightNonce = null;
+        flush();
+    }
+    
+    /**
+     * The sink rejected the push, all the resources are pushed again right away.
+     *
+     * @param nonce nonce of the rejected push
+     */
+    synchronized void onNack(String nonce) {
+        if (!nonce.equals(inFlightNonce)) {
+            return;
+        }
+        inFlightNonce = null;
+        fullPushNeeded = true;
+        pending.clear();
+        flush();
+    }
+    
+    private void flush() {
+        if (null != inFlightNonce) {
+            if (System.currentTimeMillis() - inFlightTime < ACK_TIMEOUT_MILLISECONDS) {
+                return;
+            }
+            Loggers.MAIN.warn("MCP connection {} not acked nonce {}, push all resources again.", id, inFlightNonce);
+            inFlightNonce = null;
+            fullPushNeeded = true;
+        }
+        String nonce = id + "-" + (++nonceSequence);
+        Resources.Builder builder = Resources.newBuilder().setCollection(CollectionTypes.SERVICE_ENTRY)
+                .setNonce(nonce);
+        if (fullPushNeeded || !incremental) {
+            if (!fullPushNeeded && pending.isEmpty()) {
+                return;
+            }
+            builder.addAllResources(resources.values()).setIncremental(false);
+        } else {
+            if (pending.isEmpty()) {
+                return;
+            }
+            for (Map.Entry<String, Resource> entry : pending.entrySet()) {
+                if (null == entry.getValue()) {
+                    builder.addRemovedResources(entry.getKey());
+                } else {
+                    builder.addResources(entry.getValue());
+                }
+            }
+            builder.setIncremental(true);
+        }
+        Resources pushed = builder.build();
+        Loggers.MAIN.info("MCP push to connection {}, incremental: {}, resources: {}, removed: {}", id,
+                pushed.getIncremental(), pushed.getResourcesCount(), pushed.getRemovedResourcesCount());
+        pending.clear();
+        fullPushNeeded = false;
+        inFlightNonce = nonce;
+        inFlightTime = System.currentTimeMillis();
+        try {
+            observer.onNext(pushed);
+        } catch (Exception e) {
+            Loggers.MAIN.error("MCP push to connection {} failed.", id, e);
+            inFlightNonce = null;
+            fullPushNeeded = true;
+        }
+    }
+}
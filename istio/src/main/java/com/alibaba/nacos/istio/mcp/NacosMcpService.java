@@ -31,12 +31,16 @@ import com.alibaba.nacos.naming.core.Instance;
 import com.alibaba.nacos.naming.core.Service;
 import com.alibaba.nacos.naming.core.ServiceManager;
 import com.alibaba.nacos.naming.misc.GlobalExecutor;
+import com.alibaba.nacos.naming.push.v1.ServiceChangeEvent;
 import com.google.protobuf.Any;
 import io.grpc.stub.StreamObserver;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationListener;
 
 import javax.annotation.PostConstruct;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -45,25 +49,46 @@ import java.util.concurrent.atomic.AtomicInteger;
 /**
  * nacos mcp service.
  *
+ * <p>Services changed are collected from {@link ServiceChangeEvent} and pushed to the sinks within a second, only the
+ * changed and removed resources are pushed to the incremental sinks. All services are compared by checksum
+ * periodically, to find the removed services and the changes without event. The first comparison runs at startup, the
+ * sinks are not pushed before it loads the resources.
+ *
  * @author nkorange
  * @since 1.1.4
  */
 @org.springframework.stereotype.Service
-public class NacosMcpService extends ResourceSourceGrpc.ResourceSourceImplBase {
+public class NacosMcpService extends ResourceSourceGrpc.ResourceSourceImplBase
+        implements ApplicationListener<ServiceChangeEvent> {
     
     private final AtomicInteger connectIdGenerator = new AtomicInteger(0);
     
-    private final Map<Integer, StreamObserver<Resources>> connnections = new ConcurrentHashMap<>(16);
+    private final Map<Integer, McpConnection> connnections = new ConcurrentHashMap<>(16);
     
+    /**
+     * resources by resource name, the version of a resource is the checksum of the service.
+     */
     private final Map<String, Resource> resourceMap = new ConcurrentHashMap<>(16);
     
     private final Map<String, String> checksumMap = new ConcurrentHashMap<>(16);
     
+    /**
+     * services changed since the last push, by resource name.
+     */
+    private final Map<String, Service> changedServices = new ConcurrentHashMap<>(16);
+    
+    /**
+     * whether the resources are loaded by the first full check.
+     */
+    private volatile boolean resourcesLoaded;
+    
     private static final String SERVICE_NAME_SPLITTER = "nacos";
     
     private static final String MESSAGE_TYPE_URL = "type.googleapis.com/istio.networking.v1alpha3.ServiceEntry";
     
-    private static final long MCP_PUSH_PERIOD_MILLISECONDS = 10000L;
+    private static final long MCP_PUSH_PERIOD_MILLISECONDS = 1000L;
+    
+    private static final long MCP_FULL_CHECK_PERIOD_MILLISECONDS = 30000L;
     
     @Autowired
     private ServiceManager serviceManager;
@@ -83,12 +108,64 @@ public class NacosMcpService extends ResourceSourceGrpc.ResourceSourceImplBase {
                 .scheduleMcpPushTask(new McpPushTask(), MCP_PUSH_PERIOD_MILLISECONDS * 2, MCP_PUSH_PERIOD_MILLISECONDS);
     }
     
+    @Override
+    public void onApplicationEvent(ServiceChangeEvent event) {
+        if (!istioConfig.isMcpServerEnabled()) {
+            return;
+        }
+        Service service = event.getService();
+        changedServices.put(resourceName(service), service);
+    }
+    
     private class McpPushTask implements Runnable {
         
+        /**
+         * 0 at first, so that the first round checks all services at startup.
+         */
+        private long lastFullCheckTime;
+        
         @Override
         public void run() {
             
-            boolean changed = false;
+            Map<String, Resource> changed = new HashMap<>(16);
+            
+            for (String each : changedServices.keySet()) {
+                Service service = changedServices.remove(each);
+                if (service != null) {
+                    updateResource(each, service, changed);
+                }
+            }
+            
+            boolean firstFullCheck = !resourcesLoaded;
+            if (System.currentTimeMillis() - lastFullCheckTime >= MCP_FULL_CHECK_PERIOD_MILLISECONDS) {
+                lastFullCheckTime = System.currentTimeMillis();
+                fullCheck(changed);
+            } else if (changed.isEmpty()) {
+                // If no service changed, just return:
+                return;
+            }
+            
+            if (!changed.isEmpty()) {
+                Loggers.MAIN.info("MCP resources changed: {}, resource count is: {}", changed.size(),
+                        resourceMap.size());
+            }
+            
+            // the pushes waiting for lost acks are retried by the full check round even if nothing changed.
+            for (McpConnection each : connnections.values()) {
+                each.onChange(changed);
+            }
+            
+            if (firstFullCheck) {
+                resourcesLoaded = true;
+                for (McpConnection each : connnections.values()) {
+                    each.onReady();
+                }
+            }
+        }
+        
+        private void fullCheck(Map<String, Resource> changed) {
+            
+            Set<String> existed = new HashSet<>(checksumMap.size());
             
             // Query all services to see if any of them have changes:
             Set<String> namespaces = serviceManager.getAllNamespaces();
@@ -102,50 +179,49 @@ public class NacosMcpService extends ResourceSourceGrpc.ResourceSourceImplBase {
                 }
                 
                 for (Service service : services.values()) {
-                    
-                    String convertedName = convertName(service);
-                    
-                    // Service not changed:
-                    if (checksumMap.containsKey(convertedName) && checksumMap.get(convertedName)
-                            .equals(service.getChecksum())) {
-                        continue;
-                    }
-                    
-                    if (service.allIPs().isEmpty()) {
-                        resourceMap.remove(convertedName);
-                        continue;
-                    }
-                    
-                    // Update the resource:
-                    changed = true;
-                    resourceMap.put(convertedName, convertService(service));
-                    checksumMap.put(convertedName, service.getChecksum());
+                    String resourceName = resourceName(service);
+                    existed.add(resourceName);
+                    updateResource(resourceName, service, changed);
                 }
             }
             
-            if (!changed) {
-                // If no service changed, just return:
-                return;
-            }
-            
-            Resources resources = Resources.newBuilder().addAllResources(resourceMap.values())
-                    .setCollection(CollectionTypes.SERVICE_ENTRY).setNonce(String.valueOf(System.currentTimeMillis()))
-                    .build();
-            
-            if (connnections.isEmpty()) {
-                return;
-            }
-            
-            Loggers.MAIN.info("MCP push, resource count is: {}", resourceMap.size());
-            
-            if (Loggers.MAIN.isDebugEnabled()) {
-                Loggers.MAIN.debug("MCP push, sending resources: {}", resources);
+            for (String each : checksumMap.keySet()) {
+                if (!existed.contains(each)) {
+                    checksumMap.remove(each);
+                    if (resourceMap.remove(each) != null) {
+                        changed.put(each, null);
+                    }
+                }
             }
-            
-            for (StreamObserver<Resources> observer : connnections.values()) {
-                observer.onNext(resources);
+        }
+    }
+    
+    private void updateResource(String resourceName, Service service, Map<String, Resource> changed) {
+        
+        String checksum = service.getChecksum();
+        
+        // Service not changed:
+        if (checksum.equals(checksumMap.get(resourceName))) {
+            return;
+        }
+        
+        checksumMap.put(resourceName, checksum);
+        
+        if (service.allIPs().isEmpty()) {
+            if (resourceMap.remove(resourceName) != null) {
+                changed.put(resourceName, null);
             }
+            return;
         }
+        
+        // Update the resource:
+        Resource resource = convertService(service, checksum);
+        resourceMap.put(resourceName, resource);
+        changed.put(resourceName, resource);
+    }
+    
+    private String resourceName(Service service) {
+        return SERVICE_NAME_SPLITTER + "/" + convertName(service);
     }
     
     private String convertName(Service service) {
@@ -162,7 +238,7 @@ public class NacosMcpService extends ResourceSourceGrpc.ResourceSourceImplBase {
         return serviceName;
     }
     
-    private Resource convertService(Service service) {
+    private Resource convertService(Service service, String checksum) {
         
         String serviceName = convertName(service);
         
@@ -189,7 +265,7 @@ public class NacosMcpService extends ResourceSourceGrpc.ResourceSourceImplBase {
         Any any = Any.newBuilder().setValue(serviceEntry.toByteString()).setTypeUrl(MESSAGE_TYPE_URL).build();
         
         Metadata metadata = Metadata.newBuilder().setName(SERVICE_NAME_SPLITTER + "/" + serviceName)
-                .putAllAnnotations(service.getMetadata()).putAnnotations("virtual", "1").build();
+                .setVersion(checksum).putAllAnnotations(service.getMetadata()).putAnnotations("virtual", "1").build();
         
         Resource resource = Resource.newBuilder().setBody(any).setMetadata(metadata).build();
         
@@ -200,7 +276,12 @@ public class NacosMcpService extends ResourceSourceGrpc.ResourceSourceImplBase {
     public StreamObserver<RequestResources> establishResourceStream(StreamObserver<Resources> responseObserver) {
         
         int id = connectIdGenerator.incrementAndGet();
-        connnections.put(id, responseObserver);
+        McpConnection connection = new McpConnection(id, responseObserver, resourceMap);
+        connnections.put(id, connection);
+        // put before checking, so that the connection is either seen by the first full check or ready here.
+        if (resourcesLoaded) {
+            connection.onReady();
+        }
         
         return new StreamObserver<RequestResources>() {
             
@@ -215,16 +296,26 @@ public class NacosMcpService extends ResourceSourceGrpc.ResourceSourceImplBase {
                     
                     Loggers.MAIN.error("NACK error code: {}, message: {}", value.getErrorDetail().getCode(),
                             value.getErrorDetail().getMessage());
+                    if (CollectionTypes.SERVICE_ENTRY.equals(value.getCollection())) {
+                        connection.onNack(value.getResponseNonce());
+                    }
                     return;
                 }
                 
                 if (StringUtils.isNotBlank(value.getResponseNonce())) {
                     // This is a response:
                     Loggers.MAIN.info("ACK nonce: {}, type: {}", value.getResponseNonce(), value.getCollection());
+                    if (CollectionTypes.SERVICE_ENTRY.equals(value.getCollection())) {
+                        connection.onAck(value.getResponseNonce());
+                    }
                     return;
                 }
                 
-                if (!CollectionTypes.SERVICE_ENTRY.equals(value.getCollection())) {
+                if (CollectionTypes.SERVICE_ENTRY.equals(value.getCollection())) {
+                    Loggers.MAIN.info("MCP subscribe, connection: {}, incremental: {}, initial resources: {}",
+                            connectionId, value.getIncremental(), value.getInitialResourceVersionsCount());
+                    connection.subscribe(value.getIncremental(), value.getInitialResourceVersionsMap());
+                } else {
                     // Return empty resources for other types:
                     Resources resources = Resources.newBuilder().setCollection(value.getCollection())
                             .setNonce(String.valueOf(System.currentTimeMillis())).build();
@@ -241,6 +332,7 @@ public class NacosMcpService extends ResourceSourceGrpc.ResourceSourceImplBase {
             
             @Override
             public void onCompleted() {
+                connnections.remove(connectionId);
                 responseObserver.onCompleted();
             }
         };
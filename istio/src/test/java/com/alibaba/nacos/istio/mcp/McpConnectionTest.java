@@ -0,0 +1,177 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.istio.mcp;
+
+import com.alibaba.nacos.istio.model.mcp.Metadata;
+import com.alibaba.nacos.istio.model.mcp.Resource;
+import com.alibaba.nacos.istio.model.mcp.Resources;
+import io.grpc.stub.StreamObserver;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class McpConnectionTest {
+    
+    @Mock
+    private StreamObserver<Resources> observer;
+    
+    private Map<String, Resource> resources;
+    
+    private McpConnection connection;
+    
+    @Before
+    public void setUp() {
+        resources = new HashMap<>(4);
+        resources.put("a", resource("a", "1"));
+        resources.put("b", resource("b", "1"));
+        connection = new McpConnection(1, observer, resources);
+        connection.onReady();
+    }
+    
+    @Test
+    public void testIncremental() {
+        connection.subscribe(true, Collections.emptyMap());
+        Resources first = lastPushed(1);
+        Assert.assertFalse(first.getIncremental());
+        Assert.assertEquals(2, first.getResourcesCount());
+        
+        // nothing is pushed before the first push is acked, the changes in between are merged.
+        change("a", resource("a", "2"));
+        change("b", null);
+        Mockito.verify(observer, Mockito.times(1)).onNext(Mockito.any());
+        connection.onAck(first.getNonce());
+        Resources second = lastPushed(2);
+        Assert.assertTrue(second.getIncremental());
+        Assert.assertEquals(1, second.getResourcesCount());
+        Assert.assertEquals("2", second.getResources(0).getMetadata().getVersion());
+        Assert.assertEquals(Collections.singletonList("b"), second.getRemovedResourcesList());
+        
+        // an ack of an earlier push is ignored.
+        change("c", resource("c", "1"));
+        connection.onAck(first.getNonce());
+        Mockito.verify(observer, Mockito.times(2)).onNext(Mockito.any());
+    }
+    
+    @Test
+    public void testInitialVersions() {
+        Map<String, String> initialVersions = new HashMap<>(4);
+        initialVersions.put("a", "1");
+        initialVersions.put("b", "0");
+        initialVersions.put("c", "1");
+        connection.subscribe(true, initialVersions);
+        Resources pushed = lastPushed(1);
+        Assert.assertTrue(pushed.getIncremental());
+        Assert.assertEquals(1, pushed.getResourcesCount());
+        Assert.assertEquals("b", pushed.getResources(0).getMetadata().getName());
+        Assert.assertEquals(Collections.singletonList("c"), pushed.getRemovedResourcesList());
+    }
+    
+    @Test
+    public void testNotIncremental() {
+        connection.subscribe(false, Collections.emptyMap());
+        connection.onAck(lastPushed(1).getNonce());
+        change("a", resource("a", "2"));
+        Resources pushed = lastPushed(2);
+        Assert.assertFalse(pushed.getIncremental());
+        Assert.assertEquals(2, pushed.getResourcesCount());
+        Assert.assertEquals(0, pushed.getRemovedResourcesCount());
+    }
+    
+    @Test
+    public void testNackResendAll() {
+        connection.subscribe(true, Collections.emptyMap());
+        connection.onAck(lastPushed(1).getNonce());
+        change("a", resource("a", "2"));
+        Resources rejected = lastPushed(2);
+        Assert.assertTrue(rejected.getIncremental());
+        
+        // all the resources are pushed again without waiting for another change.
+        connection.onNack(rejected.getNonce());
+        Resources pushed = lastPushed(3);
+        Assert.assertFalse(pushed.getIncremental());
+        Assert.assertEquals(2, pushed.getResourcesCount());
+        Assert.assertNotEquals(rejected.getNonce(), pushed.getNonce());
+    }
+    
+    @Test
+    public void testSubscribeBeforeResourcesLoaded() {
+        Map<String, Resource> loading = new HashMap<>(4);
+        McpConnection incremental = new McpConnection(2, observer, loading);
+        Map<String, String> initialVersions = new HashMap<>(4);
+        initialVersions.put("a", "1");
+        initialVersions.put("b", "0");
+        incremental.subscribe(true, initialVersions);
+        // a partial set is neither pushed, nor makes the resources not loaded yet removed.
+        loading.put("a", resource("a", "1"));
+        incremental.onChange(Collections.singletonMap("a", resource("a", "1")));
+        Mockito.verifyZeroInteractions(observer);
+        
+        loading.put("b", resource("b", "1"));
+        loading.put("c", resource("c", "1"));
+        incremental.onReady();
+        Resources pushed = lastPushed(1);
+        Assert.assertTrue(pushed.getIncremental());
+        Assert.assertEquals(2, pushed.getResourcesCount());
+        Assert.assertEquals(0, pushed.getRemovedResourcesCount());
+        
+        McpConnection full = new McpConnection(3, observer, loading);
+        full.subscribe(false, Collections.emptyMap());
+        Mockito.verify(observer, Mockito.times(1)).onNext(Mockito.any());
+        full.onReady();
+        pushed = lastPushed(2);
+        Assert.assertFalse(pushed.getIncremental());
+        Assert.assertEquals(3, pushed.getResourcesCount());
+    }
+    
+    @Test
+    public void testChangeBeforeSubscribeIgnored() {
+        change("a", resource("a", "2"));
+        Mockito.verifyZeroInteractions(observer);
+    }
+    
+    private void change(String name, Resource resource) {
+        if (null == resource) {
+            resources.remove(name);
+        } else {
+            resources.put(name, resource);
+        }
+        connection.onChange(Collections.singletonMap(name, resource));
+    }
+    
+    private Resources lastPushed(int times) {
+        ArgumentCaptor<Resources> captor = ArgumentCaptor.forClass(Resources.class);
+        Mockito.verify(observer, Mockito.times(times)).onNext(captor.capture());
+        List<Resources> pushed = captor.getAllValues();
+        return pushed.get(pushed.size() - 1);
+    }
+    
+    private static Resource resource(String name, String version) {
+        return Resource.newBuilder().setMetadata(Metadata.newBuilder().setName(name).setVersion(version).build())
+                .build();
+    }
+}
@@ -22,13 +22,17 @@ import com.alibaba.nacos.api.naming.CommonParams;
 import com.alibaba.nacos.api.naming.utils.NamingUtils;
 import com.alibaba.nacos.auth.annotation.Secured;
 import com.alibaba.nacos.auth.common.ActionTypes;
+import com.alibaba.nacos.common.model.RestResult;
+import com.alibaba.nacos.common.utils.IoUtils;
 import com.alibaba.nacos.common.utils.JacksonUtils;
 import com.alibaba.nacos.core.utils.WebUtils;
+import com.alibaba.nacos.naming.core.DistroMapper;
 import com.alibaba.nacos.naming.core.Instance;
 import com.alibaba.nacos.naming.core.InstanceOperatorClientImpl;
 import com.alibaba.nacos.naming.core.InstancePatchObject;
 import com.alibaba.nacos.naming.core.ServiceManager;
 import com.alibaba.nacos.naming.healthcheck.RsInfo;
+import com.alibaba.nacos.naming.misc.HttpClient;
 import com.alibaba.nacos.naming.misc.Loggers;
 import com.alibaba.nacos.naming.misc.SwitchDomain;
 import com.alibaba.nacos.naming.misc.SwitchEntry;
@@ -37,8 +41,10 @@ import com.alibaba.nacos.naming.pojo.InstanceOperationContext;
 import com.alibaba.nacos.naming.pojo.InstanceOperationInfo;
 import com.alibaba.nacos.naming.pojo.Subscriber;
 import com.alibaba.nacos.naming.web.CanDistro;
+import com.alibaba.nacos.naming.web.DistroTagGenerator;
 import com.alibaba.nacos.naming.web.NamingResourceParser;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import org.apache.commons.collections.CollectionUtils;
@@ -56,6 +62,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import javax.servlet.http.HttpServletRequest;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
@@ -75,6 +82,10 @@ import static com.alibaba.nacos.naming.misc.UtilsAndCommons.UPDATE_INSTANCE_META
 @RequestMapping(UtilsAndCommons.NACOS_NAMING_CONTEXT + "/instance")
 public class InstanceController {
     
+    private static final int FORWARD_CONNECT_TIMEOUT_MILLIS = 5000;
+    
+    private static final int FORWARD_READ_TIMEOUT_MILLIS = 10000;
+    
     @Autowired
     private SwitchDomain switchDomain;
     
@@ -84,6 +95,12 @@ public class InstanceController {
     @Autowired
     private InstanceOperatorClientImpl instanceService;
     
+    @Autowired
+    private DistroMapper distroMapper;
+    
+    @Autowired
+    private DistroTagGenerator distroTagGenerator;
+    
     /**
      * Register new instance.
      *
@@ -421,6 +438,121 @@ public class InstanceController {
         return result;
     }
     
+    /**
+     * Create beats for a batch of instances.
+     *
+     * <p>Beats of the instances which this server is not responsible for are forwarded to the responsible servers, one
+     * request per server. The result contains the result of every beat in the order of the request.
+     *
+     * @param request http request
+     * @return beat results
+     * @throws Exception any error during handle
+     */
+    @PutMapping("/beat/batch")
+    @Secured(parser = NamingResourceParser.class, action = ActionTypes.WRITE)
+    public ObjectNode batchBeat(HttpServletRequest request) throws Exception {
+        String namespaceId = WebUtils.optional(request, CommonParams.NAMESPACE_ID, Constants.DEFAULT_NAMESPACE_ID);
+        boolean lightBeat = Boolean.parseBoolean(WebUtils.optional(request, "lightBeat", "false"));
+        List<RsInfo> beats = JacksonUtils.toObj(readBeats(request), new TypeReference<List<RsInfo>>() {
+        });
+        String userAgent = WebUtils.getUserAgent(request);
+        // Beats forwarded by other server should not be forwarded again.
+        boolean fromPeer = StringUtils.isNotBlank(userAgent) && userAgent.contains(UtilsAndCommons.NACOS_SERVER_HEADER);
+        
+        JsonNode[] beatResults = new JsonNode[beats.size()];
+        Map<String, List<Integer>> forwardBeats = new HashMap<>(8);
+        for (int i = 0; i < beats.size(); i++) {
+            RsInfo beat = beats.get(i);
+            String tag = distroTagGenerator.getResponsibleTag(beat.getServiceName(), beat.getIp(), beat.getPort());
+            if (fromPeer || distroMapper.responsible(tag)) {
+                beatResults[i] = handleBeat(namespaceId, beat, lightBeat);
+            } else {
+                forwardBeats.computeIfAbsent(distroMapper.mapSrv(tag), server -> new ArrayList<>()).add(i);
+            }
+        }
+        for (Map.Entry<String, List<Integer>> entry : forwardBeats.entrySet()) {
+            forwardBeats(request, entry.getKey(), namespaceId, lightBeat, beats, entry.getValue(), beatResults);
+        }
+        
+        ObjectNode result = JacksonUtils.createEmptyJsonNode();
+        result.put(SwitchEntry.CLIENT_BEAT_INTERVAL, switchDomain.getClientBeatInterval());
+        result.put(SwitchEntry.LIGHT_BEAT_ENABLED, switchDomain.isLightBeatEnabled());
+        ArrayNode beatsNode = result.putArray("beats");
+        for (JsonNode each : beatResults) {
+            beatsNode.add(each);
+        }
+        return result;
+    }
+    
+    /**
+     * Beats are sent as the form param {@code beats} in the body, or as the json body directly.
+     */
+    private String readBeats(HttpServletRequest request) throws Exception {
+        String beats = WebUtils.optional(request, "beats", StringUtils.EMPTY);
+        if (StringUtils.isBlank(beats)) {
+            beats = IoUtils.toString(request.getInputStream(), "UTF-8");
+        }
+        if (StringUtils.isBlank(beats)) {
+            throw new IllegalArgumentException("Param 'beats' is required.");
+        }
+        return beats;
+    }
+    
+    private ObjectNode handleBeat(String namespaceId, RsInfo beat, boolean lightBeat) {
+        ObjectNode result = JacksonUtils.createEmptyJsonNode();
+        String serviceName = beat.getServiceName();
+        String clusterName = StringUtils.isBlank(beat.getCluster()) ? UtilsAndCommons.DEFAULT_CLUSTER_NAME
+                : beat.getCluster();
+        beat.setCluster(clusterName);
+        try {
+            NamingUtils.checkServiceNameFormat(serviceName);
+            int resultCode = instanceService.handleBeat(namespaceId, serviceName, beat.getIp(), beat.getPort(),
+                    clusterName, lightBeat ? null : beat);
+            result.put(CommonParams.CODE, resultCode);
+            result.put(SwitchEntry.CLIENT_BEAT_INTERVAL, instanceService
+                    .getHeartBeatInterval(namespaceId, serviceName, beat.getIp(), beat.getPort(), clusterName));
+        } catch (Exception e) {
+            Loggers.SRV_LOG.warn("[CLIENT-BEAT] handle beat failed, serviceName: {}, ip: {}, port: {}", serviceName,
+                    beat.getIp(), beat.getPort(), e);
+            result.put(CommonParams.CODE, NacosException.SERVER_ERROR);
+            result.put(SwitchEntry.CLIENT_BEAT_INTERVAL, switchDomain.getClientBeatInterval());
+        }
+        return result;
+    }
+    
+    private void forwardBeats(HttpServletRequest request, String targetServer, String namespaceId, boolean lightBeat,
+            List<RsInfo> beats, List<Integer> indexes, JsonNode[] beatResults) {
+        List<RsInfo> forwarded = new ArrayList<>(indexes.size());
+        for (Integer index : indexes) {
+            forwarded.add(beats.get(index));
+        }
+        // The beats are sent in the body, a batch of beats may exceed the length limit of url.
+        Map<String, String> body = new HashMap<>(4);
+        body.put(CommonParams.NAMESPACE_ID, namespaceId);
+        body.put("lightBeat", String.valueOf(lightBeat));
+        body.put("beats", JacksonUtils.toJson(forwarded));
+        RestResult<String> result = HttpClient
+                .httpPutForm("http://" + targetServer + request.getRequestURI(), null, body,
+                        FORWARD_CONNECT_TIMEOUT_MILLIS, FORWARD_READ_TIMEOUT_MILLIS);
+        JsonNode beatsNode = null;
+        if (result.ok()) {
+            beatsNode = JacksonUtils.toObj(result.getData()).get("beats");
+        } else {
+            Loggers.SRV_LOG.warn("[CLIENT-BEAT] forward {} beats to {} failed, code: {}, msg: {}", indexes.size(),
+                    targetServer, result.getCode(), result.getMessage());
+        }
+        for (int i = 0; i < indexes.size(); i++) {
+            if (beatsNode != null && beatsNode.has(i)) {
+                beatResults[indexes.get(i)] = beatsNode.get(i);
+            } else {
+                ObjectNode failed = JacksonUtils.createEmptyJsonNode();
+                failed.put(CommonParams.CODE, NacosException.SERVER_ERROR);
+                failed.put(SwitchEntry.CLIENT_BEAT_INTERVAL, switchDomain.getClientBeatInterval());
+                beatResults[indexes.get(i)] = failed;
+            }
+        }
+    }
+    
     /**
      * List all instance with health status.
      *
@@ -22,6 +22,10 @@ import com.alibaba.nacos.core.cluster.MemberUtil;
 import com.alibaba.nacos.core.cluster.MembersChangeEvent;
 import com.alibaba.nacos.core.cluster.NodeState;
 import com.alibaba.nacos.core.cluster.ServerMemberManager;
+import com.alibaba.nacos.naming.core.distro.DistroMapStrategy;
+import com.alibaba.nacos.naming.core.distro.DistroMapStrategyFactory;
+import com.alibaba.nacos.naming.core.distro.DistroMapping;
+import com.alibaba.nacos.naming.core.distro.ModuloDistroMapStrategy;
 import com.alibaba.nacos.naming.misc.Loggers;
 import com.alibaba.nacos.naming.misc.SwitchDomain;
 import com.alibaba.nacos.sys.env.EnvUtil;
@@ -37,16 +41,34 @@ import java.util.List;
 /**
  * Distro mapper, judge which server response input service.
  *
+ * <p>The tags are mapped by the {@link DistroMapStrategy} named by {@code nacos.naming.distro.mapStrategy}, which
+ * must be the same on all servers of the cluster.
+ *
  * @author nkorange
  */
 @Component("distroMapper")
 public class DistroMapper extends MemberChangeListener {
     
+    private static final String MAP_STRATEGY = "nacos.naming.distro.mapStrategy";
+    
+    private static final String VIRTUAL_NODES = "nacos.naming.distro.virtualNodes";
+    
+    private static final int DEFAULT_VIRTUAL_NODES = 128;
+    
     /**
      * List of service nodes, you must ensure that the order of healthyList is the same for all nodes.
      */
     private volatile List<String> healthyList = new ArrayList<>();
     
+    private DistroMapStrategy mapStrategy = new ModuloDistroMapStrategy();
+    
+    private int virtualNodes = DEFAULT_VIRTUAL_NODES;
+    
+    /**
+     * Mapping of healthyList, both are replaced when the members changed.
+     */
+    private volatile DistroMapping mapping = mapStrategy.build(healthyList, virtualNodes);
+    
     private final SwitchDomain switchDomain;
     
     private final ServerMemberManager memberManager;
@@ -66,7 +88,17 @@ public class DistroMapper extends MemberChangeListener {
     @PostConstruct
     public void init() {
         NotifyCenter.registerSubscriber(this);
-        this.healthyList = MemberUtil.simpleMembers(memberManager.allMembers());
+        this.mapStrategy = DistroMapStrategyFactory
+                .getStrategy(EnvUtil.getProperty(MAP_STRATEGY, ModuloDistroMapStrategy.NAME));
+        this.virtualNodes = EnvUtil.getProperty(VIRTUAL_NODES, Integer.class, DEFAULT_VIRTUAL_NODES);
+        updateHealthyList(MemberUtil.simpleMembers(memberManager.allMembers()));
+        Loggers.SRV_LOG.info("[NACOS-DISTRO] distro map strategy: {}, virtual nodes: {}", mapStrategy.name(),
+                virtualNodes);
+    }
+    
+    private void updateHealthyList(List<String> servers) {
+        this.mapping = mapStrategy.build(servers, virtualNodes);
+        this.healthyList = servers;
     }
     
     public boolean responsible(Cluster cluster, Instance instance) {
@@ -81,7 +113,8 @@ public class DistroMapper extends MemberChangeListener {
      * @return true if input service is response, otherwise false
      */
     public boolean responsible(String responsibleTag) {
-        final List<String> servers = healthyList;
+        final DistroMapping currentMapping = mapping;
+        final List<String> servers = currentMapping.getServers();
         
         if (!switchDomain.isDistroEnabled() || EnvUtil.getStandaloneMode()) {
             return true;
@@ -92,14 +125,12 @@ public class DistroMapper extends MemberChangeListener {
             return false;
         }
         
-        int index = servers.indexOf(EnvUtil.getLocalAddress());
-        int lastIndex = servers.lastIndexOf(EnvUtil.getLocalAddress());
-        if (lastIndex < 0 || index < 0) {
+        String localAddress = EnvUtil.getLocalAddress();
+        if (!servers.contains(localAddress)) {
             return true;
         }
         
-        int target = distroHash(responsibleTag) % servers.size();
-        return target >= index && target <= lastIndex;
+        return localAddress.equals(currentMapping.mapSrv(responsibleTag));
     }
     
     /**
@@ -109,15 +140,14 @@ public class DistroMapper extends MemberChangeListener {
      * @return server which response input service
      */
     public String mapSrv(String responsibleTag) {
-        final List<String> servers = healthyList;
+        final DistroMapping currentMapping = mapping;
         
-        if (CollectionUtils.isEmpty(servers) || !switchDomain.isDistroEnabled()) {
+        if (CollectionUtils.isEmpty(currentMapping.getServers()) || !switchDomain.isDistroEnabled()) {
             return EnvUtil.getLocalAddress();
         }
         
         try {
-            int index = distroHash(responsibleTag) % servers.size();
-            return servers.get(index);
+            return currentMapping.mapSrv(responsibleTag);
         } catch (Throwable e) {
             Loggers.SRV_LOG
                     .warn("[NACOS-DISTRO] distro mapper failed, return localhost: " + EnvUtil.getLocalAddress(), e);
@@ -125,10 +155,6 @@ public class DistroMapper extends MemberChangeListener {
         }
     }
     
-    private int distroHash(String responsibleTag) {
-        return Math.abs(responsibleTag.hashCode() % Integer.MAX_VALUE);
-    }
-    
     @Override
     public void onEvent(MembersChangeEvent event) {
         // Here, the node list must be sorted to ensure that all nacos-server's
@@ -137,7 +163,7 @@ public class DistroMapper extends MemberChangeListener {
                 member -> NodeState.UP.equals(member.getState()) || NodeState.SUSPICIOUS.equals(member.getState())));
         Collections.sort(list);
         Collection<String> old = healthyList;
-        healthyList = Collections.unmodifiableList(list);
+        updateHealthyList(Collections.unmodifiableList(list));
         Loggers.SRV_LOG.info("[NACOS-DISTRO] healthy server list changed, old: {}, new: {}", old, healthyList);
     }
     
@@ -0,0 +1,119 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.core.distro;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps a tag to the first virtual node clockwise on a hash ring.
+ *
+ * <p>Each server owns {@code nacos.naming.distro.virtualNodes} points of the ring, so adding or removing one of n
+ * servers only moves about 1/n of the tags, and the tags of a removed server are spread over all other servers.
+ *
+ * @author Nacos
+ */
+public class ConsistentHashDistroMapStrategy implements DistroMapStrategy {
+    
+    public static final String NAME = "consistentHash";
+    
+    private static final int FNV_OFFSET = 0x811c9dc5;
+    
+    private static final int FNV_PRIME = 0x01000193;
+    
+    @Override
+    public String name() {
+        return NAME;
+    }
+    
+    @Override
+    public DistroMapping build(List<String> servers, int virtualNodes) {
+        return new Ring(servers, Math.max(1, virtualNodes));
+    }
+    
+    /**
+     * FNV-1a of the chars with the murmur3 finalizer, which is stable across servers and JVMs, unlike the string hash
+     * code whose low bits are poorly distributed.
+     *
+     * @param key key
+     * @return hash
+     */
+    static int hash(String key) {
+        int hash = FNV_OFFSET;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+    
+    private static class Ring implements DistroMapping {
+        
+        private final List<String> servers;
+        
+        private final int[] points;
+        
+        private final String[] owners;
+        
+        Ring(List<String> servers, int virtualNodes) {
+            this.servers = servers;
+            long[] nodes = new long[servers.size() * virtualNodes];
+            int count = 0;
+            for (int i = 0; i < servers.size(); i++) {
+                for (int v = 0; v < virtualNodes; v++) {
+                    int point = hash(servers.get(i) + "#" + v);
+                    // sort by point, and by server index for the points of the same value.
+                    nodes[count++] = ((long) point << 32) | i;
+                }
+            }
+            Arrays.sort(nodes);
+            this.points = new int[nodes.length];
+            this.owners = new String[nodes.length];
+            for (int i = 0; i < nodes.length; i++) {
+                points[i] = (int) (nodes[i] >> 32);
+                owners[i] = servers.get((int) nodes[i]);
+            }
+        }
+        
+        @Override
+        public List<String> getServers() {
+            return servers;
+        }
+        
+        @Override
+        public String mapSrv(String responsibleTag) {
+            if (points.length == 0) {
+                return null;
+            }
+            int index = Arrays.binarySearch(points, hash(responsibleTag));
+            if (index < 0) {
+                index = -index - 1;
+            } else {
+                // the first one of the points of the same value.
+                while (index > 0 && points[index - 1] == points[index]) {
+                    index--;
+                }
+            }
+            return owners[index == points.length ? 0 : index];
+        }
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.core.distro;
+
+import java.util.List;
+
+/**
+ * Strategy to map the responsible tags to the servers of distro.
+ *
+ * <p>All servers of a cluster must use the same strategy, otherwise a tag may be owned by none or by several servers.
+ * Other strategies can be added by SPI.
+ *
+ * @author Nacos
+ */
+public interface DistroMapStrategy {
+    
+    /**
+     * Name of the strategy, set by {@code nacos.naming.distro.mapStrategy}.
+     *
+     * @return name
+     */
+    String name();
+    
+    /**
+     * Build the mapping of the servers.
+     *
+     * @param servers      sorted healthy servers, the same on all servers
+     * @param virtualNodes virtual nodes of each server, for the strategies which use them
+     * @return mapping
+     */
+    DistroMapping build(List<String> servers, int virtualNodes);
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.core.distro;
+
+import com.alibaba.nacos.common.spi.NacosServiceLoader;
+import com.alibaba.nacos.naming.misc.Loggers;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Factory of the distro map strategies, the built-in ones and the ones loaded by SPI.
+ *
+ * @author Nacos
+ */
+public class DistroMapStrategyFactory {
+    
+    private static final Map<String, DistroMapStrategy> STRATEGY_MAP = new HashMap<String, DistroMapStrategy>(4);
+    
+    static {
+        register(new ModuloDistroMapStrategy());
+        register(new ConsistentHashDistroMapStrategy());
+        for (DistroMapStrategy each : NacosServiceLoader.load(DistroMapStrategy.class)) {
+            register(each);
+        }
+    }
+    
+    private static void register(DistroMapStrategy strategy) {
+        STRATEGY_MAP.put(strategy.name().toLowerCase(), strategy);
+    }
+    
+    /**
+     * Get the strategy by name, the modulo strategy is used if not found.
+     *
+     * @param name name of strategy
+     * @return strategy
+     */
+    public static DistroMapStrategy getStrategy(String name) {
+        DistroMapStrategy result = null == name ? null : STRATEGY_MAP.get(name.toLowerCase());
+        if (null == result) {
+            Loggers.SRV_LOG.warn("[NACOS-DISTRO] unknown distro map strategy {}, use {}", name,
+                    ModuloDistroMapStrategy.NAME);
+            result = STRATEGY_MAP.get(ModuloDistroMapStrategy.NAME);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.core.distro;
+
+import java.util.List;
+
+/**
+ * Immutable mapping from the responsible tags to the servers.
+ *
+ * @author Nacos
+ */
+public interface DistroMapping {
+    
+    /**
+     * Servers of the mapping.
+     *
+     * @return sorted healthy servers
+     */
+    List<String> getServers();
+    
+    /**
+     * Get the server responsible for the tag.
+     *
+     * @param responsibleTag responsible tag, serviceName for v1 and ip:port for v2
+     * @return server address, null if there is no server
+     */
+    String mapSrv(String responsibleTag);
+}
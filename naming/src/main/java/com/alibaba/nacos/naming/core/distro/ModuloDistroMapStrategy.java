@@ -0,0 +1,55 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.core.distro;
+
+import java.util.List;
+
+/**
+ * Maps a tag by its hash code modulo the server count, which is the original strategy of distro.
+ *
+ * <p>Adding or removing one server moves almost all tags to other servers.
+ *
+ * @author Nacos
+ */
+public class ModuloDistroMapStrategy implements DistroMapStrategy {
+    
+    public static final String NAME = "modulo";
+    
+    @Override
+    public String name() {
+        return NAME;
+    }
+    
+    @Override
+    public DistroMapping build(final List<String> servers, int virtualNodes) {
+        return new DistroMapping() {
+            
+            @Override
+            public List<String> getServers() {
+                return servers;
+            }
+            
+            @Override
+            public String mapSrv(String responsibleTag) {
+                if (servers.isEmpty()) {
+                    return null;
+                }
+                return servers.get(Math.abs(responsibleTag.hashCode() % Integer.MAX_VALUE) % servers.size());
+            }
+        };
+    }
+}
@@ -21,6 +21,7 @@ import com.alibaba.nacos.api.remote.RemoteConstants;
 import com.alibaba.nacos.common.notify.NotifyCenter;
 import com.alibaba.nacos.core.remote.ClientConnectionEventListener;
 import com.alibaba.nacos.core.remote.Connection;
+import com.alibaba.nacos.core.remote.ConnectionCostContributor;
 import com.alibaba.nacos.naming.core.v2.client.Client;
 import com.alibaba.nacos.naming.core.v2.client.impl.ConnectionBasedClient;
 import com.alibaba.nacos.naming.core.v2.client.manager.ClientManager;
@@ -40,7 +41,8 @@ import java.util.concurrent.TimeUnit;
  * @author xiweng.yy
  */
 @Component("connectionBasedClientManager")
-public class ConnectionBasedClientManager extends ClientConnectionEventListener implements ClientManager {
+public class ConnectionBasedClientManager extends ClientConnectionEventListener
+        implements ClientManager, ConnectionCostContributor {
     
     private final ConcurrentMap<String, ConnectionBasedClient> clients = new ConcurrentHashMap<>();
     
@@ -51,7 +53,9 @@ public class ConnectionBasedClientManager extends ClientConnectionEventListener
     
     @Override
     public void clientConnected(Connection connect) {
-        if (!RemoteConstants.LABEL_MODULE_NAMING.equals(connect.getMetaInfo().getLabel(RemoteConstants.LABEL_MODULE))) {
+        String module = connect.getMetaInfo().getLabel(RemoteConstants.LABEL_MODULE);
+        if (!RemoteConstants.LABEL_MODULE_NAMING.equals(module) && !RemoteConstants.LABEL_MODULE_SHARED
+                .equals(module)) {
             return;
         }
         clientConnected(new ConnectionBasedClient(connect.getMetaInfo().getConnectionId(), true));
@@ -118,6 +122,21 @@ public class ConnectionBasedClientManager extends ClientConnectionEventListener
         return false;
     }
     
+    /**
+     * Cost of a connection is the count of the services it subscribes and publishes.
+     *
+     * @param connectionId connection id
+     * @return count of services
+     */
+    @Override
+    public long getCost(String connectionId) {
+        ConnectionBasedClient client = clients.get(connectionId);
+        if (null == client) {
+            return 0;
+        }
+        return client.getAllSubscribeService().size() + client.getAllPublishedService().size();
+    }
+    
     private static class ExpiredClientCleaner implements Runnable {
         
         private final ConnectionBasedClientManager clientManager;
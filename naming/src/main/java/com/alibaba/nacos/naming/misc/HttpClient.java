@@ -119,7 +119,39 @@ public class HttpClient {
             return RestResult.<String>builder().withCode(500).withMsg(e.toString()).build();
         }
     }
-    
+
+    /**
+     * Request http put method with the params in the form body, for the params too large to be put in the url.
+     *
+     * @param url            request url
+     * @param headers        request headers
+     * @param bodyValues     request params, sent as the form body
+     * @param connectTimeout timeout of connection
+     * @param readTimeout    timeout of request
+     * @return {@link RestResult} as response
+     */
+    public static RestResult<String> httpPutForm(String url, List<String> headers, Map<String, String> bodyValues,
+            int connectTimeout, int readTimeout) {
+        Header header = Header.newInstance();
+        if (CollectionUtils.isNotEmpty(headers)) {
+            header.addAll(headers);
+        }
+        header.addParam(HttpHeaderConsts.CLIENT_VERSION_HEADER, VersionUtils.version);
+        header.addParam(HttpHeaderConsts.USER_AGENT_HEADER, UtilsAndCommons.SERVER_VERSION);
+        header.addParam(HttpHeaderConsts.REQUEST_SOURCE_HEADER, EnvUtil.getLocalAddress());
+        header.addParam(HttpHeaderConsts.ACCEPT_CHARSET, "UTF-8");
+        AuthHeaderUtil.addIdentityToHeader(header);
+
+        HttpClientConfig httpClientConfig = HttpClientConfig.builder().setConTimeOutMillis(connectTimeout)
+                .setReadTimeOutMillis(readTimeout).build();
+        try {
+            return APACHE_SYNC_NACOS_REST_TEMPLATE.putForm(url, httpClientConfig, header, bodyValues, String.class);
+        } catch (Exception e) {
+            Loggers.SRV_LOG.warn("Exception while request: {}, caused: {}", url, e);
+            return RestResult.<String>builder().withCode(500).withMsg(e.toString()).build();
+        }
+    }
+
     /**
      * Request http get method by async.
      *
@@ -0,0 +1,84 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.remote.rpc.handler;
+
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
+import com.alibaba.nacos.api.naming.remote.request.ServiceChecksumRequest;
+import com.alibaba.nacos.api.naming.remote.response.ServiceChecksumResponse;
+import com.alibaba.nacos.api.naming.utils.NamingUtils;
+import com.alibaba.nacos.api.remote.request.RequestMeta;
+import com.alibaba.nacos.auth.annotation.Secured;
+import com.alibaba.nacos.auth.common.ActionTypes;
+import com.alibaba.nacos.core.remote.RequestHandler;
+import com.alibaba.nacos.naming.core.v2.index.ServiceStorage;
+import com.alibaba.nacos.naming.core.v2.pojo.Service;
+import com.alibaba.nacos.naming.misc.Loggers;
+import com.alibaba.nacos.naming.utils.ServiceUtil;
+import com.alibaba.nacos.naming.web.NamingResourceParser;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Nacos service checksum request handler, finds out the services which are changed since the client cached them.
+ *
+ * <p>The instances are selected the same way as {@link ServiceQueryRequestHandler}, so that the client can refresh the
+ * changed services by query.
+ *
+ * @author Nacos
+ */
+@Component
+public class ServiceChecksumRequestHandler extends RequestHandler<ServiceChecksumRequest, ServiceChecksumResponse> {
+    
+    private final ServiceStorage serviceStorage;
+    
+    public ServiceChecksumRequestHandler(ServiceStorage serviceStorage) {
+        this.serviceStorage = serviceStorage;
+    }
+    
+    @Override
+    @Secured(action = ActionTypes.READ, parser = NamingResourceParser.class)
+    public ServiceChecksumResponse handle(ServiceChecksumRequest request, RequestMeta meta) throws NacosException {
+        List<String> changedServiceKeys = new LinkedList<>();
+        if (null == request.getChecksums()) {
+            return ServiceChecksumResponse.buildSuccessResponse(changedServiceKeys);
+        }
+        for (Map.Entry<String, String> entry : request.getChecksums().entrySet()) {
+            ServiceInfo serviceKey;
+            try {
+                serviceKey = new ServiceInfo(entry.getKey());
+            } catch (IllegalArgumentException e) {
+                Loggers.SRV_LOG.warn("[CHECKSUM] illegal service key {} from {}", entry.getKey(),
+                        meta.getClientIp());
+                continue;
+            }
+            Service service = Service.newService(request.getNamespace(), serviceKey.getGroupName(),
+                    serviceKey.getName());
+            String cluster = StringUtils.defaultString(serviceKey.getClusters());
+            ServiceInfo serviceInfo = ServiceUtil
+                    .selectInstances(serviceStorage.getData(service), cluster, false, true);
+            if (!NamingUtils.getInstancesChecksum(serviceInfo.getHosts()).equals(entry.getValue())) {
+                changedServiceKeys.add(entry.getKey());
+            }
+        }
+        return ServiceChecksumResponse.buildSuccessResponse(changedServiceKeys);
+    }
+}
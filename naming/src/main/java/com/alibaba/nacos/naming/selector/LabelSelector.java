@@ -30,8 +30,12 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo.Id;
 import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -52,6 +56,9 @@ import java.util.Set;
  * <p>If no provider has the same label value with the consumer, we fall back to give all providers to the consumer.
  * Note that this fallback strategy may also be abstracted in future to introduce more kinds of behaviors.
  *
+ * <p>The providers are grouped by label values once, and the groups are reused until the providers or the CMDB
+ * revision changed.
+ *
  * @author nkorange
  * @see CmdbReader
  * @since 0.7.0
@@ -68,6 +75,11 @@ public class LabelSelector extends ExpressionSelector implements Selector {
      */
     private Set<String> labels;
     
+    /**
+     * providers grouped by label values of the last select.
+     */
+    private transient volatile ProviderGroups<?> providerGroups;
+    
     private static final Set<String> SUPPORTED_INNER_CONNCETORS = new HashSet<>();
     
     private static final Set<String> SUPPORTED_OUTER_CONNCETORS = new HashSet<>();
@@ -111,32 +123,112 @@ public class LabelSelector extends ExpressionSelector implements Selector {
         if (labels.isEmpty()) {
             return providers;
         }
-    
-        List<T> instanceList = new ArrayList<>();
-        for (T instance : providers) {
         
-            boolean matched = true;
-            for (String labelName : getLabels()) {
+        CmdbReader cmdbReader = getCmdbReader();
+        ProviderGroups<T> groups = getProviderGroups(cmdbReader, providers);
+        
+        List<T> instanceList = null;
+        for (String labelName : getLabels()) {
             
-                String consumerLabelValue = getCmdbReader()
-                        .queryLabel(consumer, PreservedEntityTypes.ip.name(), labelName);
+            String consumerLabelValue = cmdbReader.queryLabel(consumer, PreservedEntityTypes.ip.name(), labelName);
             
-                if (StringUtils.isNotBlank(consumerLabelValue) && !StringUtils.equals(consumerLabelValue,
-                        getCmdbReader().queryLabel(instance.getIp(), PreservedEntityTypes.ip.name(), labelName))) {
-                    matched = false;
-                    break;
-                }
+            if (StringUtils.isBlank(consumerLabelValue)) {
+                continue;
             }
-            if (matched) {
-                instanceList.add(instance);
+            
+            List<T> group = groups.get(labelName, consumerLabelValue);
+            instanceList = instanceList == null ? group : intersect(instanceList, group);
+            if (instanceList.isEmpty()) {
+                break;
             }
         }
-    
-        if (instanceList.isEmpty()) {
+        
+        // no label of consumer, or no provider has the same label values:
+        if (instanceList == null || instanceList.isEmpty()) {
             return providers;
         }
+        
+        return new ArrayList<>(instanceList);
+    }
     
-        return instanceList;
+    @SuppressWarnings("unchecked")
+    private <T extends Instance> ProviderGroups<T> getProviderGroups(CmdbReader cmdbReader, List<T> providers) {
+        long revision = cmdbReader.getRevision();
+        ProviderGroups<?> current = providerGroups;
+        if (current != null && current.isFor(providers, revision)) {
+            return (ProviderGroups<T>) current;
+        }
+        ProviderGroups<T> result = new ProviderGroups<>(providers, revision);
+        for (T instance : providers) {
+            for (String labelName : getLabels()) {
+                String labelValue = cmdbReader.queryLabel(instance.getIp(), PreservedEntityTypes.ip.name(), labelName);
+                if (labelValue != null) {
+                    result.add(labelName, labelValue, instance);
+                }
+            }
+        }
+        providerGroups = result;
+        return result;
+    }
+    
+    private static <T> List<T> intersect(List<T> instances, List<T> group) {
+        Set<T> groupSet = Collections.newSetFromMap(new IdentityHashMap<>(group.size() * 4 / 3 + 1));
+        groupSet.addAll(group);
+        List<T> result = new ArrayList<>();
+        for (T each : instances) {
+            if (groupSet.contains(each)) {
+                result.add(each);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Providers grouped by label name and label value, in the order of the providers.
+     */
+    private static class ProviderGroups<T> {
+        
+        private final List<T> providers;
+        
+        private final long revision;
+        
+        private final Map<String, Map<String, List<T>>> groups = new HashMap<>(4);
+        
+        ProviderGroups(List<T> providers, long revision) {
+            this.providers = new ArrayList<>(providers);
+            this.revision = revision;
+        }
+        
+        void add(String labelName, String labelValue, T instance) {
+            groups.computeIfAbsent(labelName, key -> new HashMap<>(16))
+                    .computeIfAbsent(labelValue, key -> new ArrayList<>()).add(instance);
+        }
+        
+        List<T> get(String labelName, String labelValue) {
+            Map<String, List<T>> values = groups.get(labelName);
+            List<T> result = values == null ? null : values.get(labelValue);
+            return result == null ? Collections.emptyList() : result;
+        }
+        
+        /**
+         * Whether the groups are built for the same provider instances and the same CMDB revision. The label values
+         * only depend on the ip of an instance, so instances are compared by reference.
+         *
+         * @param instances providers to select
+         * @param revision  current CMDB revision
+         * @return true if the groups can be reused
+         */
+        boolean isFor(List<?> instances, long revision) {
+            if (this.revision != revision || providers.size() != instances.size()) {
+                return false;
+            }
+            for (int i = 0; i < providers.size(); i++) {
+                if (providers.get(i) != instances.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
     
     /**
@@ -40,4 +40,12 @@ public class DistroIpPortTagGenerator implements DistroTagGenerator {
         port = StringUtils.isBlank(port) ? "0" : port.trim();
         return ip + ":" + port;
     }
+    
+    @Override
+    public String getResponsibleTag(String serviceName, String ip, int port) {
+        if (StringUtils.isNotBlank(ip)) {
+            ip = ip.trim();
+        }
+        return ip + ":" + port;
+    }
 }
@@ -36,6 +36,18 @@ public class DistroServiceNameTagGenerator implements DistroTagGenerator {
             serviceName = serviceName.trim();
         }
         String groupName = request.getParameter(CommonParams.GROUP_NAME);
+        return getGroupedServiceName(serviceName, groupName);
+    }
+    
+    @Override
+    public String getResponsibleTag(String serviceName, String ip, int port) {
+        if (StringUtils.isNotBlank(serviceName)) {
+            serviceName = serviceName.trim();
+        }
+        return getGroupedServiceName(serviceName, null);
+    }
+    
+    private String getGroupedServiceName(String serviceName, String groupName) {
         if (StringUtils.isBlank(groupName)) {
             groupName = Constants.DEFAULT_GROUP;
         }
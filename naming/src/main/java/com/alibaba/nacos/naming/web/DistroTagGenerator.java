@@ -32,4 +32,14 @@ public interface DistroTagGenerator {
      * @return responsible tag for distro.
      */
     String getResponsibleTag(ReuseHttpServletRequest request);
+    
+    /**
+     * Get responsible tag of one instance, used by the requests which contain several instances.
+     *
+     * @param serviceName service name with group
+     * @param ip          ip of instance
+     * @param port        port of instance
+     * @return responsible tag for distro.
+     */
+    String getResponsibleTag(String serviceName, String ip, int port);
 }
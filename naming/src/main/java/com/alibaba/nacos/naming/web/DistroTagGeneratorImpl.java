@@ -45,6 +45,11 @@ public class DistroTagGeneratorImpl implements DistroTagGenerator {
         return getTagGenerator().getResponsibleTag(request);
     }
     
+    @Override
+    public String getResponsibleTag(String serviceName, String ip, int port) {
+        return getTagGenerator().getResponsibleTag(serviceName, ip, port);
+    }
+    
     /**
      * Get tag generator according to cluster member ability.
      *
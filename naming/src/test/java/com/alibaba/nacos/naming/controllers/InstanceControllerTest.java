@@ -22,9 +22,11 @@ import com.alibaba.nacos.naming.BaseTest;
 import com.alibaba.nacos.naming.consistency.persistent.raft.RaftPeerSet;
 import com.alibaba.nacos.naming.core.Cluster;
 import com.alibaba.nacos.naming.core.Instance;
+import com.alibaba.nacos.naming.core.InstanceOperatorClientImpl;
 import com.alibaba.nacos.naming.core.Service;
 import com.alibaba.nacos.naming.misc.UtilsAndCommons;
 import com.alibaba.nacos.naming.pojo.InstanceOperationInfo;
+import com.alibaba.nacos.naming.web.DistroTagGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.junit.Assert;
 import org.junit.Before;
@@ -34,6 +36,7 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.springframework.http.MediaType;
 import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.mock.web.MockServletContext;
 import org.springframework.test.context.ContextConfiguration;
@@ -56,12 +59,22 @@ import java.util.function.Function;
 @WebAppConfiguration
 public class InstanceControllerTest extends BaseTest {
     
+    private static final String BATCH_BEATS =
+            "[{\"serviceName\":\"" + TEST_SERVICE_NAME + "\",\"ip\":\"1.1.1.1\",\"port\":8080},"
+                    + "{\"serviceName\":\"" + TEST_SERVICE_NAME + "\",\"ip\":\"2.2.2.2\",\"port\":8080}]";
+    
     @InjectMocks
     private InstanceController instanceController;
     
     @Mock
     private RaftPeerSet peerSet;
     
+    @Mock
+    private InstanceOperatorClientImpl instanceService;
+    
+    @Mock
+    private DistroTagGenerator distroTagGenerator;
+    
     private MockMvc mockmvc;
     
     @Before
@@ -252,4 +265,48 @@ public class InstanceControllerTest extends BaseTest {
         Assert.assertTrue(updated.get(1).asText().contains(TEST_CLUSTER_NAME));
         Assert.assertTrue(updated.get(1).asText().contains("ephemeral"));
     }
+    
+    @Test
+    public void batchBeatFromForm() throws Exception {
+        mockBatchBeat();
+        MockHttpServletRequestBuilder builder = MockMvcRequestBuilders
+                .put(UtilsAndCommons.NACOS_NAMING_CONTEXT + "/instance/beat/batch").param("lightBeat", "true")
+                .param("beats", BATCH_BEATS);
+        
+        assertBatchBeatResult(mockmvc.perform(builder).andReturn().getResponse().getContentAsString());
+    }
+    
+    @Test
+    public void batchBeatFromBody() throws Exception {
+        mockBatchBeat();
+        MockHttpServletRequestBuilder builder = MockMvcRequestBuilders
+                .put(UtilsAndCommons.NACOS_NAMING_CONTEXT + "/instance/beat/batch").param("lightBeat", "true")
+                .contentType(MediaType.APPLICATION_JSON).content(BATCH_BEATS);
+        
+        assertBatchBeatResult(mockmvc.perform(builder).andReturn().getResponse().getContentAsString());
+    }
+    
+    private void mockBatchBeat() throws Exception {
+        Mockito.when(distroTagGenerator.getResponsibleTag(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(),
+                ArgumentMatchers.anyInt())).thenReturn(TEST_SERVICE_NAME);
+        Mockito.when(distroMapper.responsible(TEST_SERVICE_NAME)).thenReturn(true);
+        Mockito.when(instanceService
+                .handleBeat(ArgumentMatchers.eq(Constants.DEFAULT_NAMESPACE_ID), ArgumentMatchers.eq(TEST_SERVICE_NAME),
+                        ArgumentMatchers.anyString(), ArgumentMatchers.eq(8080),
+                        ArgumentMatchers.eq(UtilsAndCommons.DEFAULT_CLUSTER_NAME), ArgumentMatchers.isNull()))
+                .thenReturn(200);
+    }
+    
+    private void assertBatchBeatResult(String actualValue) throws Exception {
+        JsonNode beats = JacksonUtils.toObj(actualValue).get("beats");
+        Assert.assertEquals(2, beats.size());
+        Assert.assertEquals(200, beats.get(0).get("code").asInt());
+        Assert.assertEquals(200, beats.get(1).get("code").asInt());
+        Mockito.verify(instanceService)
+                .handleBeat(Constants.DEFAULT_NAMESPACE_ID, TEST_SERVICE_NAME, "1.1.1.1", 8080,
+                        UtilsAndCommons.DEFAULT_CLUSTER_NAME, null);
+        Mockito.verify(instanceService)
+                .handleBeat(Constants.DEFAULT_NAMESPACE_ID, TEST_SERVICE_NAME, "2.2.2.2", 8080,
+                        UtilsAndCommons.DEFAULT_CLUSTER_NAME, null);
+    }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 1999-2020 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.core.distro;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ConsistentHashDistroMapStrategyTest {
+    
+    private static final int KEYS = 100000;
+    
+    private static final int VIRTUAL_NODES = 128;
+    
+    @Test
+    public void testMapSrv() {
+        DistroMapping mapping = new ConsistentHashDistroMapStrategy().build(servers(3), VIRTUAL_NODES);
+        String server = mapping.mapSrv("11.11.11.11:8080");
+        Assert.assertTrue(servers(3).contains(server));
+        Assert.assertEquals(server,
+                new ConsistentHashDistroMapStrategy().build(servers(3), VIRTUAL_NODES).mapSrv("11.11.11.11:8080"));
+        Assert.assertNull(new ConsistentHashDistroMapStrategy().build(new ArrayList<>(), VIRTUAL_NODES).mapSrv("a"));
+    }
+    
+    @Test
+    public void testBalance() {
+        DistroMapping mapping = new ConsistentHashDistroMapStrategy().build(servers(10), VIRTUAL_NODES);
+        Map<String, Integer> counts = new HashMap<>();
+        for (int i = 0; i < KEYS; i++) {
+            counts.merge(mapping.mapSrv(key(i)), 1, Integer::sum);
+        }
+        Assert.assertEquals(10, counts.size());
+        for (int each : counts.values()) {
+            Assert.assertTrue(each > KEYS / 10 * 0.7 && each < KEYS / 10 * 1.3);
+        }
+    }
+    
+    /**
+     * Simulate scaling out from 10 servers to 11 servers and count the tags moved.
+     */
+    @Test
+    public void testScaleOut() {
+        ConsistentHashDistroMapStrategy strategy = new ConsistentHashDistroMapStrategy();
+        DistroMapping oldMapping = strategy.build(servers(10), VIRTUAL_NODES);
+        DistroMapping newMapping = strategy.build(servers(11), VIRTUAL_NODES);
+        String added = servers(11).get(10);
+        for (int i = 0; i < KEYS; i++) {
+            String newServer = newMapping.mapSrv(key(i));
+            // tags only move to the new server.
+            if (!oldMapping.mapSrv(key(i)).equals(newServer)) {
+                Assert.assertEquals(added, newServer);
+            }
+        }
+        // about 1/11 of the tags should move to the new server, within the balance error of the virtual nodes.
+        double expected = 1D / 11;
+        double consistentHashMoved = movedFraction(strategy);
+        Assert.assertTrue(consistentHashMoved > expected * 0.7D && consistentHashMoved < expected * 1.3D);
+        Assert.assertTrue(movedFraction(new ModuloDistroMapStrategy()) > 0.8D);
+    }
+    
+    @Test
+    public void testScaleIn() {
+        ConsistentHashDistroMapStrategy strategy = new ConsistentHashDistroMapStrategy();
+        List<String> before = servers(10);
+        List<String> after = new ArrayList<>(before);
+        String removed = after.remove(3);
+        DistroMapping oldMapping = strategy.build(before, VIRTUAL_NODES);
+        DistroMapping newMapping = strategy.build(after, VIRTUAL_NODES);
+        for (int i = 0; i < KEYS; i++) {
+            String oldServer = oldMapping.mapSrv(key(i));
+            if (!removed.equals(oldServer)) {
+                Assert.assertEquals(oldServer, newMapping.mapSrv(key(i)));
+            }
+        }
+    }
+    
+    private static double movedFraction(DistroMapStrategy strategy) {
+        DistroMapping oldMapping = strategy.build(servers(10), VIRTUAL_NODES);
+        DistroMapping newMapping = strategy.build(servers(11), VIRTUAL_NODES);
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            if (!oldMapping.mapSrv(key(i)).equals(newMapping.mapSrv(key(i)))) {
+                moved++;
+            }
+        }
+        return (double) moved / KEYS;
+    }
+    
+    private static List<String> servers(int count) {
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            result.add("192.168.0." + (i + 1) + ":8848");
+        }
+        return result;
+    }
+    
+    private static String key(int index) {
+        return "10." + (index >> 16 & 0xff) + "." + (index >> 8 & 0xff) + "." + (index & 0xff) + ":8080";
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 1999-2018 Alibaba Group Holding Ltd.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.alibaba.nacos.naming.remote.rpc.handler;
+
+import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacos.api.naming.pojo.ServiceInfo;
+import com.alibaba.nacos.api.naming.remote.request.ServiceChecksumRequest;
+import com.alibaba.nacos.api.naming.remote.response.ServiceChecksumResponse;
+import com.alibaba.nacos.api.naming.utils.NamingUtils;
+import com.alibaba.nacos.api.remote.request.RequestMeta;
+import com.alibaba.nacos.naming.core.v2.index.ServiceStorage;
+import com.alibaba.nacos.naming.core.v2.pojo.Service;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.Silent.class)
+public class ServiceChecksumRequestHandlerTest {
+    
+    private static final String NAMESPACE = "public";
+    
+    private static final String SERVICE_KEY = "group@@service";
+    
+    @Mock
+    private ServiceStorage serviceStorage;
+    
+    private ServiceChecksumRequestHandler handler;
+    
+    private Instance enabled;
+    
+    private Instance disabled;
+    
+    @Before
+    public void setUp() {
+        handler = new ServiceChecksumRequestHandler(serviceStorage);
+        enabled = buildInstance("1.1.1.1", true);
+        disabled = buildInstance("2.2.2.2", false);
+        ServiceInfo serviceInfo = new ServiceInfo(SERVICE_KEY);
+        serviceInfo.setHosts(Arrays.asList(enabled, disabled));
+        Mockito.when(serviceStorage.getData(Service.newService(NAMESPACE, "group", "service")))
+                .thenReturn(serviceInfo);
+    }
+    
+    @Test
+    public void testUnchanged() throws NacosException {
+        // Subscription and push return disabled instances too, the client may cache them.
+        String checksum = NamingUtils.getInstancesChecksum(Arrays.asList(enabled, disabled));
+        assertTrue(handle(Collections.singletonMap(SERVICE_KEY, checksum)).isEmpty());
+        checksum = NamingUtils.getInstancesChecksum(Collections.singletonList(enabled));
+        assertTrue(handle(Collections.singletonMap(SERVICE_KEY, checksum)).isEmpty());
+    }
+    
+    @Test
+    public void testChanged() throws NacosException {
+        Map<String, String> checksums = new HashMap<String, String>(4);
+        checksums.put(SERVICE_KEY, NamingUtils.getInstancesChecksum(Collections.<Instance>emptyList()));
+        checksums.put("illegal", "checksum");
+        assertEquals(Collections.singletonList(SERVICE_KEY), handle(checksums));
+    }
+    
+    @Test
+    public void testNullChecksums() throws NacosException {
+        assertTrue(handle(null).isEmpty());
+    }
+    
+    private List<String> handle(Map<String, String> checksums) throws NacosException {
+        RequestMeta meta = new RequestMeta();
+        meta.setClientIp("127.0.0.1");
+        ServiceChecksumResponse response = handler.handle(new ServiceChecksumRequest(NAMESPACE, checksums), meta);
+        return response.getChangedServiceKeys();
+    }
+    
+    private Instance buildInstance(String ip, boolean enabled) {
+        Instance instance = new Instance();
+        instance.setIp(ip);
+        instance.setPort(8080);
+        instance.setClusterName("DEFAULT");
+        instance.setEnabled(enabled);
+        return instance;
+    }
+}
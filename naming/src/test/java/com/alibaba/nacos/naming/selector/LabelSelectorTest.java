@@ -16,11 +16,20 @@
 
 package com.alibaba.nacos.naming.selector;
 
+import com.alibaba.nacos.api.cmdb.pojo.PreservedEntityTypes;
 import com.alibaba.nacos.api.exception.NacosException;
+import com.alibaba.nacos.api.naming.pojo.Instance;
+import com.alibaba.nacos.cmdb.service.CmdbReader;
+import com.alibaba.nacos.sys.utils.ApplicationUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ConfigurableApplicationContext;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
@@ -40,4 +49,48 @@ public class LabelSelectorTest {
         Assert.assertEquals("B", labs[1]);
     }
     
+    @Test
+    public void testSelect() {
+        CmdbReader cmdbReader = Mockito.mock(CmdbReader.class);
+        ConfigurableApplicationContext context = Mockito.mock(ConfigurableApplicationContext.class);
+        Mockito.when(context.getBean(CmdbReader.class)).thenReturn(cmdbReader);
+        ApplicationUtils.injectContext(context);
+        mockLabels(cmdbReader, "10.0.0.1", "site-a", "rack-1");
+        mockLabels(cmdbReader, "10.0.0.2", "site-a", "rack-2");
+        mockLabels(cmdbReader, "10.0.0.3", "site-b", "rack-1");
+        mockLabels(cmdbReader, "10.0.1.1", "site-a", null);
+        mockLabels(cmdbReader, "10.0.1.2", "site-a", "rack-2");
+        mockLabels(cmdbReader, "10.0.1.3", "site-c", "rack-9");
+        
+        LabelSelector selector = new LabelSelector();
+        selector.setLabels(new HashSet<>(Arrays.asList("site", "rack")));
+        List<Instance> providers = Arrays.asList(instance("10.0.0.1"), instance("10.0.0.2"), instance("10.0.0.3"));
+        
+        Assert.assertEquals(Arrays.asList(providers.get(0), providers.get(1)), selector.select("10.0.1.1", providers));
+        Assert.assertEquals(Arrays.asList(providers.get(1)), selector.select("10.0.1.2", providers));
+        // no provider has the same labels:
+        Assert.assertEquals(providers, selector.select("10.0.1.3", providers));
+        
+        // the groups are reused for the same providers:
+        Mockito.verify(cmdbReader, Mockito.times(6))
+                .queryLabel(Mockito.startsWith("10.0.0."), Mockito.anyString(), Mockito.anyString());
+        
+        List<Instance> newProviders = new ArrayList<>(providers);
+        newProviders.add(instance("10.0.0.4"));
+        Assert.assertEquals(Arrays.asList(providers.get(1)), selector.select("10.0.1.2", newProviders));
+        Mockito.verify(cmdbReader, Mockito.times(14))
+                .queryLabel(Mockito.startsWith("10.0.0."), Mockito.anyString(), Mockito.anyString());
+    }
+    
+    private static void mockLabels(CmdbReader cmdbReader, String ip, String site, String rack) {
+        Mockito.when(cmdbReader.queryLabel(ip, PreservedEntityTypes.ip.name(), "site")).thenReturn(site);
+        Mockito.when(cmdbReader.queryLabel(ip, PreservedEntityTypes.ip.name(), "rack")).thenReturn(rack);
+    }
+    
+    private static Instance instance(String ip) {
+        Instance instance = new Instance();
+        instance.setIp(ip);
+        instance.setPort(8080);
+        return instance;
+    }
 }